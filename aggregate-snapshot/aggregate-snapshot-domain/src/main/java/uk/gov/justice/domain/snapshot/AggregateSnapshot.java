@@ -27,6 +27,11 @@ public class AggregateSnapshot<T extends Aggregate> implements Serializable {
         this(streamId, versionId, (Class<T>) aggregate.getClass(), serialize(aggregate));
     }
 
+    @SuppressWarnings("unchecked")
+    public AggregateSnapshot(final UUID streamId, final Long versionId, final T aggregate, final SnapshotSerializer snapshotSerializer) {
+        this(streamId, versionId, (Class<T>) aggregate.getClass(), snapshotSerializer.serialize(aggregate));
+    }
+
     public AggregateSnapshot(final UUID streamId, final Long versionId, final Class<T> type, final byte[] aggregateByteRepresentation) {
         this(streamId, versionId, type.getName(), aggregateByteRepresentation);
     }
@@ -62,6 +67,15 @@ public class AggregateSnapshot<T extends Aggregate> implements Serializable {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    public T getAggregate(final SnapshotSerializer snapshotSerializer) throws AggregateChangeDetectedException {
+        try {
+            return snapshotSerializer.deserialize(aggregateByteRepresentation, (Class<T>) Class.forName(getType()));
+        } catch (final ClassNotFoundException e) {
+            throw new AggregateChangeDetectedException(e.getLocalizedMessage());
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
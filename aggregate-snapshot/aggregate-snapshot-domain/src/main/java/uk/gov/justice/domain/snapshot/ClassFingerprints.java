@@ -0,0 +1,56 @@
+package uk.gov.justice.domain.snapshot;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamField;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Fingerprints of the serialized shape of classes: the class name, serialVersionUID and the name
+ * and type of each serializable field. Fingerprints are computed once per class.
+ */
+final class ClassFingerprints {
+
+    private static final ClassValue<Long> FINGERPRINTS = new ClassValue<Long>() {
+        @Override
+        protected Long computeValue(final Class<?> type) {
+            return fingerprintOfClass(type);
+        }
+    };
+
+    private ClassFingerprints() {
+    }
+
+    static long fingerprintOf(final List<Class<?>> classes) {
+        long fingerprint = 1;
+        for (final Class<?> type : classes) {
+            fingerprint = 31 * fingerprint + FINGERPRINTS.get(type);
+        }
+        return fingerprint;
+    }
+
+    private static long fingerprintOfClass(final Class<?> type) {
+        final ObjectStreamClass descriptor = ObjectStreamClass.lookupAny(type);
+        final StringBuilder shape = new StringBuilder(type.getName())
+                .append(':')
+                .append(descriptor.getSerialVersionUID());
+
+        for (final ObjectStreamField field : descriptor.getFields()) {
+            shape.append(';')
+                    .append(field.getName())
+                    .append(' ')
+                    .append(field.getType().getName());
+        }
+
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(shape.toString().getBytes(UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
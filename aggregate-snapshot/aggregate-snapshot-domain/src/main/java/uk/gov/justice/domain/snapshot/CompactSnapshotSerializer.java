@@ -0,0 +1,172 @@
+package uk.gov.justice.domain.snapshot;
+
+import static java.lang.String.format;
+import static uk.gov.justice.domain.snapshot.SnapshotCompression.DEFLATE;
+
+import uk.gov.justice.domain.aggregate.Aggregate;
+import uk.gov.justice.services.core.aggregate.exception.AggregateChangeDetectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.SerializationException;
+
+/**
+ * Serializes aggregates with Java serialization, but writes each class descriptor once as a
+ * table of class names in the snapshot header instead of in full in the object stream, and
+ * compresses the object stream.
+ *
+ * The header also records a fingerprint of the serialized shape of every class in the table. On
+ * deserialization the fingerprint is recomputed against the classes currently loaded, and a
+ * snapshot written by different aggregate classes is rejected with an
+ * {@link AggregateChangeDetectedException} before its payload is decompressed or read, so the
+ * aggregate is rebuilt from its events.
+ *
+ * Layout: magic, format version, compression id, fingerprint, class table, payload.
+ */
+public class CompactSnapshotSerializer implements SnapshotSerializer {
+
+    private static final int MAGIC = 0x534E4150;
+    private static final byte FORMAT_VERSION = 1;
+
+    private final SnapshotCompression compression;
+
+    public CompactSnapshotSerializer() {
+        this(DEFLATE);
+    }
+
+    public CompactSnapshotSerializer(final SnapshotCompression compression) {
+        this.compression = compression;
+    }
+
+    @Override
+    public byte[] serialize(final Aggregate aggregate) {
+        try {
+            final ByteArrayOutputStream payload = new ByteArrayOutputStream(512);
+            final CompactObjectOutputStream objectOutputStream = new CompactObjectOutputStream(payload);
+            objectOutputStream.writeObject(aggregate);
+            objectOutputStream.flush();
+
+            final List<Class<?>> classes = objectOutputStream.classes;
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.size() + 64 * classes.size());
+            final DataOutputStream header = new DataOutputStream(bytes);
+            header.writeInt(MAGIC);
+            header.writeByte(FORMAT_VERSION);
+            header.writeByte(compression.getId());
+            header.writeLong(ClassFingerprints.fingerprintOf(classes));
+            header.writeInt(classes.size());
+            for (final Class<?> type : classes) {
+                header.writeUTF(type.getName());
+            }
+            header.flush();
+
+            compression.compress(payload.toByteArray(), bytes);
+
+            return bytes.toByteArray();
+        } catch (final IOException e) {
+            throw new SerializationException(e);
+        }
+    }
+
+    @Override
+    public boolean canDeserialize(final byte[] aggregateByteRepresentation) {
+        return aggregateByteRepresentation.length >= 4
+                && ByteBuffer.wrap(aggregateByteRepresentation).getInt() == MAGIC;
+    }
+
+    @Override
+    public <T extends Aggregate> T deserialize(final byte[] aggregateByteRepresentation, final Class<T> type) throws AggregateChangeDetectedException {
+        if (!canDeserialize(aggregateByteRepresentation)) {
+            throw new AggregateChangeDetectedException(format("Snapshot of %s is not in the compact snapshot format", type.getName()));
+        }
+
+        try {
+            final DataInputStream header = new DataInputStream(new ByteArrayInputStream(aggregateByteRepresentation));
+            header.readInt();
+
+            final byte formatVersion = header.readByte();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new AggregateChangeDetectedException(format("Unsupported compact snapshot format version %d", formatVersion));
+            }
+
+            final SnapshotCompression snapshotCompression = SnapshotCompression.valueOf(header.readByte());
+            final long fingerprint = header.readLong();
+            final int classCount = header.readInt();
+            final List<Class<?>> classes = new ArrayList<>(classCount);
+            for (int i = 0; i < classCount; i++) {
+                classes.add(Class.forName(header.readUTF(), false, type.getClassLoader()));
+            }
+
+            if (ClassFingerprints.fingerprintOf(classes) != fingerprint) {
+                throw new AggregateChangeDetectedException(format("Classes of %s have changed since the snapshot was created", type.getName()));
+            }
+
+            try (final ObjectInputStream objectInputStream = new CompactObjectInputStream(snapshotCompression.decompressing(header), classes)) {
+                return type.cast(objectInputStream.readObject());
+            }
+        } catch (final IOException | ClassNotFoundException | ClassCastException | IllegalArgumentException e) {
+            throw new AggregateChangeDetectedException(e.getLocalizedMessage());
+        }
+    }
+
+    private static class CompactObjectOutputStream extends ObjectOutputStream {
+
+        private final List<Class<?>> classes = new ArrayList<>();
+
+        CompactObjectOutputStream(final OutputStream outputStream) throws IOException {
+            super(outputStream);
+        }
+
+        @Override
+        protected void writeStreamHeader() {
+            // the snapshot header identifies the stream
+        }
+
+        @Override
+        protected void writeClassDescriptor(final ObjectStreamClass descriptor) throws IOException {
+            writeInt(classes.size());
+            classes.add(descriptor.forClass());
+        }
+    }
+
+    private static class CompactObjectInputStream extends ObjectInputStream {
+
+        private final List<Class<?>> classes;
+
+        CompactObjectInputStream(final InputStream inputStream, final List<Class<?>> classes) throws IOException {
+            super(inputStream);
+            this.classes = classes;
+        }
+
+        @Override
+        protected void readStreamHeader() {
+            // the snapshot header identifies the stream
+        }
+
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException {
+            final int index = readInt();
+            if (index < 0 || index >= classes.size()) {
+                throw new StreamCorruptedException("Unknown class index " + index);
+            }
+            return ObjectStreamClass.lookupAny(classes.get(index));
+        }
+
+        @Override
+        protected Class<?> resolveClass(final ObjectStreamClass descriptor) {
+            return descriptor.forClass();
+        }
+    }
+}
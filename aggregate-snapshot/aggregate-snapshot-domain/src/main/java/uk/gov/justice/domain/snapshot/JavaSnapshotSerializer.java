@@ -0,0 +1,50 @@
+package uk.gov.justice.domain.snapshot;
+
+import static java.io.ObjectStreamConstants.STREAM_MAGIC;
+
+import uk.gov.justice.domain.aggregate.Aggregate;
+import uk.gov.justice.services.core.aggregate.exception.AggregateChangeDetectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
+
+/**
+ * Serializes aggregates with plain Java serialization. This is the format snapshots have always
+ * been stored in.
+ */
+public class JavaSnapshotSerializer implements SnapshotSerializer {
+
+    private final ObjectInputStreamStrategy streamStrategy;
+
+    public JavaSnapshotSerializer() {
+        this(new DefaultObjectInputStreamStrategy());
+    }
+
+    public JavaSnapshotSerializer(final ObjectInputStreamStrategy streamStrategy) {
+        this.streamStrategy = streamStrategy;
+    }
+
+    @Override
+    public byte[] serialize(final Aggregate aggregate) {
+        return SerializationUtils.serialize(aggregate);
+    }
+
+    @Override
+    public boolean canDeserialize(final byte[] aggregateByteRepresentation) {
+        return aggregateByteRepresentation.length >= 2
+                && (short) (((aggregateByteRepresentation[0] & 0xFF) << 8) | (aggregateByteRepresentation[1] & 0xFF)) == STREAM_MAGIC;
+    }
+
+    @Override
+    public <T extends Aggregate> T deserialize(final byte[] aggregateByteRepresentation, final Class<T> type) throws AggregateChangeDetectedException {
+        try (final ObjectInputStream objectInputStream = streamStrategy.objectInputStreamOf(new ByteArrayInputStream(aggregateByteRepresentation))) {
+            return type.cast(objectInputStream.readObject());
+        } catch (SerializationException | ClassNotFoundException | ClassCastException | IOException e) {
+            throw new AggregateChangeDetectedException(e.getLocalizedMessage());
+        }
+    }
+}
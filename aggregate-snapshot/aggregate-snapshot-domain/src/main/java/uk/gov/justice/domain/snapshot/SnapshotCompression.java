@@ -0,0 +1,71 @@
+package uk.gov.justice.domain.snapshot;
+
+import static java.util.zip.Deflater.BEST_SPEED;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compression applied to the payload of a compact snapshot. The id is recorded in the snapshot
+ * header, so snapshots stay readable when the configured compression changes.
+ */
+public enum SnapshotCompression {
+
+    NONE(0) {
+        @Override
+        void compress(final byte[] bytes, final OutputStream outputStream) throws IOException {
+            outputStream.write(bytes);
+        }
+
+        @Override
+        InputStream decompressing(final InputStream inputStream) {
+            return inputStream;
+        }
+    },
+
+    DEFLATE(1) {
+        @Override
+        void compress(final byte[] bytes, final OutputStream outputStream) throws IOException {
+            final Deflater deflater = new Deflater(BEST_SPEED);
+            try {
+                final DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(outputStream, deflater);
+                deflaterOutputStream.write(bytes);
+                deflaterOutputStream.finish();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        InputStream decompressing(final InputStream inputStream) {
+            return new InflaterInputStream(inputStream);
+        }
+    };
+
+    private final int id;
+
+    SnapshotCompression(final int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    abstract void compress(final byte[] bytes, final OutputStream outputStream) throws IOException;
+
+    abstract InputStream decompressing(final InputStream inputStream);
+
+    static SnapshotCompression valueOf(final int id) {
+        for (final SnapshotCompression compression : values()) {
+            if (compression.id == id) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Unknown snapshot compression " + id);
+    }
+}
@@ -0,0 +1,38 @@
+package uk.gov.justice.domain.snapshot;
+
+import uk.gov.justice.domain.aggregate.Aggregate;
+import uk.gov.justice.services.core.aggregate.exception.AggregateChangeDetectedException;
+
+/**
+ * Converts aggregates to and from the byte representation stored in a snapshot.
+ */
+public interface SnapshotSerializer {
+
+    /**
+     * Serializes the given aggregate.
+     *
+     * @param aggregate the aggregate to serialize
+     * @return the byte representation of the aggregate
+     * @throws org.apache.commons.lang3.SerializationException if the aggregate cannot be
+     *                                                        serialized
+     */
+    byte[] serialize(final Aggregate aggregate);
+
+    /**
+     * @param aggregateByteRepresentation the byte representation of a snapshot
+     * @return true if the bytes are in the format written by this serializer
+     */
+    boolean canDeserialize(final byte[] aggregateByteRepresentation);
+
+    /**
+     * Deserializes an aggregate of the given type.
+     *
+     * @param aggregateByteRepresentation the byte representation of the aggregate
+     * @param type                        the type of the aggregate
+     * @param <T>                         the type of the aggregate
+     * @return the aggregate
+     * @throws AggregateChangeDetectedException if the aggregate classes have changed since the
+     *                                          snapshot was created, or it cannot be read
+     */
+    <T extends Aggregate> T deserialize(final byte[] aggregateByteRepresentation, final Class<T> type) throws AggregateChangeDetectedException;
+}
@@ -4,6 +4,7 @@ import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
 import uk.gov.justice.domain.aggregate.Aggregate;
+import uk.gov.justice.services.core.aggregate.exception.AggregateChangeDetectedException;
 
 import java.io.Serializable;
 import java.util.UUID;
@@ -44,6 +45,33 @@ public class AggregateSnapshotTest {
         assertThat(snapshot.getAggregate(streamStrategy), is(aggregate));
     }
 
+    @Test
+    public void shouldCreateAnAggregateSnapshotWithSerializer() throws Exception {
+        final TestAggregate aggregate = new TestAggregate("STATE1");
+        final CompactSnapshotSerializer serializer = new CompactSnapshotSerializer();
+
+        final AggregateSnapshot<TestAggregate> snapshot = new AggregateSnapshot<>(STREAM_ID, VERSION_ID, aggregate, serializer);
+
+        assertThat(snapshot.getType(), is(TYPE));
+        assertThat(serializer.canDeserialize(snapshot.getAggregateByteRepresentation()), is(true));
+        assertThat(snapshot.getAggregate(serializer), is(aggregate));
+    }
+
+    @Test
+    public void shouldGetAnAggregateSnapshotWithJavaSerializer() throws Exception {
+        final TestAggregate aggregate = new TestAggregate("STATE1");
+
+        final AggregateSnapshot<TestAggregate> snapshot = new AggregateSnapshot<>(STREAM_ID, VERSION_ID, aggregate);
+
+        assertThat(snapshot.getAggregate(new JavaSnapshotSerializer()), is(aggregate));
+    }
+
+    @Test(expected = AggregateChangeDetectedException.class)
+    public void shouldThrowAggregateChangeDetectedExceptionIfTypeNoLongerExists() throws Exception {
+        final AggregateSnapshot<TestAggregate> snapshot = new AggregateSnapshot<>(STREAM_ID, VERSION_ID, "uk.gov.justice.domain.snapshot.RemovedAggregate", new byte[0]);
+
+        snapshot.getAggregate(new CompactSnapshotSerializer());
+    }
 
     public static class TestAggregate implements Aggregate, Serializable {
         private static final long serialVersionUID = 42L;
@@ -0,0 +1,135 @@
+package uk.gov.justice.domain.snapshot;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static uk.gov.justice.domain.snapshot.SnapshotCompression.NONE;
+
+import uk.gov.justice.domain.aggregate.Aggregate;
+import uk.gov.justice.services.core.aggregate.exception.AggregateChangeDetectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class CompactSnapshotSerializerTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void shouldRoundTripCompressedAggregate() throws Exception {
+        final CompactSnapshotSerializer serializer = new CompactSnapshotSerializer();
+        final TestAggregate aggregate = aggregateWithNames(50);
+
+        final byte[] bytes = serializer.serialize(aggregate);
+
+        assertThat(serializer.canDeserialize(bytes), is(true));
+        assertThat(serializer.deserialize(bytes, TestAggregate.class), is(aggregate));
+    }
+
+    @Test
+    public void shouldRoundTripUncompressedAggregate() throws Exception {
+        final CompactSnapshotSerializer serializer = new CompactSnapshotSerializer(NONE);
+        final TestAggregate aggregate = aggregateWithNames(50);
+
+        assertThat(serializer.deserialize(serializer.serialize(aggregate), TestAggregate.class), is(aggregate));
+    }
+
+    @Test
+    public void shouldReadSnapshotsWrittenWithOtherCompression() throws Exception {
+        final TestAggregate aggregate = aggregateWithNames(5);
+
+        final byte[] bytes = new CompactSnapshotSerializer(NONE).serialize(aggregate);
+
+        assertThat(new CompactSnapshotSerializer().deserialize(bytes, TestAggregate.class), is(aggregate));
+    }
+
+    @Test
+    public void shouldBeSmallerThanJavaSerialization() throws Exception {
+        final TestAggregate aggregate = aggregateWithNames(50);
+
+        final int javaSize = new JavaSnapshotSerializer().serialize(aggregate).length;
+
+        assertTrue(new CompactSnapshotSerializer(NONE).serialize(aggregate).length < javaSize);
+        assertTrue(new CompactSnapshotSerializer().serialize(aggregate).length < javaSize);
+    }
+
+    @Test
+    public void shouldRejectSnapshotWithStaleFingerprint() throws Exception {
+        final CompactSnapshotSerializer serializer = new CompactSnapshotSerializer();
+        final byte[] bytes = serializer.serialize(aggregateWithNames(5));
+        bytes[6] ^= 1;
+
+        exception.expect(AggregateChangeDetectedException.class);
+        exception.expectMessage("have changed since the snapshot was created");
+
+        serializer.deserialize(bytes, TestAggregate.class);
+    }
+
+    @Test
+    public void shouldNotAcceptJavaSerializedSnapshot() throws Exception {
+        final CompactSnapshotSerializer serializer = new CompactSnapshotSerializer();
+        final byte[] bytes = new JavaSnapshotSerializer().serialize(aggregateWithNames(5));
+
+        assertThat(serializer.canDeserialize(bytes), is(false));
+
+        exception.expect(AggregateChangeDetectedException.class);
+
+        serializer.deserialize(bytes, TestAggregate.class);
+    }
+
+    @Test
+    public void shouldRejectSnapshotOfAnotherType() throws Exception {
+        final CompactSnapshotSerializer serializer = new CompactSnapshotSerializer();
+        final byte[] bytes = serializer.serialize(aggregateWithNames(5));
+
+        exception.expect(AggregateChangeDetectedException.class);
+
+        serializer.deserialize(bytes, OtherAggregate.class);
+    }
+
+    private TestAggregate aggregateWithNames(final int count) {
+        final TestAggregate aggregate = new TestAggregate();
+        for (int i = 0; i < count; i++) {
+            aggregate.names.add("name" + i);
+        }
+        return aggregate;
+    }
+
+    public static class TestAggregate implements Aggregate {
+        private static final long serialVersionUID = 42L;
+
+        private final List<String> names = new ArrayList<>();
+
+        @Override
+        public Object apply(Object event) {
+            return event;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            return names.equals(((TestAggregate) o).names);
+        }
+
+        @Override
+        public int hashCode() {
+            return names.hashCode();
+        }
+    }
+
+    public static class OtherAggregate implements Aggregate {
+        private static final long serialVersionUID = 42L;
+
+        @Override
+        public Object apply(Object event) {
+            return event;
+        }
+    }
+}
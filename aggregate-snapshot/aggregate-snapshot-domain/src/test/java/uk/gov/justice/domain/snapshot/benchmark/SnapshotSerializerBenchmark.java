@@ -0,0 +1,141 @@
+package uk.gov.justice.domain.snapshot.benchmark;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static uk.gov.justice.domain.snapshot.SnapshotCompression.DEFLATE;
+import static uk.gov.justice.domain.snapshot.SnapshotCompression.NONE;
+
+import uk.gov.justice.domain.aggregate.Aggregate;
+import uk.gov.justice.domain.snapshot.CompactSnapshotSerializer;
+import uk.gov.justice.domain.snapshot.JavaSnapshotSerializer;
+import uk.gov.justice.domain.snapshot.SnapshotSerializer;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares encoding and decoding time of aggregate snapshots with Java serialization against the
+ * compact format, uncompressed and deflated. The size of each encoding is printed before the
+ * benchmarks run.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=uk.gov.justice.domain.snapshot.benchmark.SnapshotSerializerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SnapshotSerializerBenchmark {
+
+    @Param({"java", "compact", "compact-deflate"})
+    public String format;
+
+    @Param({"10", "1000"})
+    public int appliedEvents;
+
+    private SnapshotSerializer serializer;
+    private BenchmarkAggregate aggregate;
+    private byte[] snapshot;
+
+    public static void main(final String[] args) throws RunnerException {
+        for (final String format : new String[]{"java", "compact", "compact-deflate"}) {
+            for (final int appliedEvents : new int[]{10, 1000}) {
+                System.out.printf("%s, %d applied events: %d bytes%n",
+                        format, appliedEvents, serializerFor(format).serialize(aggregateOf(appliedEvents)).length);
+            }
+        }
+
+        new Runner(new OptionsBuilder()
+                .include(SnapshotSerializerBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setup() {
+        serializer = serializerFor(format);
+        aggregate = aggregateOf(appliedEvents);
+        snapshot = serializer.serialize(aggregate);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(aggregate);
+    }
+
+    @Benchmark
+    public BenchmarkAggregate deserialize() throws Exception {
+        return serializer.deserialize(snapshot, BenchmarkAggregate.class);
+    }
+
+    private static SnapshotSerializer serializerFor(final String format) {
+        switch (format) {
+            case "compact":
+                return new CompactSnapshotSerializer(NONE);
+            case "compact-deflate":
+                return new CompactSnapshotSerializer(DEFLATE);
+            default:
+                return new JavaSnapshotSerializer();
+        }
+    }
+
+    private static BenchmarkAggregate aggregateOf(final int appliedEvents) {
+        final BenchmarkAggregate aggregate = new BenchmarkAggregate();
+        for (int i = 0; i < appliedEvents; i++) {
+            aggregate.apply(new ItemAdded(UUID.randomUUID(), "item " + i, new BigDecimal(i).movePointLeft(2), ZonedDateTime.now()));
+        }
+        return aggregate;
+    }
+
+    public static class BenchmarkAggregate implements Aggregate {
+        private static final long serialVersionUID = 1L;
+
+        private final List<ItemAdded> items = new ArrayList<>();
+        private final Map<UUID, Integer> positions = new HashMap<>();
+
+        @Override
+        public Object apply(final Object event) {
+            final ItemAdded itemAdded = (ItemAdded) event;
+            positions.put(itemAdded.itemId, items.size());
+            items.add(itemAdded);
+            return event;
+        }
+    }
+
+    public static class ItemAdded implements java.io.Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final UUID itemId;
+        private final String name;
+        private final BigDecimal price;
+        private final ZonedDateTime addedAt;
+
+        public ItemAdded(final UUID itemId, final String name, final BigDecimal price, final ZonedDateTime addedAt) {
+            this.itemId = itemId;
+            this.name = name;
+            this.price = price;
+            this.addedAt = addedAt;
+        }
+    }
+}
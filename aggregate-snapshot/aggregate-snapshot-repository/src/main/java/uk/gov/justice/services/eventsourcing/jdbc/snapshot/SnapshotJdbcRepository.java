@@ -6,11 +6,13 @@ import uk.gov.justice.domain.aggregate.Aggregate;
 import uk.gov.justice.domain.snapshot.AggregateSnapshot;
 import uk.gov.justice.services.jdbc.persistence.JdbcDataSourceProvider;
 import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryException;
+import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryHelper;
+import uk.gov.justice.services.jdbc.persistence.PreparedStatementWrapper;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -33,10 +35,14 @@ public class SnapshotJdbcRepository implements SnapshotRepository {
     private static final String COL_VERSION_ID = "version_id";
     private static final String COL_TYPE = "type";
     private static final String COL_AGGREGATE = "aggregate";
-    private static final String SQL_FIND_LATEST_BY_STREAM_ID = "SELECT * FROM snapshot WHERE stream_id=? AND type=? ORDER BY version_id DESC";
+    private static final String SQL_FIND_LATEST_BY_STREAM_ID = "SELECT stream_id, version_id, type, aggregate FROM snapshot WHERE stream_id=? AND type=? ORDER BY version_id DESC LIMIT 1";
     private static final String SQL_INSERT_EVENT_LOG = "INSERT INTO snapshot (stream_id, version_id, type, aggregate ) VALUES(?, ?, ?, ?)";
     private static final String DELETE_ALL_SNAPSHOTS_FOR_STREAM_ID_AND_CLASS = "delete from snapshot where stream_id =? and type=?";
-    private static final String SQL_CURRENT_SNAPSHOT_VERSION_ID = "SELECT version_id FROM snapshot WHERE stream_id=? AND type=? ORDER BY version_id DESC";
+    private static final String SQL_CURRENT_SNAPSHOT_VERSION_ID = "SELECT version_id FROM snapshot WHERE stream_id=? AND type=? ORDER BY version_id DESC LIMIT 1";
+    private static final String SQL_OLDEST_RETAINED_VERSION_ID = "SELECT version_id FROM snapshot WHERE stream_id=? AND type=? ORDER BY version_id DESC LIMIT 1 OFFSET ?";
+    private static final String SQL_SIZE_OF_SNAPSHOTS_BEFORE_VERSION = "SELECT COALESCE(SUM(OCTET_LENGTH(aggregate)), 0) FROM snapshot WHERE stream_id=? AND type=? AND version_id<?";
+    private static final String DELETE_SNAPSHOTS_BEFORE_VERSION = "DELETE FROM snapshot WHERE stream_id=? AND type=? AND version_id<?";
+    private static final String SQL_FIND_STREAMS_WITH_MORE_SNAPSHOTS_THAN = "SELECT stream_id, type FROM snapshot GROUP BY stream_id, type HAVING COUNT(*)>? LIMIT ?";
 
     @Inject
     Logger logger;
@@ -44,13 +50,15 @@ public class SnapshotJdbcRepository implements SnapshotRepository {
     @Inject
     JdbcDataSourceProvider jdbcDataSourceProvider;
 
+    @Inject
+    JdbcRepositoryHelper jdbcRepositoryHelper;
+
     DataSource dataSource;
 
     @Override
     public void storeSnapshot(final AggregateSnapshot aggregateSnapshot) {
 
-        try (final Connection connection = dataSource.getConnection();
-             final PreparedStatement ps = connection.prepareStatement(SQL_INSERT_EVENT_LOG)) {
+        try (final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, SQL_INSERT_EVENT_LOG)) {
             ps.setObject(1, aggregateSnapshot.getStreamId());
             ps.setLong(2, aggregateSnapshot.getVersionId());
             ps.setString(3, aggregateSnapshot.getType());
@@ -64,8 +72,7 @@ public class SnapshotJdbcRepository implements SnapshotRepository {
     @Override
     public <T extends Aggregate> Optional<AggregateSnapshot<T>> getLatestSnapshot(final UUID streamId, final Class<T> clazz) {
 
-        try (final Connection connection = dataSource.getConnection();
-             final PreparedStatement preparedStatement = connection.prepareStatement(SQL_FIND_LATEST_BY_STREAM_ID)) {
+        try (final PreparedStatementWrapper preparedStatement = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, SQL_FIND_LATEST_BY_STREAM_ID)) {
 
             preparedStatement.setObject(1, streamId);
             preparedStatement.setObject(2, clazz.getName());
@@ -80,8 +87,7 @@ public class SnapshotJdbcRepository implements SnapshotRepository {
 
     @Override
     public <T extends Aggregate> void removeAllSnapshots(final UUID streamId, final Class<T> clazz) {
-        try (final Connection connection = dataSource.getConnection();
-             final PreparedStatement ps = connection.prepareStatement(DELETE_ALL_SNAPSHOTS_FOR_STREAM_ID_AND_CLASS)) {
+        try (final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, DELETE_ALL_SNAPSHOTS_FOR_STREAM_ID_AND_CLASS)) {
             ps.setObject(1, streamId);
             ps.setString(2, clazz.getName());
             ps.executeUpdate();
@@ -93,22 +99,67 @@ public class SnapshotJdbcRepository implements SnapshotRepository {
     @Override
     public <T extends Aggregate> long getLatestSnapshotVersion(final UUID streamId, final Class<T> clazz) {
 
-        try (final Connection connection = dataSource.getConnection();
-             final PreparedStatement preparedStatement = connection.prepareStatement(SQL_CURRENT_SNAPSHOT_VERSION_ID)) {
+        try (final PreparedStatementWrapper preparedStatement = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, SQL_CURRENT_SNAPSHOT_VERSION_ID)) {
             preparedStatement.setObject(1, streamId);
             preparedStatement.setObject(2, clazz.getName());
 
-            try (final ResultSet resultSet = preparedStatement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getLong(1);
-                }
-                return 0;
+            final ResultSet resultSet = preparedStatement.executeQuery();
+            if (resultSet.next()) {
+                return resultSet.getLong(1);
             }
+            return 0;
         } catch (final SQLException e) {
             throw new JdbcRepositoryException(format(READING_STREAM_EXCEPTION, streamId), e);
         }
     }
 
+    /**
+     * Removes the snapshots older than the given number of latest snapshots. The size of the
+     * removed aggregates is read before they are removed, so it is approximate if snapshots of
+     * the stream are removed concurrently.
+     */
+    @Override
+    public long removeSnapshotsBeyondRetention(final UUID streamId, final String type, final int snapshotsToKeep) {
+        if (snapshotsToKeep < 1) {
+            throw new IllegalArgumentException(format("At least one snapshot must be kept, requested %d", snapshotsToKeep));
+        }
+
+        final Optional<Long> oldestRetainedVersion = oldestRetainedVersion(streamId, type, snapshotsToKeep);
+        if (!oldestRetainedVersion.isPresent()) {
+            return 0;
+        }
+
+        final long reclaimedBytes = sizeOfSnapshotsBefore(streamId, type, oldestRetainedVersion.get());
+
+        try (final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, DELETE_SNAPSHOTS_BEFORE_VERSION)) {
+            ps.setObject(1, streamId);
+            ps.setString(2, type);
+            ps.setLong(3, oldestRetainedVersion.get());
+            ps.executeUpdate();
+        } catch (final SQLException e) {
+            throw new JdbcRepositoryException(format("Exception while removing old snapshots %s of stream %s", type, streamId), e);
+        }
+
+        return reclaimedBytes;
+    }
+
+    @Override
+    public List<SnapshotStream> findStreamsWithMoreSnapshotsThan(final int snapshotsToKeep, final int limit) {
+        try (final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, SQL_FIND_STREAMS_WITH_MORE_SNAPSHOTS_THAN)) {
+            ps.setLong(1, (long) snapshotsToKeep);
+            ps.setLong(2, (long) limit);
+
+            final ResultSet resultSet = ps.executeQuery();
+            final List<SnapshotStream> snapshotStreams = new ArrayList<>();
+            while (resultSet.next()) {
+                snapshotStreams.add(new SnapshotStream((UUID) resultSet.getObject(COL_STREAM_ID), resultSet.getString(COL_TYPE)));
+            }
+            return snapshotStreams;
+        } catch (final SQLException e) {
+            throw new JdbcRepositoryException("Exception while finding streams with snapshots to remove", e);
+        }
+    }
+
     public AggregateSnapshot entityFrom(final ResultSet resultSet) throws SQLException {
         return new AggregateSnapshot(
                 (UUID) resultSet.getObject(COL_STREAM_ID),
@@ -122,12 +173,38 @@ public class SnapshotJdbcRepository implements SnapshotRepository {
         dataSource = jdbcDataSourceProvider.getDataSource();
     }
 
-    private <T extends Aggregate> Optional<AggregateSnapshot<T>> extractResults(final PreparedStatement preparedStatement) throws SQLException {
+    private Optional<Long> oldestRetainedVersion(final UUID streamId, final String type, final int snapshotsToKeep) {
+        try (final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, SQL_OLDEST_RETAINED_VERSION_ID)) {
+            ps.setObject(1, streamId);
+            ps.setString(2, type);
+            ps.setLong(3, (long) snapshotsToKeep - 1);
 
-        try (final ResultSet resultSet = preparedStatement.executeQuery()) {
-            if (resultSet.next()) {
-                return Optional.of(entityFrom(resultSet));
-            }
+            final ResultSet resultSet = ps.executeQuery();
+            return resultSet.next() ? Optional.of(resultSet.getLong(1)) : Optional.empty();
+        } catch (final SQLException e) {
+            throw new JdbcRepositoryException(format(READING_STREAM_EXCEPTION, streamId), e);
+        }
+    }
+
+    private long sizeOfSnapshotsBefore(final UUID streamId, final String type, final long versionId) {
+        try (final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, SQL_SIZE_OF_SNAPSHOTS_BEFORE_VERSION)) {
+            ps.setObject(1, streamId);
+            ps.setString(2, type);
+            ps.setLong(3, versionId);
+
+            final ResultSet resultSet = ps.executeQuery();
+            resultSet.next();
+            return resultSet.getLong(1);
+        } catch (final SQLException e) {
+            throw new JdbcRepositoryException(format(READING_STREAM_EXCEPTION, streamId), e);
+        }
+    }
+
+    private <T extends Aggregate> Optional<AggregateSnapshot<T>> extractResults(final PreparedStatementWrapper preparedStatement) throws SQLException {
+
+        final ResultSet resultSet = preparedStatement.executeQuery();
+        if (resultSet.next()) {
+            return Optional.of(entityFrom(resultSet));
         }
         return Optional.empty();
     }
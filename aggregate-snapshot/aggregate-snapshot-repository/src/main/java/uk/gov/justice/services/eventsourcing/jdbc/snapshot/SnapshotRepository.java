@@ -4,6 +4,7 @@ package uk.gov.justice.services.eventsourcing.jdbc.snapshot;
 import uk.gov.justice.domain.aggregate.Aggregate;
 import uk.gov.justice.domain.snapshot.AggregateSnapshot;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -48,4 +49,23 @@ public interface SnapshotRepository {
      * @return the latest snapshot version
      */
     <T extends Aggregate> long getLatestSnapshotVersion(final UUID streamId, final Class<T> clazz);
+
+    /**
+     * Removes all but the given number of latest snapshots of an aggregate type for a stream.
+     *
+     * @param streamId        the stream id
+     * @param type            the aggregate type name
+     * @param snapshotsToKeep the number of latest snapshots to keep, at least 1
+     * @return the size in bytes of the aggregates of the removed snapshots
+     */
+    long removeSnapshotsBeyondRetention(final UUID streamId, final String type, final int snapshotsToKeep);
+
+    /**
+     * Finds streams that hold more than the given number of snapshots of an aggregate type.
+     *
+     * @param snapshotsToKeep the number of snapshots allowed per stream and aggregate type
+     * @param limit           the maximum number of streams to return
+     * @return the streams and aggregate types exceeding the given number of snapshots
+     */
+    List<SnapshotStream> findStreamsWithMoreSnapshotsThan(final int snapshotsToKeep, final int limit);
 }
@@ -0,0 +1,51 @@
+package uk.gov.justice.services.eventsourcing.jdbc.snapshot;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Identifies the snapshots of one aggregate type for a stream.
+ */
+public class SnapshotStream {
+
+    private final UUID streamId;
+    private final String type;
+
+    public SnapshotStream(final UUID streamId, final String type) {
+        this.streamId = streamId;
+        this.type = type;
+    }
+
+    public UUID getStreamId() {
+        return streamId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final SnapshotStream that = (SnapshotStream) o;
+        return Objects.equals(streamId, that.streamId) && Objects.equals(type, that.type);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(streamId, type);
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotStream{" +
+                "streamId=" + streamId +
+                ", type='" + type + '\'' +
+                '}';
+    }
+}
@@ -1,7 +1,9 @@
 package uk.gov.justice.services.eventsourcing.jdbc.snapshot;
 
 import static java.util.UUID.randomUUID;
+import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
@@ -9,6 +11,7 @@ import static org.mockito.Mockito.mock;
 
 import uk.gov.justice.domain.aggregate.Aggregate;
 import uk.gov.justice.domain.snapshot.AggregateSnapshot;
+import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryHelper;
 import uk.gov.justice.services.test.utils.persistence.TestDataSourceFactory;
 
 import java.util.ArrayList;
@@ -41,6 +44,7 @@ public class SnapshotRepositoryJdbcIT {
         try {
             snapshotJdbcRepository.dataSource = new TestDataSourceFactory(LIQUIBASE_SNAPSHOT_STORE_DB_CHANGELOG_XML).createDataSource();
             snapshotJdbcRepository.logger = mock(Logger.class);
+            snapshotJdbcRepository.jdbcRepositoryHelper = new JdbcRepositoryHelper();
         } catch (final Exception e) {
             e.printStackTrace();
             fail("SnapshotJdbcRepository construction failed");
@@ -153,6 +157,59 @@ public class SnapshotRepositoryJdbcIT {
 
     }
 
+    @Test
+    public void shouldRetrieveLatestSnapshotVersion() {
+        final UUID streamId = randomUUID();
+        snapshotJdbcRepository.storeSnapshot(createSnapshot(streamId, VERSION_ID + 1, TYPE, AGGREGATE));
+        snapshotJdbcRepository.storeSnapshot(createSnapshot(streamId, VERSION_ID + 3, TYPE, AGGREGATE));
+        snapshotJdbcRepository.storeSnapshot(createSnapshot(streamId, VERSION_ID + 2, TYPE, AGGREGATE));
+
+        assertThat(snapshotJdbcRepository.getLatestSnapshotVersion(streamId, TYPE), is(VERSION_ID + 3));
+        assertThat(snapshotJdbcRepository.getLatestSnapshotVersion(randomUUID(), TYPE), is(0L));
+    }
+
+    @Test
+    public void shouldRemoveSnapshotsBeyondRetentionAndReturnReclaimedBytes() {
+        final UUID streamId = randomUUID();
+        final AggregateSnapshot aggregateSnapshot4 = createSnapshot(streamId, VERSION_ID + 4, TYPE, AGGREGATE);
+
+        snapshotJdbcRepository.storeSnapshot(createSnapshot(streamId, VERSION_ID + 1, TYPE, AGGREGATE));
+        snapshotJdbcRepository.storeSnapshot(createSnapshot(streamId, VERSION_ID + 2, TYPE, AGGREGATE));
+        snapshotJdbcRepository.storeSnapshot(createSnapshot(streamId, VERSION_ID + 3, TYPE, AGGREGATE));
+        snapshotJdbcRepository.storeSnapshot(aggregateSnapshot4);
+        snapshotJdbcRepository.storeSnapshot(createSnapshot(streamId, VERSION_ID + 1, OTHER_TYPE, AGGREGATE));
+
+        assertThat(snapshotJdbcRepository.removeSnapshotsBeyondRetention(streamId, TYPE.getName(), 2), is(2L * AGGREGATE.length));
+        assertThat(snapshotJdbcRepository.removeSnapshotsBeyondRetention(streamId, TYPE.getName(), 1), is((long) AGGREGATE.length));
+
+        assertThat(snapshotJdbcRepository.getLatestSnapshot(streamId, TYPE), is(Optional.of(aggregateSnapshot4)));
+        assertThat(snapshotJdbcRepository.getLatestSnapshotVersion(streamId, OTHER_TYPE), is(VERSION_ID + 1));
+    }
+
+    @Test
+    public void shouldNotRemoveSnapshotsWithinRetention() {
+        final UUID streamId = randomUUID();
+        snapshotJdbcRepository.storeSnapshot(createSnapshot(streamId, VERSION_ID + 1, TYPE, AGGREGATE));
+        snapshotJdbcRepository.storeSnapshot(createSnapshot(streamId, VERSION_ID + 2, TYPE, AGGREGATE));
+
+        assertThat(snapshotJdbcRepository.removeSnapshotsBeyondRetention(streamId, TYPE.getName(), 2), is(0L));
+        assertThat(snapshotJdbcRepository.getLatestSnapshotVersion(streamId, TYPE), is(VERSION_ID + 2));
+    }
+
+    @Test
+    public void shouldFindStreamsWithMoreSnapshotsThanRetention() {
+        final UUID streamId = randomUUID();
+        final UUID otherStreamId = randomUUID();
+        snapshotJdbcRepository.storeSnapshot(createSnapshot(streamId, VERSION_ID + 1, TYPE, AGGREGATE));
+        snapshotJdbcRepository.storeSnapshot(createSnapshot(streamId, VERSION_ID + 2, TYPE, AGGREGATE));
+        snapshotJdbcRepository.storeSnapshot(createSnapshot(otherStreamId, VERSION_ID + 1, TYPE, AGGREGATE));
+
+        final List<SnapshotStream> snapshotStreams = snapshotJdbcRepository.findStreamsWithMoreSnapshotsThan(1, 1000);
+
+        assertThat(snapshotStreams, hasItem(new SnapshotStream(streamId, TYPE.getName())));
+        assertThat(snapshotStreams, not(hasItem(new SnapshotStream(otherStreamId, TYPE.getName()))));
+    }
+
     @SuppressWarnings("unchecked")
     private <T extends Aggregate> AggregateSnapshot createSnapshot(final UUID streamId, final Long sequenceId, Class<T> type, byte[] aggregate) {
         return new AggregateSnapshot(streamId, sequenceId, type, aggregate);
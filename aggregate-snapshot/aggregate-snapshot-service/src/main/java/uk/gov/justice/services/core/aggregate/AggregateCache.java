@@ -0,0 +1,341 @@
+package uk.gov.justice.services.core.aggregate;
+
+import static javax.transaction.Status.STATUS_ACTIVE;
+import static javax.transaction.Status.STATUS_COMMITTED;
+import static uk.gov.justice.domain.snapshot.SnapshotCompression.NONE;
+
+import uk.gov.justice.domain.aggregate.Aggregate;
+import uk.gov.justice.domain.snapshot.CompactSnapshotSerializer;
+import uk.gov.justice.domain.snapshot.SnapshotSerializer;
+import uk.gov.justice.domain.snapshot.VersionedAggregate;
+import uk.gov.justice.services.common.configuration.Value;
+import uk.gov.justice.services.core.aggregate.exception.AggregateChangeDetectedException;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.annotation.Resource;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+
+/**
+ * Bounded, least recently used, node-local cache of the aggregates of event streams, each held
+ * serialized together with the stream version it reflects.
+ *
+ * An aggregate is cached when its events are appended, once the appending transaction has
+ * committed, so the cache never holds state that was rolled back. Every {@link #get} returns a new
+ * copy, which the caller brings up to date by applying the events after the cached version; a
+ * cached aggregate behind the stream because another node appended to it is therefore still
+ * correct. Entries are invalidated when an append to the stream fails its optimistic lock, or the
+ * stream is cleared on this node. A stream cleared on another node leaves a stale entry here, which
+ * no longer matches the events of the stream; clear streams only while the cache is disabled, or
+ * on every node.
+ *
+ * Aggregates are held in the uncompressed compact snapshot format, which is smaller than Java
+ * serialization and cheap to copy from. An aggregate cached when a transaction commits is held by
+ * reference and only serialized by the first {@link #get} of it, so completing the transaction
+ * does not pay for the serialization; the aggregate must therefore not be changed once the
+ * transaction has committed. Aggregates put outside a transaction are serialized at once.
+ * Aggregates larger than aggregate.cache.max.aggregate.bytes once serialized are not cached.
+ *
+ * The cache is bounded by both the number of aggregates and their total serialized size, and is
+ * disabled unless aggregate.cache.max.entries is configured.
+ */
+@ApplicationScoped
+public class AggregateCache {
+
+    private static final String TRANSACTION_AGGREGATES = TransactionAggregates.class.getName();
+
+    @Resource(lookup = "java:comp/TransactionSynchronizationRegistry")
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Inject
+    Logger logger;
+
+    @Inject
+    @Value(key = "aggregate.cache.max.entries", defaultValue = "0")
+    long maxEntries;
+
+    @Inject
+    @Value(key = "aggregate.cache.max.bytes", defaultValue = "67108864")
+    long maxBytes;
+
+    @Inject
+    @Value(key = "aggregate.cache.max.aggregate.bytes", defaultValue = "1048576")
+    long maxAggregateBytes;
+
+    private final SnapshotSerializer snapshotSerializer = new CompactSnapshotSerializer(NONE);
+    private final Map<Pair<UUID, Class<?>>, CachedAggregate> aggregates = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Gets a copy of the cached aggregate of the stream.
+     *
+     * @param streamId the stream id
+     * @param clazz    the aggregate type
+     * @param <T>      the aggregate type
+     * @return a copy of the aggregate with the stream version it reflects, or empty if the stream
+     * has no cached aggregate of the type
+     */
+    public <T extends Aggregate> Optional<VersionedAggregate<T>> get(final UUID streamId, final Class<T> clazz) {
+        if (!enabled()) {
+            return Optional.empty();
+        }
+
+        final Pair<UUID, Class<?>> key = Pair.of(streamId, clazz);
+        final CachedAggregate cachedAggregate = cachedAggregateOf(key);
+        if (cachedAggregate == null) {
+            return Optional.empty();
+        }
+
+        final Optional<byte[]> aggregateByteRepresentation = aggregateByteRepresentationOf(key, cachedAggregate);
+        if (!aggregateByteRepresentation.isPresent()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(new VersionedAggregate<>(cachedAggregate.version, snapshotSerializer.deserialize(aggregateByteRepresentation.get(), clazz)));
+        } catch (final AggregateChangeDetectedException e) {
+            logger.warn("Discarding cached aggregate {} of stream {}", clazz.getSimpleName(), streamId, e);
+            invalidate(streamId);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Caches the aggregate of the stream at the given version once the current transaction has
+     * committed, or at once outside a transaction. Within a transaction the aggregate is held by
+     * reference until it is first read, so it must not be changed after the transaction commits.
+     *
+     * @param streamId the stream id
+     * @param version  the stream version the aggregate reflects
+     * @param aggregate the aggregate
+     */
+    public void put(final UUID streamId, final long version, final Aggregate aggregate) {
+        if (!enabled()) {
+            return;
+        }
+
+        if (transactionActive()) {
+            transactionAggregates().add(streamId, version, aggregate);
+        } else {
+            serialize(streamId, aggregate).ifPresent(aggregateByteRepresentation ->
+                    store(streamId, aggregate.getClass(), new CachedAggregate(version, aggregateByteRepresentation)));
+        }
+    }
+
+    /**
+     * Removes all cached aggregates of the stream.
+     *
+     * @param streamId the stream id
+     */
+    public synchronized void invalidate(final UUID streamId) {
+        final Iterator<Map.Entry<Pair<UUID, Class<?>>, CachedAggregate>> entries = aggregates.entrySet().iterator();
+        while (entries.hasNext()) {
+            final Map.Entry<Pair<UUID, Class<?>>, CachedAggregate> entry = entries.next();
+            if (entry.getKey().getLeft().equals(streamId)) {
+                cachedBytes -= entry.getValue().size();
+                entries.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    public synchronized int size() {
+        return aggregates.size();
+    }
+
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    private synchronized CachedAggregate cachedAggregateOf(final Pair<UUID, Class<?>> key) {
+        final CachedAggregate cachedAggregate = aggregates.get(key);
+        if (cachedAggregate == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return cachedAggregate;
+    }
+
+    /**
+     * Returns the serialized aggregate of the entry, serializing an aggregate cached by reference on
+     * its first read. Serialization happens outside the lock; an entry whose aggregate cannot be
+     * serialized, or is too large, is removed.
+     */
+    private Optional<byte[]> aggregateByteRepresentationOf(final Pair<UUID, Class<?>> key, final CachedAggregate cachedAggregate) {
+        final Aggregate pendingAggregate;
+        synchronized (this) {
+            if (cachedAggregate.aggregateByteRepresentation != null) {
+                return Optional.of(cachedAggregate.aggregateByteRepresentation);
+            }
+            pendingAggregate = cachedAggregate.pendingAggregate;
+        }
+
+        final Optional<byte[]> aggregateByteRepresentation = serialize(key.getLeft(), pendingAggregate);
+
+        synchronized (this) {
+            if (aggregates.get(key) != cachedAggregate) {
+                return aggregateByteRepresentation;
+            }
+
+            if (!aggregateByteRepresentation.isPresent()) {
+                aggregates.remove(key);
+            } else if (cachedAggregate.aggregateByteRepresentation == null) {
+                cachedAggregate.serialized(aggregateByteRepresentation.get());
+                cachedBytes += cachedAggregate.size();
+                evictLeastRecentlyUsed();
+            }
+            return aggregateByteRepresentation;
+        }
+    }
+
+    private Optional<byte[]> serialize(final UUID streamId, final Aggregate aggregate) {
+        final byte[] aggregateByteRepresentation;
+        try {
+            aggregateByteRepresentation = snapshotSerializer.serialize(aggregate);
+        } catch (final SerializationException e) {
+            logger.debug("Not caching aggregate {} of stream {}", aggregate.getClass().getSimpleName(), streamId, e);
+            return Optional.empty();
+        }
+
+        if (aggregateByteRepresentation.length > maxAggregateBytes) {
+            logger.debug("Not caching aggregate {} of stream {}, its {} bytes are over the limit of {}",
+                    aggregate.getClass().getSimpleName(), streamId, aggregateByteRepresentation.length, maxAggregateBytes);
+            return Optional.empty();
+        }
+
+        return Optional.of(aggregateByteRepresentation);
+    }
+
+    private synchronized void store(final UUID streamId, final Class<?> clazz, final CachedAggregate cachedAggregate) {
+        final Pair<UUID, Class<?>> key = Pair.of(streamId, clazz);
+        final CachedAggregate current = aggregates.get(key);
+        if (current != null) {
+            if (current.version >= cachedAggregate.version) {
+                return;
+            }
+            cachedBytes -= current.size();
+        }
+
+        aggregates.put(key, cachedAggregate);
+        cachedBytes += cachedAggregate.size();
+        evictLeastRecentlyUsed();
+    }
+
+    private void evictLeastRecentlyUsed() {
+        final Iterator<CachedAggregate> eldest = aggregates.values().iterator();
+        while (eldest.hasNext() && (aggregates.size() > maxEntries || cachedBytes > maxBytes)) {
+            cachedBytes -= eldest.next().size();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private boolean enabled() {
+        return maxEntries > 0;
+    }
+
+    private boolean transactionActive() {
+        return transactionSynchronizationRegistry != null
+                && transactionSynchronizationRegistry.getTransactionKey() != null
+                && transactionSynchronizationRegistry.getTransactionStatus() == STATUS_ACTIVE;
+    }
+
+    private TransactionAggregates transactionAggregates() {
+        TransactionAggregates transactionAggregates = (TransactionAggregates) transactionSynchronizationRegistry.getResource(TRANSACTION_AGGREGATES);
+        if (transactionAggregates == null) {
+            transactionAggregates = new TransactionAggregates();
+            transactionSynchronizationRegistry.putResource(TRANSACTION_AGGREGATES, transactionAggregates);
+            transactionSynchronizationRegistry.registerInterposedSynchronization(transactionAggregates);
+        }
+        return transactionAggregates;
+    }
+
+    /**
+     * A cached aggregate, either serialized or, until it is first read, held by reference. Its
+     * mutable fields are guarded by the cache.
+     */
+    private static class CachedAggregate {
+
+        private final long version;
+        private Aggregate pendingAggregate;
+        private byte[] aggregateByteRepresentation;
+
+        CachedAggregate(final long version, final byte[] aggregateByteRepresentation) {
+            this.version = version;
+            this.aggregateByteRepresentation = aggregateByteRepresentation;
+        }
+
+        CachedAggregate(final long version, final Aggregate pendingAggregate) {
+            this.version = version;
+            this.pendingAggregate = pendingAggregate;
+        }
+
+        void serialized(final byte[] aggregateByteRepresentation) {
+            this.aggregateByteRepresentation = aggregateByteRepresentation;
+            this.pendingAggregate = null;
+        }
+
+        long size() {
+            return aggregateByteRepresentation == null ? 0 : aggregateByteRepresentation.length;
+        }
+    }
+
+    /**
+     * The aggregates appended to in one transaction, latest version per stream and aggregate type,
+     * cached by reference when the transaction commits.
+     */
+    private class TransactionAggregates implements Synchronization {
+
+        private final Map<Pair<UUID, Class<?>>, Pair<Long, Aggregate>> appended = new LinkedHashMap<>();
+
+        void add(final UUID streamId, final long version, final Aggregate aggregate) {
+            appended.merge(Pair.of(streamId, aggregate.getClass()), Pair.of(version, aggregate),
+                    (current, next) -> current.getLeft() >= next.getLeft() ? current : next);
+        }
+
+        @Override
+        public void beforeCompletion() {
+            // nothing to do until the transaction has committed
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            if (status == STATUS_COMMITTED) {
+                appended.forEach((key, versionedAggregate) ->
+                        store(key.getLeft(), key.getRight(), new CachedAggregate(versionedAggregate.getLeft(), versionedAggregate.getRight())));
+            }
+        }
+    }
+}
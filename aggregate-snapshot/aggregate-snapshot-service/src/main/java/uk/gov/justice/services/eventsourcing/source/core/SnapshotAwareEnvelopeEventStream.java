@@ -3,8 +3,10 @@ package uk.gov.justice.services.eventsourcing.source.core;
 import static uk.gov.justice.services.eventsourcing.source.core.Tolerance.CONSECUTIVE;
 
 import uk.gov.justice.domain.aggregate.Aggregate;
+import uk.gov.justice.services.core.aggregate.AggregateCache;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.OptimisticLockingRetryException;
 import uk.gov.justice.services.eventsourcing.source.core.exception.EventStreamException;
-import uk.gov.justice.services.eventsourcing.source.core.snapshot.SnapshotService;
+import uk.gov.justice.services.eventsourcing.source.core.snapshot.AsyncSnapshotCreator;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
 import java.util.Map;
@@ -14,13 +16,16 @@ import java.util.stream.Stream;
 
 public class SnapshotAwareEnvelopeEventStream<T extends Aggregate> extends EnvelopeEventStream implements EventStream {
 
-    private final SnapshotService snapshotService;
+    private final AsyncSnapshotCreator snapshotCreator;
+
+    private final AggregateCache aggregateCache;
 
     private final Map<Class<T>, T> aggregatesMap = new ConcurrentHashMap<>();
 
-    SnapshotAwareEnvelopeEventStream(final UUID id, final EventStreamManager eventStreamManager, final SnapshotService snapshotService) {
+    SnapshotAwareEnvelopeEventStream(final UUID id, final EventStreamManager eventStreamManager, final AsyncSnapshotCreator snapshotCreator, final AggregateCache aggregateCache) {
         super(id, eventStreamManager);
-        this.snapshotService = snapshotService;
+        this.snapshotCreator = snapshotCreator;
+        this.aggregateCache = aggregateCache;
     }
 
     public void registerAggregates(final Class<T> aggregateClass, final T aggregate) {
@@ -29,7 +34,7 @@ public class SnapshotAwareEnvelopeEventStream<T extends Aggregate> extends Envel
 
     @Override
     public long append(final Stream<JsonEnvelope> events, final Tolerance tolerance) throws EventStreamException {
-        final long currentVersion = super.append(events, tolerance);
+        final long currentVersion = appendInvalidatingCacheOnConflict(() -> super.append(events, tolerance));
         if (tolerance == CONSECUTIVE) {
             createAggregateSnapshotsFor(currentVersion);
         }
@@ -38,15 +43,30 @@ public class SnapshotAwareEnvelopeEventStream<T extends Aggregate> extends Envel
 
     @Override
     public long appendAfter(final Stream<JsonEnvelope> events, final long version) throws EventStreamException {
-        final long currentVersion = super.appendAfter(events, version);
+        final long currentVersion = appendInvalidatingCacheOnConflict(() -> super.appendAfter(events, version));
         createAggregateSnapshotsFor(currentVersion);
         return currentVersion;
     }
 
+    private long appendInvalidatingCacheOnConflict(final Append append) throws EventStreamException {
+        try {
+            return append.append();
+        } catch (final OptimisticLockingRetryException e) {
+            aggregateCache.invalidate(this.getId());
+            throw e;
+        }
+    }
+
     private void createAggregateSnapshotsFor(final long currentVersion) {
         for (final Aggregate aggregate : aggregatesMap.values()) {
-            snapshotService.attemptAggregateStore(this.getId(), currentVersion, aggregate);
+            aggregateCache.put(this.getId(), currentVersion, aggregate);
+            snapshotCreator.createSnapshot(this.getId(), currentVersion, aggregate);
         }
     }
 
+    @FunctionalInterface
+    private interface Append {
+        long append() throws EventStreamException;
+    }
+
 }
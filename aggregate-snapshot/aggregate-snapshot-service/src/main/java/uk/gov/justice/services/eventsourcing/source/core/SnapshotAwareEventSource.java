@@ -1,8 +1,9 @@
 package uk.gov.justice.services.eventsourcing.source.core;
 
+import uk.gov.justice.services.core.aggregate.AggregateCache;
 import uk.gov.justice.services.eventsourcing.repository.jdbc.DefaultEventRepository;
 import uk.gov.justice.services.eventsourcing.source.core.exception.EventStreamException;
-import uk.gov.justice.services.eventsourcing.source.core.snapshot.SnapshotService;
+import uk.gov.justice.services.eventsourcing.source.core.snapshot.AsyncSnapshotCreator;
 
 import java.util.UUID;
 import java.util.stream.Stream;
@@ -24,14 +25,17 @@ public class SnapshotAwareEventSource implements EventSource {
     EventStreamManager eventStreamManager;
 
     @Inject
-    SnapshotService snapshotService;
+    AsyncSnapshotCreator snapshotCreator;
+
+    @Inject
+    AggregateCache aggregateCache;
 
     @Inject
     DefaultEventRepository eventRepository;
 
     @Override
     public EventStream getStreamById(final UUID streamId) {
-        return new SnapshotAwareEnvelopeEventStream(streamId, eventStreamManager, snapshotService);
+        return new SnapshotAwareEnvelopeEventStream(streamId, eventStreamManager, snapshotCreator, aggregateCache);
     }
 
     @Override
@@ -57,6 +61,7 @@ public class SnapshotAwareEventSource implements EventSource {
     @Override
     public void clearStream(final UUID streamId) throws EventStreamException {
         eventStreamManager.clear(streamId);
+        aggregateCache.invalidate(streamId);
     }
 
 }
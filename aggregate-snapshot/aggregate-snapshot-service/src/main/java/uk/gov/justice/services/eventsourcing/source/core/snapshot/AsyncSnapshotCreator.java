@@ -0,0 +1,255 @@
+package uk.gov.justice.services.eventsourcing.source.core.snapshot;
+
+import static javax.transaction.Status.STATUS_ACTIVE;
+import static javax.transaction.Status.STATUS_COMMITTED;
+
+import uk.gov.justice.domain.aggregate.Aggregate;
+import uk.gov.justice.services.common.configuration.Value;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+
+/**
+ * Creates aggregate snapshots off the command transaction.
+ *
+ * Within an active JTA transaction snapshot requests are held until the transaction commits, and
+ * then handed to a managed executor, so neither checking the latest snapshot version nor
+ * serializing and storing the aggregate adds to the transaction. Requests for a rolled back
+ * transaction are discarded. The aggregate of a command is not used again once its transaction
+ * has completed, so it is serialized on the executor as it was at commit.
+ *
+ * Requests for the same stream and aggregate type are coalesced, within a transaction and while
+ * waiting for the executor, keeping the highest stream version. The number of requests waiting
+ * or being written is bounded; further requests are dropped, as the next append to the stream
+ * will request a snapshot again.
+ *
+ * Outside a transaction the snapshot is created in-line, as there is no commit to wait for.
+ */
+@ApplicationScoped
+public class AsyncSnapshotCreator {
+
+    private static final String TRANSACTION_SNAPSHOT_REQUESTS = TransactionSnapshotRequests.class.getName();
+
+    @Resource
+    ManagedExecutorService executorService;
+
+    @Resource(lookup = "java:comp/TransactionSynchronizationRegistry")
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Inject
+    SnapshotService snapshotService;
+
+    @Inject
+    Logger logger;
+
+    @Inject
+    @Value(key = "snapshot.async.queue.size", defaultValue = "1000")
+    long maxQueueDepth;
+
+    private final ConcurrentMap<Pair<UUID, Class<?>>, SnapshotRequest> pendingRequests = new ConcurrentHashMap<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicLong coalescedRequests = new AtomicLong();
+    private final AtomicLong droppedRequests = new AtomicLong();
+    private final AtomicLong snapshotWrites = new AtomicLong();
+    private final AtomicLong failedSnapshotWrites = new AtomicLong();
+    private final AtomicLong totalWriteNanos = new AtomicLong();
+    private final AtomicLong maxWriteNanos = new AtomicLong();
+
+    /**
+     * Requests a snapshot of the aggregate, if the snapshot strategy mandates one, once the current
+     * transaction has committed.
+     *
+     * @param streamId        the stream id
+     * @param streamVersionId the version of the stream the aggregate reflects
+     * @param aggregate       the aggregate
+     */
+    public void createSnapshot(final UUID streamId, final long streamVersionId, final Aggregate aggregate) {
+        final SnapshotRequest snapshotRequest = new SnapshotRequest(streamId, streamVersionId, aggregate);
+
+        if (transactionActive()) {
+            transactionSnapshotRequests().add(snapshotRequest);
+        } else {
+            write(snapshotRequest);
+        }
+    }
+
+    /**
+     * @return the number of snapshot requests waiting for, or being written by, the executor
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * @return the number of requests merged into a request already waiting since startup
+     */
+    public long getCoalescedRequests() {
+        return coalescedRequests.get();
+    }
+
+    /**
+     * @return the number of requests dropped because the queue was full since startup
+     */
+    public long getDroppedRequests() {
+        return droppedRequests.get();
+    }
+
+    /**
+     * @return the number of snapshot requests processed since startup
+     */
+    public long getSnapshotWrites() {
+        return snapshotWrites.get();
+    }
+
+    /**
+     * @return the number of snapshot requests that failed since startup
+     */
+    public long getFailedSnapshotWrites() {
+        return failedSnapshotWrites.get();
+    }
+
+    /**
+     * @return the total time spent processing snapshot requests since startup, in nanoseconds
+     */
+    public long getTotalWriteNanos() {
+        return totalWriteNanos.get();
+    }
+
+    /**
+     * @return the longest time spent processing a snapshot request since startup, in nanoseconds
+     */
+    public long getMaxWriteNanos() {
+        return maxWriteNanos.get();
+    }
+
+    void enqueue(final SnapshotRequest snapshotRequest) {
+        final Pair<UUID, Class<?>> key = snapshotRequest.key();
+        final boolean[] submit = {false};
+
+        pendingRequests.compute(key, (k, pendingRequest) -> {
+            if (pendingRequest != null) {
+                coalescedRequests.incrementAndGet();
+                return pendingRequest.streamVersionId >= snapshotRequest.streamVersionId ? pendingRequest : snapshotRequest;
+            }
+            if (queueDepth.get() >= maxQueueDepth) {
+                droppedRequests.incrementAndGet();
+                return null;
+            }
+            queueDepth.incrementAndGet();
+            submit[0] = true;
+            return snapshotRequest;
+        });
+
+        if (submit[0]) {
+            try {
+                executorService.execute(() -> writePending(key));
+            } catch (final RejectedExecutionException e) {
+                pendingRequests.remove(key);
+                queueDepth.decrementAndGet();
+                droppedRequests.incrementAndGet();
+                logger.warn("Snapshot request for stream {} rejected by executor", snapshotRequest.streamId);
+            }
+        }
+    }
+
+    private void writePending(final Pair<UUID, Class<?>> key) {
+        try {
+            final SnapshotRequest snapshotRequest = pendingRequests.remove(key);
+            if (snapshotRequest != null) {
+                write(snapshotRequest);
+            }
+        } finally {
+            queueDepth.decrementAndGet();
+        }
+    }
+
+    private void write(final SnapshotRequest snapshotRequest) {
+        final long start = System.nanoTime();
+        try {
+            snapshotService.attemptAggregateStore(snapshotRequest.streamId, snapshotRequest.streamVersionId, snapshotRequest.aggregate);
+        } catch (final RuntimeException e) {
+            failedSnapshotWrites.incrementAndGet();
+            logger.error("Failed to create snapshot for stream {}", snapshotRequest.streamId, e);
+        } finally {
+            final long writeNanos = System.nanoTime() - start;
+            snapshotWrites.incrementAndGet();
+            totalWriteNanos.addAndGet(writeNanos);
+            maxWriteNanos.accumulateAndGet(writeNanos, Math::max);
+        }
+    }
+
+    private boolean transactionActive() {
+        return transactionSynchronizationRegistry != null
+                && transactionSynchronizationRegistry.getTransactionKey() != null
+                && transactionSynchronizationRegistry.getTransactionStatus() == STATUS_ACTIVE;
+    }
+
+    private TransactionSnapshotRequests transactionSnapshotRequests() {
+        TransactionSnapshotRequests snapshotRequests = (TransactionSnapshotRequests) transactionSynchronizationRegistry.getResource(TRANSACTION_SNAPSHOT_REQUESTS);
+        if (snapshotRequests == null) {
+            snapshotRequests = new TransactionSnapshotRequests();
+            transactionSynchronizationRegistry.putResource(TRANSACTION_SNAPSHOT_REQUESTS, snapshotRequests);
+            transactionSynchronizationRegistry.registerInterposedSynchronization(snapshotRequests);
+        }
+        return snapshotRequests;
+    }
+
+    static class SnapshotRequest {
+
+        private final UUID streamId;
+        private final long streamVersionId;
+        private final Aggregate aggregate;
+
+        SnapshotRequest(final UUID streamId, final long streamVersionId, final Aggregate aggregate) {
+            this.streamId = streamId;
+            this.streamVersionId = streamVersionId;
+            this.aggregate = aggregate;
+        }
+
+        Pair<UUID, Class<?>> key() {
+            return Pair.of(streamId, aggregate.getClass());
+        }
+    }
+
+    /**
+     * The snapshot requests of one transaction, keeping the latest request per stream and
+     * aggregate type, enqueued when the transaction commits.
+     */
+    private class TransactionSnapshotRequests implements Synchronization {
+
+        private final Map<Pair<UUID, Class<?>>, SnapshotRequest> snapshotRequests = new LinkedHashMap<>();
+
+        void add(final SnapshotRequest snapshotRequest) {
+            snapshotRequests.merge(snapshotRequest.key(), snapshotRequest,
+                    (current, next) -> current.streamVersionId >= next.streamVersionId ? current : next);
+        }
+
+        @Override
+        public void beforeCompletion() {
+            // nothing to do until the transaction has committed
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            if (status == STATUS_COMMITTED) {
+                snapshotRequests.values().forEach(AsyncSnapshotCreator.this::enqueue);
+            }
+        }
+    }
+}
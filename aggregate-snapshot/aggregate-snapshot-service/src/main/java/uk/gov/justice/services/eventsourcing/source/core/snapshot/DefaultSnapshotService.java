@@ -3,10 +3,14 @@ package uk.gov.justice.services.eventsourcing.source.core.snapshot;
 import uk.gov.justice.domain.aggregate.Aggregate;
 import uk.gov.justice.domain.snapshot.AggregateSnapshot;
 import uk.gov.justice.domain.snapshot.DefaultObjectInputStreamStrategy;
+import uk.gov.justice.domain.snapshot.JavaSnapshotSerializer;
 import uk.gov.justice.domain.snapshot.ObjectInputStreamStrategy;
+import uk.gov.justice.domain.snapshot.SnapshotSerializer;
 import uk.gov.justice.domain.snapshot.VersionedAggregate;
+import uk.gov.justice.services.common.configuration.Value;
 import uk.gov.justice.services.core.aggregate.exception.AggregateChangeDetectedException;
 import uk.gov.justice.services.eventsourcing.jdbc.snapshot.SnapshotRepository;
+import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryException;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -23,6 +27,8 @@ import org.slf4j.Logger;
 @ApplicationScoped
 public class DefaultSnapshotService implements SnapshotService {
 
+    private static final JavaSnapshotSerializer JAVA_SERIALIZATION = new JavaSnapshotSerializer();
+
     @Inject
     Logger logger;
 
@@ -32,6 +38,17 @@ public class DefaultSnapshotService implements SnapshotService {
     @Inject
     SnapshotStrategy snapshotStrategy;
 
+    @Inject
+    SnapshotSerializer snapshotSerializer;
+
+    /**
+     * The number of latest snapshots kept per stream and aggregate type when a snapshot is
+     * stored; 0 keeps all snapshots.
+     */
+    @Inject
+    @Value(key = "snapshot.retention.count", defaultValue = "0")
+    long snapshotsToKeep;
+
     private ObjectInputStreamStrategy streamStrategy = new DefaultObjectInputStreamStrategy();
 
     public void setStreamStrategy(ObjectInputStreamStrategy streamStrategy) {
@@ -44,10 +61,25 @@ public class DefaultSnapshotService implements SnapshotService {
         if (snapshotStrategy.shouldCreateSnapshot(streamVersionId, currentSnapshotVersion)) {
             try {
                 logger.trace("Storing snapshot of aggregate: {}, streamId: {}, version: {}", aggregate.getClass().getSimpleName(), streamId, streamVersionId);
-                snapshotRepository.storeSnapshot(new AggregateSnapshot<>(streamId, streamVersionId, aggregate));
+                snapshotRepository.storeSnapshot(new AggregateSnapshot<>(streamId, streamVersionId, aggregate, snapshotSerializer));
             } catch (SerializationException e) {
                 logger.error("Error creating snapshot for {}", streamId, e);
+                return;
             }
+            applyRetention(streamId, aggregate.getClass().getName());
+        }
+    }
+
+    private void applyRetention(final UUID streamId, final String type) {
+        if (snapshotsToKeep < 1) {
+            return;
+        }
+
+        try {
+            final long reclaimedBytes = snapshotRepository.removeSnapshotsBeyondRetention(streamId, type, (int) snapshotsToKeep);
+            logger.trace("Removed old snapshots of aggregate: {}, streamId: {}, reclaimed bytes: {}", type, streamId, reclaimedBytes);
+        } catch (final JdbcRepositoryException e) {
+            logger.warn("Failed to remove old snapshots of {} for stream {}", type, streamId, e);
         }
     }
 
@@ -60,13 +92,26 @@ public class DefaultSnapshotService implements SnapshotService {
 
         if (aggregateSnapshot.isPresent()) {
             final AggregateSnapshot<T> snapshotValue = aggregateSnapshot.get();
-            final VersionedAggregate<T> versionedAggregate = new VersionedAggregate<T>(snapshotValue.getVersionId(), snapshotValue.getAggregate(streamStrategy));
+            final VersionedAggregate<T> versionedAggregate = new VersionedAggregate<T>(snapshotValue.getVersionId(), aggregateOf(snapshotValue));
             return Optional.of(versionedAggregate);
         }
 
         return Optional.empty();
     }
 
+    /**
+     * Snapshots in the Java serialization format are read with the stream strategy, whichever
+     * serializer is configured, so existing snapshots stay readable; any other format is read by
+     * the configured serializer.
+     */
+    private <T extends Aggregate> T aggregateOf(final AggregateSnapshot<T> snapshot) throws AggregateChangeDetectedException {
+        final byte[] aggregateByteRepresentation = snapshot.getAggregateByteRepresentation();
+        if (!JAVA_SERIALIZATION.canDeserialize(aggregateByteRepresentation) && snapshotSerializer.canDeserialize(aggregateByteRepresentation)) {
+            return snapshot.getAggregate(snapshotSerializer);
+        }
+        return snapshot.getAggregate(streamStrategy);
+    }
+
     @Override
     public <T extends Aggregate> void removeAllSnapshots(final UUID streamId, final Class<T> clazz) {
         logger.trace("Removing all snapshots for {}", streamId, clazz);
@@ -0,0 +1,131 @@
+package uk.gov.justice.services.eventsourcing.source.core.snapshot;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import uk.gov.justice.services.common.configuration.Value;
+import uk.gov.justice.services.eventsourcing.jdbc.snapshot.SnapshotRepository;
+import uk.gov.justice.services.eventsourcing.jdbc.snapshot.SnapshotStream;
+
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Initialized;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+
+/**
+ * Background job removing snapshots beyond the configured retention from streams that built them
+ * up before retention was enforced on store, or while it was disabled.
+ *
+ * Streams with too many snapshots are found and pruned in batches, and the job keeps going while
+ * full batches are found. Pruning only runs if a retention count is configured.
+ */
+@ApplicationScoped
+public class SnapshotPruner {
+
+    @Resource
+    ManagedScheduledExecutorService scheduledExecutorService;
+
+    @Inject
+    SnapshotRepository snapshotRepository;
+
+    @Inject
+    Logger logger;
+
+    @Inject
+    @Value(key = "snapshot.retention.count", defaultValue = "0")
+    long snapshotsToKeep;
+
+    @Inject
+    @Value(key = "snapshot.pruning.batch.size", defaultValue = "100")
+    long batchSize;
+
+    @Inject
+    @Value(key = "snapshot.pruning.interval.millis", defaultValue = "3600000")
+    long pruningIntervalMillis;
+
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+    private final AtomicLong prunedStreams = new AtomicLong();
+    private ScheduledFuture<?> pruningTask;
+
+    /**
+     * Starts pruning periodically, unless no retention count is configured or pruning has already
+     * started.
+     */
+    public synchronized void start() {
+        if (pruningTask != null || snapshotsToKeep < 1) {
+            return;
+        }
+
+        logger.info("Starting snapshot pruning, keeping {} snapshots per stream", snapshotsToKeep);
+        pruningTask = scheduledExecutorService.scheduleWithFixedDelay(this::prunePending, 0, pruningIntervalMillis, MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (pruningTask != null) {
+            logger.info("Stopping snapshot pruning");
+            pruningTask.cancel(false);
+            pruningTask = null;
+        }
+    }
+
+    /**
+     * Prunes one batch of streams holding more snapshots than the retention count.
+     *
+     * @return the number of streams pruned
+     */
+    public int pruneBatch() {
+        final List<SnapshotStream> snapshotStreams = snapshotRepository.findStreamsWithMoreSnapshotsThan((int) snapshotsToKeep, (int) batchSize);
+
+        long batchReclaimedBytes = 0;
+        for (final SnapshotStream snapshotStream : snapshotStreams) {
+            batchReclaimedBytes += snapshotRepository.removeSnapshotsBeyondRetention(snapshotStream.getStreamId(), snapshotStream.getType(), (int) snapshotsToKeep);
+        }
+
+        reclaimedBytes.addAndGet(batchReclaimedBytes);
+        prunedStreams.addAndGet(snapshotStreams.size());
+
+        if (!snapshotStreams.isEmpty()) {
+            logger.info("Pruned snapshots of {} streams, reclaimed {} bytes", snapshotStreams.size(), batchReclaimedBytes);
+        }
+
+        return snapshotStreams.size();
+    }
+
+    /**
+     * @return the size in bytes of the aggregates of the snapshots removed since startup
+     */
+    public long getReclaimedBytes() {
+        return reclaimedBytes.get();
+    }
+
+    /**
+     * @return the number of streams pruned since startup
+     */
+    public long getPrunedStreams() {
+        return prunedStreams.get();
+    }
+
+    void startPruning(@Observes @Initialized(ApplicationScoped.class) final Object event) {
+        start();
+    }
+
+    private void prunePending() {
+        try {
+            int pruned;
+            do {
+                pruned = pruneBatch();
+            } while (pruned == batchSize);
+        } catch (final RuntimeException e) {
+            logger.error("Failed to prune snapshots", e);
+        }
+    }
+}
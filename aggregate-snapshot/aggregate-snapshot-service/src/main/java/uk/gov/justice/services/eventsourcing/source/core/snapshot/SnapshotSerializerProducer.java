@@ -0,0 +1,39 @@
+package uk.gov.justice.services.eventsourcing.source.core.snapshot;
+
+import uk.gov.justice.domain.snapshot.SnapshotSerializer;
+import uk.gov.justice.services.common.configuration.GlobalValue;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Produces;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+
+/**
+ * Produces the {@link SnapshotSerializer} used to write snapshots. Java serialization remains the
+ * default so that snapshots written by a new deployment can still be read by nodes running the
+ * previous one.
+ */
+@ApplicationScoped
+public class SnapshotSerializerProducer {
+
+    private static final String INSTANTIATION_ERROR_MSG = "Could not instantiate snapshot serializer.";
+
+    @Inject
+    @GlobalValue(key = "snapshot.serializer", defaultValue = "uk.gov.justice.domain.snapshot.JavaSnapshotSerializer")
+    String serializerClass;
+
+    @Inject
+    Logger logger;
+
+    @Produces
+    public SnapshotSerializer snapshotSerializer() {
+        logger.info("Instantiating {}", serializerClass);
+        try {
+            final Class<?> clazz = Class.forName(serializerClass);
+            return (SnapshotSerializer) clazz.newInstance();
+        } catch (ClassNotFoundException | IllegalAccessException | InstantiationException e) {
+            throw new IllegalArgumentException(INSTANTIATION_ERROR_MSG, e);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package uk.gov.justice.services.core.aggregate;
+
+import static java.util.UUID.randomUUID;
+import static javax.transaction.Status.STATUS_ACTIVE;
+import static javax.transaction.Status.STATUS_COMMITTED;
+import static javax.transaction.Status.STATUS_ROLLEDBACK;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import uk.gov.justice.domain.aggregate.TestAggregate;
+import uk.gov.justice.domain.event.EventA;
+import uk.gov.justice.domain.snapshot.VersionedAggregate;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.slf4j.Logger;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AggregateCacheTest {
+
+    private static final UUID STREAM_ID = randomUUID();
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Mock
+    private Logger logger;
+
+    @InjectMocks
+    private AggregateCache aggregateCache;
+
+    @Before
+    public void setup() {
+        aggregateCache.maxEntries = 10;
+        aggregateCache.maxBytes = 1_000_000;
+        aggregateCache.maxAggregateBytes = 100_000;
+    }
+
+    @Test
+    public void shouldReturnCopyOfCachedAggregateWithVersion() {
+        final TestAggregate aggregate = aggregateWithEvents(3);
+
+        aggregateCache.put(STREAM_ID, 3L, aggregate);
+
+        final Optional<VersionedAggregate<TestAggregate>> cachedAggregate = aggregateCache.get(STREAM_ID, TestAggregate.class);
+        assertThat(cachedAggregate.isPresent(), is(true));
+        assertThat(cachedAggregate.get().getVersionId(), is(3L));
+        assertThat(cachedAggregate.get().getAggregate(), not(sameInstance(aggregate)));
+        assertThat(cachedAggregate.get().getAggregate().numberOfAppliedEvents(), is(3));
+        assertThat(aggregateCache.getHits(), is(1L));
+    }
+
+    @Test
+    public void shouldNotShareStateBetweenCopies() {
+        aggregateCache.put(STREAM_ID, 3L, aggregateWithEvents(3));
+
+        aggregateCache.get(STREAM_ID, TestAggregate.class).get().getAggregate().apply(new EventA("changed"));
+
+        assertThat(aggregateCache.get(STREAM_ID, TestAggregate.class).get().getAggregate().numberOfAppliedEvents(), is(3));
+    }
+
+    @Test
+    public void shouldCountMisses() {
+        assertThat(aggregateCache.get(STREAM_ID, TestAggregate.class), is(Optional.empty()));
+
+        assertThat(aggregateCache.getMisses(), is(1L));
+    }
+
+    @Test
+    public void shouldNotReplaceCachedAggregateWithOlderVersion() {
+        aggregateCache.put(STREAM_ID, 5L, aggregateWithEvents(5));
+        aggregateCache.put(STREAM_ID, 4L, aggregateWithEvents(4));
+
+        assertThat(aggregateCache.get(STREAM_ID, TestAggregate.class).get().getVersionId(), is(5L));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedAggregateWhenFull() {
+        aggregateCache.maxEntries = 2;
+        final UUID streamId1 = randomUUID();
+        final UUID streamId2 = randomUUID();
+        final UUID streamId3 = randomUUID();
+
+        aggregateCache.put(streamId1, 1L, aggregateWithEvents(1));
+        aggregateCache.put(streamId2, 1L, aggregateWithEvents(1));
+        aggregateCache.get(streamId1, TestAggregate.class);
+        aggregateCache.put(streamId3, 1L, aggregateWithEvents(1));
+
+        assertThat(aggregateCache.size(), is(2));
+        assertThat(aggregateCache.getEvictions(), is(1L));
+        assertThat(aggregateCache.get(streamId1, TestAggregate.class).isPresent(), is(true));
+        assertThat(aggregateCache.get(streamId2, TestAggregate.class).isPresent(), is(false));
+        assertThat(aggregateCache.get(streamId3, TestAggregate.class).isPresent(), is(true));
+    }
+
+    @Test
+    public void shouldEvictAggregatesBeyondMaximumSize() {
+        aggregateCache.put(STREAM_ID, 1L, aggregateWithEvents(1));
+        final long sizeOfOneAggregate = aggregateCache.getCachedBytes();
+        aggregateCache.maxBytes = sizeOfOneAggregate;
+
+        aggregateCache.put(randomUUID(), 1L, aggregateWithEvents(1));
+
+        assertThat(aggregateCache.size(), is(1));
+        assertThat(aggregateCache.getCachedBytes(), is(sizeOfOneAggregate));
+        assertThat(aggregateCache.get(STREAM_ID, TestAggregate.class).isPresent(), is(false));
+    }
+
+    @Test
+    public void shouldInvalidateCachedAggregatesOfStream() {
+        aggregateCache.put(STREAM_ID, 1L, aggregateWithEvents(1));
+
+        aggregateCache.invalidate(STREAM_ID);
+
+        assertThat(aggregateCache.get(STREAM_ID, TestAggregate.class).isPresent(), is(false));
+        assertThat(aggregateCache.getInvalidations(), is(1L));
+        assertThat(aggregateCache.getCachedBytes(), is(0L));
+    }
+
+    @Test
+    public void shouldCacheAggregateOnlyOnceTransactionCommits() {
+        givenActiveTransaction();
+
+        aggregateCache.put(STREAM_ID, 1L, aggregateWithEvents(1));
+
+        assertThat(aggregateCache.size(), is(0));
+
+        transactionSynchronization().afterCompletion(STATUS_COMMITTED);
+
+        assertThat(aggregateCache.get(STREAM_ID, TestAggregate.class).get().getVersionId(), is(1L));
+    }
+
+    @Test
+    public void shouldNotSerializeAggregateCachedOnCommitUntilItIsRead() {
+        givenActiveTransaction();
+        aggregateCache.put(STREAM_ID, 2L, aggregateWithEvents(2));
+
+        transactionSynchronization().afterCompletion(STATUS_COMMITTED);
+
+        assertThat(aggregateCache.size(), is(1));
+        assertThat(aggregateCache.getCachedBytes(), is(0L));
+
+        final VersionedAggregate<TestAggregate> cachedAggregate = aggregateCache.get(STREAM_ID, TestAggregate.class).get();
+
+        assertThat(cachedAggregate.getVersionId(), is(2L));
+        assertThat(cachedAggregate.getAggregate().numberOfAppliedEvents(), is(2));
+        assertThat(aggregateCache.getCachedBytes() > 0, is(true));
+    }
+
+    @Test
+    public void shouldNotCacheAggregateLargerThanLimit() {
+        aggregateCache.maxAggregateBytes = 1;
+
+        aggregateCache.put(STREAM_ID, 1L, aggregateWithEvents(1));
+
+        assertThat(aggregateCache.size(), is(0));
+    }
+
+    @Test
+    public void shouldDropAggregateCachedOnCommitIfLargerThanLimitWhenRead() {
+        aggregateCache.maxAggregateBytes = 1;
+        givenActiveTransaction();
+        aggregateCache.put(STREAM_ID, 1L, aggregateWithEvents(1));
+        transactionSynchronization().afterCompletion(STATUS_COMMITTED);
+
+        assertThat(aggregateCache.get(STREAM_ID, TestAggregate.class), is(Optional.empty()));
+        assertThat(aggregateCache.size(), is(0));
+        assertThat(aggregateCache.getCachedBytes(), is(0L));
+    }
+
+    @Test
+    public void shouldNotCacheAggregateIfTransactionRollsBack() {
+        givenActiveTransaction();
+
+        aggregateCache.put(STREAM_ID, 1L, aggregateWithEvents(1));
+        transactionSynchronization().afterCompletion(STATUS_ROLLEDBACK);
+
+        assertThat(aggregateCache.size(), is(0));
+    }
+
+    @Test
+    public void shouldDoNothingIfDisabled() {
+        aggregateCache.maxEntries = 0;
+
+        aggregateCache.put(STREAM_ID, 1L, aggregateWithEvents(1));
+
+        assertThat(aggregateCache.get(STREAM_ID, TestAggregate.class), is(Optional.empty()));
+        assertThat(aggregateCache.size(), is(0));
+        assertThat(aggregateCache.getMisses(), is(0L));
+    }
+
+    private TestAggregate aggregateWithEvents(final int count) {
+        final TestAggregate aggregate = new TestAggregate();
+        for (int i = 0; i < count; i++) {
+            aggregate.apply(new EventA("event" + i));
+        }
+        return aggregate;
+    }
+
+    private void givenActiveTransaction() {
+        when(transactionSynchronizationRegistry.getTransactionKey()).thenReturn(new Object());
+        when(transactionSynchronizationRegistry.getTransactionStatus()).thenReturn(STATUS_ACTIVE);
+    }
+
+    private Synchronization transactionSynchronization() {
+        final ArgumentCaptor<Synchronization> synchronizationCaptor = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionSynchronizationRegistry).registerInterposedSynchronization(synchronizationCaptor.capture());
+        return synchronizationCaptor.getValue();
+    }
+}
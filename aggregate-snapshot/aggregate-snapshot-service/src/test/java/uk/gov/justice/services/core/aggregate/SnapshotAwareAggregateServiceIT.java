@@ -52,8 +52,11 @@ import uk.gov.justice.services.eventsourcing.source.core.SnapshotAwareEnvelopeEv
 import uk.gov.justice.services.eventsourcing.source.core.SnapshotAwareEventSource;
 import uk.gov.justice.services.eventsourcing.source.core.SystemEventService;
 import uk.gov.justice.services.eventsourcing.source.core.exception.EventStreamException;
+import uk.gov.justice.services.eventsourcing.source.core.snapshot.AsyncSnapshotCreator;
 import uk.gov.justice.services.eventsourcing.source.core.snapshot.DefaultSnapshotService;
 import uk.gov.justice.services.eventsourcing.source.core.snapshot.DefaultSnapshotStrategy;
+import uk.gov.justice.services.eventsourcing.source.core.snapshot.SnapshotSerializerProducer;
+import uk.gov.justice.services.jdbc.persistence.JdbcConnectionMetrics;
 import uk.gov.justice.services.jdbc.persistence.JdbcDataSourceProvider;
 import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryException;
 import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryHelper;
@@ -152,6 +155,7 @@ public class SnapshotAwareAggregateServiceIT {
             TestEventInsertionStrategyProducer.class,
             EventJdbcRepository.class,
             JdbcRepositoryHelper.class,
+            JdbcConnectionMetrics.class,
             JdbcDataSourceProvider.class,
 
             LoggerProducer.class,
@@ -179,6 +183,9 @@ public class SnapshotAwareAggregateServiceIT {
             DefaultSnapshotStrategy.class,
             ValueProducer.class,
             DefaultSnapshotService.class,
+            AsyncSnapshotCreator.class,
+            AggregateCache.class,
+            SnapshotSerializerProducer.class,
             UtcClock.class,
             TestServiceContextNameProvider.class,
             GlobalValueProducer.class,
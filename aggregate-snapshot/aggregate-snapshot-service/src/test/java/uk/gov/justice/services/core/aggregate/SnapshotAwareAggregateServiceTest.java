@@ -6,11 +6,14 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.collection.IsEmptyCollection.empty;
 import static org.hamcrest.core.IsNull.notNullValue;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static uk.gov.justice.services.messaging.JsonEnvelope.envelopeFrom;
 import static uk.gov.justice.services.test.utils.core.messaging.JsonEnvelopeBuilder.envelope;
@@ -69,6 +72,9 @@ public class SnapshotAwareAggregateServiceTest {
     @Spy
     private DefaultAggregateService defaultAggregateService;
 
+    @Spy
+    private AggregateCache aggregateCache = new AggregateCache();
+
     @InjectMocks
     private SnapshotAwareAggregateService aggregateService;
 
@@ -95,6 +101,24 @@ public class SnapshotAwareAggregateServiceTest {
         verify(logger).trace("SnapshotAwareAggregateService Recreating aggregate for instance {} of aggregate type {}", STREAM_ID, TestAggregate.class);
     }
 
+    @Test
+    public void shouldCatchUpFromCachedAggregate() throws AggregateChangeDetectedException {
+        aggregateCache.maxEntries = 10;
+        aggregateCache.maxBytes = 1_000_000;
+        final TestAggregate cachedAggregate = new TestAggregate();
+        aggregateCache.put(STREAM_ID, 5L, cachedAggregate);
+
+        when(eventStream.getId()).thenReturn(STREAM_ID);
+        when(eventStream.readFrom(6L)).thenReturn(Stream.empty());
+
+        final TestAggregate aggregate = aggregateService.get(eventStream, TestAggregate.class);
+
+        assertThat(aggregate, notNullValue());
+        assertThat(aggregate, not(sameInstance(cachedAggregate)));
+        verify(eventStream).readFrom(6L);
+        verifyZeroInteractions(snapshotService);
+    }
+
     @Test
     public void shouldCreateAggregateFromStreamWithOneEvent() throws AggregateChangeDetectedException {
         Optional<VersionedAggregate<TestAggregate>> versionedAggregate = Optional.empty();
@@ -5,6 +5,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -12,7 +13,9 @@ import static uk.gov.justice.services.test.utils.core.messaging.JsonEnvelopeBuil
 import static uk.gov.justice.services.test.utils.core.messaging.MetadataBuilderFactory.metadataWithDefaults;
 
 import uk.gov.justice.domain.aggregate.TestAggregate;
-import uk.gov.justice.services.eventsourcing.source.core.snapshot.SnapshotService;
+import uk.gov.justice.services.core.aggregate.AggregateCache;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.OptimisticLockingRetryException;
+import uk.gov.justice.services.eventsourcing.source.core.snapshot.AsyncSnapshotCreator;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
 import java.util.List;
@@ -34,14 +37,17 @@ public class SnapshotAwareEnvelopeEventStreamTest {
     private EventStreamManager eventStreamManager;
 
     @Mock
-    private SnapshotService snapshotService;
+    private AsyncSnapshotCreator snapshotCreator;
+
+    @Mock
+    private AggregateCache aggregateCache;
 
     private SnapshotAwareEnvelopeEventStream eventStream;
 
 
     @Before
     public void setup() {
-        eventStream = new SnapshotAwareEnvelopeEventStream(STREAM_ID, eventStreamManager, snapshotService);
+        eventStream = new SnapshotAwareEnvelopeEventStream(STREAM_ID, eventStreamManager, snapshotCreator, aggregateCache);
     }
 
     @Test
@@ -115,7 +121,7 @@ public class SnapshotAwareEnvelopeEventStreamTest {
 
         eventStream.append(streamOfEvents);
 
-        verify(snapshotService).attemptAggregateStore(STREAM_ID, streamVersionAfterAppending, aggregate);
+        verify(snapshotCreator).createSnapshot(STREAM_ID, streamVersionAfterAppending, aggregate);
 
     }
 
@@ -125,7 +131,7 @@ public class SnapshotAwareEnvelopeEventStreamTest {
 
         eventStream.append(Stream.of(envelope().build()), Tolerance.NON_CONSECUTIVE);
 
-        verifyZeroInteractions(snapshotService);
+        verifyZeroInteractions(snapshotCreator);
 
     }
 
@@ -140,7 +146,7 @@ public class SnapshotAwareEnvelopeEventStreamTest {
 
         eventStream.append(streamOfEvents, Tolerance.CONSECUTIVE);
 
-        verify(snapshotService).attemptAggregateStore(STREAM_ID, streamVersionAfterAppending, aggregate);
+        verify(snapshotCreator).createSnapshot(STREAM_ID, streamVersionAfterAppending, aggregate);
 
     }
 
@@ -156,8 +162,40 @@ public class SnapshotAwareEnvelopeEventStreamTest {
 
         eventStream.appendAfter(streamOfEvents, streamVersionToAppendAfter);
 
-        verify(snapshotService).attemptAggregateStore(STREAM_ID, streamVersionAfterAppending, aggregate);
+        verify(snapshotCreator).createSnapshot(STREAM_ID, streamVersionAfterAppending, aggregate);
 
     }
 
+    @Test
+    public void shouldCacheAggregateOnAppendingEvents() throws Exception {
+        final TestAggregate aggregate = new TestAggregate();
+        eventStream.registerAggregates(TestAggregate.class, aggregate);
+
+        final long streamVersionAfterAppending = 14L;
+        final Stream<JsonEnvelope> streamOfEvents = Stream.of(envelope().build());
+        when(eventStreamManager.append(STREAM_ID, streamOfEvents)).thenReturn(streamVersionAfterAppending);
+
+        eventStream.append(streamOfEvents);
+
+        verify(aggregateCache).put(STREAM_ID, streamVersionAfterAppending, aggregate);
+    }
+
+    @Test
+    public void shouldInvalidateCachedAggregatesOnOptimisticLockFailure() throws Exception {
+        eventStream.registerAggregates(TestAggregate.class, new TestAggregate());
+
+        final Stream<JsonEnvelope> streamOfEvents = Stream.of(envelope().build());
+        final OptimisticLockingRetryException optimisticLockingRetryException = new OptimisticLockingRetryException("Ooops");
+        when(eventStreamManager.append(STREAM_ID, streamOfEvents)).thenThrow(optimisticLockingRetryException);
+
+        try {
+            eventStream.append(streamOfEvents);
+            fail();
+        } catch (final OptimisticLockingRetryException e) {
+            assertThat(e, is(optimisticLockingRetryException));
+        }
+
+        verify(aggregateCache).invalidate(STREAM_ID);
+        verifyZeroInteractions(snapshotCreator);
+    }
 }
@@ -10,6 +10,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import uk.gov.justice.services.core.aggregate.AggregateCache;
 import uk.gov.justice.services.eventsourcing.repository.jdbc.DefaultEventRepository;
 import uk.gov.justice.services.eventsourcing.repository.jdbc.DefaultEventStreamMetadata;
 import uk.gov.justice.services.eventsourcing.repository.jdbc.EventStreamMetadata;
@@ -37,6 +38,9 @@ public class SnapshotAwareEventSourceTest {
     @Mock
     private DefaultEventRepository eventRepository;
 
+    @Mock
+    private AggregateCache aggregateCache;
+
     @InjectMocks
     SnapshotAwareEventSource eventSource;
 
@@ -61,6 +65,7 @@ public class SnapshotAwareEventSourceTest {
         eventSource.clearStream(STREAM_ID);
 
         verify(eventStreamManager).clear(STREAM_ID);
+        verify(aggregateCache).invalidate(STREAM_ID);
     }
 
     @Test
@@ -0,0 +1,202 @@
+package uk.gov.justice.services.eventsourcing.source.core.snapshot;
+
+import static java.util.UUID.randomUUID;
+import static javax.transaction.Status.STATUS_ACTIVE;
+import static javax.transaction.Status.STATUS_COMMITTED;
+import static javax.transaction.Status.STATUS_ROLLEDBACK;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import uk.gov.justice.domain.aggregate.Aggregate;
+import uk.gov.justice.domain.aggregate.TestAggregate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.slf4j.Logger;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncSnapshotCreatorTest {
+
+    private static final UUID STREAM_ID = randomUUID();
+
+    @Mock
+    private ManagedExecutorService executorService;
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Mock
+    private SnapshotService snapshotService;
+
+    @Mock
+    private Logger logger;
+
+    @InjectMocks
+    private AsyncSnapshotCreator snapshotCreator;
+
+    private final Map<Object, Object> transactionResources = new HashMap<>();
+
+    @Before
+    public void setup() {
+        snapshotCreator.maxQueueDepth = 10;
+
+        when(transactionSynchronizationRegistry.getResource(any())).thenAnswer(invocation -> transactionResources.get(invocation.getArguments()[0]));
+        doAnswer(invocation -> transactionResources.put(invocation.getArguments()[0], invocation.getArguments()[1]))
+                .when(transactionSynchronizationRegistry).putResource(any(), any());
+    }
+
+    @Test
+    public void shouldCreateSnapshotInLineOutsideTransaction() {
+        final TestAggregate aggregate = new TestAggregate();
+
+        snapshotCreator.createSnapshot(STREAM_ID, 25L, aggregate);
+
+        verify(snapshotService).attemptAggregateStore(STREAM_ID, 25L, aggregate);
+        verifyZeroInteractions(executorService);
+        assertThat(snapshotCreator.getSnapshotWrites(), is(1L));
+    }
+
+    @Test
+    public void shouldCreateSnapshotOnExecutorAfterTransactionCommits() {
+        final TestAggregate aggregate = new TestAggregate();
+        givenActiveTransaction();
+
+        snapshotCreator.createSnapshot(STREAM_ID, 25L, aggregate);
+
+        verifyZeroInteractions(snapshotService, executorService);
+
+        transactionSynchronization().afterCompletion(STATUS_COMMITTED);
+
+        assertThat(snapshotCreator.getQueueDepth(), is(1));
+        verify(snapshotService, never()).attemptAggregateStore(any(UUID.class), anyLong(), any(Aggregate.class));
+
+        submittedTasks().forEach(Runnable::run);
+
+        verify(snapshotService).attemptAggregateStore(STREAM_ID, 25L, aggregate);
+        assertThat(snapshotCreator.getQueueDepth(), is(0));
+        assertThat(snapshotCreator.getSnapshotWrites(), is(1L));
+    }
+
+    @Test
+    public void shouldDiscardSnapshotRequestsIfTransactionRollsBack() {
+        givenActiveTransaction();
+
+        snapshotCreator.createSnapshot(STREAM_ID, 25L, new TestAggregate());
+        transactionSynchronization().afterCompletion(STATUS_ROLLEDBACK);
+
+        verifyZeroInteractions(snapshotService, executorService);
+        assertThat(snapshotCreator.getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void shouldKeepLatestSnapshotRequestPerStreamWithinTransaction() {
+        final TestAggregate aggregate = new TestAggregate();
+        givenActiveTransaction();
+
+        snapshotCreator.createSnapshot(STREAM_ID, 25L, aggregate);
+        snapshotCreator.createSnapshot(STREAM_ID, 26L, aggregate);
+        transactionSynchronization().afterCompletion(STATUS_COMMITTED);
+
+        verify(transactionSynchronizationRegistry).registerInterposedSynchronization(any(Synchronization.class));
+        submittedTasks().forEach(Runnable::run);
+
+        verify(snapshotService).attemptAggregateStore(STREAM_ID, 26L, aggregate);
+        verify(snapshotService, never()).attemptAggregateStore(STREAM_ID, 25L, aggregate);
+    }
+
+    @Test
+    public void shouldCoalesceRequestsForStreamWaitingForExecutor() {
+        final TestAggregate aggregate = new TestAggregate();
+
+        snapshotCreator.enqueue(new AsyncSnapshotCreator.SnapshotRequest(STREAM_ID, 25L, aggregate));
+        snapshotCreator.enqueue(new AsyncSnapshotCreator.SnapshotRequest(STREAM_ID, 50L, aggregate));
+        snapshotCreator.enqueue(new AsyncSnapshotCreator.SnapshotRequest(STREAM_ID, 40L, aggregate));
+
+        final List<Runnable> tasks = submittedTasks();
+        assertThat(tasks.size(), is(1));
+        assertThat(snapshotCreator.getCoalescedRequests(), is(2L));
+        assertThat(snapshotCreator.getQueueDepth(), is(1));
+
+        tasks.forEach(Runnable::run);
+
+        verify(snapshotService, times(1)).attemptAggregateStore(any(UUID.class), anyLong(), any(Aggregate.class));
+        verify(snapshotService).attemptAggregateStore(STREAM_ID, 50L, aggregate);
+    }
+
+    @Test
+    public void shouldDropRequestsWhenQueueIsFull() {
+        snapshotCreator.maxQueueDepth = 1;
+
+        snapshotCreator.enqueue(new AsyncSnapshotCreator.SnapshotRequest(STREAM_ID, 25L, new TestAggregate()));
+        snapshotCreator.enqueue(new AsyncSnapshotCreator.SnapshotRequest(randomUUID(), 25L, new TestAggregate()));
+
+        assertThat(submittedTasks().size(), is(1));
+        assertThat(snapshotCreator.getDroppedRequests(), is(1L));
+        assertThat(snapshotCreator.getQueueDepth(), is(1));
+    }
+
+    @Test
+    public void shouldDropRequestRejectedByExecutor() {
+        doThrow(new RejectedExecutionException()).when(executorService).execute(any(Runnable.class));
+
+        snapshotCreator.enqueue(new AsyncSnapshotCreator.SnapshotRequest(STREAM_ID, 25L, new TestAggregate()));
+
+        assertThat(snapshotCreator.getDroppedRequests(), is(1L));
+        assertThat(snapshotCreator.getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void shouldCountFailedSnapshotWrites() {
+        final TestAggregate aggregate = new TestAggregate();
+        doThrow(new RuntimeException("Ooops")).when(snapshotService).attemptAggregateStore(STREAM_ID, 25L, aggregate);
+
+        snapshotCreator.enqueue(new AsyncSnapshotCreator.SnapshotRequest(STREAM_ID, 25L, aggregate));
+        submittedTasks().forEach(Runnable::run);
+
+        assertThat(snapshotCreator.getFailedSnapshotWrites(), is(1L));
+        assertThat(snapshotCreator.getSnapshotWrites(), is(1L));
+        assertThat(snapshotCreator.getQueueDepth(), is(0));
+    }
+
+    private void givenActiveTransaction() {
+        when(transactionSynchronizationRegistry.getTransactionKey()).thenReturn(new Object());
+        when(transactionSynchronizationRegistry.getTransactionStatus()).thenReturn(STATUS_ACTIVE);
+    }
+
+    private Synchronization transactionSynchronization() {
+        final ArgumentCaptor<Synchronization> synchronizationCaptor = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionSynchronizationRegistry).registerInterposedSynchronization(synchronizationCaptor.capture());
+        return synchronizationCaptor.getValue();
+    }
+
+    private List<Runnable> submittedTasks() {
+        final ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService, atLeastOnce()).execute(taskCaptor.capture());
+        return taskCaptor.getAllValues();
+    }
+}
@@ -4,7 +4,9 @@ import static java.util.UUID.randomUUID;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.core.IsNull.notNullValue;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -12,10 +14,15 @@ import static org.mockito.Mockito.when;
 
 import uk.gov.justice.domain.aggregate.NoSerializableTestAggregate;
 import uk.gov.justice.domain.aggregate.TestAggregate;
+import uk.gov.justice.domain.event.EventA;
 import uk.gov.justice.domain.snapshot.AggregateSnapshot;
+import uk.gov.justice.domain.snapshot.CompactSnapshotSerializer;
+import uk.gov.justice.domain.snapshot.JavaSnapshotSerializer;
+import uk.gov.justice.domain.snapshot.SnapshotSerializer;
 import uk.gov.justice.domain.snapshot.VersionedAggregate;
 import uk.gov.justice.services.core.aggregate.exception.AggregateChangeDetectedException;
 import uk.gov.justice.services.eventsourcing.jdbc.snapshot.SnapshotRepository;
+import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryException;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -24,8 +31,10 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.slf4j.Logger;
 
@@ -43,6 +52,9 @@ public class DefaultSnapshotServiceTest {
     @Mock
     private Logger logger;
 
+    @Spy
+    private SnapshotSerializer snapshotSerializer = new JavaSnapshotSerializer();
+
     @Captor
     private ArgumentCaptor<AggregateSnapshot<TestAggregate>> snapshotArgumentCaptor;
 
@@ -115,4 +127,86 @@ public class DefaultSnapshotServiceTest {
         verify(snapshotRepository, never()).storeSnapshot(any(AggregateSnapshot.class));
     }
 
+    @Test
+    public void shouldRemoveSnapshotsBeyondRetentionAfterStoringSnapshot() throws AggregateChangeDetectedException {
+        final TestAggregate aggregate = new TestAggregate();
+        snapshotService.snapshotsToKeep = 2;
+        when(snapshotRepository.getLatestSnapshotVersion(STREAM_ID, TestAggregate.class)).thenReturn(0L);
+        when(snapshotStrategy.shouldCreateSnapshot(26L, 0L)).thenReturn(true);
+
+        snapshotService.attemptAggregateStore(STREAM_ID, 26L, aggregate);
+
+        final InOrder inOrder = inOrder(snapshotRepository);
+        inOrder.verify(snapshotRepository).storeSnapshot(any(AggregateSnapshot.class));
+        inOrder.verify(snapshotRepository).removeSnapshotsBeyondRetention(STREAM_ID, TestAggregate.class.getName(), 2);
+    }
+
+    @Test
+    public void shouldKeepAllSnapshotsIfNoRetentionConfigured() throws AggregateChangeDetectedException {
+        final TestAggregate aggregate = new TestAggregate();
+        when(snapshotRepository.getLatestSnapshotVersion(STREAM_ID, TestAggregate.class)).thenReturn(0L);
+        when(snapshotStrategy.shouldCreateSnapshot(26L, 0L)).thenReturn(true);
+
+        snapshotService.attemptAggregateStore(STREAM_ID, 26L, aggregate);
+
+        verify(snapshotRepository).storeSnapshot(any(AggregateSnapshot.class));
+        verify(snapshotRepository, never()).removeSnapshotsBeyondRetention(any(UUID.class), any(String.class), anyInt());
+    }
+
+    @Test
+    public void shouldNotFailSnapshotStoreIfRemovingOldSnapshotsFails() throws AggregateChangeDetectedException {
+        final TestAggregate aggregate = new TestAggregate();
+        snapshotService.snapshotsToKeep = 2;
+        when(snapshotRepository.getLatestSnapshotVersion(STREAM_ID, TestAggregate.class)).thenReturn(0L);
+        when(snapshotStrategy.shouldCreateSnapshot(26L, 0L)).thenReturn(true);
+        when(snapshotRepository.removeSnapshotsBeyondRetention(STREAM_ID, TestAggregate.class.getName(), 2)).thenThrow(new JdbcRepositoryException("Ooops"));
+
+        snapshotService.attemptAggregateStore(STREAM_ID, 26L, aggregate);
+
+        verify(snapshotRepository).storeSnapshot(any(AggregateSnapshot.class));
+    }
+
+    @Test
+    public void shouldStoreSnapshotWithConfiguredSerializer() throws AggregateChangeDetectedException {
+        final TestAggregate aggregate = new TestAggregate();
+        final CompactSnapshotSerializer compactSnapshotSerializer = new CompactSnapshotSerializer();
+        snapshotService.snapshotSerializer = compactSnapshotSerializer;
+        when(snapshotRepository.getLatestSnapshotVersion(STREAM_ID, TestAggregate.class)).thenReturn(0L);
+        when(snapshotStrategy.shouldCreateSnapshot(26L, 0L)).thenReturn(true);
+
+        snapshotService.attemptAggregateStore(STREAM_ID, 26L, aggregate);
+
+        verify(snapshotRepository).storeSnapshot(snapshotArgumentCaptor.capture());
+        assertThat(compactSnapshotSerializer.canDeserialize(snapshotArgumentCaptor.getValue().getAggregateByteRepresentation()), is(true));
+    }
+
+    @Test
+    public void shouldReadSnapshotWithConfiguredSerializer() throws AggregateChangeDetectedException {
+        final TestAggregate aggregate = new TestAggregate();
+        aggregate.apply(new EventA("a"));
+        final CompactSnapshotSerializer compactSnapshotSerializer = new CompactSnapshotSerializer();
+        snapshotService.snapshotSerializer = compactSnapshotSerializer;
+        when(snapshotRepository.getLatestSnapshot(STREAM_ID, TestAggregate.class))
+                .thenReturn(Optional.of(new AggregateSnapshot<>(STREAM_ID, 26L, aggregate, compactSnapshotSerializer)));
+
+        final Optional<VersionedAggregate<TestAggregate>> versionedAggregate = snapshotService.getLatestVersionedAggregate(STREAM_ID, TestAggregate.class);
+
+        assertThat(versionedAggregate.isPresent(), is(true));
+        assertThat(versionedAggregate.get().getVersionId(), is(26L));
+        assertThat(versionedAggregate.get().getAggregate().numberOfAppliedEvents(), is(1));
+    }
+
+    @Test
+    public void shouldReadJavaSerializedSnapshotWhenCompactSerializerConfigured() throws AggregateChangeDetectedException {
+        final TestAggregate aggregate = new TestAggregate();
+        aggregate.apply(new EventA("a"));
+        snapshotService.snapshotSerializer = new CompactSnapshotSerializer();
+        when(snapshotRepository.getLatestSnapshot(STREAM_ID, TestAggregate.class))
+                .thenReturn(Optional.of(new AggregateSnapshot<>(STREAM_ID, 26L, aggregate)));
+
+        final Optional<VersionedAggregate<TestAggregate>> versionedAggregate = snapshotService.getLatestVersionedAggregate(STREAM_ID, TestAggregate.class);
+
+        assertThat(versionedAggregate.isPresent(), is(true));
+        assertThat(versionedAggregate.get().getAggregate().numberOfAppliedEvents(), is(1));
+    }
 }
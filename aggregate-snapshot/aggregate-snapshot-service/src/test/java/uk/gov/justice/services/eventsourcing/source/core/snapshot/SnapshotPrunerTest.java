@@ -0,0 +1,93 @@
+package uk.gov.justice.services.eventsourcing.source.core.snapshot;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import uk.gov.justice.services.eventsourcing.jdbc.snapshot.SnapshotRepository;
+import uk.gov.justice.services.eventsourcing.jdbc.snapshot.SnapshotStream;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.slf4j.Logger;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SnapshotPrunerTest {
+
+    private static final String TYPE = "uk.gov.justice.domain.aggregate.TestAggregate";
+
+    @Mock
+    private ManagedScheduledExecutorService scheduledExecutorService;
+
+    @Mock
+    private SnapshotRepository snapshotRepository;
+
+    @Mock
+    private Logger logger;
+
+    @InjectMocks
+    private SnapshotPruner snapshotPruner;
+
+    @Before
+    public void setup() {
+        snapshotPruner.snapshotsToKeep = 2;
+        snapshotPruner.batchSize = 100;
+        snapshotPruner.pruningIntervalMillis = 1000;
+    }
+
+    @Test
+    public void shouldPruneStreamsWithTooManySnapshotsAndReportReclaimedBytes() {
+        final SnapshotStream snapshotStream1 = new SnapshotStream(randomUUID(), TYPE);
+        final SnapshotStream snapshotStream2 = new SnapshotStream(randomUUID(), TYPE);
+        when(snapshotRepository.findStreamsWithMoreSnapshotsThan(2, 100)).thenReturn(asList(snapshotStream1, snapshotStream2));
+        when(snapshotRepository.removeSnapshotsBeyondRetention(snapshotStream1.getStreamId(), TYPE, 2)).thenReturn(1000L);
+        when(snapshotRepository.removeSnapshotsBeyondRetention(snapshotStream2.getStreamId(), TYPE, 2)).thenReturn(500L);
+
+        assertThat(snapshotPruner.pruneBatch(), is(2));
+
+        assertThat(snapshotPruner.getReclaimedBytes(), is(1500L));
+        assertThat(snapshotPruner.getPrunedStreams(), is(2L));
+    }
+
+    @Test
+    public void shouldDoNothingIfNoStreamsHaveTooManySnapshots() {
+        when(snapshotRepository.findStreamsWithMoreSnapshotsThan(2, 100)).thenReturn(emptyList());
+
+        assertThat(snapshotPruner.pruneBatch(), is(0));
+
+        assertThat(snapshotPruner.getReclaimedBytes(), is(0L));
+    }
+
+    @Test
+    public void shouldSchedulePruningIfRetentionConfigured() {
+        snapshotPruner.start();
+
+        verify(scheduledExecutorService).scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void shouldNotSchedulePruningIfNoRetentionConfigured() {
+        snapshotPruner.snapshotsToKeep = 0;
+
+        snapshotPruner.start();
+
+        verifyZeroInteractions(scheduledExecutorService);
+        verify(snapshotRepository, never()).findStreamsWithMoreSnapshotsThan(2, 100);
+    }
+}
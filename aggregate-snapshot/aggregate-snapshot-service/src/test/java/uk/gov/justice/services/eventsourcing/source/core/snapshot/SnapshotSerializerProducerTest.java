@@ -0,0 +1,51 @@
+package uk.gov.justice.services.eventsourcing.source.core.snapshot;
+
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import uk.gov.justice.domain.snapshot.CompactSnapshotSerializer;
+import uk.gov.justice.domain.snapshot.JavaSnapshotSerializer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.slf4j.Logger;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SnapshotSerializerProducerTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Mock
+    private Logger logger;
+
+    @InjectMocks
+    private SnapshotSerializerProducer snapshotSerializerProducer;
+
+    @Test
+    public void shouldProduceJavaSnapshotSerializer() throws Exception {
+        snapshotSerializerProducer.serializerClass = "uk.gov.justice.domain.snapshot.JavaSnapshotSerializer";
+        assertThat(snapshotSerializerProducer.snapshotSerializer(), instanceOf(JavaSnapshotSerializer.class));
+    }
+
+    @Test
+    public void shouldProduceCompactSnapshotSerializer() throws Exception {
+        snapshotSerializerProducer.serializerClass = "uk.gov.justice.domain.snapshot.CompactSnapshotSerializer";
+        assertThat(snapshotSerializerProducer.snapshotSerializer(), instanceOf(CompactSnapshotSerializer.class));
+    }
+
+    @Test
+    public void shouldThrowExceptionIfClassDoesNotExist() {
+        snapshotSerializerProducer.serializerClass = "uk.gov.justice.domain.snapshot.SomeUnknownSerializer";
+
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("Could not instantiate snapshot serializer");
+
+        snapshotSerializerProducer.snapshotSerializer();
+    }
+}
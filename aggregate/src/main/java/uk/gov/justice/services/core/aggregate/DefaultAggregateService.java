@@ -4,15 +4,19 @@ import static java.lang.String.format;
 import static uk.gov.justice.domain.annotation.Event.SYSTEM_EVENTS;
 
 import uk.gov.justice.domain.aggregate.Aggregate;
+import uk.gov.justice.services.common.configuration.GlobalValue;
 import uk.gov.justice.services.common.converter.JsonObjectToObjectConverter;
 import uk.gov.justice.services.core.extension.EventFoundEvent;
 import uk.gov.justice.services.eventsourcing.source.core.EventStream;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Stream;
 
 import javax.annotation.Priority;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.enterprise.inject.Alternative;
@@ -22,6 +26,12 @@ import org.slf4j.Logger;
 
 /**
  * Service for replaying event streams on aggregates.
+ *
+ * Events are decoded on the replaying thread unless aggregate.replay.decoder.threads is
+ * configured, in which case reading and decoding run ahead of the aggregate on the managed
+ * executor, up to aggregate.replay.lookahead events, while the aggregate still applies them in
+ * stream order. Replaying fails if the next event is not decoded within
+ * aggregate.replay.timeout.millis.
  */
 @ApplicationScoped
 @Alternative
@@ -34,6 +44,21 @@ public class DefaultAggregateService implements AggregateService {
     @Inject
     JsonObjectToObjectConverter jsonObjectToObjectConverter;
 
+    @Resource
+    ManagedExecutorService executorService;
+
+    @Inject
+    @GlobalValue(key = "aggregate.replay.decoder.threads", defaultValue = "0")
+    long decoderThreads;
+
+    @Inject
+    @GlobalValue(key = "aggregate.replay.lookahead", defaultValue = "256")
+    long lookAhead;
+
+    @Inject
+    @GlobalValue(key = "aggregate.replay.timeout.millis", defaultValue = "60000")
+    long replayTimeoutMillis;
+
     private ConcurrentHashMap<String, Class<?>> eventMap = new ConcurrentHashMap<>();
 
     /**
@@ -57,8 +82,9 @@ public class DefaultAggregateService implements AggregateService {
 
     public <T extends Aggregate> T applyEvents(final Stream<JsonEnvelope> events, final T aggregate) {
         logger.trace("Apply events for aggregate: {}", aggregate.getClass());
-        try (final Stream<JsonEnvelope> e1 = events){
-            aggregate.applyForEach(events.filter(e -> !e.metadata().name().startsWith(SYSTEM_EVENTS)).map(this::convertEnvelopeToEvent));
+        try (final Stream<JsonEnvelope> e1 = events;
+             final Stream<Object> decodedEvents = decode(events.filter(e -> !e.metadata().name().startsWith(SYSTEM_EVENTS)))) {
+            aggregate.applyForEach(decodedEvents);
             return aggregate;
         }
     }
@@ -74,6 +100,17 @@ public class DefaultAggregateService implements AggregateService {
         eventMap.putIfAbsent(event.getEventName(), event.getClazz());
     }
 
+    private Stream<Object> decode(final Stream<JsonEnvelope> events) {
+        if (decoderThreads > 0 && executorService != null) {
+            try {
+                return new PipelinedEventDecoder(executorService, (int) decoderThreads, (int) Math.max(lookAhead, 1), replayTimeoutMillis, this::convertEnvelopeToEvent).decode(events);
+            } catch (final RejectedExecutionException e) {
+                logger.warn("Executor rejected event decoding, decoding events on the replaying thread");
+            }
+        }
+        return events.map(this::convertEnvelopeToEvent);
+    }
+
     private Object convertEnvelopeToEvent(final JsonEnvelope event) {
         final String name = event.metadata().name();
         if (!eventMap.containsKey(name)) {
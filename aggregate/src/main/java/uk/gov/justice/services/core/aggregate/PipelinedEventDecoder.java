@@ -0,0 +1,236 @@
+package uk.gov.justice.services.core.aggregate;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import java.util.Iterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Decodes a stream of event envelopes ahead of the aggregate applying them.
+ *
+ * One task on the executor reads envelopes from the source stream and hands each one to the
+ * executor to be decoded, up to decoderThreads at a time, while the caller takes the decoded
+ * events strictly in stream order. When all decoders are busy, or the executor rejects a decode,
+ * the reader decodes the envelope itself, so no task ever waits for another task to be run. At
+ * most lookAhead events are read ahead of the caller, so memory use stays bounded however long
+ * the stream is. A failure to read or decode an event is rethrown to the caller when it reaches
+ * that event, and the caller gives up if the next event is not decoded within timeoutMillis.
+ *
+ * Closing the decoded stream stops reading, and waits until the source stream is no longer in use
+ * so that the caller can close it.
+ */
+class PipelinedEventDecoder {
+
+    private static final long POLL_INTERVAL_MILLIS = 100L;
+
+    private final Executor executor;
+    private final int decoderThreads;
+    private final int lookAhead;
+    private final long timeoutMillis;
+    private final Function<JsonEnvelope, Object> decoder;
+
+    PipelinedEventDecoder(final Executor executor,
+                          final int decoderThreads,
+                          final int lookAhead,
+                          final long timeoutMillis,
+                          final Function<JsonEnvelope, Object> decoder) {
+        this.executor = executor;
+        this.decoderThreads = decoderThreads;
+        this.lookAhead = lookAhead;
+        this.timeoutMillis = timeoutMillis;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Starts decoding the envelopes on the executor.
+     *
+     * @param envelopes the envelopes to decode, which must not be used again until the returned
+     *                  stream is closed
+     * @return the decoded events, in the order of the envelopes
+     * @throws RejectedExecutionException if the executor does not accept the reading task, in
+     *                                    which case no envelope has been read
+     */
+    Stream<Object> decode(final Stream<JsonEnvelope> envelopes) {
+        final Pipeline pipeline = new Pipeline(envelopes);
+        pipeline.start();
+        return StreamSupport.stream(pipeline, false).onClose(pipeline::close);
+    }
+
+    private class Pipeline extends Spliterators.AbstractSpliterator<Object> {
+
+        private final CompletableFuture<Object> endOfStream = new CompletableFuture<>();
+
+        private final Stream<JsonEnvelope> envelopes;
+        private final BlockingQueue<CompletableFuture<Object>> decodedEvents = new ArrayBlockingQueue<>(lookAhead);
+        private final Semaphore idleDecoders = new Semaphore(decoderThreads);
+        private final AtomicBoolean readerClaimed = new AtomicBoolean();
+        private final CompletableFuture<Void> readerFinished = new CompletableFuture<>();
+
+        private volatile boolean closed;
+        private boolean readerStarted;
+
+        Pipeline(final Stream<JsonEnvelope> envelopes) {
+            super(Long.MAX_VALUE, ORDERED | NONNULL);
+            this.envelopes = envelopes;
+        }
+
+        void start() {
+            try {
+                executor.execute(this::readEnvelopes);
+                readerStarted = true;
+            } catch (final RejectedExecutionException e) {
+                closed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super Object> action) {
+            final CompletableFuture<Object> decodedEvent = nextDecodedEvent();
+            if (decodedEvent == endOfStream) {
+                return false;
+            }
+
+            action.accept(resultOf(decodedEvent));
+            return true;
+        }
+
+        /**
+         * Stops reading. If the reader has not yet been run by the executor it never touches the
+         * source stream, otherwise this waits for it to finish.
+         */
+        void close() {
+            closed = true;
+            decodedEvents.clear();
+            if (readerStarted && !readerClaimed.compareAndSet(false, true)) {
+                readerFinished.join();
+            }
+        }
+
+        private CompletableFuture<Object> nextDecodedEvent() {
+            try {
+                final CompletableFuture<Object> decodedEvent = decodedEvents.poll(timeoutMillis, MILLISECONDS);
+                if (decodedEvent == null) {
+                    throw new IllegalStateException(format("Timed out after %d ms waiting for the next event to be read", timeoutMillis));
+                }
+                return decodedEvent;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the next event to be decoded", e);
+            }
+        }
+
+        private Object resultOf(final CompletableFuture<Object> decodedEvent) {
+            try {
+                return decodedEvent.get(timeoutMillis, MILLISECONDS);
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException("Failed to decode event", e.getCause());
+            } catch (final TimeoutException e) {
+                throw new IllegalStateException(format("Timed out after %d ms waiting for the next event to be decoded", timeoutMillis), e);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the next event to be decoded", e);
+            }
+        }
+
+        private void readEnvelopes() {
+            if (!readerClaimed.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                final Iterator<JsonEnvelope> iterator = envelopes.iterator();
+                while (!closed && iterator.hasNext()) {
+                    final JsonEnvelope envelope = iterator.next();
+                    final CompletableFuture<Object> decodedEvent = new CompletableFuture<>();
+                    if (!offer(decodedEvent)) {
+                        return;
+                    }
+                    dispatch(new DecodeTask(envelope, decodedEvent));
+                }
+                offer(endOfStream);
+            } catch (final RuntimeException e) {
+                final CompletableFuture<Object> failure = new CompletableFuture<>();
+                failure.completeExceptionally(e);
+                offer(failure);
+            } finally {
+                readerFinished.complete(null);
+            }
+        }
+
+        private boolean offer(final CompletableFuture<Object> decodedEvent) {
+            try {
+                while (!closed) {
+                    if (decodedEvents.offer(decodedEvent, POLL_INTERVAL_MILLIS, MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        /**
+         * Hands the decoding to the executor if a decoder is free, otherwise decodes on the
+         * reading thread rather than waiting.
+         */
+        private void dispatch(final DecodeTask task) {
+            if (!idleDecoders.tryAcquire()) {
+                task.run();
+                return;
+            }
+
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        idleDecoders.release();
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                idleDecoders.release();
+                task.run();
+            }
+        }
+    }
+
+    private class DecodeTask {
+
+        private final JsonEnvelope envelope;
+        private final CompletableFuture<Object> decodedEvent;
+
+        DecodeTask(final JsonEnvelope envelope, final CompletableFuture<Object> decodedEvent) {
+            this.envelope = envelope;
+            this.decodedEvent = decodedEvent;
+        }
+
+        void run() {
+            try {
+                decodedEvent.complete(decoder.apply(envelope));
+            } catch (final RuntimeException e) {
+                decodedEvent.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package uk.gov.justice.services.core.aggregate;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+import static javax.json.Json.createArrayBuilder;
+import static javax.json.Json.createObjectBuilder;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.mock;
+import static org.slf4j.LoggerFactory.getLogger;
+import static uk.gov.justice.services.messaging.JsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.test.utils.core.converter.JsonObjectToObjectConverterFactory.createJsonObjectToObjectConverter;
+import static uk.gov.justice.services.test.utils.core.messaging.MetadataBuilderFactory.metadataWithRandomUUID;
+
+import uk.gov.justice.domain.aggregate.Aggregate;
+import uk.gov.justice.services.core.extension.EventFoundEvent;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import javax.enterprise.concurrent.ManagedExecutorService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares replaying an event stream on an aggregate with events decoded on the replaying thread
+ * (no decoder threads) against events decoded ahead on a pool of decoder threads.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=uk.gov.justice.services.core.aggregate.AggregateReplayBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AggregateReplayBenchmark {
+
+    private static final String EVENT_NAME = "benchmark.order-line-added";
+
+    @Param({"10000", "100000"})
+    public int streamLength;
+
+    @Param({"0", "2", "4"})
+    public int decoderThreads;
+
+    private ExecutorService executor;
+    private DefaultAggregateService aggregateService;
+    private List<JsonEnvelope> events;
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AggregateReplayBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setup() {
+        executor = Executors.newCachedThreadPool();
+
+        aggregateService = new DefaultAggregateService();
+        aggregateService.logger = getLogger(DefaultAggregateService.class);
+        aggregateService.jsonObjectToObjectConverter = createJsonObjectToObjectConverter();
+        aggregateService.executorService = mock(ManagedExecutorService.class, delegatesTo(executor));
+        aggregateService.decoderThreads = decoderThreads;
+        aggregateService.lookAhead = 256;
+        aggregateService.replayTimeoutMillis = 60000L;
+        aggregateService.register(new EventFoundEvent(OrderLineAdded.class, EVENT_NAME));
+
+        events = IntStream.range(0, streamLength)
+                .mapToObj(this::orderLineAdded)
+                .collect(toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public long replay() {
+        return aggregateService.applyEvents(events.stream(), new Order()).total;
+    }
+
+    private JsonEnvelope orderLineAdded(final int line) {
+        return envelopeFrom(metadataWithRandomUUID(EVENT_NAME), createObjectBuilder()
+                .add("orderId", UUID.randomUUID().toString())
+                .add("line", line)
+                .add("productCode", "PRODUCT-" + line % 100)
+                .add("description", "An order line added while benchmarking aggregate replay")
+                .add("quantity", line % 7 + 1)
+                .add("unitPrice", 1999)
+                .add("tags", createArrayBuilder().add("benchmark").add("replay").add("line-" + line))
+                .build());
+    }
+
+    public static class Order implements Aggregate {
+
+        private static final long serialVersionUID = 1L;
+
+        private long total;
+
+        @Override
+        public Object apply(final Object event) {
+            final OrderLineAdded orderLineAdded = (OrderLineAdded) event;
+            total += orderLineAdded.getQuantity() * orderLineAdded.getUnitPrice();
+            return event;
+        }
+    }
+
+    public static class OrderLineAdded {
+
+        private String orderId;
+        private int line;
+        private String productCode;
+        private String description;
+        private int quantity;
+        private long unitPrice;
+        private List<String> tags;
+
+        public String getOrderId() {
+            return orderId;
+        }
+
+        public void setOrderId(final String orderId) {
+            this.orderId = orderId;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public void setLine(final int line) {
+            this.line = line;
+        }
+
+        public String getProductCode() {
+            return productCode;
+        }
+
+        public void setProductCode(final String productCode) {
+            this.productCode = productCode;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(final String description) {
+            this.description = description;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(final int quantity) {
+            this.quantity = quantity;
+        }
+
+        public long getUnitPrice() {
+            return unitPrice;
+        }
+
+        public void setUnitPrice(final long unitPrice) {
+            this.unitPrice = unitPrice;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(final List<String> tags) {
+            this.tags = tags;
+        }
+    }
+}
@@ -47,6 +47,7 @@ import uk.gov.justice.services.eventsourcing.source.core.PublishingEventAppender
 import uk.gov.justice.services.eventsourcing.source.core.SystemEventService;
 import uk.gov.justice.services.eventsourcing.source.core.exception.EventStreamException;
 import uk.gov.justice.services.jdbc.persistence.AbstractJdbcRepository;
+import uk.gov.justice.services.jdbc.persistence.JdbcConnectionMetrics;
 import uk.gov.justice.services.jdbc.persistence.JdbcDataSourceProvider;
 import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryException;
 import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryHelper;
@@ -117,6 +118,7 @@ public class DefaultAggregateServiceIT {
             EventStreamJdbcRepository.class,
             EventJdbcRepository.class,
             JdbcRepositoryHelper.class,
+            JdbcConnectionMetrics.class,
             JdbcDataSourceProvider.class,
             EventStreamManager.class,
             EventStreamJdbcRepository.class,
@@ -6,6 +6,9 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.collection.IsEmptyCollection.empty;
 import static org.hamcrest.core.IsNull.notNullValue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -21,8 +24,10 @@ import uk.gov.justice.services.core.extension.EventFoundEvent;
 import uk.gov.justice.services.eventsourcing.source.core.EventStream;
 
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Stream;
 
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.json.JsonObject;
 
 import org.junit.Test;
@@ -49,6 +54,9 @@ public class DefaultAggregateServiceTest {
     @Mock
     private EventStream eventStream;
 
+    @Mock
+    private ManagedExecutorService executorService;
+
     @InjectMocks
     private DefaultAggregateService aggregateService;
 
@@ -168,5 +176,53 @@ public class DefaultAggregateServiceTest {
         aggregateService.get(eventStream, PrivateAggregate.class);
     }
 
+    @Test
+    public void shouldApplyEventsDecodedAheadOnExecutorInStreamOrder() {
+        final JsonObject eventPayloadA = mock(JsonObject.class);
+        final JsonObject eventPayloadB = mock(JsonObject.class);
+        final EventA eventA = mock(EventA.class);
+        final EventB eventB = mock(EventB.class);
+        when(jsonObjectToObjectConverter.convert(eventPayloadA, EventA.class)).thenReturn(eventA);
+        when(jsonObjectToObjectConverter.convert(eventPayloadB, EventB.class)).thenReturn(eventB);
+        when(eventStream.read()).thenReturn(Stream.of(
+                envelopeFrom(metadataWithRandomUUID("eventA"), eventPayloadA),
+                envelopeFrom(metadataWithRandomUUID("system.events.eventC"), eventPayloadB),
+                envelopeFrom(metadataWithRandomUUID("eventB"), eventPayloadB),
+                envelopeFrom(metadataWithRandomUUID("eventA"), eventPayloadA)));
+        doAnswer(invocation -> {
+            new Thread((Runnable) invocation.getArguments()[0]).start();
+            return null;
+        }).when(executorService).execute(any(Runnable.class));
+
+        aggregateService.decoderThreads = 2;
+        aggregateService.lookAhead = 2;
+        aggregateService.replayTimeoutMillis = 10000L;
+        registerEvent(EventA.class, "eventA");
+        registerEvent(EventB.class, "eventB");
 
+        final TestAggregate aggregate = aggregateService.get(eventStream, TestAggregate.class);
+
+        assertThat(aggregate.recordedEvents(), hasSize(3));
+        assertThat(aggregate.recordedEvents().get(0), equalTo(eventA));
+        assertThat(aggregate.recordedEvents().get(1), equalTo(eventB));
+        assertThat(aggregate.recordedEvents().get(2), equalTo(eventA));
+    }
+
+    @Test
+    public void shouldDecodeEventsOnReplayingThreadIfExecutorRejectsDecoding() {
+        final JsonObject eventPayloadA = mock(JsonObject.class);
+        final EventA eventA = mock(EventA.class);
+        when(jsonObjectToObjectConverter.convert(eventPayloadA, EventA.class)).thenReturn(eventA);
+        when(eventStream.read()).thenReturn(Stream.of(envelopeFrom(metadataWithRandomUUID("eventA"), eventPayloadA)));
+        doThrow(new RejectedExecutionException()).when(executorService).execute(any(Runnable.class));
+
+        aggregateService.decoderThreads = 2;
+        registerEvent(EventA.class, "eventA");
+
+        final TestAggregate aggregate = aggregateService.get(eventStream, TestAggregate.class);
+
+        assertThat(aggregate.recordedEvents(), hasSize(1));
+        assertThat(aggregate.recordedEvents().get(0), equalTo(eventA));
+        verify(logger).warn("Executor rejected event decoding, decoding events on the replaying thread");
+    }
 }
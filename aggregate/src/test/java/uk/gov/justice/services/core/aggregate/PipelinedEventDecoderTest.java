@@ -0,0 +1,163 @@
+package uk.gov.justice.services.core.aggregate;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.fail;
+import static uk.gov.justice.services.messaging.JsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.test.utils.core.messaging.MetadataBuilderFactory.metadataWithRandomUUID;
+
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.json.JsonValue;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class PipelinedEventDecoderTest {
+
+    private static final long TIMEOUT_MILLIS = 10000L;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger envelopesRead = new AtomicInteger();
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldDecodeEventsInStreamOrder() {
+        final Function<JsonEnvelope, Object> slowDecoder = envelope -> {
+            sleepUpTo(200);
+            return envelope.metadata().name();
+        };
+
+        final List<Object> events;
+        try (final Stream<Object> decodedEvents = new PipelinedEventDecoder(executor, 4, 8, TIMEOUT_MILLIS, slowDecoder).decode(envelopes(500))) {
+            events = decodedEvents.collect(toList());
+        }
+
+        assertThat(events, equalTo(IntStream.range(0, 500).mapToObj(i -> "event" + i).collect(toList())));
+    }
+
+    @Test
+    public void shouldRethrowDecodingFailureWhenFailedEventIsReached() {
+        final List<Object> events = new ArrayList<>();
+
+        try (final Stream<Object> decodedEvents = new PipelinedEventDecoder(executor, 2, 4, TIMEOUT_MILLIS, failingAt("event5")).decode(envelopes(20))) {
+            decodedEvents.forEach(events::add);
+            fail("Expected decoding failure");
+        } catch (final IllegalStateException e) {
+            assertThat(e.getMessage(), is("Cannot decode event5"));
+        }
+
+        assertThat(events.size(), is(5));
+    }
+
+    @Test
+    public void shouldRethrowFailureToReadEnvelopes() {
+        final Stream<JsonEnvelope> failingEnvelopes = envelopes(3).map(envelope -> {
+            if (envelope.metadata().name().equals("event2")) {
+                throw new IllegalStateException("Cannot read event2");
+            }
+            return envelope;
+        });
+
+        try (final Stream<Object> decodedEvents = new PipelinedEventDecoder(executor, 2, 4, TIMEOUT_MILLIS, this::nameOf).decode(failingEnvelopes)) {
+            decodedEvents.forEach(event -> { });
+            fail("Expected read failure");
+        } catch (final IllegalStateException e) {
+            assertThat(e.getMessage(), is("Cannot read event2"));
+        }
+    }
+
+    @Test
+    public void shouldReadNoFurtherThanLookAheadAndStopReadingWhenClosed() {
+        try (final Stream<Object> decodedEvents = new PipelinedEventDecoder(executor, 2, 4, TIMEOUT_MILLIS, this::nameOf).decode(envelopes(1000))) {
+            assertThat(decodedEvents.iterator().next(), is("event0"));
+        }
+
+        assertThat(envelopesRead.get(), lessThanOrEqualTo(1 + 4 + 1));
+    }
+
+    @Test
+    public void shouldNotReadEnvelopesIfExecutorRejectsDecoding() {
+        executor.shutdown();
+
+        try {
+            new PipelinedEventDecoder(executor, 2, 4, TIMEOUT_MILLIS, this::nameOf).decode(envelopes(10));
+            fail("Expected rejection");
+        } catch (final RejectedExecutionException e) {
+            assertThat(envelopesRead.get(), is(0));
+        }
+    }
+
+    @Test(timeout = 10000L)
+    public void shouldDecodeAllEventsOnSingleThreadedExecutor() {
+        final ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
+
+        final List<Object> events;
+        try (final Stream<Object> decodedEvents = new PipelinedEventDecoder(singleThreadExecutor, 4, 2, TIMEOUT_MILLIS, this::nameOf).decode(envelopes(100))) {
+            events = decodedEvents.collect(toList());
+        } finally {
+            singleThreadExecutor.shutdownNow();
+        }
+
+        assertThat(events, equalTo(IntStream.range(0, 100).mapToObj(i -> "event" + i).collect(toList())));
+    }
+
+    @Test
+    public void shouldTimeOutAndNotReadEnvelopesIfReaderIsNeverRun() {
+        final Executor idleExecutor = task -> { };
+
+        try (final Stream<Object> decodedEvents = new PipelinedEventDecoder(idleExecutor, 2, 4, 100L, this::nameOf).decode(envelopes(10))) {
+            decodedEvents.forEach(event -> { });
+            fail("Expected timeout");
+        } catch (final IllegalStateException e) {
+            assertThat(e.getMessage(), is("Timed out after 100 ms waiting for the next event to be read"));
+        }
+
+        assertThat(envelopesRead.get(), is(0));
+    }
+
+    private Stream<JsonEnvelope> envelopes(final int count) {
+        return IntStream.range(0, count)
+                .peek(i -> envelopesRead.incrementAndGet())
+                .mapToObj(i -> envelopeFrom(metadataWithRandomUUID("event" + i), JsonValue.NULL));
+    }
+
+    private Object nameOf(final JsonEnvelope envelope) {
+        return envelope.metadata().name();
+    }
+
+    private Function<JsonEnvelope, Object> failingAt(final String name) {
+        return envelope -> {
+            if (envelope.metadata().name().equals(name)) {
+                throw new IllegalStateException("Cannot decode " + name);
+            }
+            return envelope.metadata().name();
+        };
+    }
+
+    private void sleepUpTo(final long maxMicros) {
+        final long until = System.nanoTime() + ThreadLocalRandom.current().nextLong(maxMicros) * 1000L;
+        while (System.nanoTime() < until) {
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package uk.gov.justice.services.core.audit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import uk.gov.justice.services.common.configuration.Value;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+
+/**
+ * Sends audit entries to the {@link AuditClient} in the background, off the request thread.
+ *
+ * Entries are added to a bounded, lock-free ring buffer of audit.async.queue.size entries. A
+ * sender on the managed scheduled executor empties the buffer every
+ * audit.async.flush.interval.millis, and as soon as audit.async.batch.size entries are waiting,
+ * auditing them in batches of that size. When the buffer is full, audit.async.overflow.policy
+ * decides what happens to the entry: BLOCK waits for the sender to make room, DROP discards it and
+ * SPILL appends it to a file in audit.async.spill.directory (the temporary directory by default)
+ * that the sender audits after the buffer. Entries left in the buffer are audited when the
+ * application stops; a spill file left by a node that did not stop cleanly is not replayed.
+ *
+ * Queue depth and the number of entries sent, failed, dropped and spilled are exposed for
+ * monitoring.
+ */
+@ApplicationScoped
+public class AsyncAuditPipeline {
+
+    private static final long BLOCKED_PARK_NANOS = MILLISECONDS.toNanos(1);
+
+    @Resource
+    ManagedScheduledExecutorService scheduledExecutorService;
+
+    @Inject
+    AuditClient auditClient;
+
+    @Inject
+    JsonObjectEnvelopeConverter jsonObjectEnvelopeConverter;
+
+    @Inject
+    Logger logger;
+
+    @Inject
+    @Value(key = "audit.async.queue.size", defaultValue = "8192")
+    long queueSize;
+
+    @Inject
+    @Value(key = "audit.async.batch.size", defaultValue = "100")
+    long batchSize;
+
+    @Inject
+    @Value(key = "audit.async.flush.interval.millis", defaultValue = "1000")
+    long flushIntervalMillis;
+
+    @Inject
+    @Value(key = "audit.async.overflow.policy", defaultValue = "BLOCK")
+    String overflowPolicy;
+
+    @Inject
+    @Value(key = "audit.async.spill.directory", defaultValue = "")
+    String spillDirectory;
+
+    private AuditRingBuffer<AuditEntry> ringBuffer;
+    private AuditSpillFile spillFile;
+    private AuditOverflowPolicy auditOverflowPolicy;
+    private ScheduledFuture<?> flushTask;
+
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicLong sentEntries = new AtomicLong();
+    private final AtomicLong failedEntries = new AtomicLong();
+    private final AtomicLong droppedEntries = new AtomicLong();
+    private final AtomicLong spilledEntries = new AtomicLong();
+    private final AtomicLong blockedSubmissions = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        auditOverflowPolicy = AuditOverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase());
+        ringBuffer = new AuditRingBuffer<>((int) queueSize);
+        spillFile = new AuditSpillFile(spillPath(), jsonObjectEnvelopeConverter);
+
+        logger.info("Starting asynchronous audit with a queue of {} entries and {} overflow policy", ringBuffer.capacity(), auditOverflowPolicy);
+        flushTask = scheduledExecutorService.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+        flush();
+    }
+
+    /**
+     * Queues the envelope to be audited by the background sender.
+     *
+     * @param envelope  the envelope to be audited
+     * @param component the component that requested the action to be audited
+     */
+    public void submit(final JsonEnvelope envelope, final String component) {
+        final AuditEntry auditEntry = new AuditEntry(envelope, component);
+
+        if (!ringBuffer.offer(auditEntry)) {
+            overflow(auditEntry);
+        } else if (ringBuffer.size() >= batchSize) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * Audits every entry waiting in the queue, then any spilled entries. Returns at once if the
+     * queue is already being flushed.
+     */
+    public void flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            flushRequested.set(false);
+            while (sendBatch() == batchSize) {
+                flushRequested.set(false);
+            }
+            replaySpilled();
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    /**
+     * @return the number of entries waiting in the queue
+     */
+    public int getQueueDepth() {
+        return ringBuffer == null ? 0 : ringBuffer.size();
+    }
+
+    /**
+     * @return the number of entries passed to the audit client since startup
+     */
+    public long getSentEntries() {
+        return sentEntries.get();
+    }
+
+    /**
+     * @return the number of entries the audit client failed to audit since startup
+     */
+    public long getFailedEntries() {
+        return failedEntries.get();
+    }
+
+    /**
+     * @return the number of entries discarded because the queue was full since startup
+     */
+    public long getDroppedEntries() {
+        return droppedEntries.get();
+    }
+
+    /**
+     * @return the number of entries written to a spill file because the queue was full since
+     * startup
+     */
+    public long getSpilledEntries() {
+        return spilledEntries.get();
+    }
+
+    /**
+     * @return the number of submissions that waited for room in the queue since startup
+     */
+    public long getBlockedSubmissions() {
+        return blockedSubmissions.get();
+    }
+
+    private int sendBatch() {
+        int sent = 0;
+        AuditEntry auditEntry;
+
+        while (sent < batchSize && (auditEntry = ringBuffer.poll()) != null) {
+            send(auditEntry);
+            sent++;
+        }
+
+        return sent;
+    }
+
+    private void send(final AuditEntry auditEntry) {
+        try {
+            auditClient.auditEntry(auditEntry.getEnvelope(), auditEntry.getComponent());
+            sentEntries.incrementAndGet();
+        } catch (final RuntimeException e) {
+            failedEntries.incrementAndGet();
+            logger.error("Failed to audit action {}", auditEntry.getEnvelope().metadata().name(), e);
+        }
+    }
+
+    private void overflow(final AuditEntry auditEntry) {
+        switch (auditOverflowPolicy) {
+            case BLOCK:
+                awaitRoomFor(auditEntry);
+                break;
+            case SPILL:
+                spill(auditEntry);
+                break;
+            default:
+                droppedEntries.incrementAndGet();
+        }
+    }
+
+    private void awaitRoomFor(final AuditEntry auditEntry) {
+        blockedSubmissions.incrementAndGet();
+
+        do {
+            requestFlush();
+            LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+
+            if (Thread.currentThread().isInterrupted()) {
+                droppedEntries.incrementAndGet();
+                logger.warn("Interrupted while waiting to audit action {}, the entry is dropped", auditEntry.getEnvelope().metadata().name());
+                return;
+            }
+        } while (!ringBuffer.offer(auditEntry));
+    }
+
+    private void spill(final AuditEntry auditEntry) {
+        try {
+            spillFile.append(auditEntry);
+            spilledEntries.incrementAndGet();
+        } catch (final IOException e) {
+            droppedEntries.incrementAndGet();
+            logger.error("Failed to spill audit entry for action {}, the entry is dropped", auditEntry.getEnvelope().metadata().name(), e);
+        }
+        requestFlush();
+    }
+
+    private void replaySpilled() {
+        try {
+            final Optional<Path> spilled = spillFile.takeSpilled();
+            if (spilled.isPresent()) {
+                final int replayed = spillFile.replay(spilled.get(), this::send);
+                logger.info("Audited {} spilled entries from {}", replayed, spilled.get());
+            }
+        } catch (final IOException e) {
+            logger.error("Failed to replay spilled audit entries", e);
+        }
+    }
+
+    private void requestFlush() {
+        if (flushing.get() || !flushRequested.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            scheduledExecutorService.execute(this::flush);
+        } catch (final RejectedExecutionException e) {
+            flushRequested.set(false);
+            logger.warn("Audit flush rejected by executor, waiting for the next scheduled flush");
+        }
+    }
+
+    private Path spillPath() {
+        return spillDirectory.trim().isEmpty()
+                ? Paths.get(System.getProperty("java.io.tmpdir"))
+                : Paths.get(spillDirectory.trim());
+    }
+}
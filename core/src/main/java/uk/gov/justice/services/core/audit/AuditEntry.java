@@ -0,0 +1,25 @@
+package uk.gov.justice.services.core.audit;
+
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+/**
+ * An envelope waiting to be audited, with the component that requested it.
+ */
+class AuditEntry {
+
+    private final JsonEnvelope envelope;
+    private final String component;
+
+    AuditEntry(final JsonEnvelope envelope, final String component) {
+        this.envelope = envelope;
+        this.component = component;
+    }
+
+    JsonEnvelope getEnvelope() {
+        return envelope;
+    }
+
+    String getComponent() {
+        return component;
+    }
+}
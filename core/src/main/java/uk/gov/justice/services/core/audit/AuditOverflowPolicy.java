@@ -0,0 +1,23 @@
+package uk.gov.justice.services.core.audit;
+
+/**
+ * What the {@link AsyncAuditPipeline} does with an audit entry when its queue is full.
+ */
+public enum AuditOverflowPolicy {
+
+    /**
+     * Wait for the sender to make room in the queue.
+     */
+    BLOCK,
+
+    /**
+     * Discard the entry, counting it as dropped.
+     */
+    DROP,
+
+    /**
+     * Append the entry to a spill file on disk, which the sender audits once the queue has been
+     * emptied.
+     */
+    SPILL
+}
@@ -0,0 +1,103 @@
+package uk.gov.justice.services.core.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free, multi producer ring buffer.
+ *
+ * Each slot carries a sequence number that says whether it is free for the producer claiming its
+ * position or holds an element for the consumer at its position, so producers and consumers only
+ * contend on a compare-and-set of their own position counter. The capacity is rounded up to a
+ * power of two.
+ *
+ * @param <E> the type of element held
+ */
+class AuditRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerPosition = new AtomicLong();
+    private final AtomicLong consumerPosition = new AtomicLong();
+
+    AuditRingBuffer(final int requestedCapacity) {
+        if (requestedCapacity < 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be at least 1, was " + requestedCapacity);
+        }
+
+        final int capacity = requestedCapacity == 1 ? 1 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+
+        for (int slot = 0; slot < capacity; slot++) {
+            sequences.set(slot, slot);
+        }
+    }
+
+    /**
+     * @param element the element to add
+     * @return true if the element was added, false if the ring buffer is full
+     */
+    boolean offer(final E element) {
+        long position = producerPosition.get();
+
+        while (true) {
+            final int slot = (int) position & mask;
+            final long available = sequences.get(slot) - position;
+
+            if (available == 0) {
+                if (producerPosition.compareAndSet(position, position + 1)) {
+                    elements.set(slot, element);
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+                position = producerPosition.get();
+            } else if (available < 0) {
+                return false;
+            } else {
+                position = producerPosition.get();
+            }
+        }
+    }
+
+    /**
+     * @return the oldest element, or null if the ring buffer is empty
+     */
+    E poll() {
+        long position = consumerPosition.get();
+
+        while (true) {
+            final int slot = (int) position & mask;
+            final long filled = sequences.get(slot) - (position + 1);
+
+            if (filled == 0) {
+                if (consumerPosition.compareAndSet(position, position + 1)) {
+                    final E element = elements.get(slot);
+                    elements.set(slot, null);
+                    sequences.set(slot, position + mask + 1);
+                    return element;
+                }
+                position = consumerPosition.get();
+            } else if (filled < 0) {
+                return null;
+            } else {
+                position = consumerPosition.get();
+            }
+        }
+    }
+
+    /**
+     * @return the number of elements held, which may be out of date by the time it is read
+     */
+    int size() {
+        final long size = producerPosition.get() - consumerPosition.get();
+        return (int) Math.max(0, Math.min(size, mask + 1));
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,102 @@
+package uk.gov.justice.services.core.audit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.util.UUID.randomUUID;
+
+import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Audit entries that did not fit in the queue of the {@link AsyncAuditPipeline}, written to a file
+ * until the sender is ready for them.
+ *
+ * Entries are appended to the current spill file, named uniquely for this instance of the
+ * pipeline. Taking the spilled entries closes that file and hands it over for replay, and the next
+ * entry spilled starts a new file.
+ */
+class AuditSpillFile {
+
+    private final Path spillDirectory;
+    private final String spillFilePrefix = "audit-spill-" + randomUUID();
+    private final JsonObjectEnvelopeConverter jsonObjectEnvelopeConverter;
+
+    private Path currentFile;
+    private DataOutputStream output;
+    private int fileCount;
+
+    AuditSpillFile(final Path spillDirectory, final JsonObjectEnvelopeConverter jsonObjectEnvelopeConverter) {
+        this.spillDirectory = spillDirectory;
+        this.jsonObjectEnvelopeConverter = jsonObjectEnvelopeConverter;
+    }
+
+    synchronized void append(final AuditEntry auditEntry) throws IOException {
+        if (output == null) {
+            Files.createDirectories(spillDirectory);
+            currentFile = spillDirectory.resolve(spillFilePrefix + "-" + fileCount++ + ".bin");
+            output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(currentFile, CREATE, APPEND)));
+        }
+
+        final byte[] envelope = jsonObjectEnvelopeConverter.asJsonString(auditEntry.getEnvelope()).getBytes(UTF_8);
+        output.writeUTF(auditEntry.getComponent());
+        output.writeInt(envelope.length);
+        output.write(envelope);
+        output.flush();
+    }
+
+    /**
+     * Closes the current spill file so that its entries can be replayed.
+     *
+     * @return the spill file, if any entries have been spilled since it was last taken
+     */
+    synchronized Optional<Path> takeSpilled() throws IOException {
+        if (output == null) {
+            return Optional.empty();
+        }
+
+        output.close();
+        output = null;
+        return Optional.of(currentFile);
+    }
+
+    /**
+     * Reads each entry of a spill file taken with {@link #takeSpilled()}, then deletes the file.
+     *
+     * @param spilled    the spill file
+     * @param auditEntry receives each entry in the order it was spilled
+     * @return the number of entries read
+     */
+    int replay(final Path spilled, final Consumer<AuditEntry> auditEntry) throws IOException {
+        int entries = 0;
+
+        try (final DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(spilled)))) {
+            while (true) {
+                final String component;
+                try {
+                    component = input.readUTF();
+                } catch (final EOFException e) {
+                    break;
+                }
+
+                final byte[] envelope = new byte[input.readInt()];
+                input.readFully(envelope);
+                auditEntry.accept(new AuditEntry(jsonObjectEnvelopeConverter.asEnvelope(new String(envelope, UTF_8)), component));
+                entries++;
+            }
+        }
+
+        Files.delete(spilled);
+        return entries;
+    }
+}
@@ -1,39 +1,60 @@
 package uk.gov.justice.services.core.audit;
 
 
-import static java.lang.String.format;
 import static java.util.regex.Pattern.compile;
 
 import uk.gov.justice.services.common.configuration.Value;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import org.slf4j.Logger;
 
 /**
  * Service responsible for hooking auditing into the framework.
+ *
+ * Whether an action is blacklisted is decided once per action name and cached. With
+ * audit.async.enabled set, entries are passed to the {@link AsyncAuditPipeline} rather than to the
+ * {@link AuditClient} on the calling thread.
  */
+@ApplicationScoped
 public class DefaultAuditService implements AuditService {
 
+    private static final int MAX_CACHED_BLACKLIST_DECISIONS = 10000;
+
     @Inject
     @Value(key = "audit.blacklist", defaultValue = "")
     String auditBlacklist;
 
+    @Inject
+    @Value(key = "audit.async.enabled", defaultValue = "false")
+    String auditAsyncEnabled;
+
     @Inject
     AuditClient auditClient;
 
+    @Inject
+    AsyncAuditPipeline asyncAuditPipeline;
+
     @Inject
     Logger logger;
 
     private Pattern auditBlacklistPattern;
+    private boolean asyncAudit;
+
+    private final ConcurrentMap<String, Boolean> blacklistDecisions = new ConcurrentHashMap<>();
 
     @PostConstruct
     public void initialise() {
         auditBlacklistPattern = compile(auditBlacklist);
+        asyncAudit = Boolean.parseBoolean(auditAsyncEnabled);
+        blacklistDecisions.clear();
     }
 
     /**
@@ -46,12 +67,38 @@ public class DefaultAuditService implements AuditService {
     @Override
     public void audit(final JsonEnvelope envelope, final String component) {
 
-        final String actionName = envelope.metadata().name();
+        if (isBlacklisted(envelope.metadata().name())) {
+            return;
+        }
 
-        if (auditBlacklistPattern.matcher(actionName).matches()) {
-            logger.info(format("Skipping auditing of action %s due to configured blacklist pattern %s.", actionName, auditBlacklist));
+        if (asyncAudit) {
+            asyncAuditPipeline.submit(envelope, component);
         } else {
             auditClient.auditEntry(envelope, component);
         }
     }
+
+    private boolean isBlacklisted(final String actionName) {
+        final Boolean blacklisted = blacklistDecisions.get(actionName);
+
+        if (blacklisted != null) {
+            return blacklisted;
+        }
+
+        final boolean decision = matchesBlacklist(actionName);
+        if (blacklistDecisions.size() < MAX_CACHED_BLACKLIST_DECISIONS) {
+            blacklistDecisions.putIfAbsent(actionName, decision);
+        }
+        return decision;
+    }
+
+    private boolean matchesBlacklist(final String actionName) {
+        final boolean blacklisted = auditBlacklistPattern.matcher(actionName).matches();
+
+        if (blacklisted) {
+            logger.info("Skipping auditing of action {} due to configured blacklist pattern {}.", actionName, auditBlacklist);
+        }
+
+        return blacklisted;
+    }
 }
@@ -14,15 +14,13 @@ import uk.gov.justice.services.messaging.JsonEnvelope;
 public class Dispatcher {
 
     private final HandlerRegistry handlerRegistry;
-    private final EnvelopePayloadTypeConverter typeConverter;
-    private final JsonEnvelopeRepacker jsonEnvelopeRepacker;
+    private final MethodInvoker methodInvoker;
 
     public Dispatcher(final HandlerRegistry handlerRegistry,
                       final EnvelopePayloadTypeConverter typeConverter,
                       final JsonEnvelopeRepacker jsonEnvelopeRepacker) {
         this.handlerRegistry = handlerRegistry;
-        this.typeConverter = typeConverter;
-        this.jsonEnvelopeRepacker = jsonEnvelopeRepacker;
+        this.methodInvoker = MethodInvoker.createMethodInvoker(typeConverter, jsonEnvelopeRepacker);
     }
 
     /**
@@ -41,9 +39,7 @@ public class Dispatcher {
             throw new NullEnvelopeException("Envelope cannot be null", e);
         }
 
-        return MethodInvoker
-                .createMethodInvoker(typeConverter, jsonEnvelopeRepacker)
-                .invoke(handlerMethod, envelope);
+        return methodInvoker.invoke(handlerMethod, envelope);
     }
 
     /**
@@ -55,6 +51,6 @@ public class Dispatcher {
      * @param handler handler instance to be registered.
      */
     public void register(final Object handler) {
-        handlerRegistry.register(handler);
+        handlerRegistry.register(handler).forEach(methodInvoker::prepare);
     }
 }
@@ -4,16 +4,26 @@ import static uk.gov.justice.services.messaging.Envelope.envelopeFrom;
 
 import uk.gov.justice.services.messaging.Envelope;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import javax.inject.Inject;
+import javax.json.JsonValue;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  *   Converts Envelope with payload of T to Envelope with payload of R where
  *   T can be converted to R using a jackson object mapper
+ *
+ *   Conversions between a JSON-P value and a POJO, made for every typed handler invocation, use a
+ *   {@link PayloadConverter} cached per POJO class, which can be created up front by calling
+ *   {@link #prepare(Class)} when the handler is registered.
  */
 public class EnvelopePayloadTypeConverter {
 
+    private final Map<Class<?>, PayloadConverter<?>> payloadConverters = new ConcurrentHashMap<>();
+
     private ObjectMapper objectMapper;
 
     @Inject
@@ -46,6 +56,36 @@ public class EnvelopePayloadTypeConverter {
             return (Envelope<R>) envelope;
         }
 
-        return envelopeFrom(envelope.metadata(), objectMapper.convertValue(envelope.payload(), clazz));
+        return envelopeFrom(envelope.metadata(), convertPayload(envelope.payload(), clazz));
+    }
+
+    /**
+     * Creates and caches the converter for a payload type, so that the first envelope converted
+     * to or from that type does not pay for resolving its serializer and deserializer.
+     *
+     * @param clazz the payload type of a handler method
+     */
+    public void prepare(final Class<?> clazz) {
+        if (!JsonValue.class.isAssignableFrom(clazz)) {
+            payloadConverterFor(clazz);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> R convertPayload(final Object payload, final Class<R> clazz) {
+        if (payload instanceof JsonValue && !JsonValue.class.isAssignableFrom(clazz)) {
+            return payloadConverterFor(clazz).fromJsonValue((JsonValue) payload);
+        }
+
+        if (clazz == JsonValue.class) {
+            return (R) payloadConverterFor((Class<Object>) payload.getClass()).toJsonValue(payload);
+        }
+
+        return objectMapper.convertValue(payload, clazz);
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> PayloadConverter<T> payloadConverterFor(final Class<T> clazz) {
+        return (PayloadConverter<T>) payloadConverters.computeIfAbsent(clazz, type -> new PayloadConverter<>(objectMapper, type));
     }
 }
\ No newline at end of file
@@ -0,0 +1,338 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static java.util.Collections.emptyMap;
+import static javax.json.Json.createBuilderFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.JsonGenerationException;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.base.GeneratorBase;
+import com.fasterxml.jackson.core.json.JsonWriteContext;
+
+/**
+ * Jackson generator building a JSON-P value directly from the tokens written to it, so that an
+ * {@link com.fasterxml.jackson.databind.ObjectWriter} can turn a POJO into a {@link JsonValue}
+ * without first serializing it into an intermediate token buffer.
+ */
+class JsonValueGenerator extends GeneratorBase {
+
+    private static final JsonBuilderFactory BUILDER_FACTORY = createBuilderFactory(emptyMap());
+
+    private final Deque<Container> containers = new ArrayDeque<>();
+    private final ArrayContainer root = new ArrayContainer();
+
+    JsonValueGenerator(final ObjectCodec codec) {
+        super(0, codec);
+        containers.push(root);
+    }
+
+    /**
+     * @return the value written to this generator
+     */
+    JsonValue result() {
+        return root.builder.build().get(0);
+    }
+
+    @Override
+    public void writeStartArray() throws IOException {
+        _verifyValueWrite("start an array");
+        _writeContext = _writeContext.createChildArrayContext();
+        containers.push(new ArrayContainer());
+    }
+
+    @Override
+    public void writeEndArray() throws IOException {
+        if (!_writeContext.inArray()) {
+            _reportError("Current context not an ARRAY but " + _writeContext.typeDesc());
+        }
+        _writeContext = _writeContext.clearAndGetParent();
+        final ArrayContainer array = (ArrayContainer) containers.pop();
+        containers.peek().add(array.builder.build());
+    }
+
+    @Override
+    public void writeStartObject() throws IOException {
+        _verifyValueWrite("start an object");
+        _writeContext = _writeContext.createChildObjectContext();
+        containers.push(new ObjectContainer());
+    }
+
+    @Override
+    public void writeEndObject() throws IOException {
+        if (!_writeContext.inObject()) {
+            _reportError("Current context not an object but " + _writeContext.typeDesc());
+        }
+        _writeContext = _writeContext.clearAndGetParent();
+        final ObjectContainer object = (ObjectContainer) containers.pop();
+        containers.peek().add(object.builder.build());
+    }
+
+    @Override
+    public void writeFieldName(final String name) throws IOException {
+        if (_writeContext.writeFieldName(name) == JsonWriteContext.STATUS_EXPECT_VALUE) {
+            _reportError("Can not write a field name, expecting a value");
+        }
+        ((ObjectContainer) containers.peek()).name = name;
+    }
+
+    @Override
+    public void writeString(final String text) throws IOException {
+        if (text == null) {
+            writeNull();
+            return;
+        }
+        _verifyValueWrite("write a string");
+        containers.peek().add(text);
+    }
+
+    @Override
+    public void writeString(final char[] text, final int offset, final int length) throws IOException {
+        writeString(new String(text, offset, length));
+    }
+
+    @Override
+    public void writeRawUTF8String(final byte[] text, final int offset, final int length) throws IOException {
+        _reportUnsupportedOperation();
+    }
+
+    @Override
+    public void writeUTF8String(final byte[] text, final int offset, final int length) throws IOException {
+        writeString(new String(text, offset, length, "UTF-8"));
+    }
+
+    @Override
+    public void writeRaw(final String text) throws IOException {
+        _reportUnsupportedOperation();
+    }
+
+    @Override
+    public void writeRaw(final String text, final int offset, final int length) throws IOException {
+        _reportUnsupportedOperation();
+    }
+
+    @Override
+    public void writeRaw(final char[] text, final int offset, final int length) throws IOException {
+        _reportUnsupportedOperation();
+    }
+
+    @Override
+    public void writeRaw(final char c) throws IOException {
+        _reportUnsupportedOperation();
+    }
+
+    @Override
+    public void writeBinary(final Base64Variant base64Variant, final byte[] data, final int offset, final int length) throws IOException {
+        final byte[] bytes = offset == 0 && length == data.length ? data : copyOf(data, offset, length);
+        writeString(base64Variant.encode(bytes));
+    }
+
+    @Override
+    public void writeNumber(final int value) throws IOException {
+        writeNumber((long) value);
+    }
+
+    @Override
+    public void writeNumber(final long value) throws IOException {
+        _verifyValueWrite("write a number");
+        containers.peek().add(value);
+    }
+
+    @Override
+    public void writeNumber(final BigInteger value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        _verifyValueWrite("write a number");
+        containers.peek().add(value);
+    }
+
+    @Override
+    public void writeNumber(final double value) throws IOException {
+        _verifyValueWrite("write a number");
+        containers.peek().add(value);
+    }
+
+    @Override
+    public void writeNumber(final float value) throws IOException {
+        writeNumber((double) value);
+    }
+
+    @Override
+    public void writeNumber(final BigDecimal value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        _verifyValueWrite("write a number");
+        containers.peek().add(value);
+    }
+
+    @Override
+    public void writeNumber(final String encodedValue) throws IOException {
+        if (encodedValue == null) {
+            writeNull();
+            return;
+        }
+        writeNumber(new BigDecimal(encodedValue));
+    }
+
+    @Override
+    public void writeBoolean(final boolean state) throws IOException {
+        _verifyValueWrite("write a boolean value");
+        containers.peek().add(state);
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        _verifyValueWrite("write a null");
+        containers.peek().addNull();
+    }
+
+    @Override
+    public void flush() {
+        // nothing is buffered
+    }
+
+    @Override
+    protected void _releaseBuffers() {
+        // nothing is buffered
+    }
+
+    @Override
+    protected void _verifyValueWrite(final String typeMessage) throws IOException {
+        if (_writeContext.writeValue() == JsonWriteContext.STATUS_EXPECT_NAME) {
+            throw new JsonGenerationException("Can not " + typeMessage + ", expecting field name", this);
+        }
+    }
+
+    private static byte[] copyOf(final byte[] data, final int offset, final int length) {
+        final byte[] bytes = new byte[length];
+        System.arraycopy(data, offset, bytes, 0, length);
+        return bytes;
+    }
+
+    /**
+     * The object or array currently being built.
+     */
+    private abstract static class Container {
+
+        abstract void add(final JsonValue value);
+
+        abstract void add(final String value);
+
+        abstract void add(final long value);
+
+        abstract void add(final BigInteger value);
+
+        abstract void add(final double value);
+
+        abstract void add(final BigDecimal value);
+
+        abstract void add(final boolean value);
+
+        abstract void addNull();
+    }
+
+    private static class ObjectContainer extends Container {
+
+        private final JsonObjectBuilder builder = BUILDER_FACTORY.createObjectBuilder();
+        private String name;
+
+        @Override
+        void add(final JsonValue value) {
+            builder.add(name, value);
+        }
+
+        @Override
+        void add(final String value) {
+            builder.add(name, value);
+        }
+
+        @Override
+        void add(final long value) {
+            builder.add(name, value);
+        }
+
+        @Override
+        void add(final BigInteger value) {
+            builder.add(name, value);
+        }
+
+        @Override
+        void add(final double value) {
+            builder.add(name, value);
+        }
+
+        @Override
+        void add(final BigDecimal value) {
+            builder.add(name, value);
+        }
+
+        @Override
+        void add(final boolean value) {
+            builder.add(name, value);
+        }
+
+        @Override
+        void addNull() {
+            builder.addNull(name);
+        }
+    }
+
+    private static class ArrayContainer extends Container {
+
+        private final JsonArrayBuilder builder = BUILDER_FACTORY.createArrayBuilder();
+
+        @Override
+        void add(final JsonValue value) {
+            builder.add(value);
+        }
+
+        @Override
+        void add(final String value) {
+            builder.add(value);
+        }
+
+        @Override
+        void add(final long value) {
+            builder.add(value);
+        }
+
+        @Override
+        void add(final BigInteger value) {
+            builder.add(value);
+        }
+
+        @Override
+        void add(final double value) {
+            builder.add(value);
+        }
+
+        @Override
+        void add(final BigDecimal value) {
+            builder.add(value);
+        }
+
+        @Override
+        void add(final boolean value) {
+            builder.add(value);
+        }
+
+        @Override
+        void addNull() {
+            builder.addNull();
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import static com.fasterxml.jackson.core.JsonToken.END_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.END_OBJECT;
+import static com.fasterxml.jackson.core.JsonToken.FIELD_NAME;
+import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_FALSE;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_NULL;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_FLOAT;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_INT;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_STRING;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_TRUE;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.core.base.ParserMinimalBase;
+
+/**
+ * Jackson parser reading the tokens of a JSON-P value directly from its tree, so that a
+ * {@link com.fasterxml.jackson.databind.ObjectReader} can bind a {@link JsonValue} to a POJO
+ * without first serializing it into an intermediate token buffer.
+ */
+class JsonValueParser extends ParserMinimalBase {
+
+    private final JsonValue root;
+
+    private ObjectCodec codec;
+    private Context context = new Context(null, JsonStreamContext.TYPE_ROOT, null);
+    private JsonValue currentValue;
+    private boolean started;
+    private boolean closed;
+
+    JsonValueParser(final JsonValue root, final ObjectCodec codec) {
+        this.root = root;
+        this.codec = codec;
+    }
+
+    @Override
+    public JsonToken nextToken() {
+        if (closed) {
+            return _currToken = null;
+        }
+
+        if (!started) {
+            started = true;
+            return _currToken = startValue(root);
+        }
+
+        if (context.inRoot()) {
+            close();
+            return _currToken = null;
+        }
+
+        if (context.inObject()) {
+            if (context.pendingValue != null) {
+                final JsonValue value = context.pendingValue;
+                context.pendingValue = null;
+                return _currToken = startValue(value);
+            }
+
+            if (context.fields.hasNext()) {
+                final Map.Entry<String, JsonValue> field = context.fields.next();
+                context.name = field.getKey();
+                context.pendingValue = field.getValue();
+                context.nextIndex();
+                return _currToken = FIELD_NAME;
+            }
+
+            context = context.parent;
+            return _currToken = END_OBJECT;
+        }
+
+        if (context.elements.hasNext()) {
+            context.nextIndex();
+            return _currToken = startValue(context.elements.next());
+        }
+
+        context = context.parent;
+        return _currToken = END_ARRAY;
+    }
+
+    private JsonToken startValue(final JsonValue value) {
+        currentValue = value;
+
+        switch (value.getValueType()) {
+            case OBJECT:
+                context = new Context(context, JsonStreamContext.TYPE_OBJECT, ((JsonObject) value).entrySet().iterator());
+                return START_OBJECT;
+            case ARRAY:
+                context = new Context(context, JsonStreamContext.TYPE_ARRAY, ((JsonArray) value).iterator());
+                return START_ARRAY;
+            case STRING:
+                return VALUE_STRING;
+            case NUMBER:
+                return ((JsonNumber) value).isIntegral() ? VALUE_NUMBER_INT : VALUE_NUMBER_FLOAT;
+            case TRUE:
+                return VALUE_TRUE;
+            case FALSE:
+                return VALUE_FALSE;
+            default:
+                return VALUE_NULL;
+        }
+    }
+
+    @Override
+    protected void _handleEOF() {
+        // the tree is always complete
+    }
+
+    @Override
+    public String getCurrentName() {
+        if (_currToken == START_OBJECT || _currToken == START_ARRAY) {
+            return context.parent == null ? null : context.parent.name;
+        }
+        return context.name;
+    }
+
+    @Override
+    public void overrideCurrentName(final String name) {
+        context.name = name;
+    }
+
+    @Override
+    public JsonStreamContext getParsingContext() {
+        return context;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public String getText() {
+        if (_currToken == null) {
+            return null;
+        }
+
+        switch (_currToken) {
+            case FIELD_NAME:
+                return context.name;
+            case VALUE_STRING:
+                return ((JsonString) currentValue).getString();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return currentValue.toString();
+            default:
+                return _currToken.asString();
+        }
+    }
+
+    @Override
+    public char[] getTextCharacters() {
+        final String text = getText();
+        return text == null ? null : text.toCharArray();
+    }
+
+    @Override
+    public boolean hasTextCharacters() {
+        return false;
+    }
+
+    @Override
+    public int getTextLength() {
+        final String text = getText();
+        return text == null ? 0 : text.length();
+    }
+
+    @Override
+    public int getTextOffset() {
+        return 0;
+    }
+
+    @Override
+    public byte[] getBinaryValue(final Base64Variant base64Variant) {
+        return base64Variant.decode(getText());
+    }
+
+    @Override
+    public Object getEmbeddedObject() {
+        return null;
+    }
+
+    @Override
+    public ObjectCodec getCodec() {
+        return codec;
+    }
+
+    @Override
+    public void setCodec(final ObjectCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public Version version() {
+        return Version.unknownVersion();
+    }
+
+    @Override
+    public JsonLocation getTokenLocation() {
+        return JsonLocation.NA;
+    }
+
+    @Override
+    public JsonLocation getCurrentLocation() {
+        return JsonLocation.NA;
+    }
+
+    @Override
+    public Number getNumberValue() {
+        final JsonNumber number = number();
+        if (!number.isIntegral()) {
+            return number.doubleValue();
+        }
+
+        switch (getNumberType()) {
+            case INT:
+                return number.intValue();
+            case LONG:
+                return number.longValue();
+            default:
+                return number.bigIntegerValue();
+        }
+    }
+
+    @Override
+    public NumberType getNumberType() {
+        final JsonNumber number = number();
+        if (!number.isIntegral()) {
+            return NumberType.DOUBLE;
+        }
+
+        final int bitLength = number.bigIntegerValue().bitLength();
+        if (bitLength < Integer.SIZE) {
+            return NumberType.INT;
+        }
+        return bitLength < Long.SIZE ? NumberType.LONG : NumberType.BIG_INTEGER;
+    }
+
+    @Override
+    public int getIntValue() {
+        return number().intValue();
+    }
+
+    @Override
+    public long getLongValue() {
+        return number().longValue();
+    }
+
+    @Override
+    public BigInteger getBigIntegerValue() {
+        return number().bigIntegerValue();
+    }
+
+    @Override
+    public float getFloatValue() {
+        return (float) number().doubleValue();
+    }
+
+    @Override
+    public double getDoubleValue() {
+        return number().doubleValue();
+    }
+
+    @Override
+    public BigDecimal getDecimalValue() {
+        return number().bigDecimalValue();
+    }
+
+    private JsonNumber number() {
+        if (_currToken != VALUE_NUMBER_INT && _currToken != VALUE_NUMBER_FLOAT) {
+            throw new IllegalStateException("Current token (" + _currToken + ") not numeric");
+        }
+        return (JsonNumber) currentValue;
+    }
+
+    /**
+     * Position within an object or array of the tree, which is also the parsing context Jackson
+     * reports.
+     */
+    private static class Context extends JsonStreamContext {
+
+        private final Context parent;
+        private final Iterator<Map.Entry<String, JsonValue>> fields;
+        private final Iterator<JsonValue> elements;
+        private String name;
+        private JsonValue pendingValue;
+
+        @SuppressWarnings("unchecked")
+        Context(final Context parent, final int type, final Iterator<?> children) {
+            this.parent = parent;
+            this._type = type;
+            this._index = -1;
+            this.fields = type == TYPE_OBJECT ? (Iterator<Map.Entry<String, JsonValue>>) children : null;
+            this.elements = type == TYPE_ARRAY ? (Iterator<JsonValue>) children : null;
+        }
+
+        void nextIndex() {
+            _index++;
+        }
+
+        @Override
+        public JsonStreamContext getParent() {
+            return parent;
+        }
+
+        @Override
+        public String getCurrentName() {
+            return name;
+        }
+    }
+}
@@ -45,6 +45,16 @@ public class MethodInvoker {
                                 toTargetEnvelopeType(inputEnvelope, payloadClass))));
     }
 
+    /**
+     * Prepares the payload conversions of a handler method when it is registered, rather than
+     * when the first envelope is dispatched to it.
+     *
+     * @param handlerMethod the registered handler method
+     */
+    public void prepare(final HandlerMethod handlerMethod) {
+        envelopePayloadTypeConverter.prepare(handlerMethod.getPayloadType());
+    }
+
     private Envelope<?> toTargetEnvelopeType(final JsonEnvelope envelope, final Class<?> payloadClass) {
         return envelopePayloadTypeConverter.convert(envelope, payloadClass);
     }
@@ -0,0 +1,56 @@
+package uk.gov.justice.services.core.dispatcher;
+
+import java.io.IOException;
+
+import javax.json.JsonValue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Converts payloads of one type to and from JSON-P values, using a reader and writer resolved once
+ * for the type and reading and writing the JSON-P tree directly.
+ *
+ * @param <T> the payload type
+ */
+class PayloadConverter<T> {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    PayloadConverter(final ObjectMapper objectMapper, final Class<T> payloadType) {
+        this.objectMapper = objectMapper;
+        this.reader = objectMapper.readerFor(payloadType);
+        this.writer = objectMapper.writerFor(payloadType);
+    }
+
+    /**
+     * @param jsonValue the JSON-P value to convert
+     * @return the payload bound from the value
+     * @throws IllegalArgumentException if the value can not be bound to the payload type
+     */
+    T fromJsonValue(final JsonValue jsonValue) {
+        try {
+            return reader.readValue(new JsonValueParser(jsonValue, objectMapper));
+        } catch (final IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param payload the payload to convert
+     * @return the JSON-P value written from the payload
+     * @throws IllegalArgumentException if the payload can not be serialized
+     */
+    JsonValue toJsonValue(final T payload) {
+        final JsonValueGenerator generator = new JsonValueGenerator(objectMapper);
+        try {
+            writer.writeValue(generator, payload);
+        } catch (final IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        return generator.result();
+    }
+}
@@ -3,6 +3,7 @@ package uk.gov.justice.services.core.envelope;
 import static java.lang.String.format;
 import static javax.json.JsonValue.NULL;
 
+import uk.gov.justice.services.core.json.JsonObjectSchemaValidator;
 import uk.gov.justice.services.core.json.JsonSchemaValidator;
 import uk.gov.justice.services.core.json.SchemaLoadingException;
 import uk.gov.justice.services.core.mapping.MediaType;
@@ -10,12 +11,18 @@ import uk.gov.justice.services.messaging.JsonEnvelope;
 
 import java.util.Optional;
 
+import javax.json.JsonObject;
 import javax.json.JsonValue;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.everit.json.schema.ValidationException;
 
+/**
+ * Validates the payload of an envelope against its json schema. Object payloads are handed to the
+ * schema validator as they are when it implements {@link JsonObjectSchemaValidator}; otherwise the
+ * payload is serialised first.
+ */
 public class EnvelopeValidator {
 
     private final JsonSchemaValidator jsonSchemaValidator;
@@ -34,7 +41,14 @@ public class EnvelopeValidator {
     public void validate(final JsonEnvelope jsonEnvelope, final String actionName, final Optional<MediaType> mediaType) {
         try {
             final JsonValue payload = jsonEnvelope.payload();
-            if (!NULL.equals(payload)) {
+            if (payload instanceof JsonObject && jsonSchemaValidator instanceof JsonObjectSchemaValidator) {
+
+                ((JsonObjectSchemaValidator) jsonSchemaValidator).validate(
+                        (JsonObject) payload,
+                        actionName,
+                        mediaType);
+
+            } else if (!NULL.equals(payload)) {
 
                 jsonSchemaValidator.validate(
                         objectMapper.writeValueAsString(payload),
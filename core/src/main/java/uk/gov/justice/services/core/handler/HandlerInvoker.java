@@ -0,0 +1,20 @@
+package uk.gov.justice.services.core.handler;
+
+import uk.gov.justice.services.messaging.Envelope;
+
+/**
+ * Calls a handler method on its handler instance, created by {@link HandlerInvokers}.
+ */
+@FunctionalInterface
+interface HandlerInvoker {
+
+    /**
+     * Calls the handler method.
+     *
+     * @param envelope the envelope to pass to the handler method
+     * @return the envelope returned by a synchronous handler method, or null for an asynchronous
+     * one
+     * @throws Throwable anything thrown by the handler method, unwrapped
+     */
+    Object invoke(final Envelope<?> envelope) throws Throwable;
+}
@@ -0,0 +1,134 @@
+package uk.gov.justice.services.core.handler;
+
+import static java.lang.invoke.MethodType.methodType;
+import static java.lang.reflect.Modifier.isPublic;
+
+import uk.gov.justice.services.messaging.Envelope;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates {@link HandlerInvoker}s, once per handler method when the handler is registered.
+ *
+ * Where the handler class and method are public and visible from the framework class loader, the
+ * invoker is a class generated with {@link LambdaMetafactory} that calls the handler method
+ * directly. Otherwise, for example for handlers in a child class loader or CDI proxies defined
+ * elsewhere, it calls a {@link MethodHandle} bound to the handler instance.
+ */
+final class HandlerInvokers {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HandlerInvokers.class);
+
+    private HandlerInvokers() {
+    }
+
+    /**
+     * Creates an invoker calling the method on the handler instance.
+     *
+     * @param handlerInstance the handler instance
+     * @param method          the handler method, taking a single envelope
+     * @return the invoker
+     * @throws HandlerCreationException if the method cannot be called on the handler instance
+     */
+    static HandlerInvoker invokerFor(final Object handlerInstance, final Method method) {
+        if (canCallDirectly(method)) {
+            try {
+                return directInvokerFor(handlerInstance, method);
+            } catch (final LambdaConversionException | ReflectiveOperationException e) {
+                LOGGER.debug("Cannot generate an invoker for handler method {}, falling back to a method handle", method, e);
+            }
+        }
+
+        return methodHandleInvokerFor(handlerInstance, method);
+    }
+
+    private static boolean canCallDirectly(final Method method) {
+        final Class<?> handlerClass = method.getDeclaringClass();
+        return isPublic(handlerClass.getModifiers())
+                && isPublic(method.getModifiers())
+                && isVisible(handlerClass)
+                && isVisible(method.getParameterTypes()[0])
+                && (method.getReturnType().isPrimitive() || isVisible(method.getReturnType()));
+    }
+
+    private static boolean isVisible(final Class<?> clazz) {
+        try {
+            return Class.forName(clazz.getName(), false, HandlerInvokers.class.getClassLoader()) == clazz;
+        } catch (final ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static HandlerInvoker directInvokerFor(final Object handlerInstance, final Method method)
+            throws LambdaConversionException, ReflectiveOperationException {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final MethodHandle implementation = lookup.unreflect(method);
+        final Class<?> handlerClass = method.getDeclaringClass();
+        final Class<?> envelopeType = method.getParameterTypes()[0];
+
+        if (Void.TYPE.equals(method.getReturnType())) {
+            final CallSite callSite = LambdaMetafactory.metafactory(lookup,
+                    "invoke",
+                    methodType(AsynchronousHandlerInvoker.class, handlerClass),
+                    methodType(void.class, Envelope.class),
+                    implementation,
+                    methodType(void.class, envelopeType));
+            final AsynchronousHandlerInvoker invoker = (AsynchronousHandlerInvoker) createInvoker(callSite, handlerInstance);
+
+            return envelope -> {
+                invoker.invoke(envelope);
+                return null;
+            };
+        }
+
+        final CallSite callSite = LambdaMetafactory.metafactory(lookup,
+                "invoke",
+                methodType(HandlerInvoker.class, handlerClass),
+                methodType(Object.class, Envelope.class),
+                implementation,
+                methodType(method.getReturnType(), envelopeType));
+        return (HandlerInvoker) createInvoker(callSite, handlerInstance);
+    }
+
+    private static Object createInvoker(final CallSite callSite, final Object handlerInstance) {
+        try {
+            return callSite.getTarget().invoke(handlerInstance);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new HandlerCreationException(e);
+        }
+    }
+
+    private static HandlerInvoker methodHandleInvokerFor(final Object handlerInstance, final Method method) {
+        final MethodHandle handle;
+        try {
+            method.setAccessible(true);
+            handle = MethodHandles.lookup()
+                    .unreflect(method)
+                    .bindTo(handlerInstance)
+                    .asType(methodType(Object.class, Envelope.class));
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            throw new HandlerCreationException(e);
+        }
+
+        return envelope -> (Object) handle.invokeExact(envelope);
+    }
+
+    /**
+     * The generated invoker of an asynchronous handler method, which returns nothing.
+     */
+    @FunctionalInterface
+    interface AsynchronousHandlerInvoker {
+
+        void invoke(final Envelope<?> envelope) throws Throwable;
+    }
+}
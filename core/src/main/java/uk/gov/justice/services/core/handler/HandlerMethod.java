@@ -2,6 +2,7 @@ package uk.gov.justice.services.core.handler;
 
 import static java.lang.Class.forName;
 import static java.lang.String.format;
+import static uk.gov.justice.services.core.handler.HandlerInvokers.invokerFor;
 import static uk.gov.justice.services.messaging.logging.LoggerUtils.trace;
 
 import uk.gov.justice.services.core.annotation.Direct;
@@ -25,6 +26,9 @@ import org.slf4j.LoggerFactory;
  *
  * Asynchronous handler methods will return a null {@link Void} whereas synchronous handler methods
  * must return an {@link JsonEnvelope}.
+ *
+ * The handler method is called through a {@link HandlerInvoker} created once, when the handler
+ * method is validated, rather than reflectively for every envelope.
  */
 public class HandlerMethod {
 
@@ -34,6 +38,7 @@ public class HandlerMethod {
     private final Method handlerMethod;
     private final boolean isSynchronous;
     private final Class<?> payloadType;
+    private final HandlerInvoker handlerInvoker;
 
     /**
      * Constructor with handler method validator.
@@ -91,6 +96,7 @@ public class HandlerMethod {
 
         this.handlerInstance = object;
         this.handlerMethod = method;
+        this.handlerInvoker = invokerFor(object, method);
     }
 
     private static boolean isVoid(final Class<?> clazz) {
@@ -110,35 +116,34 @@ public class HandlerMethod {
                 handlerInstance.getClass().toString(),
                 handlerMethod.getName(),
                 envelope));
-        try {
 
-            final Object obj = handlerMethod.invoke(handlerInstance, envelope);
-            trace(LOGGER, () -> {
+        final Object obj;
+        try {
+            obj = handlerInvoker.invoke(envelope);
+        } catch (final RuntimeException ex) {
+            throw ex;
+        } catch (final Throwable ex) {
+            throw handlerExecutionExceptionOf(envelope, ex);
+        }
 
-                final Optional<Object> response = Optional.ofNullable(obj);
+        trace(LOGGER, () -> {
 
-                if (response.isPresent() && response.get() instanceof JsonEnvelope) {
-                    return format("Response received from handler %s.%s : %s",
-                            handlerInstance.getClass().toString(),
-                            handlerMethod.getName(),
-                            response.get());
-                }
+            final Optional<Object> response = Optional.ofNullable(obj);
 
-                return format("Response from handler %s.%s with id %s was void",
+            if (response.isPresent() && response.get() instanceof JsonEnvelope) {
+                return format("Response received from handler %s.%s : %s",
                         handlerInstance.getClass().toString(),
                         handlerMethod.getName(),
-                        envelope.metadata().id().toString());
-            });
+                        response.get());
+            }
 
-            return (Envelope<T>) obj;
+            return format("Response from handler %s.%s with id %s was void",
+                    handlerInstance.getClass().toString(),
+                    handlerMethod.getName(),
+                    envelope.metadata().id().toString());
+        });
 
-        } catch (Exception ex) {
-            if (ex.getCause() instanceof RuntimeException) {
-                throw (RuntimeException) ex.getCause();
-            } else {
-                throw handlerExecutionExceptionOf(envelope, ex.getCause());
-            }
-        }
+        return (Envelope<T>) obj;
     }
 
     private HandlerExecutionException handlerExecutionExceptionOf(final Envelope envelope, final Throwable cause) {
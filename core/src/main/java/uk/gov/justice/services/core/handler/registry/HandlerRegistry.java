@@ -1,6 +1,9 @@
 package uk.gov.justice.services.core.handler.registry;
 
 import static java.lang.String.format;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.stream.Collectors.toList;
 import static uk.gov.justice.services.core.handler.Handlers.handlerMethodsFrom;
 
 import uk.gov.justice.services.core.annotation.Handles;
@@ -9,28 +12,35 @@ import uk.gov.justice.services.core.handler.exception.MissingHandlerException;
 import uk.gov.justice.services.core.handler.registry.exception.DuplicateHandlerException;
 
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 
 /**
  * Service for storing a map of which command handlers handle which commands.
+ *
+ * Handlers are registered at startup and looked up for every message, so registration replaces an
+ * immutable dispatch table, together with the handler of all actions ("*"), and a lookup reads
+ * them without locking.
  */
 
 public class HandlerRegistry {
 
-    private final Map<String, HandlerMethod> handlerMethods;
+    private static final String ALL_ACTIONS = "*";
+
+    private volatile Map<String, HandlerMethod> handlerMethods = emptyMap();
+    private volatile HandlerMethod allActionsHandlerMethod;
 
     private Logger logger;
 
     public HandlerRegistry(final Logger logger) {
         this.logger = logger;
-        handlerMethods = new ConcurrentHashMap<>();
     }
 
     public HandlerMethod get(final String name) {
-        final HandlerMethod handlerMethod = handlerMethods.getOrDefault(name, handlerMethods.get("*"));
+        final HandlerMethod handlerMethod = handlerMethodOf(name);
 
         if (handlerMethod != null) {
             return handlerMethod;
@@ -44,9 +54,12 @@ public class HandlerRegistry {
      * Registers a handler instance.
      *
      * @param handlerInstance handler instance to be registered.
+     * @return the handler methods registered for the instance.
      */
-    public void register(final Object handlerInstance) {
-        handlerMethodsFrom(handlerInstance).forEach(method -> register(handlerInstance, method));
+    public List<HandlerMethod> register(final Object handlerInstance) {
+        return handlerMethodsFrom(handlerInstance).stream()
+                .map(method -> register(handlerInstance, method))
+                .collect(toList());
     }
 
     /**
@@ -54,8 +67,9 @@ public class HandlerRegistry {
      *
      * @param handler handler instance to register.
      * @param method  handler method to register.
+     * @return the registered handler method.
      */
-    private void register(final Object handler, final Method method) {
+    private synchronized HandlerMethod register(final Object handler, final Method method) {
 
         final HandlerMethod newHandlerMethod = new HandlerMethod(handler, method, method.getReturnType());
         final String name = method.getAnnotation(Handles.class).value();
@@ -67,11 +81,22 @@ public class HandlerRegistry {
 
         logger.info("Registering handler {}, {}", name, newHandlerMethod.toString());
 
+        final Map<String, HandlerMethod> dispatchTable = new HashMap<>(handlerMethods);
         if (newHandlerMethod.isDirect()) {
-            handlerMethods.put(name, newHandlerMethod);
+            dispatchTable.put(name, newHandlerMethod);
         } else {
-            handlerMethods.putIfAbsent(name, newHandlerMethod);
+            dispatchTable.putIfAbsent(name, newHandlerMethod);
         }
+
+        allActionsHandlerMethod = dispatchTable.get(ALL_ACTIONS);
+        handlerMethods = unmodifiableMap(dispatchTable);
+
+        return newHandlerMethod;
+    }
+
+    private HandlerMethod handlerMethodOf(final String name) {
+        final HandlerMethod handlerMethod = handlerMethods.get(name);
+        return handlerMethod != null ? handlerMethod : allActionsHandlerMethod;
     }
 
     private boolean isDuplicate(final HandlerMethod newHandlerMethod, final String name) {
@@ -3,37 +3,51 @@ package uk.gov.justice.services.core.interceptor;
 import static java.util.stream.Collectors.toList;
 
 import java.util.Deque;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.stream.Stream;
 
+/**
+ * Passes an interceptor context along an ordered array of interceptors and then to the target.
+ *
+ * The chain holds the position of the next interceptor. Each interceptor is given the chain
+ * itself, advanced by one, and the position is restored when the interceptor returns, so an
+ * interceptor can call {@link #processNext} any number of times, as when retrying, and each call
+ * continues from the same place. Advancing the chain allocates nothing; the chain is only valid
+ * for the duration of the interceptor's process call and must not be shared between threads.
+ */
 public class DefaultInterceptorChain implements InterceptorChain {
 
-    private Deque<Interceptor> interceptors;
-    private Target target;
+    private final Interceptor[] interceptors;
+    private final Target target;
+    private int position;
 
     public DefaultInterceptorChain(final Deque<Interceptor> interceptors, final Target target) {
+        this(interceptors.toArray(new Interceptor[interceptors.size()]), target);
+    }
+
+    public DefaultInterceptorChain(final Interceptor[] interceptors, final Target target) {
         this.interceptors = interceptors;
         this.target = target;
     }
 
     public InterceptorContext processNext(final InterceptorContext interceptorContext) {
-        if (interceptors.isEmpty()) {
+        final int current = position;
+        if (current == interceptors.length) {
             return target.process(interceptorContext);
         }
 
-        return interceptors.poll().process(interceptorContext, copyOfInterceptorChain());
+        position = current + 1;
+        try {
+            return interceptors[current].process(interceptorContext, this);
+        } finally {
+            position = current;
+        }
     }
 
     public List<InterceptorContext> processNext(final Stream<InterceptorContext> interceptorContexts) {
         try (final Stream<InterceptorContext> interceptorContextStream = interceptorContexts
-                .map(interceptorContext -> copyOfInterceptorChain().processNext(interceptorContext))) {
+                .map(this::processNext)) {
             return interceptorContextStream.collect(toList());
         }
     }
-
-    @SuppressWarnings("unchecked")
-    private InterceptorChain copyOfInterceptorChain() {
-        return new DefaultInterceptorChain(new LinkedList<>(interceptors), target);
-    }
 }
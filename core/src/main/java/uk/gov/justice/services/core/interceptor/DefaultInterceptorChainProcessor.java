@@ -10,12 +10,12 @@ import java.util.function.Function;
 public class DefaultInterceptorChainProcessor implements InterceptorChainProcessor {
 
     private final InterceptorCache interceptorCache;
-    private final Function<JsonEnvelope, JsonEnvelope> dispatch;
+    private final Target target;
     private final String component;
 
     DefaultInterceptorChainProcessor(final InterceptorCache interceptorCache, final Function<JsonEnvelope, JsonEnvelope> dispatch, final String component) {
         this.interceptorCache = interceptorCache;
-        this.dispatch = dispatch;
+        this.target = targetOf(dispatch);
         this.component = component;
     }
 
@@ -23,7 +23,7 @@ public class DefaultInterceptorChainProcessor implements InterceptorChainProcess
     public Optional<JsonEnvelope> process(final InterceptorContext interceptorContext) {
         interceptorContext.setInputParameter("component", component);
 
-        return new DefaultInterceptorChain(interceptorCache.getInterceptors(component), targetOf(dispatch))
+        return new DefaultInterceptorChain(interceptorCache.getOrderedInterceptors(component), target)
                 .processNext(interceptorContext)
                 .outputEnvelope();
     }
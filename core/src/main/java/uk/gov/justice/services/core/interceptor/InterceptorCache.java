@@ -1,8 +1,8 @@
 package uk.gov.justice.services.core.interceptor;
 
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static java.util.Comparator.comparing;
-import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.Collectors.toList;
 
 import uk.gov.justice.services.core.extension.BeanInstantiater;
@@ -29,7 +29,7 @@ import javax.inject.Inject;
 @ApplicationScoped
 public class InterceptorCache {
 
-    private final HashMap<String, Deque<Interceptor>> componentInterceptors = new HashMap<>();
+    private final HashMap<String, Interceptor[]> componentInterceptors = new HashMap<>();
 
     @Inject
     InterceptorChainObserver interceptorChainObserver;
@@ -55,8 +55,20 @@ public class InterceptorCache {
      * @return a deque of interceptors in priority order
      */
     Deque<Interceptor> getInterceptors(final String component) {
-        if (componentInterceptors.containsKey(component)) {
-            return new LinkedList<>(componentInterceptors.get(component));
+        return new LinkedList<>(asList(getOrderedInterceptors(component)));
+    }
+
+    /**
+     * Get the interceptors of the component in priority order, as resolved when the cache was
+     * initialised. The array is shared by every message of the component and must not be
+     * modified.
+     *
+     * @return the interceptors in priority order
+     */
+    Interceptor[] getOrderedInterceptors(final String component) {
+        final Interceptor[] interceptors = componentInterceptors.get(component);
+        if (interceptors != null) {
+            return interceptors;
         }
 
         throw new InterceptorCacheException(format("Component [%s] does not have any cached Interceptors, check if there is an InterceptorChainProvider for this component.", component));
@@ -112,9 +124,9 @@ public class InterceptorCache {
 
     private void createComponentInterceptorsFrom(final HashMap<String, Set<InterceptorChainEntryInstance>> orderedComponentInterceptors) {
         orderedComponentInterceptors.forEach((key, value) -> {
-            final Deque<Interceptor> interceptors = value.stream()
+            final Interceptor[] interceptors = value.stream()
                     .map(InterceptorChainEntryInstance::getInterceptor)
-                    .collect(toCollection(LinkedList::new));
+                    .toArray(Interceptor[]::new);
 
             componentInterceptors.put(key, interceptors);
         });
@@ -6,12 +6,13 @@ import java.util.Optional;
 
 import javax.faces.bean.ApplicationScoped;
 import javax.inject.Inject;
+import javax.json.JsonObject;
 
 /**
  * Service for validating JSON payloads against a schema contained in a catalog.
  */
 @ApplicationScoped
-public class BackwardsCompatibleJsonSchemaValidator implements JsonSchemaValidator {
+public class BackwardsCompatibleJsonSchemaValidator implements JsonSchemaValidator, JsonObjectSchemaValidator {
 
 
     @Inject
@@ -48,4 +49,22 @@ public class BackwardsCompatibleJsonSchemaValidator implements JsonSchemaValidat
             validate(envelopeJson, actionName);
         }
     }
+
+    /**
+     * Validate a JSON payload against a schema contained in the schema catalog for the given message
+     * type name, or against a schema on the class path if no media type is given or no catalog
+     * schema can be found. The payload is converted for validation without being serialised.
+     *
+     * @param payload    the payload to validate
+     * @param actionName the name of the command
+     * @param mediaType  the message type (Optional)
+     */
+    @Override
+    public void validate(final JsonObject payload, final String actionName, final Optional<MediaType> mediaType) {
+        if (mediaType.isPresent()) {
+            schemaCatalogAwareJsonSchemaValidator.validate(payload, actionName, mediaType);
+        } else {
+            fileBasedJsonSchemaValidator.validateWithoutSchemaCatalog(payload, actionName);
+        }
+    }
 }
@@ -5,6 +5,7 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import javax.json.JsonObject;
 
 import org.everit.json.schema.Schema;
 import org.everit.json.schema.ValidationException;
@@ -37,14 +38,27 @@ public class FileBasedJsonSchemaValidator {
      */
     public void validateWithoutSchemaCatalog(final String envelopeJson, final String actionName) {
         logger.info("Falling back to file based schema lookup, no catalog schema found for: {}", actionName);
-        final JSONObject payload = payloadExtractor.extractPayloadFrom(envelopeJson);
+        validate(payloadExtractor.extractPayloadFrom(envelopeJson), actionName);
+    }
 
+    /**
+     * Validate a JSON payload against the correct schema for the given message type name. If the
+     * JSON contains metadata, this is ignored. Schemas are cached for reuse.
+     *
+     * @param envelope   the payload to validate
+     * @param actionName the message type name
+     */
+    public void validateWithoutSchemaCatalog(final JsonObject envelope, final String actionName) {
+        logger.info("Falling back to file based schema lookup, no catalog schema found for: {}", actionName);
+        validate(payloadExtractor.extractPayloadFrom(envelope), actionName);
+    }
+
+    private void validate(final JSONObject payload, final String actionName) {
         try {
             schemaOf(actionName).validate(payload);
         } catch (final ValidationException ex) {
             throw new JsonSchemaValidationException(ex.getMessage(), ex);
         }
-
     }
 
     private Schema schemaOf(final String actionName) {
@@ -0,0 +1,24 @@
+package uk.gov.justice.services.core.json;
+
+import uk.gov.justice.services.core.mapping.MediaType;
+
+import java.util.Optional;
+
+import javax.json.JsonObject;
+
+/**
+ * Validates a JSON payload that is already held as a {@link JsonObject}, avoiding the need to
+ * serialise it to a String for {@link JsonSchemaValidator}.
+ */
+public interface JsonObjectSchemaValidator {
+
+    /**
+     * Validate a JSON payload against the schema for the given message type. If the JSON contains
+     * metadata, this is ignored.
+     *
+     * @param payload    the payload to validate
+     * @param actionName the name of the command
+     * @param mediaType  the message type (Optional)
+     */
+    void validate(final JsonObject payload, final String actionName, final Optional<MediaType> mediaType);
+}
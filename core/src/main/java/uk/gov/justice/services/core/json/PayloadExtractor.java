@@ -2,6 +2,16 @@ package uk.gov.justice.services.core.json;
 
 import static uk.gov.justice.services.messaging.JsonEnvelope.METADATA;
 
+import java.math.BigInteger;
+import java.util.Map;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+import org.json.JSONArray;
 import org.json.JSONObject;
 
 /**
@@ -21,4 +31,67 @@ public class PayloadExtractor {
         jsonObject.remove(METADATA);
         return jsonObject;
     }
+
+    /**
+     * Remove metadata if present and return payload part of json envelope as {@link JSONObject}.
+     * The {@link JsonObject} is copied directly into org.json types, without writing it out as a
+     * String and parsing it again.
+     *
+     * @param envelope json envelope or payload to convert
+     * @return payload as {@link JSONObject}
+     */
+    public JSONObject extractPayloadFrom(final JsonObject envelope) {
+
+        final JSONObject jsonObject = new JSONObject();
+        for (final Map.Entry<String, JsonValue> field : envelope.entrySet()) {
+            if (!METADATA.equals(field.getKey())) {
+                jsonObject.put(field.getKey(), toOrgJson(field.getValue()));
+            }
+        }
+        return jsonObject;
+    }
+
+    private Object toOrgJson(final JsonValue jsonValue) {
+        switch (jsonValue.getValueType()) {
+            case OBJECT:
+                final JSONObject jsonObject = new JSONObject();
+                ((JsonObject) jsonValue).forEach((name, value) -> jsonObject.put(name, toOrgJson(value)));
+                return jsonObject;
+            case ARRAY:
+                final JSONArray jsonArray = new JSONArray();
+                ((JsonArray) jsonValue).forEach(value -> jsonArray.put(toOrgJson(value)));
+                return jsonArray;
+            case STRING:
+                return ((JsonString) jsonValue).getString();
+            case NUMBER:
+                return toOrgJsonNumber((JsonNumber) jsonValue);
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            default:
+                return JSONObject.NULL;
+        }
+    }
+
+    /**
+     * Matches the number types org.json produces when parsing text, so schema keywords such as
+     * {@code "type": "integer"} behave exactly as they do for a parsed payload.
+     */
+    private Object toOrgJsonNumber(final JsonNumber jsonNumber) {
+        final String number = jsonNumber.toString();
+
+        if (number.indexOf('.') >= 0 || number.indexOf('e') >= 0 || number.indexOf('E') >= 0) {
+            return jsonNumber.doubleValue();
+        }
+
+        final BigInteger integer = jsonNumber.bigIntegerValue();
+        if (integer.bitLength() < Integer.SIZE) {
+            return integer.intValue();
+        }
+        if (integer.bitLength() < Long.SIZE) {
+            return integer.longValue();
+        }
+        return integer;
+    }
 }
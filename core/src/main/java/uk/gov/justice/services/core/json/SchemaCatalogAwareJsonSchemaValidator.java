@@ -10,6 +10,7 @@ import java.util.Optional;
 
 import javax.faces.bean.ApplicationScoped;
 import javax.inject.Inject;
+import javax.json.JsonObject;
 
 import org.everit.json.schema.Schema;
 import org.everit.json.schema.ValidationException;
@@ -51,19 +52,53 @@ public class SchemaCatalogAwareJsonSchemaValidator {
         mediaTypeOptional.ifPresent(mediaType -> doValidate(envelopeJson, actionName, mediaType));
     }
 
+    /**
+     * Validate a JSON payload against a schema contained in the schema catalog for the given message
+     * type name. If the JSON contains metadata, this is ignored.  If no schema for the media type
+     * can be found then it falls back to checking for schemas on the class path.
+     *
+     * @param envelope          the payload to validate
+     * @param actionName        the action name
+     * @param mediaTypeOptional the message type
+     */
+    public void validate(final JsonObject envelope, final String actionName, final Optional<MediaType> mediaTypeOptional) {
+
+        mediaTypeOptional.ifPresent(mediaType -> {
+            final Optional<Schema> schema = catalogSchemaFor(actionName, mediaType);
+
+            if (schema.isPresent()) {
+                validate(schema.get(), payloadExtractor.extractPayloadFrom(envelope));
+            } else {
+                fileBasedJsonSchemaValidator.validateWithoutSchemaCatalog(envelope, actionName);
+            }
+        });
+    }
+
     private void doValidate(final String envelopeJson, final String actionName, final MediaType mediaType) {
-        final Optional<Schema> schema = schemaIdMappingCache.schemaIdFor(mediaType).flatMap(schemaCatalogService::findSchema);
+        final Optional<Schema> schema = catalogSchemaFor(actionName, mediaType);
 
         if (schema.isPresent()) {
-            logger.info(format("Performing schema validation with catalog schema for action '%s' and mediaType '%s", actionName, mediaType));
-            final JSONObject payload = payloadExtractor.extractPayloadFrom(envelopeJson);
-            try {
-                schema.get().validate(payload);
-            } catch (final ValidationException ex) {
-                throw new JsonSchemaValidationException(ex.getMessage(), ex);
-            }
+            validate(schema.get(), payloadExtractor.extractPayloadFrom(envelopeJson));
         } else {
             fileBasedJsonSchemaValidator.validateWithoutSchemaCatalog(envelopeJson, actionName);
         }
     }
+
+    private Optional<Schema> catalogSchemaFor(final String actionName, final MediaType mediaType) {
+        final Optional<Schema> schema = schemaIdMappingCache.schemaIdFor(mediaType).flatMap(schemaCatalogService::findSchema);
+
+        if (schema.isPresent()) {
+            logger.info(format("Performing schema validation with catalog schema for action '%s' and mediaType '%s", actionName, mediaType));
+        }
+
+        return schema;
+    }
+
+    private void validate(final Schema schema, final JSONObject payload) {
+        try {
+            schema.validate(payload);
+        } catch (final ValidationException ex) {
+            throw new JsonSchemaValidationException(ex.getMessage(), ex);
+        }
+    }
 }
@@ -0,0 +1,221 @@
+package uk.gov.justice.services.core.audit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelope;
+import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataWithRandomUUID;
+import static uk.gov.justice.services.test.utils.common.reflection.ReflectionUtils.setField;
+
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperProducer;
+import uk.gov.justice.services.messaging.DefaultJsonObjectEnvelopeConverter;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import java.io.File;
+import java.util.concurrent.ScheduledFuture;
+
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.slf4j.Logger;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncAuditPipelineTest {
+
+    private static final String COMPONENT = "test-component";
+
+    @Rule
+    public TemporaryFolder spillFolder = new TemporaryFolder();
+
+    @Mock
+    private ManagedScheduledExecutorService scheduledExecutorService;
+
+    @Mock
+    private AuditClient auditClient;
+
+    @Mock
+    private Logger logger;
+
+    @Mock
+    private ScheduledFuture<?> flushTask;
+
+    @InjectMocks
+    private AsyncAuditPipeline auditPipeline;
+
+    @Before
+    public void setup() {
+        auditPipeline.queueSize = 2;
+        auditPipeline.batchSize = 10;
+        auditPipeline.flushIntervalMillis = 1000L;
+        auditPipeline.overflowPolicy = "DROP";
+        auditPipeline.spillDirectory = spillFolder.getRoot().getAbsolutePath();
+
+        final DefaultJsonObjectEnvelopeConverter jsonObjectEnvelopeConverter = new DefaultJsonObjectEnvelopeConverter();
+        setField(jsonObjectEnvelopeConverter, "objectMapper", new ObjectMapperProducer().objectMapper());
+        auditPipeline.jsonObjectEnvelopeConverter = jsonObjectEnvelopeConverter;
+
+        doReturn(flushTask).when(scheduledExecutorService).scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    public void shouldAuditQueuedEntriesInOrderWhenFlushed() {
+        auditPipeline.start();
+        final JsonEnvelope first = envelopeOf("test.first");
+        final JsonEnvelope second = envelopeOf("test.second");
+
+        auditPipeline.submit(first, COMPONENT);
+        auditPipeline.submit(second, COMPONENT);
+
+        verify(auditClient, never()).auditEntry(any(JsonEnvelope.class), anyString());
+        assertThat(auditPipeline.getQueueDepth(), is(2));
+
+        auditPipeline.flush();
+
+        final InOrder inOrder = inOrder(auditClient);
+        inOrder.verify(auditClient).auditEntry(first, COMPONENT);
+        inOrder.verify(auditClient).auditEntry(second, COMPONENT);
+        assertThat(auditPipeline.getQueueDepth(), is(0));
+        assertThat(auditPipeline.getSentEntries(), is(2L));
+    }
+
+    @Test
+    public void shouldScheduleFlushAtConfiguredInterval() {
+        auditPipeline.start();
+
+        verify(scheduledExecutorService).scheduleWithFixedDelay(any(Runnable.class), eq(1000L), eq(1000L), any());
+    }
+
+    @Test
+    public void shouldRequestFlushOnceBatchSizeEntriesAreWaiting() {
+        auditPipeline.batchSize = 2;
+        auditPipeline.start();
+
+        auditPipeline.submit(envelopeOf("test.first"), COMPONENT);
+        verify(scheduledExecutorService, never()).execute(any(Runnable.class));
+
+        auditPipeline.submit(envelopeOf("test.second"), COMPONENT);
+
+        final ArgumentCaptor<Runnable> flushCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduledExecutorService).execute(flushCaptor.capture());
+
+        flushCaptor.getValue().run();
+
+        verify(auditClient, times(2)).auditEntry(any(JsonEnvelope.class), eq(COMPONENT));
+    }
+
+    @Test
+    public void shouldDropEntriesWhenQueueIsFullWithDropPolicy() {
+        auditPipeline.start();
+
+        auditPipeline.submit(envelopeOf("test.first"), COMPONENT);
+        auditPipeline.submit(envelopeOf("test.second"), COMPONENT);
+        auditPipeline.submit(envelopeOf("test.third"), COMPONENT);
+
+        assertThat(auditPipeline.getDroppedEntries(), is(1L));
+        assertThat(auditPipeline.getQueueDepth(), is(2));
+    }
+
+    @Test
+    public void shouldWaitForRoomInQueueWithBlockPolicy() {
+        auditPipeline.queueSize = 1;
+        auditPipeline.overflowPolicy = "BLOCK";
+        auditPipeline.start();
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(scheduledExecutorService).execute(any(Runnable.class));
+        final JsonEnvelope first = envelopeOf("test.first");
+        final JsonEnvelope second = envelopeOf("test.second");
+
+        auditPipeline.submit(first, COMPONENT);
+        auditPipeline.submit(second, COMPONENT);
+
+        verify(auditClient).auditEntry(first, COMPONENT);
+        assertThat(auditPipeline.getQueueDepth(), is(1));
+        assertThat(auditPipeline.getBlockedSubmissions(), is(1L));
+        assertThat(auditPipeline.getDroppedEntries(), is(0L));
+    }
+
+    @Test
+    public void shouldSpillEntriesWhenQueueIsFullAndAuditThemAfterQueue() {
+        auditPipeline.overflowPolicy = "spill";
+        auditPipeline.start();
+        final JsonEnvelope first = envelopeOf("test.first");
+        final JsonEnvelope second = envelopeOf("test.second");
+        final JsonEnvelope spilled = envelopeOf("test.spilled");
+
+        auditPipeline.submit(first, COMPONENT);
+        auditPipeline.submit(second, COMPONENT);
+        auditPipeline.submit(spilled, COMPONENT);
+
+        assertThat(auditPipeline.getSpilledEntries(), is(1L));
+        assertThat(spillFolder.getRoot().listFiles().length, is(1));
+
+        auditPipeline.flush();
+
+        final ArgumentCaptor<JsonEnvelope> envelopeCaptor = ArgumentCaptor.forClass(JsonEnvelope.class);
+        verify(auditClient, times(3)).auditEntry(envelopeCaptor.capture(), eq(COMPONENT));
+        assertThat(envelopeCaptor.getAllValues().get(0), is(first));
+        assertThat(envelopeCaptor.getAllValues().get(1), is(second));
+        assertThat(envelopeCaptor.getAllValues().get(2).metadata().id(), is(spilled.metadata().id()));
+        assertThat(envelopeCaptor.getAllValues().get(2).metadata().name(), is("test.spilled"));
+
+        final File[] spillFiles = spillFolder.getRoot().listFiles();
+        assertThat(spillFiles.length, is(0));
+        assertThat(auditPipeline.getSentEntries(), is(3L));
+    }
+
+    @Test
+    public void shouldCountEntriesAuditClientFailsToAudit() {
+        auditPipeline.start();
+        final JsonEnvelope failing = envelopeOf("test.failing");
+        final JsonEnvelope next = envelopeOf("test.next");
+        doThrow(new RuntimeException("Ooops")).when(auditClient).auditEntry(failing, COMPONENT);
+
+        auditPipeline.submit(failing, COMPONENT);
+        auditPipeline.submit(next, COMPONENT);
+        auditPipeline.flush();
+
+        verify(auditClient).auditEntry(next, COMPONENT);
+        assertThat(auditPipeline.getFailedEntries(), is(1L));
+        assertThat(auditPipeline.getSentEntries(), is(1L));
+    }
+
+    @Test
+    public void shouldAuditWaitingEntriesWhenStopped() {
+        auditPipeline.start();
+        final JsonEnvelope waiting = envelopeOf("test.waiting");
+
+        auditPipeline.submit(waiting, COMPONENT);
+        auditPipeline.stop();
+
+        verify(flushTask).cancel(false);
+        verify(auditClient).auditEntry(waiting, COMPONENT);
+    }
+
+    private JsonEnvelope envelopeOf(final String name) {
+        return envelope()
+                .with(metadataWithRandomUUID(name))
+                .withPayloadOf("value", "name")
+                .build();
+    }
+}
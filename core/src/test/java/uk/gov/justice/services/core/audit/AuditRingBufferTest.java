@@ -0,0 +1,87 @@
+package uk.gov.justice.services.core.audit;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Test;
+
+public class AuditRingBufferTest {
+
+    @Test
+    public void shouldRoundCapacityUpToPowerOfTwo() {
+        assertThat(new AuditRingBuffer<String>(1).capacity(), is(1));
+        assertThat(new AuditRingBuffer<String>(5).capacity(), is(8));
+        assertThat(new AuditRingBuffer<String>(8192).capacity(), is(8192));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectCapacityLessThanOne() {
+        new AuditRingBuffer<String>(0);
+    }
+
+    @Test
+    public void shouldReturnElementsInOrderUntilEmpty() {
+        final AuditRingBuffer<String> ringBuffer = new AuditRingBuffer<>(4);
+
+        ringBuffer.offer("a");
+        ringBuffer.offer("b");
+
+        assertThat(ringBuffer.size(), is(2));
+        assertThat(ringBuffer.poll(), is("a"));
+        assertThat(ringBuffer.poll(), is("b"));
+        assertThat(ringBuffer.poll(), is(nullValue()));
+        assertThat(ringBuffer.size(), is(0));
+    }
+
+    @Test
+    public void shouldRefuseElementsWhenFullAndAcceptThemOnceRoomIsMade() {
+        final AuditRingBuffer<String> ringBuffer = new AuditRingBuffer<>(2);
+
+        assertThat(ringBuffer.offer("a"), is(true));
+        assertThat(ringBuffer.offer("b"), is(true));
+        assertThat(ringBuffer.offer("c"), is(false));
+
+        assertThat(ringBuffer.poll(), is("a"));
+        assertThat(ringBuffer.offer("c"), is(true));
+        assertThat(ringBuffer.poll(), is("b"));
+        assertThat(ringBuffer.poll(), is("c"));
+    }
+
+    @Test
+    public void shouldNotLoseOrDuplicateElementsOfConcurrentProducers() throws Exception {
+        final int producers = 4;
+        final int elementsPerProducer = 10000;
+        final AuditRingBuffer<Integer> ringBuffer = new AuditRingBuffer<>(64);
+        final ExecutorService executorService = newFixedThreadPool(producers);
+
+        for (int producer = 0; producer < producers; producer++) {
+            final int first = producer * elementsPerProducer;
+            executorService.execute(() -> {
+                for (int element = first; element < first + elementsPerProducer; element++) {
+                    while (!ringBuffer.offer(element)) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+
+        final Set<Integer> received = new HashSet<>();
+        while (received.size() < producers * elementsPerProducer) {
+            final Integer element = ringBuffer.poll();
+            if (element != null) {
+                assertThat(received.add(element), is(true));
+            }
+        }
+
+        executorService.shutdown();
+        assertThat(executorService.awaitTermination(10, SECONDS), is(true));
+        assertThat(ringBuffer.poll(), is(nullValue()));
+    }
+}
@@ -25,6 +25,9 @@ public class DefaultAuditServiceTest {
     @Mock
     private AuditClient auditClient;
 
+    @Mock
+    private AsyncAuditPipeline asyncAuditPipeline;
+
     @Mock
     private Logger logger;
 
@@ -39,6 +42,7 @@ public class DefaultAuditServiceTest {
 
     @Before
     public void setup() {
+        auditService.auditAsyncEnabled = "false";
         when(jsonEnvelope.metadata()).thenReturn(metadata);
         when(metadata.name()).thenReturn(ACTION_NAME);
     }
@@ -67,10 +71,42 @@ public class DefaultAuditServiceTest {
 
         auditService.audit(jsonEnvelope, COMPONENT);
 
-        verify(logger, times(1)).info("Skipping auditing of action test.action due to configured blacklist pattern .*\\.action.");
+        verify(logger, times(1)).info("Skipping auditing of action {} due to configured blacklist pattern {}.", ACTION_NAME, ".*\\.action");
+        verify(auditClient, never()).auditEntry(jsonEnvelope, COMPONENT);
+    }
+
+    @Test
+    public void shouldDecideWhetherActionIsBlacklistedOnce() {
+        initialisePattern(".*\\.action");
+
+        auditService.audit(jsonEnvelope, COMPONENT);
+        auditService.audit(jsonEnvelope, COMPONENT);
+
+        verify(logger, times(1)).info("Skipping auditing of action {} due to configured blacklist pattern {}.", ACTION_NAME, ".*\\.action");
+        verify(auditClient, never()).auditEntry(jsonEnvelope, COMPONENT);
+    }
+
+    @Test
+    public void shouldSubmitToAsyncAuditPipelineIfEnabled() {
+        auditService.auditAsyncEnabled = "true";
+        initialisePattern("");
+
+        auditService.audit(jsonEnvelope, COMPONENT);
+
+        verify(asyncAuditPipeline).submit(jsonEnvelope, COMPONENT);
         verify(auditClient, never()).auditEntry(jsonEnvelope, COMPONENT);
     }
 
+    @Test
+    public void shouldNotSubmitBlacklistedActionToAsyncAuditPipeline() {
+        auditService.auditAsyncEnabled = "true";
+        initialisePattern(".*\\.action");
+
+        auditService.audit(jsonEnvelope, COMPONENT);
+
+        verify(asyncAuditPipeline, never()).submit(jsonEnvelope, COMPONENT);
+    }
+
     private void initialisePattern(final String pattern) {
         auditService.auditBlacklist = pattern;
         auditService.initialise();
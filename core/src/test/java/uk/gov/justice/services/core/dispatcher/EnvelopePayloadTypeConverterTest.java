@@ -1,12 +1,14 @@
 package uk.gov.justice.services.core.dispatcher;
 
 import static com.jayway.jsonpath.matchers.JsonPathMatchers.hasJsonPath;
+import static javax.json.Json.createArrayBuilder;
 import static javax.json.Json.createObjectBuilder;
 import static javax.json.JsonValue.ValueType.OBJECT;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.isA;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static uk.gov.justice.services.messaging.Envelope.envelopeFrom;
 
@@ -15,6 +17,8 @@ import uk.gov.justice.services.messaging.Envelope;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 import javax.json.JsonObject;
@@ -110,6 +114,57 @@ public class EnvelopePayloadTypeConverterTest {
         assertThat(objectEnvelope, nullValue());
     }
 
+    @Test
+    public void shouldConvertNestedJsonValueToPojoAndBack() throws IOException {
+
+        final JsonObject payload = createObjectBuilder()
+                .add("name", "parent")
+                .add("count", 3000000000L)
+                .add("amount", new BigDecimal("12.50"))
+                .add("tags", createArrayBuilder().add("a").add("b"))
+                .add("child", createObjectBuilder()
+                        .add("name", "child")
+                        .add("count", 1)
+                        .add("amount", new BigDecimal("0.1"))
+                        .add("tags", createArrayBuilder()))
+                .build();
+
+        final NestedTestObject nestedTestObject = convert(getEnvelope(payload), NestedTestObject.class).payload();
+
+        assertThat(nestedTestObject.getName(), is("parent"));
+        assertThat(nestedTestObject.getCount(), is(3000000000L));
+        assertThat(nestedTestObject.getAmount(), is(new BigDecimal("12.50")));
+        assertThat(nestedTestObject.getTags().size(), is(2));
+        assertThat(nestedTestObject.getChild().getName(), is("child"));
+        assertThat(nestedTestObject.getChild().getAmount(), is(new BigDecimal("0.1")));
+
+        final String returnedPayload = convert(getEnvelope(nestedTestObject), JsonValue.class).payload().toString();
+
+        assertThat(returnedPayload, hasJsonPath("$.name", equalTo("parent")));
+        assertThat(returnedPayload, hasJsonPath("$.count", equalTo(3000000000L)));
+        assertThat(returnedPayload, hasJsonPath("$.tags[1]", equalTo("b")));
+        assertThat(returnedPayload, hasJsonPath("$.child.name", equalTo("child")));
+        assertThat(returnedPayload, hasJsonPath("$.child.count", equalTo(1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowIllegalArgumentExceptionIfJsonValueCannotBeConvertedToPojo() throws IOException {
+
+        final JsonObject payload = createObjectBuilder().add("count", "not a number").build();
+
+        convert(getEnvelope(payload), NestedTestObject.class);
+    }
+
+    @Test
+    public void shouldCreatePayloadConverterOncePerType() {
+
+        final EnvelopePayloadTypeConverter envelopeConverter = new EnvelopePayloadTypeConverter(new ObjectMapperProducer().objectMapper());
+        envelopeConverter.prepare(NestedTestObject.class);
+
+        assertThat(envelopeConverter.payloadConverterFor(NestedTestObject.class),
+                sameInstance(envelopeConverter.payloadConverterFor(NestedTestObject.class)));
+    }
+
     private <T, R> Envelope<T> convert(final Envelope<R> inputEnvelope, final Class<T> clazz) throws IOException {
         final EnvelopePayloadTypeConverter envelopeConverter = new EnvelopePayloadTypeConverter(new ObjectMapperProducer().objectMapper());
         return envelopeConverter.convert(inputEnvelope, clazz);
@@ -168,4 +223,52 @@ public class EnvelopePayloadTypeConverterTest {
         }
     }
 
+    public static class NestedTestObject {
+
+        private String name;
+        private long count;
+        private BigDecimal amount;
+        private List<String> tags;
+        private NestedTestObject child;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(final long count) {
+            this.count = count;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(final BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(final List<String> tags) {
+            this.tags = tags;
+        }
+
+        public NestedTestObject getChild() {
+            return child;
+        }
+
+        public void setChild(final NestedTestObject child) {
+            this.child = child;
+        }
+    }
 }
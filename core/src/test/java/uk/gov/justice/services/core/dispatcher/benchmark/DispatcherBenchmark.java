@@ -0,0 +1,105 @@
+package uk.gov.justice.services.core.dispatcher.benchmark;
+
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static javax.json.Json.createObjectBuilder;
+import static org.mockito.Mockito.mock;
+import static uk.gov.justice.services.messaging.JsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonEnvelope.metadataBuilder;
+
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperProducer;
+import uk.gov.justice.services.core.annotation.Handles;
+import uk.gov.justice.services.core.dispatcher.Dispatcher;
+import uk.gov.justice.services.core.dispatcher.EnvelopePayloadTypeConverter;
+import uk.gov.justice.services.core.dispatcher.JsonEnvelopeRepacker;
+import uk.gov.justice.services.core.handler.TestPojo;
+import uk.gov.justice.services.core.handler.registry.HandlerRegistry;
+import uk.gov.justice.services.messaging.Envelope;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+
+/**
+ * Measures dispatching an envelope to a synchronous handler taking a {@link JsonEnvelope} and to
+ * one taking a typed {@link Envelope}, whose payload is converted to and from a POJO.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=uk.gov.justice.services.core.dispatcher.benchmark.DispatcherBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DispatcherBenchmark {
+
+    private Dispatcher dispatcher;
+    private JsonEnvelope jsonEnvelope;
+    private JsonEnvelope pojoEnvelope;
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DispatcherBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setup() {
+        dispatcher = new Dispatcher(
+                new HandlerRegistry(mock(Logger.class)),
+                new EnvelopePayloadTypeConverter(new ObjectMapperProducer().objectMapper()),
+                new JsonEnvelopeRepacker());
+
+        dispatcher.register(new JsonEnvelopeHandler());
+        dispatcher.register(new PojoHandler());
+
+        jsonEnvelope = envelopeFrom(metadataBuilder().withId(randomUUID()).withName("benchmark.json-action"),
+                createObjectBuilder().add("aField", "aValue"));
+        pojoEnvelope = envelopeFrom(metadataBuilder().withId(randomUUID()).withName("benchmark.pojo-action"),
+                createObjectBuilder()
+                        .add("payloadId", randomUUID().toString())
+                        .add("payloadName", "payload name")
+                        .add("payloadVersion", 200L));
+    }
+
+    @Benchmark
+    public JsonEnvelope dispatchJsonEnvelope() {
+        return dispatcher.dispatch(jsonEnvelope);
+    }
+
+    @Benchmark
+    public JsonEnvelope dispatchTypedEnvelope() {
+        return dispatcher.dispatch(pojoEnvelope);
+    }
+
+    public static class JsonEnvelopeHandler {
+
+        @Handles("benchmark.json-action")
+        public JsonEnvelope handle(final JsonEnvelope envelope) {
+            return envelope;
+        }
+    }
+
+    public static class PojoHandler {
+
+        @Handles("benchmark.pojo-action")
+        public Envelope<TestPojo> handle(final Envelope<TestPojo> envelope) {
+            return envelope;
+        }
+    }
+}
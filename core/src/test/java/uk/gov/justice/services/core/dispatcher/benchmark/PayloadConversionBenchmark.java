@@ -0,0 +1,95 @@
+package uk.gov.justice.services.core.dispatcher.benchmark;
+
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static javax.json.Json.createObjectBuilder;
+import static uk.gov.justice.services.messaging.Envelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.Envelope.metadataBuilder;
+
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperProducer;
+import uk.gov.justice.services.core.dispatcher.EnvelopePayloadTypeConverter;
+import uk.gov.justice.services.core.handler.TestPojo;
+import uk.gov.justice.services.messaging.Envelope;
+
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares converting a typed handler's payload between a JSON-P value and a POJO with
+ * {@link ObjectMapper#convertValue(Object, Class)}, which buffers the tokens of the value on every
+ * call, against the cached converters of the {@link EnvelopePayloadTypeConverter}.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=uk.gov.justice.services.core.dispatcher.benchmark.PayloadConversionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PayloadConversionBenchmark {
+
+    private ObjectMapper objectMapper;
+    private EnvelopePayloadTypeConverter typeConverter;
+    private Envelope<JsonValue> jsonValueEnvelope;
+    private Envelope<TestPojo> pojoEnvelope;
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PayloadConversionBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapperProducer().objectMapper();
+        typeConverter = new EnvelopePayloadTypeConverter(objectMapper);
+        typeConverter.prepare(TestPojo.class);
+
+        final JsonObject payload = createObjectBuilder()
+                .add("payloadId", randomUUID().toString())
+                .add("payloadName", "payload name")
+                .add("payloadVersion", 200L)
+                .build();
+
+        jsonValueEnvelope = envelopeFrom(metadataBuilder().withId(randomUUID()).withName("benchmark.pojo-action"), payload);
+        pojoEnvelope = envelopeFrom(jsonValueEnvelope.metadata(), objectMapper.convertValue(payload, TestPojo.class));
+    }
+
+    @Benchmark
+    public TestPojo jsonValueToPojoWithConvertValue() {
+        return objectMapper.convertValue(jsonValueEnvelope.payload(), TestPojo.class);
+    }
+
+    @Benchmark
+    public TestPojo jsonValueToPojoWithPayloadConverter() {
+        return typeConverter.convert(jsonValueEnvelope, TestPojo.class).payload();
+    }
+
+    @Benchmark
+    public JsonValue pojoToJsonValueWithConvertValue() {
+        return objectMapper.convertValue(pojoEnvelope.payload(), JsonValue.class);
+    }
+
+    @Benchmark
+    public JsonValue pojoToJsonValueWithPayloadConverter() {
+        return typeConverter.convert(pojoEnvelope, JsonValue.class).payload();
+    }
+}
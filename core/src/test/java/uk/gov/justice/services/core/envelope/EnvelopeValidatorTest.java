@@ -1,6 +1,7 @@
 package uk.gov.justice.services.core.envelope;
 
 import static java.util.Optional.of;
+import static javax.json.Json.createObjectBuilder;
 import static javax.json.JsonValue.NULL;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
@@ -9,7 +10,9 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
+import uk.gov.justice.services.core.json.JsonObjectSchemaValidator;
 import uk.gov.justice.services.core.json.JsonSchemaValidator;
 import uk.gov.justice.services.core.json.SchemaLoadingException;
 import uk.gov.justice.services.core.mapping.MediaType;
@@ -17,6 +20,7 @@ import uk.gov.justice.services.messaging.JsonEnvelope;
 
 import java.util.Optional;
 
+import javax.json.JsonObject;
 import javax.json.JsonValue;
 
 import com.fasterxml.jackson.core.JsonGenerationException;
@@ -201,4 +205,24 @@ public class EnvelopeValidatorTest {
 
         assertThat(exceptionArgumentCaptor.getValue(), is(envelopeValidationException));
     }
+
+    @Test
+    public void shouldValidateAJsonObjectPayloadWithoutSerialisingItIfTheValidatorSupportsIt() throws Exception {
+
+        final String actionName = "example.action-name";
+        final Optional<MediaType> mediaType = of(new MediaType("application/vnd.example.action-name+json"));
+
+        final JsonSchemaValidator jsonObjectSchemaValidator = mock(JsonSchemaValidator.class, withSettings().extraInterfaces(JsonObjectSchemaValidator.class));
+        final EnvelopeValidator envelopeValidator = new EnvelopeValidator(jsonObjectSchemaValidator, objectMapper, envelopeValidationExceptionHandler);
+
+        final JsonEnvelope jsonEnvelope = mock(JsonEnvelope.class);
+        final JsonObject payload = createObjectBuilder().add("some", "json").build();
+
+        when(jsonEnvelope.payload()).thenReturn(payload);
+
+        envelopeValidator.validate(jsonEnvelope, actionName, mediaType);
+
+        verify((JsonObjectSchemaValidator) jsonObjectSchemaValidator).validate(payload, actionName, mediaType);
+        verifyZeroInteractions(objectMapper);
+    }
 }
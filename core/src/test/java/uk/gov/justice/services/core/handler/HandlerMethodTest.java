@@ -140,6 +140,25 @@ public class HandlerMethodTest {
         new HandlerMethod(checkedExcCommandHandler, method(new CheckedExceptionThrowingCommandHandler(), "handles"), JsonEnvelope.class).execute(envelope);
     }
 
+    @Test
+    public void shouldExecuteHandlerMethodOfNonPublicHandlerClass() {
+        final NonPublicCommandHandler handler = new NonPublicCommandHandler();
+
+        final Object result = new HandlerMethod(handler, method(handler, "handles"), JsonEnvelope.class).execute(envelope);
+
+        assertThat(result, sameInstance(envelope));
+    }
+
+    @Test
+    public void shouldRethrowRuntimeExceptionFromNonPublicHandlerClass() {
+        final NonPublicCommandHandler handler = new NonPublicCommandHandler();
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("async failure");
+
+        new HandlerMethod(handler, method(handler, "handlesAsync"), Void.TYPE).execute(envelope);
+    }
+
     @Test
     public void shouldReturnStringDescriptionOfHandlerInstanceAndMethod() {
         assertThat(asyncHandlerInstance().toString(), notNullValue());
@@ -267,6 +286,19 @@ public class HandlerMethodTest {
         }
     }
 
+    static class NonPublicCommandHandler {
+
+        @Handles("test-context.command.create-something")
+        public JsonEnvelope handles(final JsonEnvelope envelope) {
+            return envelope;
+        }
+
+        @Handles("test-context.command.create-something-else")
+        public void handlesAsync(final JsonEnvelope envelope) {
+            throw new IllegalStateException("async failure");
+        }
+    }
+
     @Direct(target = "not_used")
     @FrameworkComponent("COMPONENT_A")
     public static class TestDirectComponentAHandler {
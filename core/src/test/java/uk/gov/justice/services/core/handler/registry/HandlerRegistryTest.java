@@ -1,6 +1,7 @@
 package uk.gov.justice.services.core.handler.registry;
 
 import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -21,6 +22,8 @@ import uk.gov.justice.services.core.handler.registry.exception.InvalidHandlerExc
 import uk.gov.justice.services.messaging.JsonEnvelope;
 import uk.gov.justice.services.test.utils.common.envelope.TestEnvelopeRecorder;
 
+import java.util.List;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -114,6 +117,15 @@ public class HandlerRegistryTest {
         assertHandlerMethodInvokesHandler(handlerMethod, testDirectComponentAHandler);
     }
 
+    @Test
+    public void shouldReturnTheRegisteredHandlerMethods() throws Exception {
+        registry = new HandlerRegistry(logger);
+
+        final List<HandlerMethod> handlerMethods = registry.register(new TestCommandHandlerWithSynchronousHandler());
+
+        assertThat(handlerMethods, hasItems(sameInstance(registry.get(COMMAND_NAME))));
+    }
+
     @Test(expected = DuplicateHandlerException.class)
     public void shouldThrowExceptionIfAttemptingToRegisterDuplicateDirectHandler() throws Exception {
 
@@ -8,7 +8,6 @@ import static uk.gov.justice.services.core.interceptor.InterceptorContext.interc
 
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
-import java.util.LinkedList;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -33,7 +32,7 @@ public class DefaultInterceptorChainProcessorTest {
         final InterceptorContext interceptorContext = interceptorContextWithInput(inputEnvelope);
         final String component = "component";
 
-        when(interceptorCache.getInterceptors(component)).thenReturn(interceptors());
+        when(interceptorCache.getOrderedInterceptors(component)).thenReturn(interceptors());
         when(dispatch.apply(inputEnvelope)).thenReturn(outputEnvelope);
 
         final DefaultInterceptorChainProcessor interceptorChainProcessor = new DefaultInterceptorChainProcessor(interceptorCache, dispatch, component);
@@ -50,7 +49,7 @@ public class DefaultInterceptorChainProcessorTest {
         final JsonEnvelope outputEnvelope = mock(JsonEnvelope.class);
         final String component = "component";
 
-        when(interceptorCache.getInterceptors(component)).thenReturn(interceptors());
+        when(interceptorCache.getOrderedInterceptors(component)).thenReturn(interceptors());
         when(dispatch.apply(inputEnvelope)).thenReturn(outputEnvelope);
 
         final DefaultInterceptorChainProcessor interceptorChainProcessor = new DefaultInterceptorChainProcessor(interceptorCache, dispatch, component);
@@ -66,7 +65,7 @@ public class DefaultInterceptorChainProcessorTest {
         final JsonEnvelope inputEnvelope = mock(JsonEnvelope.class);
         final String component = "component";
 
-        when(interceptorCache.getInterceptors(component)).thenReturn(interceptors());
+        when(interceptorCache.getOrderedInterceptors(component)).thenReturn(interceptors());
         when(dispatch.apply(inputEnvelope)).thenReturn(null);
 
         final DefaultInterceptorChainProcessor interceptorChainProcessor = new DefaultInterceptorChainProcessor(interceptorCache, dispatch, component);
@@ -75,10 +74,8 @@ public class DefaultInterceptorChainProcessorTest {
         assertThat(result, is(Optional.empty()));
     }
 
-    private LinkedList<Interceptor> interceptors() {
-        final LinkedList<Interceptor> interceptors = new LinkedList<>();
-        interceptors.add(new TestInterceptor());
-        return interceptors;
+    private Interceptor[] interceptors() {
+        return new Interceptor[]{new TestInterceptor()};
     }
 
     private static class TestInterceptor implements Interceptor {
@@ -63,6 +63,7 @@ public class DefaultInterceptorChainTest {
     @Test
     public void shouldCloseStreamIfExceptionOccurs() throws Exception {
         interceptors.offer(new ExceptionThrowingInterceptor());
+        interceptorChain = new DefaultInterceptorChain(interceptors, new TestTarget());
 
         final InterceptorContext interceptorContext_1 = mock(InterceptorContext.class);
         final InterceptorContext interceptorContext_2 = mock(InterceptorContext.class);
@@ -82,6 +83,34 @@ public class DefaultInterceptorChainTest {
 
     }
 
+    @Test
+    public void shouldContinueFromSamePositionEachTimeInterceptorProcessesNext() throws Exception {
+        final CountingTarget target = new CountingTarget();
+        final InterceptorContext interceptorContext = mock(InterceptorContext.class);
+
+        new DefaultInterceptorChain(new Interceptor[]{new TestInterceptor(), new RepeatingInterceptor(3), new TestInterceptor()}, target)
+                .processNext(interceptorContext);
+
+        assertThat(target.processed, is(3));
+    }
+
+    @Test
+    public void shouldRestorePositionWhenInterceptorThrowsException() throws Exception {
+        final CountingTarget target = new CountingTarget();
+        final InterceptorContext interceptorContext = mock(InterceptorContext.class);
+        final FailingOnceInterceptor failingOnceInterceptor = new FailingOnceInterceptor();
+        final InterceptorChain chain = new DefaultInterceptorChain(new Interceptor[]{new TestInterceptor(), failingOnceInterceptor}, target);
+
+        try {
+            chain.processNext(interceptorContext);
+        } catch (final TestException e) {
+        }
+        chain.processNext(interceptorContext);
+
+        assertThat(failingOnceInterceptor.calls, is(2));
+        assertThat(target.processed, is(1));
+    }
+
     public static class TestInterceptor implements Interceptor {
 
         @Override
@@ -98,6 +127,48 @@ public class DefaultInterceptorChainTest {
         }
     }
 
+    private static class RepeatingInterceptor implements Interceptor {
+
+        private final int times;
+
+        RepeatingInterceptor(final int times) {
+            this.times = times;
+        }
+
+        @Override
+        public InterceptorContext process(final InterceptorContext interceptorContext, final InterceptorChain interceptorChain) {
+            InterceptorContext result = interceptorContext;
+            for (int i = 0; i < times; i++) {
+                result = interceptorChain.processNext(interceptorContext);
+            }
+            return result;
+        }
+    }
+
+    private static class FailingOnceInterceptor implements Interceptor {
+
+        private int calls;
+
+        @Override
+        public InterceptorContext process(final InterceptorContext interceptorContext, final InterceptorChain interceptorChain) {
+            if (calls++ == 0) {
+                throw new TestException();
+            }
+            return interceptorChain.processNext(interceptorContext);
+        }
+    }
+
+    private static class CountingTarget implements Target {
+
+        private int processed;
+
+        @Override
+        public InterceptorContext process(final InterceptorContext interceptorContext) {
+            processed++;
+            return interceptorContext;
+        }
+    }
+
     private static class TestException extends RuntimeException {
 
     }
@@ -3,8 +3,10 @@ package uk.gov.justice.services.core.interceptor;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.arrayContaining;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -83,6 +85,25 @@ public class InterceptorCacheTest {
         assertThat(interceptors, contains(INTERCEPTOR_1, INTERCEPTOR_2));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldReturnSameOrderedInterceptorsForEveryMessageOfComponent() throws Exception {
+        givenThreeInterceptorBeans();
+
+        final InterceptorChainEntryProvider interceptorChainEntryProvider = new ComponentOneInterceptorChainProvider();
+        final Bean<InterceptorChainEntryProvider> interceptorChainProviderBean = mock(Bean.class);
+
+        when(observer.getInterceptorChainProviderBeans()).thenReturn(singletonList(interceptorChainProviderBean));
+        when(beanInstantiater.instantiate(interceptorChainProviderBean)).thenReturn(interceptorChainEntryProvider);
+
+        interceptorCache.initialise();
+
+        final Interceptor[] interceptors = interceptorCache.getOrderedInterceptors("Component_1");
+
+        assertThat(interceptors, arrayContaining(INTERCEPTOR_1, INTERCEPTOR_2));
+        assertThat(interceptorCache.getOrderedInterceptors("Component_1"), sameInstance(interceptors));
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void shouldSupportDeprecatedInterceptorChainProviders() throws Exception {
@@ -0,0 +1,89 @@
+package uk.gov.justice.services.core.interceptor.benchmark;
+
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static javax.json.Json.createObjectBuilder;
+import static uk.gov.justice.services.core.interceptor.InterceptorContext.interceptorContextWithInput;
+import static uk.gov.justice.services.messaging.JsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonEnvelope.metadataBuilder;
+
+import uk.gov.justice.services.core.interceptor.DefaultInterceptorChain;
+import uk.gov.justice.services.core.interceptor.Interceptor;
+import uk.gov.justice.services.core.interceptor.InterceptorChain;
+import uk.gov.justice.services.core.interceptor.InterceptorContext;
+import uk.gov.justice.services.core.interceptor.Target;
+
+import java.util.Arrays;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures passing an interceptor context through chains of pass-through interceptors of
+ * increasing length. Runs with the GC profiler: gc.alloc.rate.norm is the same for every chain
+ * length, being the one chain instance created per message, so advancing the chain allocates
+ * nothing.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=uk.gov.justice.services.core.interceptor.benchmark.InterceptorChainBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class InterceptorChainBenchmark {
+
+    @Param({"1", "4", "8"})
+    public int chainLength;
+
+    private final Target target = interceptorContext -> interceptorContext;
+
+    private Interceptor[] interceptors;
+    private InterceptorContext interceptorContext;
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InterceptorChainBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setup() {
+        interceptors = new Interceptor[chainLength];
+        Arrays.fill(interceptors, new PassThroughInterceptor());
+
+        interceptorContext = interceptorContextWithInput(envelopeFrom(
+                metadataBuilder().withId(randomUUID()).withName("benchmark.action"),
+                createObjectBuilder().add("aField", "aValue")));
+    }
+
+    @Benchmark
+    public InterceptorContext processChain() {
+        return new DefaultInterceptorChain(interceptors, target).processNext(interceptorContext);
+    }
+
+    public static class PassThroughInterceptor implements Interceptor {
+
+        @Override
+        public InterceptorContext process(final InterceptorContext interceptorContext, final InterceptorChain interceptorChain) {
+            return interceptorChain.processNext(interceptorContext);
+        }
+    }
+}
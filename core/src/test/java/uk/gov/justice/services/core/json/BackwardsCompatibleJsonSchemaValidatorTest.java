@@ -1,6 +1,7 @@
 package uk.gov.justice.services.core.json;
 
 import static java.util.Optional.empty;
+import static javax.json.Json.createObjectBuilder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
@@ -8,6 +9,8 @@ import uk.gov.justice.services.core.mapping.MediaType;
 
 import java.util.Optional;
 
+import javax.json.JsonObject;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -56,4 +59,25 @@ public class BackwardsCompatibleJsonSchemaValidatorTest {
 
         verify(schemaCatalogAwareJsonSchemaValidator).validate(envelopeJson, actionName, mediaType);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldValidateJsonObjectWithCatalogValidatorIfMediaTypeIsPresent() {
+        final JsonObject payload = createObjectBuilder().build();
+        final String actionName = "actionName";
+        final Optional<MediaType> mediaType = Optional.of(mock(MediaType.class));
+
+        backwardsCompatibleJsonSchemaValidator.validate(payload, actionName, mediaType);
+
+        verify(schemaCatalogAwareJsonSchemaValidator).validate(payload, actionName, mediaType);
+    }
+
+    @Test
+    public void shouldValidateJsonObjectWithFileBasedValidatorIfMediaTypeIsEmpty() {
+        final JsonObject payload = createObjectBuilder().build();
+        final String actionName = "actionName";
+
+        backwardsCompatibleJsonSchemaValidator.validate(payload, actionName, empty());
+
+        verify(fileBasedJsonSchemaValidator).validateWithoutSchemaCatalog(payload, actionName);
+    }
+}
@@ -1,5 +1,6 @@
 package uk.gov.justice.services.core.json;
 
+import static javax.json.Json.createObjectBuilder;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
@@ -9,6 +10,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import javax.json.JsonObject;
+
 import org.everit.json.schema.Schema;
 import org.everit.json.schema.ValidationException;
 import org.json.JSONObject;
@@ -75,4 +78,22 @@ public class FileBasedJsonSchemaValidatorTest {
             assertThat(e.getCause(), is(instanceOf(ValidationException.class)));
         }
     }
+
+    @Test
+    public void shouldValidateAJsonObjectWithoutSerialisingIt() throws Exception {
+
+        final String actionName = "example.action-name";
+        final JsonObject envelope = createObjectBuilder().add("envelope", "json").build();
+
+        final JSONObject payload = mock(JSONObject.class);
+        final Schema schema = mock(Schema.class);
+
+        when(payloadExtractor.extractPayloadFrom(envelope)).thenReturn(payload);
+        when(jsonSchemaLoader.loadSchema(actionName)).thenReturn(schema);
+
+        fileBasedJsonSchemaValidator.validateWithoutSchemaCatalog(envelope, actionName);
+
+        verify(schema).validate(payload);
+        verify(logger).info("Falling back to file based schema lookup, no catalog schema found for: {}", actionName);
+    }
 }
@@ -2,7 +2,11 @@ package uk.gov.justice.services.core.json;
 
 import static com.jayway.jsonassert.JsonAssert.with;
 import static java.util.UUID.randomUUID;
+import static javax.json.Json.createArrayBuilder;
+import static javax.json.Json.createObjectBuilder;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
 import static uk.gov.justice.services.messaging.DefaultJsonEnvelope.envelope;
 import static uk.gov.justice.services.messaging.JsonEnvelope.METADATA;
 import static uk.gov.justice.services.messaging.JsonObjectMetadata.metadataWithRandomUUID;
@@ -11,6 +15,9 @@ import uk.gov.justice.services.messaging.JsonEnvelope;
 
 import java.util.UUID;
 
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
 import org.json.JSONObject;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -47,4 +54,50 @@ public class PayloadExtractorTest {
                 .assertNotDefined(METADATA)
         ;
     }
+
+    @Test
+    public void shouldRemoveTheMetadataFromAJsonObjectAndConvertToJsonObjectWithoutParsing() throws Exception {
+
+        final JsonObject envelope = createObjectBuilder()
+                .add(METADATA, createObjectBuilder().add("name", "time-travel-initiated"))
+                .add("destination", "Jurassic Era")
+                .add("passengers", 3)
+                .add("distance", 65000000000L)
+                .add("speed", 88.5)
+                .add("returnTicket", true)
+                .add("companion", JsonValue.NULL)
+                .add("stops", createArrayBuilder().add("Cretaceous").add(createObjectBuilder().add("year", -66000000)))
+                .build();
+
+        final JSONObject jsonObject = payloadExtractor.extractPayloadFrom(envelope);
+
+        assertThat(jsonObject.has(METADATA), is(false));
+        assertThat(jsonObject.getString("destination"), is("Jurassic Era"));
+        assertThat(jsonObject.get("passengers"), is(instanceOf(Integer.class)));
+        assertThat(jsonObject.getInt("passengers"), is(3));
+        assertThat(jsonObject.get("distance"), is(instanceOf(Long.class)));
+        assertThat(jsonObject.getLong("distance"), is(65000000000L));
+        assertThat(jsonObject.get("speed"), is(instanceOf(Double.class)));
+        assertThat(jsonObject.getDouble("speed"), is(88.5));
+        assertThat(jsonObject.getBoolean("returnTicket"), is(true));
+        assertThat(jsonObject.isNull("companion"), is(true));
+        assertThat(jsonObject.getJSONArray("stops").getString(0), is("Cretaceous"));
+        assertThat(jsonObject.getJSONArray("stops").getJSONObject(1).getInt("year"), is(-66000000));
+    }
+
+    @Test
+    public void shouldProduceTheSameJsonObjectAsParsingTheSerialisedPayload() throws Exception {
+
+        final JsonObject payload = createObjectBuilder()
+                .add("name", "Marty")
+                .add("age", 17)
+                .add("height", 1.63)
+                .add("tags", createArrayBuilder().add(1).add("two").add(false))
+                .build();
+
+        final JSONObject converted = payloadExtractor.extractPayloadFrom(payload);
+        final JSONObject parsed = payloadExtractor.extractPayloadFrom(payload.toString());
+
+        assertThat(converted.similar(parsed), is(true));
+    }
 }
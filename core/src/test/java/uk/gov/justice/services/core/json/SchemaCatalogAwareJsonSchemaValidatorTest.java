@@ -2,6 +2,7 @@ package uk.gov.justice.services.core.json;
 
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
+import static javax.json.Json.createObjectBuilder;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
@@ -18,6 +19,8 @@ import uk.gov.justice.services.core.mapping.SchemaIdMappingCache;
 
 import java.util.Optional;
 
+import javax.json.JsonObject;
+
 import org.everit.json.schema.Schema;
 import org.everit.json.schema.ValidationException;
 import org.json.JSONObject;
@@ -119,4 +122,44 @@ public class SchemaCatalogAwareJsonSchemaValidatorTest {
             assertThat(e.getCause(), is(instanceOf(ValidationException.class)));
         }
     }
+
+    @Test
+    public void shouldValidateAJsonObjectUsingTheCatalogSchema() throws Exception {
+
+        final String uri = "http://space.time.gov.uk/mind/command/api/initiate-warp-speed.json";
+        final String actionName = "command.api.initiate-warp-speed";
+        final MediaType mediaType = new MediaType("application", "vnd.mind.command.initiate-warp-speed+json");
+
+        final JsonObject envelope = createObjectBuilder().add("envelope", "json").build();
+
+        final Schema schema = mock(Schema.class);
+        final JSONObject payload = mock(JSONObject.class);
+
+        when(schemaIdMappingCache.schemaIdFor(mediaType)).thenReturn(of(uri));
+        when(schemaCatalogService.findSchema(uri)).thenReturn(of(schema));
+        when(payloadExtractor.extractPayloadFrom(envelope)).thenReturn(payload);
+
+        schemaCatalogAwareJsonSchemaValidator.validate(envelope, actionName, of(mediaType));
+
+        verify(schema).validate(payload);
+        verifyZeroInteractions(fileBasedJsonSchemaValidator);
+    }
+
+    @Test
+    public void shouldFallBackToFileBasedSchemaValidationOfAJsonObjectIfNoSchemaFoundInTheCatalogCache() throws Exception {
+
+        final String uri = "http://space.time.gov.uk/mind/command/api/initiate-warp-speed.json";
+        final String actionName = "command.api.initiate-warp-speed";
+        final MediaType mediaType = new MediaType("application", "vnd.mind.command.initiate-warp-speed+json");
+
+        final JsonObject envelope = createObjectBuilder().add("envelope", "json").build();
+
+        when(schemaIdMappingCache.schemaIdFor(mediaType)).thenReturn(of(uri));
+        when(schemaCatalogService.findSchema(uri)).thenReturn(empty());
+
+        schemaCatalogAwareJsonSchemaValidator.validate(envelope, actionName, of(mediaType));
+
+        verify(fileBasedJsonSchemaValidator).validateWithoutSchemaCatalog(envelope, actionName);
+        verifyZeroInteractions(payloadExtractor);
+    }
 }
@@ -0,0 +1,115 @@
+package uk.gov.justice.services.core.json.benchmark;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static javax.json.Json.createArrayBuilder;
+import static javax.json.Json.createObjectBuilder;
+
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperProducer;
+import uk.gov.justice.services.core.json.PayloadExtractor;
+
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares schema validation of a {@link JsonObject} payload by serialising and re-parsing it
+ * (the String path) against converting it directly to org.json (the JsonObject path).
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=uk.gov.justice.services.core.json.benchmark.SchemaValidationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SchemaValidationBenchmark {
+
+    private static final String SCHEMA = "{" +
+            "\"$schema\": \"http://json-schema.org/draft-04/schema#\"," +
+            "\"type\": \"object\"," +
+            "\"properties\": {" +
+            "  \"items\": {" +
+            "    \"type\": \"array\"," +
+            "    \"items\": {" +
+            "      \"type\": \"object\"," +
+            "      \"properties\": {" +
+            "        \"id\": {\"type\": \"integer\"}," +
+            "        \"name\": {\"type\": \"string\"}," +
+            "        \"price\": {\"type\": \"number\"}," +
+            "        \"available\": {\"type\": \"boolean\"}" +
+            "      }," +
+            "      \"required\": [\"id\", \"name\", \"price\", \"available\"]" +
+            "    }" +
+            "  }" +
+            "}," +
+            "\"required\": [\"items\"]" +
+            "}";
+
+    private static final int APPROXIMATE_ITEM_SIZE_BYTES = 80;
+
+    @Param({"1024", "10240", "102400", "1048576"})
+    public int payloadSizeBytes;
+
+    private final PayloadExtractor payloadExtractor = new PayloadExtractor();
+    private final ObjectMapper objectMapper = new ObjectMapperProducer().objectMapper();
+
+    private Schema schema;
+    private JsonObject payload;
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SchemaValidationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setup() {
+        schema = SchemaLoader.load(new JSONObject(SCHEMA));
+
+        final JsonArrayBuilder items = createArrayBuilder();
+        for (int i = 0; i < payloadSizeBytes / APPROXIMATE_ITEM_SIZE_BYTES + 1; i++) {
+            items.add(createObjectBuilder()
+                    .add("id", i)
+                    .add("name", "item number " + i)
+                    .add("price", i * 1.25)
+                    .add("available", i % 2 == 0));
+        }
+
+        payload = createObjectBuilder().add("items", items).build();
+    }
+
+    @Benchmark
+    public JSONObject serialiseAndParse() throws Exception {
+        final JSONObject jsonObject = payloadExtractor.extractPayloadFrom(objectMapper.writeValueAsString(payload));
+        schema.validate(jsonObject);
+        return jsonObject;
+    }
+
+    @Benchmark
+    public JSONObject convertJsonObject() {
+        final JSONObject jsonObject = payloadExtractor.extractPayloadFrom(payload);
+        schema.validate(jsonObject);
+        return jsonObject;
+    }
+}
@@ -0,0 +1,75 @@
+package uk.gov.justice.services.event.buffer.core.repository.rebuildcheckpoint;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+/**
+ * Entity to represent how far one partition of a read model rebuild has got: the position of the
+ * last event stream the partition replayed completely.
+ */
+public class RebuildCheckpoint {
+
+    private final String rebuildName;
+    private final int partitionNumber;
+    private final int partitionCount;
+    private final long streamPosition;
+
+    public RebuildCheckpoint(final String rebuildName, final int partitionNumber, final int partitionCount, final long streamPosition) {
+        this.rebuildName = rebuildName;
+        this.partitionNumber = partitionNumber;
+        this.partitionCount = partitionCount;
+        this.streamPosition = streamPosition;
+    }
+
+    public String getRebuildName() {
+        return rebuildName;
+    }
+
+    public int getPartitionNumber() {
+        return partitionNumber;
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public long getStreamPosition() {
+        return streamPosition;
+    }
+
+    @Override
+    public String toString() {
+        return "RebuildCheckpoint{" +
+                "rebuildName='" + rebuildName + '\'' +
+                ", partitionNumber=" + partitionNumber +
+                ", partitionCount=" + partitionCount +
+                ", streamPosition=" + streamPosition +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+
+        if (o == null || getClass() != o.getClass()) return false;
+
+        RebuildCheckpoint that = (RebuildCheckpoint) o;
+
+        return new EqualsBuilder()
+                .append(rebuildName, that.rebuildName)
+                .append(partitionNumber, that.partitionNumber)
+                .append(partitionCount, that.partitionCount)
+                .append(streamPosition, that.streamPosition)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37)
+                .append(rebuildName)
+                .append(partitionNumber)
+                .append(partitionCount)
+                .append(streamPosition)
+                .toHashCode();
+    }
+}
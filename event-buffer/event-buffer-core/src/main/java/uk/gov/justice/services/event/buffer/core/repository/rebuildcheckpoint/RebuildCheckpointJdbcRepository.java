@@ -0,0 +1,131 @@
+package uk.gov.justice.services.event.buffer.core.repository.rebuildcheckpoint;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+
+import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryException;
+import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryHelper;
+import uk.gov.justice.services.jdbc.persistence.PreparedStatementWrapper;
+import uk.gov.justice.services.jdbc.persistence.ViewStoreJdbcDataSourceProvider;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.sql.DataSource;
+
+/**
+ * JDBC based repository for the checkpoints of read model rebuilds, kept in the view store so that
+ * a checkpoint is written in the same transaction as the projections of the stream it records.
+ */
+@ApplicationScoped
+public class RebuildCheckpointJdbcRepository {
+
+    /**
+     * Column Names
+     */
+    private static final String COL_REBUILD_NAME = "rebuild_name";
+    private static final String COL_PARTITION_NUMBER = "partition_number";
+    private static final String COL_PARTITION_COUNT = "partition_count";
+    private static final String COL_STREAM_POSITION = "stream_position";
+
+    /**
+     * Statements
+     */
+    private static final String SELECT_BY_REBUILD_NAME = "SELECT rebuild_name, partition_number, partition_count, stream_position FROM rebuild_checkpoint WHERE rebuild_name=? ORDER BY partition_number ASC";
+    private static final String INSERT = "INSERT INTO rebuild_checkpoint (partition_count, stream_position, rebuild_name, partition_number) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE rebuild_checkpoint SET partition_count=?, stream_position=? WHERE rebuild_name=? AND partition_number=?";
+    private static final String DELETE_BY_REBUILD_NAME = "DELETE FROM rebuild_checkpoint WHERE rebuild_name=?";
+
+    @Inject
+    JdbcRepositoryHelper jdbcRepositoryHelper;
+
+    @Inject
+    ViewStoreJdbcDataSourceProvider dataSourceProvider;
+
+    DataSource dataSource;
+
+    public RebuildCheckpointJdbcRepository() {}
+
+    public RebuildCheckpointJdbcRepository(final DataSource dataSource, final JdbcRepositoryHelper jdbcRepositoryHelper) {
+        this.dataSource = dataSource;
+        this.jdbcRepositoryHelper = jdbcRepositoryHelper;
+    }
+
+    @PostConstruct
+    private void initialiseDataSource() {
+        dataSource = dataSourceProvider.getDataSource();
+    }
+
+    /**
+     * Records the given checkpoint, replacing any checkpoint of the same partition of the rebuild.
+     *
+     * @param rebuildCheckpoint the checkpoint to save
+     */
+    public void save(final RebuildCheckpoint rebuildCheckpoint) {
+        if (!execute(UPDATE, rebuildCheckpoint)) {
+            execute(INSERT, rebuildCheckpoint);
+        }
+    }
+
+    /**
+     * Returns the checkpoints of every partition of the given rebuild.
+     *
+     * @param rebuildName the name of the rebuild
+     * @return the checkpoints ordered by partition number. Never returns null.
+     */
+    public List<RebuildCheckpoint> findByRebuildName(final String rebuildName) {
+        try {
+            final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, SELECT_BY_REBUILD_NAME);
+            ps.setString(1, rebuildName);
+
+            try (final Stream<RebuildCheckpoint> checkpoints = jdbcRepositoryHelper.streamOf(ps, this::entityFrom)) {
+                return checkpoints.collect(toList());
+            }
+        } catch (SQLException e) {
+            throw new JdbcRepositoryException(format("Exception while looking up checkpoints of rebuild: %s", rebuildName), e);
+        }
+    }
+
+    /**
+     * Removes the checkpoints of every partition of the given rebuild.
+     *
+     * @param rebuildName the name of the rebuild
+     */
+    public void deleteByRebuildName(final String rebuildName) {
+        try (final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, DELETE_BY_REBUILD_NAME)) {
+            ps.setString(1, rebuildName);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new JdbcRepositoryException(format("Exception while deleting checkpoints of rebuild: %s", rebuildName), e);
+        }
+    }
+
+    private boolean execute(final String statement, final RebuildCheckpoint rebuildCheckpoint) {
+        try (final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, statement)) {
+            ps.setLong(1, (long) rebuildCheckpoint.getPartitionCount());
+            ps.setLong(2, rebuildCheckpoint.getStreamPosition());
+            ps.setString(3, rebuildCheckpoint.getRebuildName());
+            ps.setLong(4, (long) rebuildCheckpoint.getPartitionNumber());
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new JdbcRepositoryException(format("Exception while storing rebuild checkpoint: %s", rebuildCheckpoint), e);
+        }
+    }
+
+    private RebuildCheckpoint entityFrom(final ResultSet resultSet) {
+        try {
+            return new RebuildCheckpoint(
+                    resultSet.getString(COL_REBUILD_NAME),
+                    resultSet.getInt(COL_PARTITION_NUMBER),
+                    resultSet.getInt(COL_PARTITION_COUNT),
+                    resultSet.getLong(COL_STREAM_POSITION));
+        } catch (final SQLException e) {
+            throw new JdbcRepositoryException(e);
+        }
+    }
+}
@@ -24,6 +24,7 @@ public class StreamBufferJdbcRepository {
     private static final String INSERT = "INSERT INTO stream_buffer (stream_id, version, event, source) VALUES (?, ?, ?, ?)";
     private static final String SELECT_STREAM_BUFFER_BY_STREAM_ID_AND_SOURCE = "SELECT stream_id, version, event, source FROM stream_buffer WHERE stream_id=? AND source=? ORDER BY version";
     private static final String DELETE_BY_STREAM_ID_VERSION = "DELETE FROM stream_buffer WHERE stream_id=? AND version=? AND source=?";
+    private static final String DELETE_BY_STREAM_ID_VERSION_RANGE = "DELETE FROM stream_buffer WHERE stream_id=? AND source=? AND version BETWEEN ? AND ?";
 
     private static final String STREAM_ID = "stream_id";
     private static final String VERSION = "version";
@@ -90,6 +91,28 @@ public class StreamBufferJdbcRepository {
 
     }
 
+    /**
+     * Removes the buffered events of the given stream with versions from fromVersion to toVersion
+     * inclusive with a single statement.
+     *
+     * @param streamId    the id of the stream
+     * @param source      the source of the stream
+     * @param fromVersion the version of the first event to remove
+     * @param toVersion   the version of the last event to remove
+     */
+    public void remove(final UUID streamId, final String source, final long fromVersion, final long toVersion) {
+
+        try (final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, DELETE_BY_STREAM_ID_VERSION_RANGE)) {
+            ps.setObject(1, streamId);
+            ps.setString(2, source);
+            ps.setLong(3, fromVersion);
+            ps.setLong(4, toVersion);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new JdbcRepositoryException(format("Exception while removing events from the buffer, streamId: %s, versions %d to %d", streamId, fromVersion, toVersion), e);
+        }
+    }
+
     private Function<ResultSet, StreamBufferEvent> entityFromFunction() {
         return resultSet -> {
             try {
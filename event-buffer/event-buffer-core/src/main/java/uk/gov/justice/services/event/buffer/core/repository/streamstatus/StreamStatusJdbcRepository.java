@@ -35,6 +35,9 @@ public class StreamStatusJdbcRepository {
     private static final String INSERT = "INSERT INTO stream_status (version, stream_id, source) VALUES (?, ?, ?)";
     private static final String INSERT_ON_CONFLICT_DO_NOTHING = new StringBuilder().append(INSERT).append(" ON CONFLICT DO NOTHING").toString();
     private static final String UPDATE = "UPDATE stream_status SET version=?, source=? WHERE stream_id=?";
+    private static final String UPDATE_IF_CONSECUTIVE_AND_UNBUFFERED = "UPDATE stream_status SET version=? WHERE stream_id=? AND source=? AND version=? AND buffered=false";
+    private static final String UPDATE_BUFFERED = "UPDATE stream_status SET buffered=? WHERE stream_id=? AND source=?";
+    private static final String UPDATE_VERSION_AND_BUFFERED = "UPDATE stream_status SET version=?, buffered=? WHERE stream_id=? AND source=?";
 
 
     @Inject
@@ -108,6 +111,65 @@ public class StreamStatusJdbcRepository {
         }
     }
 
+    /**
+     * Moves the stream status on to the version of the given StreamStatus, provided the stored
+     * version is the one immediately before it and no events of the stream are buffered. Does not
+     * lock or read the status beforehand.
+     *
+     * @param streamStatus the status of the stream with the version of an incoming event
+     * @return true if the status was updated, false if the stream has no status yet, the event is
+     * not the next one in the stream or events of the stream are buffered
+     */
+    public boolean updateIfConsecutiveAndUnbuffered(final StreamStatus streamStatus) {
+        try (final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, UPDATE_IF_CONSECUTIVE_AND_UNBUFFERED)) {
+            ps.setLong(1, streamStatus.getVersion());
+            ps.setObject(2, streamStatus.getStreamId());
+            ps.setString(3, streamStatus.getSource());
+            ps.setLong(4, streamStatus.getVersion() - 1);
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new JdbcRepositoryException(format("Exception while updating status of the stream: %s", streamStatus), e);
+        }
+    }
+
+    /**
+     * Records whether events of the given stream may be waiting in the stream buffer.
+     *
+     * @param streamId the id of the stream
+     * @param source   the source of the stream
+     * @param buffered true if events of the stream have been buffered, false once the buffer has
+     *                 been drained
+     */
+    public void updateBuffered(final UUID streamId, final String source, final boolean buffered) {
+        try (final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, UPDATE_BUFFERED)) {
+            ps.setBoolean(1, buffered);
+            ps.setObject(2, streamId);
+            ps.setString(3, source);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new JdbcRepositoryException(format("Exception while updating buffered flag of the stream: %s", streamId), e);
+        }
+    }
+
+    /**
+     * Moves the stream status on to the version of the given StreamStatus and records whether
+     * events of the stream are still buffered, in a single statement.
+     *
+     * @param streamStatus the status of the stream to update
+     * @param buffered     true if events of the stream remain in the stream buffer
+     */
+    public void updateVersionAndBuffered(final StreamStatus streamStatus, final boolean buffered) {
+        try (final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, UPDATE_VERSION_AND_BUFFERED)) {
+            ps.setLong(1, streamStatus.getVersion());
+            ps.setBoolean(2, buffered);
+            ps.setObject(3, streamStatus.getStreamId());
+            ps.setString(4, streamStatus.getSource());
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new JdbcRepositoryException(format("Exception while updating status of the stream: %s", streamStatus), e);
+        }
+    }
+
     /**
      * Returns a Stream of {@link StreamStatus} for the given stream streamId.
      *
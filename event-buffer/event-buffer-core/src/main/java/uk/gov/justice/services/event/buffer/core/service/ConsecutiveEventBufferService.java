@@ -8,6 +8,7 @@ import uk.gov.justice.services.event.buffer.core.repository.streambuffer.StreamB
 import uk.gov.justice.services.event.buffer.core.repository.streambuffer.StreamBufferJdbcRepository;
 import uk.gov.justice.services.event.buffer.core.repository.streamstatus.StreamStatus;
 import uk.gov.justice.services.event.buffer.core.repository.streamstatus.StreamStatusJdbcRepository;
+import uk.gov.justice.services.event.buffer.core.service.ConsecutiveEventsSpliterator.EndOfRunAction;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
 
@@ -28,6 +29,7 @@ import org.slf4j.Logger;
 public class ConsecutiveEventBufferService implements EventBufferService {
 
     private static final long INITIAL_VERSION = 1l;
+    private static final int MAX_CACHED_STREAM_STATUSES = 10000;
 
     @Inject
     private Logger logger;
@@ -44,6 +46,7 @@ public class ConsecutiveEventBufferService implements EventBufferService {
     @Inject
     private BufferInitialisationStrategy bufferInitialisationStrategy;
 
+    StreamStatusCache streamStatusCache = new StreamStatusCache(MAX_CACHED_STREAM_STATUSES);
 
     /**
      * Takes an incoming event and returns a stream of json envelopes. If the event is not
@@ -53,6 +56,14 @@ public class ConsecutiveEventBufferService implements EventBufferService {
      * an event is the first to be processed for that streamId then the version value must be 1 or
      * the incomingEvent is added to the buffer and an empty stream is returned.
      *
+     * An incoming event that directly follows the stream status while nothing is buffered for the
+     * stream is handled with a single conditional update of the stream status; the status row is
+     * only locked and the buffer only read when that update does not apply.
+     *
+     * Buffered events are read and emitted lazily. Once the consecutive run of buffered events has
+     * been streamed they are removed from the buffer and the stream status is updated, with one
+     * statement each, rather than once per event.
+     *
      * @return stream of consecutive events
      */
     @Override
@@ -64,7 +75,15 @@ public class ConsecutiveEventBufferService implements EventBufferService {
         final long incomingEventVersion = versionOf(incomingEvent);
         final String source = getSource(incomingEvent);
 
+        if (mayBeNextEvent(streamId, source, incomingEventVersion)
+                && streamStatusRepository.updateIfConsecutiveAndUnbuffered(new StreamStatus(streamId, incomingEventVersion, source))) {
+            logger.trace("Message : {} is consecutive and nothing is buffered, sending to dispatcher", incomingEvent);
+            streamStatusCache.put(streamId, source, incomingEventVersion);
+            return Stream.of(incomingEvent);
+        }
+
         final long currentVersion = bufferInitialisationStrategy.initialiseBuffer(streamId, source);
+        streamStatusCache.put(streamId, source, currentVersion);
 
         if (incomingEventObsolete(incomingEventVersion, currentVersion)) {
             logger.warn("Message : {} is an obsolete version", incomingEvent);
@@ -78,10 +97,17 @@ public class ConsecutiveEventBufferService implements EventBufferService {
         } else {
             logger.trace("Message : {} version is valid sending stream to dispatcher", incomingEvent);
             streamStatusRepository.update(new StreamStatus(streamId, incomingEventVersion, source));
+            streamStatusCache.put(streamId, source, incomingEventVersion);
             return bufferedEvents(streamId, incomingEvent, incomingEventVersion);
         }
     }
 
+    private boolean mayBeNextEvent(final UUID streamId, final String source, final long incomingEventVersion) {
+        return streamStatusCache.lastKnownVersionOf(streamId, source)
+                .map(lastKnownVersion -> incomingEventVersion > lastKnownVersion)
+                .orElse(true);
+    }
+
     private long versionOf(final JsonEnvelope event) {
         final long incomingEventVersion = event.metadata().version().orElseThrow(() -> new IllegalStateException("Event must have a version"));
         if (smallerThanInitial(incomingEventVersion)) {
@@ -96,26 +122,32 @@ public class ConsecutiveEventBufferService implements EventBufferService {
 
     private Stream<JsonEnvelope> bufferedEvents(final UUID streamId, final JsonEnvelope incomingEvent, final long incomingEventVersion) {
         final String source = getSource(incomingEvent);
-        return concat(Stream.of(incomingEvent), consecutiveEventStreamFromBuffer(streamBufferRepository.findStreamByIdAndSource(streamId, source), incomingEventVersion)
-                .peek(streamBufferEvent -> streamBufferRepository.remove(streamBufferEvent))
-                .peek(streamBufferEvent -> streamStatusRepository.update(new StreamStatus(
-                        streamBufferEvent.getStreamId(),
-                        streamBufferEvent.getVersion(),
-                        source)))
+        return concat(Stream.of(incomingEvent), consecutiveEventStreamFromBuffer(streamBufferRepository.findStreamByIdAndSource(streamId, source), incomingEventVersion,
+                (firstVersion, lastVersion, endOfBuffer) -> drained(streamId, source, firstVersion, lastVersion, endOfBuffer))
                 .map(streamBufferEvent -> jsonObjectEnvelopeConverter.asEnvelope(streamBufferEvent.getEvent())));
     }
 
+    private void drained(final UUID streamId, final String source, final long firstVersion, final long lastVersion, final boolean endOfBuffer) {
+        if (lastVersion >= firstVersion) {
+            streamBufferRepository.remove(streamId, source, firstVersion, lastVersion);
+            streamStatusRepository.updateVersionAndBuffered(new StreamStatus(streamId, lastVersion, source), !endOfBuffer);
+            streamStatusCache.put(streamId, source, lastVersion);
+        } else if (endOfBuffer) {
+            streamStatusRepository.updateBuffered(streamId, source, false);
+        }
+    }
+
     private void addToBuffer(final JsonEnvelope incomingEvent, final UUID streamId, final Long incomingEventVersion) {
         streamBufferRepository.insert(
                 new StreamBufferEvent(streamId,
                         incomingEventVersion,
                         jsonObjectEnvelopeConverter.asJsonString(incomingEvent),
                         getSource(incomingEvent)));
-
+        streamStatusRepository.updateBuffered(streamId, getSource(incomingEvent), true);
     }
 
-    private Stream<StreamBufferEvent> consecutiveEventStreamFromBuffer(final Stream<StreamBufferEvent> messageBuffer, final long currentVersion) {
-        return stream(new ConsecutiveEventsSpliterator(messageBuffer, currentVersion), false).onClose(() -> messageBuffer.close());
+    private Stream<StreamBufferEvent> consecutiveEventStreamFromBuffer(final Stream<StreamBufferEvent> messageBuffer, final long currentVersion, final EndOfRunAction endOfRunAction) {
+        return stream(new ConsecutiveEventsSpliterator(messageBuffer, currentVersion, endOfRunAction), false).onClose(() -> messageBuffer.close());
     }
 
     private boolean incomingEventNotInOrder(final long incomingEventVersion, final long currentVersion) {
@@ -10,29 +10,47 @@ import java.util.stream.Stream;
 /**
  * Spliterator enables to transform stream of events into a consecutive stream of events.
  * If a version gap in the eventStream is spotted then then the processing of the stream terminates.
+ * Once the consecutive run of events ends, either at a gap or at the end of the eventStream, the
+ * given end of run action is called once with the versions of the first and last events of the run.
  */
 public class ConsecutiveEventsSpliterator extends AbstractSpliterator<StreamBufferEvent> {
     private long currentVersion;
+    private long firstVersion;
+    private boolean runStarted;
     private final Stream<StreamBufferEvent> eventStream;
     private final Iterator<StreamBufferEvent> eventStreamIterator;
+    private EndOfRunAction endOfRunAction;
 
     public ConsecutiveEventsSpliterator(final Stream<StreamBufferEvent> eventStream, final long currentVersion) {
+        this(eventStream, currentVersion, (firstVersion, lastVersion, endOfBuffer) -> {
+        });
+    }
+
+    public ConsecutiveEventsSpliterator(final Stream<StreamBufferEvent> eventStream, final long currentVersion, final EndOfRunAction endOfRunAction) {
         super(Long.MAX_VALUE, ORDERED);
         this.eventStream = eventStream;
         this.currentVersion = currentVersion;
+        this.firstVersion = currentVersion + 1;
         this.eventStreamIterator = eventStream.iterator();
+        this.endOfRunAction = endOfRunAction;
     }
 
     @Override
     public boolean tryAdvance(final Consumer<? super StreamBufferEvent> consumer) {
         if (!eventStreamIterator.hasNext()) {
+            runEndOfRunActionOnce(true);
             return false;
         } else {
             final StreamBufferEvent next = eventStreamIterator.next();
             final long version = next.getVersion();
             if (versionGapFound(version)) {
+                runEndOfRunActionOnce(false);
                 return false;
             } else {
+                if (!runStarted) {
+                    firstVersion = version;
+                    runStarted = true;
+                }
                 currentVersion = version;
                 consumer.accept(next);
                 return true;
@@ -43,4 +61,28 @@ public class ConsecutiveEventsSpliterator extends AbstractSpliterator<StreamBuff
     private boolean versionGapFound(final long version) {
         return version - currentVersion > 1;
     }
-}
\ No newline at end of file
+
+    private void runEndOfRunActionOnce(final boolean endOfBuffer) {
+        final EndOfRunAction action = endOfRunAction;
+        endOfRunAction = null;
+        if (action != null) {
+            action.endOfRun(firstVersion, currentVersion, endOfBuffer);
+        }
+    }
+
+    /**
+     * Action called when a consecutive run of events has been fully streamed.
+     */
+    @FunctionalInterface
+    public interface EndOfRunAction {
+
+        /**
+         * @param firstVersion version of the first event of the run
+         * @param lastVersion  version of the last event of the run, lower than firstVersion if no
+         *                     events were streamed
+         * @param endOfBuffer  true if the run ended because there are no further buffered events,
+         *                     false if it ended at a version gap
+         */
+        void endOfRun(final long firstVersion, final long lastVersion, final boolean endOfBuffer);
+    }
+}
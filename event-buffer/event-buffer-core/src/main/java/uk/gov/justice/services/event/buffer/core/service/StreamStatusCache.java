@@ -0,0 +1,37 @@
+package uk.gov.justice.services.event.buffer.core.service;
+
+import uk.gov.justice.services.jdbc.persistence.BoundedLruCache;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Bounded, least recently used cache of the last version this node has seen processed for each
+ * stream and source.
+ *
+ * The cached version is only a hint used to skip the fast path for events that are evidently
+ * redelivered; it may lag behind other nodes or run ahead of a rolled back transaction, so the
+ * stream_status table remains the authority on whether an event is in order.
+ */
+class StreamStatusCache {
+
+    private final BoundedLruCache<Pair<UUID, String>, Long> versions;
+
+    StreamStatusCache(final int maxStreams) {
+        this.versions = new BoundedLruCache<>(maxStreams);
+    }
+
+    Optional<Long> lastKnownVersionOf(final UUID streamId, final String source) {
+        return versions.get(Pair.of(streamId, source));
+    }
+
+    void put(final UUID streamId, final String source, final long version) {
+        versions.put(Pair.of(streamId, source), version);
+    }
+
+    int size() {
+        return versions.size();
+    }
+}
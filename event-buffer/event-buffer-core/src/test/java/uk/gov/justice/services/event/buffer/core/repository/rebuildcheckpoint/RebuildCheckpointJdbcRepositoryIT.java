@@ -0,0 +1,83 @@
+package uk.gov.justice.services.event.buffer.core.repository.rebuildcheckpoint;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryHelper;
+import uk.gov.justice.services.test.utils.core.messaging.Poller;
+import uk.gov.justice.services.test.utils.persistence.TestDataSourceFactory;
+
+import java.sql.SQLException;
+import java.util.Optional;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RebuildCheckpointJdbcRepositoryIT {
+
+    private static final String LIQUIBASE_EVENT_BUFFER_CHANGELOG_XML = "liquibase/event-buffer-changelog.xml";
+    private static final String REBUILD_NAME = "cakeshop-event-listener";
+
+    private RebuildCheckpointJdbcRepository jdbcRepository;
+
+    @Before
+    public void initDatabase() throws Exception {
+        final TestDataSourceFactory testDataSourceFactory = new TestDataSourceFactory(LIQUIBASE_EVENT_BUFFER_CHANGELOG_XML);
+        final JdbcDataSource dataSource = testDataSourceFactory.createDataSource();
+        jdbcRepository = new RebuildCheckpointJdbcRepository(dataSource, new JdbcRepositoryHelper());
+
+        try {
+            final Poller poller = new Poller();
+
+            poller.pollUntilFound(() -> {
+                try {
+                    dataSource.getConnection().prepareStatement("SELECT COUNT (*) FROM rebuild_checkpoint;").execute();
+                    return Optional.of("Success");
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                    fail("RebuildCheckpointJdbcRepository construction failed");
+                    return Optional.empty();
+                }
+            });
+        } catch (final Exception e) {
+            e.printStackTrace();
+            fail("RebuildCheckpointJdbcRepository construction failed");
+        }
+    }
+
+    @Test
+    public void shouldInsertAndReturnCheckpointsOfRebuild() throws Exception {
+        final RebuildCheckpoint partition0 = new RebuildCheckpoint(REBUILD_NAME, 0, 2, 10L);
+        final RebuildCheckpoint partition1 = new RebuildCheckpoint(REBUILD_NAME, 1, 2, 7L);
+
+        jdbcRepository.save(partition1);
+        jdbcRepository.save(partition0);
+        jdbcRepository.save(new RebuildCheckpoint("other-rebuild", 0, 2, 3L));
+
+        assertThat(jdbcRepository.findByRebuildName(REBUILD_NAME), contains(partition0, partition1));
+    }
+
+    @Test
+    public void shouldReplaceCheckpointOfPartition() throws Exception {
+        jdbcRepository.save(new RebuildCheckpoint(REBUILD_NAME, 0, 2, 10L));
+        jdbcRepository.save(new RebuildCheckpoint(REBUILD_NAME, 0, 2, 15L));
+
+        assertThat(jdbcRepository.findByRebuildName(REBUILD_NAME), contains(new RebuildCheckpoint(REBUILD_NAME, 0, 2, 15L)));
+    }
+
+    @Test
+    public void shouldDeleteCheckpointsOfRebuild() throws Exception {
+        final RebuildCheckpoint otherRebuild = new RebuildCheckpoint("other-rebuild", 0, 2, 3L);
+        jdbcRepository.save(new RebuildCheckpoint(REBUILD_NAME, 0, 2, 10L));
+        jdbcRepository.save(new RebuildCheckpoint(REBUILD_NAME, 1, 2, 7L));
+        jdbcRepository.save(otherRebuild);
+
+        jdbcRepository.deleteByRebuildName(REBUILD_NAME);
+
+        assertThat(jdbcRepository.findByRebuildName(REBUILD_NAME), empty());
+        assertThat(jdbcRepository.findByRebuildName("other-rebuild"), contains(otherRebuild));
+    }
+}
@@ -127,4 +127,26 @@ public class StreamBufferJdbcRepositoryIT {
 
         assertThat(jdbcRepository.findStreamByIdAndSource(id1, source).collect(toList()), empty());
     }
+
+    @Test
+    public void shouldRemoveRangeOfVersionsFromBuffer() {
+        final UUID id1 = randomUUID();
+        final UUID id2 = randomUUID();
+        final String source = "source";
+
+        jdbcRepository.insert(new StreamBufferEvent(id1, 3L, "eventVersion_3", source));
+        jdbcRepository.insert(new StreamBufferEvent(id1, 4L, "eventVersion_4", source));
+        jdbcRepository.insert(new StreamBufferEvent(id1, 5L, "eventVersion_5", source));
+        jdbcRepository.insert(new StreamBufferEvent(id1, 7L, "eventVersion_7", source));
+        jdbcRepository.insert(new StreamBufferEvent(id1, 4L, "eventVersion_4", "a-different-source"));
+        jdbcRepository.insert(new StreamBufferEvent(id2, 4L, "eventVersion_4", source));
+
+        jdbcRepository.remove(id1, source, 3L, 5L);
+
+        final List<StreamBufferEvent> events = jdbcRepository.findStreamByIdAndSource(id1, source).collect(toList());
+        assertThat(events, hasSize(1));
+        assertThat(events.get(0).getVersion(), is(7L));
+        assertThat(jdbcRepository.findStreamByIdAndSource(id1, "a-different-source").collect(toList()), hasSize(1));
+        assertThat(jdbcRepository.findStreamByIdAndSource(id2, source).collect(toList()), hasSize(1));
+    }
 }
@@ -88,6 +88,56 @@ public class StreamStatusJdbcRepositoryIT {
 
     }
 
+    @Test
+    public void shouldUpdateVersionOnlyIfConsecutiveAndUnbuffered() throws Exception {
+        final UUID id = randomUUID();
+        final String source = "source";
+        jdbcRepository.insert(streamStatusOf(id, 4L, source));
+
+        assertFalse(jdbcRepository.updateIfConsecutiveAndUnbuffered(streamStatusOf(id, 6L, source)));
+        assertFalse(jdbcRepository.updateIfConsecutiveAndUnbuffered(streamStatusOf(id, 5L, "other source")));
+        assertTrue(jdbcRepository.updateIfConsecutiveAndUnbuffered(streamStatusOf(id, 5L, source)));
+        assertFalse(jdbcRepository.updateIfConsecutiveAndUnbuffered(streamStatusOf(id, 5L, source)));
+
+        assertThat(jdbcRepository.findByStreamIdAndSource(id, source).get().getVersion(), is(5L));
+    }
+
+    @Test
+    public void shouldNotUpdateVersionConditionallyWhileStreamIsBuffered() throws Exception {
+        final UUID id = randomUUID();
+        final String source = "source";
+        jdbcRepository.insert(streamStatusOf(id, 4L, source));
+
+        jdbcRepository.updateBuffered(id, source, true);
+        assertFalse(jdbcRepository.updateIfConsecutiveAndUnbuffered(streamStatusOf(id, 5L, source)));
+
+        jdbcRepository.updateBuffered(id, source, false);
+        assertTrue(jdbcRepository.updateIfConsecutiveAndUnbuffered(streamStatusOf(id, 5L, source)));
+    }
+
+    @Test
+    public void shouldNotUpdateVersionConditionallyIfStreamHasNoStatus() throws Exception {
+        assertFalse(jdbcRepository.updateIfConsecutiveAndUnbuffered(streamStatusOf(randomUUID(), 1L, "source")));
+    }
+
+    @Test
+    public void shouldUpdateVersionAndBufferedMarkerTogether() throws Exception {
+        final UUID id = randomUUID();
+        final String source = "source";
+        jdbcRepository.insert(streamStatusOf(id, 2L, source));
+        jdbcRepository.updateBuffered(id, source, true);
+
+        jdbcRepository.updateVersionAndBuffered(streamStatusOf(id, 5L, source), true);
+
+        assertThat(jdbcRepository.findByStreamIdAndSource(id, source).get().getVersion(), is(5L));
+        assertFalse(jdbcRepository.updateIfConsecutiveAndUnbuffered(streamStatusOf(id, 6L, source)));
+
+        jdbcRepository.updateVersionAndBuffered(streamStatusOf(id, 7L, source), false);
+
+        assertThat(jdbcRepository.findByStreamIdAndSource(id, source).get().getVersion(), is(7L));
+        assertTrue(jdbcRepository.updateIfConsecutiveAndUnbuffered(streamStatusOf(id, 8L, source)));
+    }
+
     private StreamStatus streamStatusOf(final UUID id, final Long version, final String source) {
         return new StreamStatus(id, version, source);
     }
@@ -5,8 +5,12 @@ import static co.unruly.matchers.StreamMatchers.empty;
 import static java.util.UUID.randomUUID;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -289,8 +293,177 @@ public class ConsecutiveEventBufferServiceTest {
 
         assertThat(returnedEvents, contains(incomingEvent, bufferedEvent4, bufferedEvent5, bufferedEvent6));
 
-        verify(streamBufferRepository).remove(event4);
-        verify(streamBufferRepository).remove(event5);
-        verify(streamBufferRepository).remove(event6);
+        verify(streamBufferRepository).remove(streamId, source, 4L, 6L);
+        verify(streamBufferRepository, never()).remove(any(StreamBufferEvent.class));
+    }
+
+    @Test
+    public void shouldUpdateStreamStatusOnceAfterStreamingBufferedEvents() {
+
+        final UUID streamId = randomUUID();
+        final String source = "source";
+        when(bufferInitialisationStrategy.initialiseBuffer(streamId, source)).thenReturn(2L);
+
+        when(streamBufferRepository.findStreamByIdAndSource(streamId, source)).thenReturn(
+                Stream.of(new StreamBufferEvent(streamId, 4L, "someEventContent4", source),
+                        new StreamBufferEvent(streamId, 5L, "someEventContent5", source)));
+        when(jsonObjectEnvelopeConverter.asEnvelope(any(String.class))).thenReturn(envelope().build());
+
+        final JsonEnvelope incomingEvent =
+                envelope()
+                        .with(metadataWithDefaults()
+                                .withName("source.event.name")
+                                .withStreamId(streamId)
+                                .withVersion(3L))
+                        .build();
+
+        final Stream<JsonEnvelope> returnedEvents = bufferService.currentOrderedEventsWith(incomingEvent);
+        verify(streamBufferRepository, never()).remove(any(UUID.class), any(String.class), anyLong(), anyLong());
+        verify(streamStatusRepository, never()).updateVersionAndBuffered(any(StreamStatus.class), anyBoolean());
+
+        assertThat(returnedEvents.count(), is(3L));
+
+        verify(streamStatusRepository).update(new StreamStatus(streamId, 3L, source));
+        verify(streamStatusRepository).updateVersionAndBuffered(new StreamStatus(streamId, 5L, source), false);
+        verify(streamStatusRepository, never()).update(new StreamStatus(streamId, 4L, source));
+        verify(streamStatusRepository, never()).update(new StreamStatus(streamId, 5L, source));
+        assertThat(bufferService.streamStatusCache.lastKnownVersionOf(streamId, source), is(Optional.of(5L)));
+    }
+
+    @Test
+    public void shouldReturnInOrderEventWithSingleConditionalUpdateIfNothingIsBuffered() {
+        final UUID streamId = randomUUID();
+        final String source = "source";
+
+        final JsonEnvelope incomingEvent =
+                envelope()
+                        .with(metadataWithDefaults()
+                                .withName("source.event.name")
+                                .withStreamId(streamId)
+                                .withVersion(5L))
+                        .build();
+
+        when(streamStatusRepository.updateIfConsecutiveAndUnbuffered(new StreamStatus(streamId, 5L, source))).thenReturn(true);
+
+        final Stream<JsonEnvelope> returnedEvents = bufferService.currentOrderedEventsWith(incomingEvent);
+
+        assertThat(returnedEvents, contains(incomingEvent));
+        verifyZeroInteractions(bufferInitialisationStrategy);
+        verifyZeroInteractions(streamBufferRepository);
+        assertThat(bufferService.streamStatusCache.lastKnownVersionOf(streamId, source), is(Optional.of(5L)));
+    }
+
+    @Test
+    public void shouldNotAttemptConditionalUpdateForEventAlreadySeenByThisNode() {
+        final UUID streamId = randomUUID();
+        final String source = "source";
+        bufferService.streamStatusCache.put(streamId, source, 5L);
+
+        final JsonEnvelope incomingEvent =
+                envelope()
+                        .with(metadataWithDefaults()
+                                .withName("source.event.name")
+                                .withStreamId(streamId)
+                                .withVersion(5L))
+                        .build();
+
+        when(bufferInitialisationStrategy.initialiseBuffer(streamId, source)).thenReturn(5L);
+
+        final Stream<JsonEnvelope> returnedEvents = bufferService.currentOrderedEventsWith(incomingEvent);
+
+        assertThat(returnedEvents, empty());
+        verify(streamStatusRepository, never()).updateIfConsecutiveAndUnbuffered(any(StreamStatus.class));
+    }
+
+    @Test
+    public void shouldMarkStreamAsBufferedWhenBufferingEvent() {
+        final UUID streamId = randomUUID();
+        final String source = "source";
+
+        final JsonEnvelope incomingEvent =
+                envelope()
+                        .with(metadataWithDefaults()
+                                .withName("source.event.name")
+                                .withStreamId(streamId)
+                                .withVersion(6L))
+                        .build();
+
+        when(bufferInitialisationStrategy.initialiseBuffer(streamId, source)).thenReturn(4L);
+        when(jsonObjectEnvelopeConverter.asJsonString(incomingEvent)).thenReturn("someStringRepresentation");
+
+        bufferService.currentOrderedEventsWith(incomingEvent);
+
+        verify(streamStatusRepository).updateBuffered(streamId, source, true);
+    }
+
+    @Test
+    public void shouldClearBufferedMarkerOnlyOnceWholeBufferIsStreamed() {
+        final UUID streamId = randomUUID();
+        final String source = "source";
+
+        when(bufferInitialisationStrategy.initialiseBuffer(streamId, source)).thenReturn(2L);
+        when(streamBufferRepository.findStreamByIdAndSource(streamId, source)).thenReturn(
+                Stream.of(new StreamBufferEvent(streamId, 4L, "someEventContent4", source)));
+        when(jsonObjectEnvelopeConverter.asEnvelope("someEventContent4")).thenReturn(envelope().build());
+
+        final JsonEnvelope incomingEvent =
+                envelope()
+                        .with(metadataWithDefaults()
+                                .withName("source.event.name")
+                                .withStreamId(streamId)
+                                .withVersion(3L))
+                        .build();
+
+        final Stream<JsonEnvelope> returnedEvents = bufferService.currentOrderedEventsWith(incomingEvent);
+        verify(streamStatusRepository, never()).updateVersionAndBuffered(new StreamStatus(streamId, 4L, source), false);
+
+        assertThat(returnedEvents.count(), is(2L));
+        verify(streamStatusRepository).updateVersionAndBuffered(new StreamStatus(streamId, 4L, source), false);
+    }
+
+    @Test
+    public void shouldClearBufferedMarkerIfBufferIsEmpty() {
+        final UUID streamId = randomUUID();
+        final String source = "source";
+
+        when(bufferInitialisationStrategy.initialiseBuffer(streamId, source)).thenReturn(2L);
+        when(streamBufferRepository.findStreamByIdAndSource(streamId, source)).thenReturn(Stream.empty());
+
+        final JsonEnvelope incomingEvent =
+                envelope()
+                        .with(metadataWithDefaults()
+                                .withName("source.event.name")
+                                .withStreamId(streamId)
+                                .withVersion(3L))
+                        .build();
+
+        assertThat(bufferService.currentOrderedEventsWith(incomingEvent).count(), is(1L));
+        verify(streamStatusRepository).updateBuffered(streamId, source, false);
+        verify(streamBufferRepository, never()).remove(any(UUID.class), any(String.class), anyLong(), anyLong());
+    }
+
+    @Test
+    public void shouldKeepBufferedMarkerIfGapRemainsInBuffer() {
+        final UUID streamId = randomUUID();
+        final String source = "source";
+
+        when(bufferInitialisationStrategy.initialiseBuffer(streamId, source)).thenReturn(2L);
+        when(streamBufferRepository.findStreamByIdAndSource(streamId, source)).thenReturn(
+                Stream.of(new StreamBufferEvent(streamId, 4L, "someEventContent4", source),
+                        new StreamBufferEvent(streamId, 6L, "someEventContent6", source)));
+        when(jsonObjectEnvelopeConverter.asEnvelope("someEventContent4")).thenReturn(envelope().build());
+
+        final JsonEnvelope incomingEvent =
+                envelope()
+                        .with(metadataWithDefaults()
+                                .withName("source.event.name")
+                                .withStreamId(streamId)
+                                .withVersion(3L))
+                        .build();
+
+        assertThat(bufferService.currentOrderedEventsWith(incomingEvent).count(), is(2L));
+        verify(streamStatusRepository).updateVersionAndBuffered(new StreamStatus(streamId, 4L, source), true);
+        verify(streamStatusRepository, never()).updateBuffered(streamId, source, false);
+        verify(streamBufferRepository).remove(streamId, source, 4L, 4L);
     }
 }
@@ -5,6 +5,7 @@ import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.InvalidPo
 import uk.gov.justice.services.jdbc.persistence.PreparedStatementWrapper;
 
 import java.sql.SQLException;
+import java.util.List;
 
 import javax.enterprise.inject.Alternative;
 
@@ -26,4 +27,15 @@ public class AnsiSQLEventLogInsertionStrategy extends BaseEventInsertStrategy {
     public void insert(final PreparedStatementWrapper ps, final Event event) throws SQLException, InvalidPositionException {
         executeStatement(ps, event);
     }
+
+    /**
+     * Insert the given events into the event log as a single batch.
+     *
+     * @param events the events to insert
+     * @throws InvalidPositionException if the position of any of the events is null.
+     */
+    @Override
+    public void insertBatch(final PreparedStatementWrapper ps, final List<Event> events) throws SQLException, InvalidPositionException {
+        executeBatch(ps, events);
+    }
 }
@@ -8,6 +8,7 @@ import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.InvalidPo
 import uk.gov.justice.services.jdbc.persistence.PreparedStatementWrapper;
 
 import java.sql.SQLException;
+import java.util.List;
 
 public abstract class BaseEventInsertStrategy implements EventInsertionStrategy {
 
@@ -24,6 +25,28 @@ public abstract class BaseEventInsertStrategy implements EventInsertionStrategy
      * @throws InvalidPositionException if an event already exists at the specified position.
      */
     protected int executeStatement(final PreparedStatementWrapper preparedStatement, final Event event) throws SQLException, InvalidPositionException {
+        setParameters(preparedStatement, event);
+        return preparedStatement.executeUpdate();
+    }
+
+    /**
+     * Executes the Insertion of several events into the Event Log as a single JDBC batch.
+     *
+     * @param preparedStatement the prepared statement wrapper to use for executing the batch
+     * @param events            the events to set into the prepared statement, one batch entry each
+     * @return the update counts of the batch, in the same order as the given events
+     * @throws SQLException             if thrown by the execute batch
+     * @throws InvalidPositionException if the position of any of the events is null.
+     */
+    protected int[] executeBatch(final PreparedStatementWrapper preparedStatement, final List<Event> events) throws SQLException, InvalidPositionException {
+        for (final Event event : events) {
+            setParameters(preparedStatement, event);
+            preparedStatement.addBatch();
+        }
+        return preparedStatement.executeBatch();
+    }
+
+    private void setParameters(final PreparedStatementWrapper preparedStatement, final Event event) throws SQLException, InvalidPositionException {
         if (event.getSequenceId() == null) {
             throw new InvalidPositionException(format("Version is null for stream %s", event.getStreamId()));
         }
@@ -35,6 +58,5 @@ public abstract class BaseEventInsertStrategy implements EventInsertionStrategy
         preparedStatement.setString(5, event.getMetadata());
         preparedStatement.setString(6, event.getPayload());
         preparedStatement.setTimestamp(7, toSqlTimestamp(event.getCreatedAt()));
-        return preparedStatement.executeUpdate();
     }
 }
@@ -1,5 +1,8 @@
 package uk.gov.justice.services.eventsourcing.repository.jdbc;
 
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+
 import uk.gov.justice.services.eventsourcing.repository.jdbc.event.Event;
 import uk.gov.justice.services.eventsourcing.repository.jdbc.event.EventConverter;
 import uk.gov.justice.services.eventsourcing.repository.jdbc.event.EventJdbcRepository;
@@ -12,6 +15,7 @@ import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.StoreEven
 import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryException;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
+import java.util.List;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -45,6 +49,13 @@ public class DefaultEventRepository implements EventRepository {
                 .map(eventConverter::envelopeOf);
     }
 
+    @Override
+    public Stream<JsonEnvelope> readAllFrom(final long eventNumber, final int batchSize) {
+        logger.trace("Retrieving all events from event number {} in batches of {}", eventNumber, batchSize);
+        return eventJdbcRepository.findAllFromEventNumber(eventNumber, batchSize)
+                .map(eventConverter::envelopeOf);
+    }
+
     @Override
     public Stream<JsonEnvelope> getEventsByStreamId(final UUID streamId) {
         if (streamId == null) {
@@ -69,12 +80,42 @@ public class DefaultEventRepository implements EventRepository {
                 .map(eventConverter::envelopeOf);
     }
 
+    @Override
+    public List<JsonEnvelope> getEventsPageFromPosition(final UUID streamId, final long position, final long pageSize) {
+        if (streamId == null) {
+            throw new InvalidStreamIdException("streamId is null.");
+        }
+
+        logger.trace("Retrieving {} events of stream {} from sequence {}", pageSize, streamId, position);
+        return eventJdbcRepository.findPageByStreamIdFromPosition(streamId, position, pageSize).stream()
+                .map(eventConverter::envelopeOf)
+                .collect(toList());
+    }
+
+    @Override
+    public List<JsonEnvelope> getEventsPageUpToPosition(final UUID streamId, final long position, final long pageSize) {
+        if (streamId == null) {
+            throw new InvalidStreamIdException("streamId is null.");
+        }
+
+        logger.trace("Retrieving {} events of stream {} up to sequence {}", pageSize, streamId, position);
+        return eventJdbcRepository.findPageByStreamIdUpToPosition(streamId, position, pageSize).stream()
+                .map(eventConverter::envelopeOf)
+                .collect(toList());
+    }
+
+    @Override
+    public boolean eventExists(final UUID streamId, final long position) {
+        return eventJdbcRepository.eventExists(streamId, position);
+    }
+
     @Override
     @Transactional(dontRollbackOn = OptimisticLockingRetryException.class)
     public void storeEvent(final JsonEnvelope envelope) throws StoreEventRequestFailedException {
         try {
             final Event event = eventConverter.eventOf(envelope);
             logger.trace("Storing event {} into stream {} at position {}", event.getName(), event.getStreamId(), event.getSequenceId());
+            advanceHeadPosition(event.getStreamId(), event.getSequenceId() - 1, event.getSequenceId());
             eventJdbcRepository.insert(event);
         } catch (InvalidPositionException ex) {
             throw new StoreEventRequestFailedException(String.format("Could not store event for position %d of stream %s",
@@ -82,9 +123,37 @@ public class DefaultEventRepository implements EventRepository {
         }
     }
 
+    @Override
+    @Transactional(dontRollbackOn = OptimisticLockingRetryException.class)
+    public void storeEvents(final List<JsonEnvelope> envelopes) throws StoreEventRequestFailedException {
+        if (envelopes.isEmpty()) {
+            return;
+        }
+
+        final List<Event> events = envelopes.stream()
+                .map(eventConverter::eventOf)
+                .collect(toList());
+        final Event firstEvent = events.get(0);
+        final Event lastEvent = events.get(events.size() - 1);
+
+        try {
+            logger.trace("Storing {} events into stream {} from position {}", events.size(), firstEvent.getStreamId(), firstEvent.getSequenceId());
+            advanceHeadPosition(firstEvent.getStreamId(), firstEvent.getSequenceId() - 1, lastEvent.getSequenceId());
+            eventJdbcRepository.insertAll(events);
+        } catch (InvalidPositionException ex) {
+            throw new StoreEventRequestFailedException(String.format("Could not store events from position %d of stream %s",
+                    firstEvent.getSequenceId(), firstEvent.getStreamId()), ex);
+        }
+    }
+
+    /**
+     * Reads the head position recorded on the event stream, falling back to the latest position
+     * in the event log for streams that have no event stream record.
+     */
     @Override
     public long getStreamSize(final UUID streamId) {
-        return eventJdbcRepository.getStreamSize(streamId);
+        return eventStreamJdbcRepository.findHeadPosition(streamId)
+                .orElseGet(() -> eventJdbcRepository.getStreamSize(streamId));
     }
 
     @Override
@@ -111,6 +180,7 @@ public class DefaultEventRepository implements EventRepository {
     @Override
     public void clearEventsForStream(final UUID id) {
         eventJdbcRepository.clear(id);
+        eventStreamJdbcRepository.resetHeadPosition(id);
     }
 
     @Override
@@ -125,6 +195,25 @@ public class DefaultEventRepository implements EventRepository {
         return eventStreamStream.map(toEventStreamMetadata());
     }
 
+    @Override
+    public List<EventStreamMetadata> getEventStreamsPageFromPosition(final long position, final long pageSize) {
+        return eventStreamJdbcRepository.findPageFromPosition(position, pageSize).stream()
+                .map(toEventStreamMetadata())
+                .collect(toList());
+    }
+
+    @Override
+    public List<EventStreamMetadata> getEventStreamsPageUpToPosition(final long position, final long pageSize) {
+        return eventStreamJdbcRepository.findPageUpToPosition(position, pageSize).stream()
+                .map(toEventStreamMetadata())
+                .collect(toList());
+    }
+
+    @Override
+    public boolean eventStreamExists(final long position) {
+        return eventStreamJdbcRepository.existsAtPosition(position);
+    }
+
     @Override
     public void markEventStreamActive(final UUID streamId, final boolean active) {
         eventStreamJdbcRepository.markActive(streamId, active);
@@ -140,6 +229,20 @@ public class DefaultEventRepository implements EventRepository {
         return eventStreamJdbcRepository.getPosition(streamId);
     }
 
+    /**
+     * Moves the head of the stream on before its events are inserted. The conditional update
+     * takes the row lock on the event stream, so a concurrent append from the same position fails
+     * fast here instead of on the event log constraint. Streams without an event stream record
+     * are left to the event log constraint alone.
+     */
+    private void advanceHeadPosition(final UUID streamId, final long expectedPosition, final long newPosition) {
+        if (!eventStreamJdbcRepository.advanceHeadPosition(streamId, expectedPosition, newPosition)
+                && eventStreamJdbcRepository.findHeadPosition(streamId).isPresent()) {
+            throw new OptimisticLockingRetryException(format("Optimistic locking failure while storing position %d of stream %s",
+                    expectedPosition + 1, streamId));
+        }
+    }
+
     private Function<EventStream, EventStreamMetadata> toEventStreamMetadata() {
         return e -> new DefaultEventStreamMetadata(e.getStreamId(), e.getPosition(),
                 e.isActive(), e.getCreatedAt());
@@ -5,6 +5,7 @@ import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.InvalidPo
 import uk.gov.justice.services.jdbc.persistence.PreparedStatementWrapper;
 
 import java.sql.SQLException;
+import java.util.List;
 
 public interface EventInsertionStrategy {
 
@@ -16,4 +17,19 @@ public interface EventInsertionStrategy {
     String insertStatement();
 
     void insert(final PreparedStatementWrapper ps, final Event event) throws SQLException, InvalidPositionException;
+
+    /**
+     * Inserts the given events using a single prepared statement. Strategies that do not support
+     * JDBC batching fall back to inserting the events one at a time.
+     *
+     * @param ps     the prepared statement wrapper created from {@link #insertStatement()}
+     * @param events the events to insert, in stream order
+     * @throws SQLException             if thrown by the underlying statement
+     * @throws InvalidPositionException if an event already exists at one of the positions
+     */
+    default void insertBatch(final PreparedStatementWrapper ps, final List<Event> events) throws SQLException, InvalidPositionException {
+        for (final Event event : events) {
+            insert(ps, event);
+        }
+    }
 }
@@ -3,6 +3,7 @@ package uk.gov.justice.services.eventsourcing.repository.jdbc;
 import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.StoreEventRequestFailedException;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
+import java.util.List;
 import java.util.UUID;
 import java.util.stream.Stream;
 
@@ -20,6 +21,21 @@ public interface EventRepository {
      */
     Stream<JsonEnvelope> getEvents();
 
+    /**
+     * Get a stream of event envelopes of all streams from a given event number, in event number
+     * order. The events are read with one query per batch, so a full read of the event store is a
+     * single scan of the event log rather than a query per stream.
+     *
+     * Event numbers are assigned when events are inserted rather than when they are committed, so
+     * the stream waits at a gap in the numbers until every transaction that may still fill it has
+     * ended, as told by the transaction snapshot of the database.
+     *
+     * @param eventNumber the event number to read from (inclusive)
+     * @param batchSize   the maximum number of events to read with each query
+     * @return the stream of event envelopes. Never returns null.
+     */
+    Stream<JsonEnvelope> readAllFrom(final long eventNumber, final int batchSize);
+
     /**
      * Get a stream of events ordered by ascending position.
      *
@@ -37,6 +53,37 @@ public interface EventRepository {
      */
     Stream<JsonEnvelope> getEventsByStreamIdFromPosition(final UUID streamId, final Long position);
 
+    /**
+     * Get a bounded page of event envelopes from a given position, ordered by position
+     * ascending.
+     *
+     * @param streamId the id of the stream to retrieve
+     * @param position the position to read the stream from (inclusive)
+     * @param pageSize the maximum number of envelopes to return
+     * @return the list of envelopes. Never returns null.
+     */
+    List<JsonEnvelope> getEventsPageFromPosition(final UUID streamId, final long position, final long pageSize);
+
+    /**
+     * Get a bounded page of event envelopes up to a given position, ordered by position
+     * descending.
+     *
+     * @param streamId the id of the stream to retrieve
+     * @param position the position to read the stream back from (inclusive)
+     * @param pageSize the maximum number of envelopes to return
+     * @return the list of envelopes. Never returns null.
+     */
+    List<JsonEnvelope> getEventsPageUpToPosition(final UUID streamId, final long position, final long pageSize);
+
+    /**
+     * Checks whether the stream has an event at or after the given position.
+     *
+     * @param streamId the id of the stream to check
+     * @param position the position to check from (inclusive)
+     * @return true if such an event exists
+     */
+    boolean eventExists(final UUID streamId, final long position);
+
     /**
      * Stores the given envelope into the event stream.
      *
@@ -47,6 +94,16 @@ public interface EventRepository {
     @Transactional
     void storeEvent(final JsonEnvelope envelope) throws StoreEventRequestFailedException;
 
+    /**
+     * Stores the given envelopes into their event stream in a single batch.
+     *
+     * @param envelopes the envelopes containing the events and the metadata, in stream order.
+     * @throws StoreEventRequestFailedException If there was a failure in storing the events, this
+     *                                          will wrap the underlying cause.
+     */
+    @Transactional
+    void storeEvents(final List<JsonEnvelope> envelopes) throws StoreEventRequestFailedException;
+
     /**
      * Returns the position for the given stream id.
      *
@@ -73,7 +130,7 @@ public interface EventRepository {
     Stream<Stream<JsonEnvelope>> getStreamOfAllActiveEventStreams();
 
     /**
-     * Clears all of the events from a stream.
+     * Clears all of the events from a stream and resets the head position of the stream to 0.
      *
      * @param id - the id of the stream that is to be Cleared.
      */
@@ -87,6 +144,32 @@ public interface EventRepository {
      */
     Stream<EventStreamMetadata> getEventStreamsFromPosition(final long position);
 
+    /**
+     * Get a bounded page of EventStreams from a given position, ordered by position ascending.
+     *
+     * @param position the position to read from (inclusive)
+     * @param pageSize the maximum number of event streams to return
+     * @return the list of EventStreamMetadata. Never returns null.
+     */
+    List<EventStreamMetadata> getEventStreamsPageFromPosition(final long position, final long pageSize);
+
+    /**
+     * Get a bounded page of EventStreams up to a given position, ordered by position descending.
+     *
+     * @param position the position to read back from (inclusive)
+     * @param pageSize the maximum number of event streams to return
+     * @return the list of EventStreamMetadata. Never returns null.
+     */
+    List<EventStreamMetadata> getEventStreamsPageUpToPosition(final long position, final long pageSize);
+
+    /**
+     * Checks whether an event stream exists at exactly the given position.
+     *
+     * @param position the position to check
+     * @return true if an event stream has that position
+     */
+    boolean eventStreamExists(final long position);
+
     /**
      * Mark the stream as active or inactive.
      *
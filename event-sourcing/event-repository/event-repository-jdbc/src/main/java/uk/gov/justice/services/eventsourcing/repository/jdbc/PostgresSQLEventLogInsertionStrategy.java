@@ -1,6 +1,7 @@
 package uk.gov.justice.services.eventsourcing.repository.jdbc;
 
 import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
 
 import uk.gov.justice.services.eventsourcing.repository.jdbc.event.Event;
 import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.InvalidPositionException;
@@ -8,6 +9,8 @@ import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.Optimisti
 import uk.gov.justice.services.jdbc.persistence.PreparedStatementWrapper;
 
 import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.IntStream;
 
 import javax.enterprise.inject.Alternative;
 
@@ -36,4 +39,28 @@ public class PostgresSQLEventLogInsertionStrategy extends BaseEventInsertStrateg
                     event.getSequenceId(), event.getStreamId()));
         }
     }
+
+    /**
+     * Tries to insert the given events into the event log as a single batch. Each row that
+     * conflicts with an existing position is skipped by the database; the positions of all
+     * conflicting rows are reported in the thrown exception.
+     *
+     * @param events the events to insert
+     * @throws SQLException               if thrown from {@link BaseEventInsertStrategy#executeBatch}
+     * @throws InvalidPositionException if any of the versions already exists or is null.
+     */
+    @Override
+    public void insertBatch(final PreparedStatementWrapper ps, final List<Event> events) throws SQLException, InvalidPositionException {
+        final int[] updatedRows = executeBatch(ps, events);
+
+        final List<Long> conflictingSequenceIds = IntStream.range(0, updatedRows.length)
+                .filter(index -> updatedRows[index] == 0)
+                .mapToObj(index -> events.get(index).getSequenceId())
+                .collect(toList());
+
+        if (!conflictingSequenceIds.isEmpty()) {
+            throw new OptimisticLockingRetryException(format("Locking Exception while storing sequences %s of stream %s",
+                    conflictingSequenceIds, events.get(0).getStreamId()));
+        }
+    }
 }
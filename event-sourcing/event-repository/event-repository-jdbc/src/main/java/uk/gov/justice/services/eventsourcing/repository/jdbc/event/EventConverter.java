@@ -1,17 +1,17 @@
     package uk.gov.justice.services.eventsourcing.repository.jdbc.event;
 
-import static uk.gov.justice.services.messaging.JsonEnvelope.envelopeFrom;
 import static uk.gov.justice.services.messaging.JsonEnvelope.metadataFrom;
+import static uk.gov.justice.services.messaging.spi.LazyJsonEnvelope.lazyEnvelopeFrom;
 
 import uk.gov.justice.services.common.converter.StringToJsonObjectConverter;
 import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.InvalidStreamIdException;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
 import uk.gov.justice.services.messaging.Metadata;
+import uk.gov.justice.services.messaging.spi.LazyJsonEnvelope;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
-import javax.json.JsonObject;
 
 /**
  * Converter class to convert between {@link JsonEnvelope} and {@link Event}
@@ -27,7 +27,8 @@ public class EventConverter {
 
 
     /**
-     * Creates an {@link Event} object from the <code>eventEnvelope</code>.
+     * Creates an {@link Event} object from the <code>eventEnvelope</code>. The metadata and payload
+     * of an envelope read from the event log are stored as the text they were read from.
      *
      * @param envelope the envelope to convert from
      * @return the database entity created from the given envelope
@@ -40,7 +41,7 @@ public class EventConverter {
                 eventMetadata.streamId().orElseThrow(() -> new InvalidStreamIdException("StreamId missing in envelope.")),
                 eventMetadata.version().orElse(null),
                 eventMetadata.name(),
-                envelope.metadata().asJsonObject().toString(),
+                extractMetadataAsString(envelope),
                 extractPayloadAsString(envelope),
                 eventMetadata
                         .createdAt()
@@ -51,13 +52,14 @@ public class EventConverter {
     }
 
     /**
-     * Creates an {@link JsonEnvelope} from {@link Event}
+     * Creates an {@link JsonEnvelope} from {@link Event}, which parses the metadata and payload of
+     * the event when they are first accessed.
      *
      * @param event event to be converted into an envelope.
      * @return an envelope created from event.
      */
     public JsonEnvelope envelopeOf(final Event event) {
-        return envelopeFrom(metadataOf(event), payloadOf(event));
+        return lazyEnvelopeFrom(event.getMetadata(), event.getPayload());
     }
 
     /**
@@ -70,11 +72,17 @@ public class EventConverter {
         return metadataFrom(stringToJsonObjectConverter.convert(event.getMetadata())).build();
     }
 
-    private JsonObject payloadOf(final Event event) {
-        return stringToJsonObjectConverter.convert(event.getPayload());
+    private String extractMetadataAsString(final JsonEnvelope envelope) {
+        if (envelope instanceof LazyJsonEnvelope) {
+            return ((LazyJsonEnvelope) envelope).metadataJson();
+        }
+        return envelope.metadata().asJsonObject().toString();
     }
 
     private String extractPayloadAsString(final JsonEnvelope envelope) {
+        if (envelope instanceof LazyJsonEnvelope) {
+            return ((LazyJsonEnvelope) envelope).payloadJson();
+        }
         return jsonObjectEnvelopeConverter.extractPayloadFromEnvelope(
                 jsonObjectEnvelopeConverter.fromEnvelope(envelope)).toString();
     }
@@ -2,6 +2,12 @@ package uk.gov.justice.services.eventsourcing.repository.jdbc.event;
 
 
 import static java.lang.String.format;
+import static java.util.Collections.emptyIterator;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
+import static java.util.Spliterators.spliteratorUnknownSize;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.StreamSupport.stream;
 import static uk.gov.justice.services.common.converter.ZonedDateTimes.fromSqlTimestamp;
 
 import uk.gov.justice.services.eventsourcing.repository.jdbc.EventInsertionStrategy;
@@ -11,8 +17,13 @@ import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryException;
 import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryHelper;
 import uk.gov.justice.services.jdbc.persistence.PreparedStatementWrapper;
 
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -41,6 +52,9 @@ public class EventJdbcRepository {
     static final String COL_PAYLOAD = "payload";
     static final String COL_TIMESTAMP = "date_created";
     static final String COL_SOURCE = "source";
+    static final String COL_EVENT_NUMBER = "event_number";
+    static final String COL_OLDEST_RUNNING_TRANSACTION_ID = "oldest_running_transaction_id";
+    static final String COL_NEXT_TRANSACTION_ID = "next_transaction_id";
 
 
     /**
@@ -49,6 +63,14 @@ public class EventJdbcRepository {
     static final String SQL_FIND_ALL = "SELECT * FROM event_log ORDER BY sequence_id ASC";
     static final String SQL_FIND_BY_STREAM_ID = "SELECT * FROM event_log WHERE stream_id=? ORDER BY sequence_id ASC";
     static final String SQL_FIND_BY_STREAM_ID_AND_POSITION = "SELECT * FROM event_log WHERE stream_id=? AND sequence_id>=? ORDER BY sequence_id ASC";
+    static final String SQL_FIND_PAGE_BY_STREAM_ID_FROM_POSITION = "SELECT * FROM event_log WHERE stream_id=? AND sequence_id>=? ORDER BY sequence_id ASC LIMIT ?";
+    static final String SQL_FIND_PAGE_BY_STREAM_ID_UP_TO_POSITION = "SELECT * FROM event_log WHERE stream_id=? AND sequence_id<=? ORDER BY sequence_id DESC LIMIT ?";
+    static final String SQL_EVENT_EXISTS_FROM_POSITION = "SELECT 1 FROM event_log WHERE stream_id=? AND sequence_id>=? LIMIT 1";
+    static final String SQL_FIND_PAGE_FROM_EVENT_NUMBER = "SELECT * FROM event_log WHERE event_number>=? ORDER BY event_number ASC LIMIT ?";
+    static final String SQL_FIND_PAGE_FROM_EVENT_NUMBER_WITH_SNAPSHOT = "SELECT *, " +
+            "COALESCE((SELECT MIN(xip) FROM txid_snapshot_xip(txid_current_snapshot()) AS xip), txid_snapshot_xmax(txid_current_snapshot())) AS " + COL_OLDEST_RUNNING_TRANSACTION_ID + ", " +
+            "txid_snapshot_xmax(txid_current_snapshot()) AS " + COL_NEXT_TRANSACTION_ID + " " +
+            "FROM event_log WHERE event_number>=? ORDER BY event_number ASC LIMIT ?";
     static final String SQL_FIND_LATEST_POSITION = "SELECT MAX(sequence_id) FROM event_log WHERE stream_id=?";
     static final String SQL_DISTINCT_STREAM_ID = "SELECT DISTINCT stream_id FROM event_log";
     static final String SQL_DELETE_STREAM = "DELETE FROM event_log t WHERE t.stream_id=?";
@@ -63,6 +85,8 @@ public class EventJdbcRepository {
     private static final String FAILED_TO_READ_STREAM = "Failed to read stream {}";
 
     private static final long NO_EXISTING_VERSION = 0L;
+    private static final long GAP_POLL_INTERVAL_MILLIS = 100L;
+    private static final String POSTGRESQL = "PostgreSQL";
 
     @Inject
     protected Logger logger;
@@ -78,6 +102,8 @@ public class EventJdbcRepository {
 
     DataSource dataSource;
 
+    private volatile Boolean transactionSnapshotsSupported;
+
     @PostConstruct
     private void initialiseDataSource() {
         dataSource = jdbcDataSourceProvider.getDataSource();
@@ -99,6 +125,27 @@ public class EventJdbcRepository {
         }
     }
 
+    /**
+     * Insert the given events into the event log in a single batch, using one connection and
+     * prepared statement for all of them.
+     *
+     * @param events the events to insert, all belonging to the same stream
+     * @throws InvalidPositionException if any of the versions already exists or is null.
+     */
+    public void insertAll(final List<Event> events) throws InvalidPositionException {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        try (final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, eventInsertionStrategy.insertStatement())) {
+            eventInsertionStrategy.insertBatch(ps, events);
+        } catch (final SQLException e) {
+            logger.error("Error persisting events to the database", e);
+            throw new JdbcRepositoryException(format("Exception while storing %d events of stream %s",
+                    events.size(), events.get(0).getStreamId()), e);
+        }
+    }
+
     /**
      * Returns a Stream of {@link Event} for the given stream streamId.
      *
@@ -139,6 +186,74 @@ public class EventJdbcRepository {
         }
     }
 
+    /**
+     * Returns a bounded page of {@link Event} for the given stream streamId, starting from the
+     * given position, ordered by position ascending. The underlying statement is closed before
+     * returning.
+     *
+     * @param streamId streamId of the stream.
+     * @param position the position to read from (inclusive).
+     * @param pageSize the maximum number of events to return.
+     * @return a list of at most pageSize {@link Event}. Never returns null.
+     */
+    public List<Event> findPageByStreamIdFromPosition(final UUID streamId,
+                                                      final long position,
+                                                      final long pageSize) {
+        return findPage(SQL_FIND_PAGE_BY_STREAM_ID_FROM_POSITION, streamId, position, pageSize);
+    }
+
+    /**
+     * Returns a bounded page of {@link Event} for the given stream streamId, ending at the given
+     * position, ordered by position descending. The underlying statement is closed before
+     * returning.
+     *
+     * @param streamId streamId of the stream.
+     * @param position the position to read back from (inclusive).
+     * @param pageSize the maximum number of events to return.
+     * @return a list of at most pageSize {@link Event}. Never returns null.
+     */
+    public List<Event> findPageByStreamIdUpToPosition(final UUID streamId,
+                                                      final long position,
+                                                      final long pageSize) {
+        return findPage(SQL_FIND_PAGE_BY_STREAM_ID_UP_TO_POSITION, streamId, position, pageSize);
+    }
+
+    /**
+     * Checks whether the given stream has an event at or after the given position, without
+     * reading any event data.
+     *
+     * @param streamId streamId of the stream.
+     * @param position the position to check from (inclusive).
+     * @return true if at least one such event exists.
+     */
+    public boolean eventExists(final UUID streamId, final long position) {
+        try (final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, SQL_EVENT_EXISTS_FROM_POSITION)) {
+            ps.setObject(1, streamId);
+            ps.setLong(2, position);
+
+            return ps.executeQuery().next();
+        } catch (final SQLException e) {
+            logger.warn(FAILED_TO_READ_STREAM, streamId, e);
+            throw new JdbcRepositoryException(format(READING_STREAM_EXCEPTION, streamId), e);
+        }
+    }
+
+    private List<Event> findPage(final String sql, final UUID streamId, final long position, final long pageSize) {
+        try {
+            final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, sql);
+            ps.setObject(1, streamId);
+            ps.setLong(2, position);
+            ps.setLong(3, pageSize);
+
+            try (final Stream<Event> events = jdbcRepositoryHelper.streamOf(ps, entityFromFunction())) {
+                return events.collect(toList());
+            }
+        } catch (final SQLException e) {
+            logger.warn(FAILED_TO_READ_STREAM, streamId, e);
+            throw new JdbcRepositoryException(format(READING_STREAM_EXCEPTION, streamId), e);
+        }
+    }
+
     /**
      * Returns a Stream of {@link Event}
      *
@@ -154,6 +269,33 @@ public class EventJdbcRepository {
         }
     }
 
+    /**
+     * Returns a Stream of all {@link Event} from the given event number, ordered by event number
+     * ascending. The events are read in pages of at most batchSize events, each read with its own
+     * keyset query that is closed before the page is returned, so no cursor is held open while the
+     * stream is consumed.
+     *
+     * Event numbers are taken from a sequence when an event is inserted, not when its transaction
+     * commits, so while events are being appended a higher number can become visible before a
+     * lower one. Each page is therefore read together with the transaction snapshot of the query,
+     * and reading stops short of a gap in the event numbers until every transaction that may still
+     * commit an event into the gap has ended; see {@link EventNumberHorizon}. A gap left by a
+     * rolled back append is passed once that is known, however old it is, and no committed event
+     * is skipped however long its transaction takes. This needs the transaction snapshots of
+     * PostgreSQL; on other databases gaps are passed at once.
+     *
+     * @param eventNumber the event number to read from (inclusive).
+     * @param batchSize   the maximum number of events to read with each query.
+     * @return a stream of {@link Event}. Never returns null.
+     */
+    public Stream<Event> findAllFromEventNumber(final long eventNumber, final long batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException(format("Batch size must be positive, but was %d", batchSize));
+        }
+
+        return stream(spliteratorUnknownSize(new EventNumberPageIterator(eventNumber, batchSize), ORDERED | NONNULL), false);
+    }
+
     /**
      * Returns the current position for the given stream streamId.
      *
@@ -203,6 +345,20 @@ public class EventJdbcRepository {
         });
     }
 
+    private <T> List<T> findPageFromEventNumber(final String sql, final long eventNumber, final long pageSize, final Function<ResultSet, T> entityFrom) {
+        try {
+            final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, sql);
+            ps.setLong(1, eventNumber);
+            ps.setLong(2, pageSize);
+
+            try (final Stream<T> events = jdbcRepositoryHelper.streamOf(ps, entityFrom)) {
+                return events.collect(toList());
+            }
+        } catch (final SQLException e) {
+            throw new JdbcRepositoryException(READING_STREAM_ALL_EXCEPTION, e);
+        }
+    }
+
     protected Function<ResultSet, Event> entityFromFunction() {
         return resultSet -> {
             try {
@@ -236,4 +392,126 @@ public class EventJdbcRepository {
             throw new JdbcRepositoryException(format(DELETING_STREAM_EXCEPTION, streamId), e);
         }
     }
-}
\ No newline at end of file
+
+    private boolean transactionSnapshotsSupported() {
+        Boolean supported = transactionSnapshotsSupported;
+        if (supported == null) {
+            try (final Connection connection = dataSource.getConnection()) {
+                supported = POSTGRESQL.equals(connection.getMetaData().getDatabaseProductName());
+            } catch (final SQLException e) {
+                throw new JdbcRepositoryException(READING_STREAM_ALL_EXCEPTION, e);
+            }
+            transactionSnapshotsSupported = supported;
+        }
+        return supported;
+    }
+
+    /**
+     * Reads the event log a page at a time, starting each page after the highest event number of
+     * the previous one, until a page comes back short. A page is cut short at a gap in the event
+     * numbers that is not yet final, and read again until the gap has been filled or is final.
+     */
+    private class EventNumberPageIterator implements Iterator<Event> {
+
+        private final long batchSize;
+        private final boolean withSnapshot = transactionSnapshotsSupported();
+        private final EventNumberHorizon eventNumberHorizon = new EventNumberHorizon();
+        private long nextEventNumber;
+        private Iterator<Event> page = emptyIterator();
+        private boolean lastPage;
+
+        EventNumberPageIterator(final long eventNumber, final long batchSize) {
+            this.nextEventNumber = eventNumber;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!page.hasNext() && !lastPage) {
+                page = nextPage().iterator();
+            }
+            return page.hasNext();
+        }
+
+        @Override
+        public Event next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.next();
+        }
+
+        private List<Event> nextPage() {
+            final List<NumberedEvent> numberedEvents = withSnapshot
+                    ? findPageFromEventNumber(SQL_FIND_PAGE_FROM_EVENT_NUMBER_WITH_SNAPSHOT, nextEventNumber, batchSize, this::numberedEventWithSnapshotFrom)
+                    : findPageFromEventNumber(SQL_FIND_PAGE_FROM_EVENT_NUMBER, nextEventNumber, batchSize, this::numberedEventFrom);
+            final List<Event> events = new ArrayList<>(numberedEvents.size());
+
+            if (!numberedEvents.isEmpty()) {
+                final NumberedEvent last = numberedEvents.get(numberedEvents.size() - 1);
+                eventNumberHorizon.observe(last.oldestRunningTransactionId, last.nextTransactionId, last.eventNumber);
+            }
+
+            for (final NumberedEvent numberedEvent : numberedEvents) {
+                if (numberedEvent.eventNumber != nextEventNumber && !eventNumberHorizon.isFinal(numberedEvent.eventNumber - 1)) {
+                    if (events.isEmpty()) {
+                        awaitGap();
+                    }
+                    return events;
+                }
+                events.add(numberedEvent.event);
+                nextEventNumber = numberedEvent.eventNumber + 1;
+            }
+
+            lastPage = numberedEvents.size() < batchSize;
+            return events;
+        }
+
+        private void awaitGap() {
+            try {
+                Thread.sleep(GAP_POLL_INTERVAL_MILLIS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JdbcRepositoryException(format("Interrupted while waiting for event number %d to be committed", nextEventNumber), e);
+            }
+        }
+
+        /**
+         * Without transaction snapshots no transaction is taken to be in progress, so that gaps
+         * are passed at once.
+         */
+        private NumberedEvent numberedEventFrom(final ResultSet resultSet) {
+            try {
+                return new NumberedEvent(resultSet.getLong(COL_EVENT_NUMBER), entityFromFunction().apply(resultSet), 0L, 0L);
+            } catch (final SQLException e) {
+                throw new JdbcRepositoryException(e);
+            }
+        }
+
+        private NumberedEvent numberedEventWithSnapshotFrom(final ResultSet resultSet) {
+            try {
+                return new NumberedEvent(resultSet.getLong(COL_EVENT_NUMBER),
+                        entityFromFunction().apply(resultSet),
+                        resultSet.getLong(COL_OLDEST_RUNNING_TRANSACTION_ID),
+                        resultSet.getLong(COL_NEXT_TRANSACTION_ID));
+            } catch (final SQLException e) {
+                throw new JdbcRepositoryException(e);
+            }
+        }
+    }
+
+    private static class NumberedEvent {
+
+        private final long eventNumber;
+        private final Event event;
+        private final long oldestRunningTransactionId;
+        private final long nextTransactionId;
+
+        NumberedEvent(final long eventNumber, final Event event, final long oldestRunningTransactionId, final long nextTransactionId) {
+            this.eventNumber = eventNumber;
+            this.event = event;
+            this.oldestRunningTransactionId = oldestRunningTransactionId;
+            this.nextTransactionId = nextTransactionId;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package uk.gov.justice.services.eventsourcing.repository.jdbc.event;
+
+import static java.lang.Math.max;
+
+/**
+ * Tracks up to which event number the event log is final, meaning that no transaction still in
+ * progress can commit an event with that number or a lower one, from the transaction snapshots of
+ * successive reads of the event log.
+ *
+ * An inserting transaction is given its transaction id before it takes an event number, so every
+ * number taken before a read belongs to a transaction whose id is below the next transaction id of
+ * that read's snapshot. Once a later read sees no transaction in progress below that id, each
+ * number up to the highest one seen by the earlier read has either been committed, and is visible,
+ * or rolled back, and is a permanent gap.
+ */
+class EventNumberHorizon {
+
+    private long finalEventNumber;
+    private boolean pending;
+    private long pendingNextTransactionId;
+    private long pendingEventNumber;
+
+    /**
+     * Records the snapshot of a read of the event log.
+     *
+     * @param oldestRunningTransactionId the lowest id of another transaction in progress, or the
+     *                                   next transaction id if there is none
+     * @param nextTransactionId          the next transaction id to be assigned
+     * @param highestEventNumber         the highest event number returned by the read
+     */
+    void observe(final long oldestRunningTransactionId, final long nextTransactionId, final long highestEventNumber) {
+        if (pending && oldestRunningTransactionId >= pendingNextTransactionId) {
+            finalEventNumber = max(finalEventNumber, pendingEventNumber);
+            pending = false;
+        }
+
+        if (oldestRunningTransactionId >= nextTransactionId) {
+            finalEventNumber = max(finalEventNumber, highestEventNumber);
+        } else if (!pending && highestEventNumber > finalEventNumber) {
+            pending = true;
+            pendingNextTransactionId = nextTransactionId;
+            pendingEventNumber = highestEventNumber;
+        }
+    }
+
+    /**
+     * @param eventNumber the event number
+     * @return true if no transaction still in progress can commit an event with the number
+     */
+    boolean isFinal(final long eventNumber) {
+        return eventNumber <= finalEventNumber;
+    }
+}
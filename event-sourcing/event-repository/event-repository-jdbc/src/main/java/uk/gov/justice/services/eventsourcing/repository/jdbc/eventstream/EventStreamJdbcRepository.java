@@ -1,6 +1,7 @@
 package uk.gov.justice.services.eventsourcing.repository.jdbc.eventstream;
 
 import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
 import static uk.gov.justice.services.common.converter.ZonedDateTimes.fromSqlTimestamp;
 import static uk.gov.justice.services.common.converter.ZonedDateTimes.toSqlTimestamp;
 
@@ -13,6 +14,8 @@ import uk.gov.justice.services.jdbc.persistence.PreparedStatementWrapper;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -28,6 +31,12 @@ import org.slf4j.Logger;
 public class EventStreamJdbcRepository {
 
     private static final String SQL_FIND_BY_POSITION = "SELECT * FROM event_stream WHERE sequence_number>=? ORDER BY sequence_number ASC";
+    private static final String SQL_FIND_PAGE_FROM_POSITION = "SELECT * FROM event_stream WHERE sequence_number>=? ORDER BY sequence_number ASC LIMIT ?";
+    private static final String SQL_FIND_PAGE_UP_TO_POSITION = "SELECT * FROM event_stream WHERE sequence_number<=? ORDER BY sequence_number DESC LIMIT ?";
+    private static final String SQL_EXISTS_AT_POSITION = "SELECT 1 FROM event_stream WHERE sequence_number=?";
+    private static final String SQL_FIND_HEAD_POSITION_BY_STREAM = "SELECT position_in_stream FROM event_stream s WHERE s.stream_id=?";
+    private static final String SQL_ADVANCE_HEAD_POSITION = "UPDATE event_stream SET position_in_stream=? WHERE stream_id=? AND position_in_stream=?";
+    private static final String SQL_RESET_HEAD_POSITION = "UPDATE event_stream SET position_in_stream=0 WHERE stream_id=?";
     private static final String SQL_FIND_POSITION_BY_STREAM = "SELECT sequence_number FROM event_stream s WHERE s.stream_id=?";
     private static final String SQL_FIND_EVENT_STREAM = "SELECT * FROM event_stream s WHERE s.stream_id=?";
     private static final String SQL_INSERT_EVENT_STREAM = "INSERT INTO event_stream (stream_id, date_created, active) values (?, ?, ?)";
@@ -132,6 +141,60 @@ public class EventStreamJdbcRepository {
         }
     }
 
+    /**
+     * Returns a bounded page of event streams starting from the given position, ordered by
+     * position ascending. The underlying statement is closed before returning.
+     *
+     * @param position the position to read from (inclusive)
+     * @param pageSize the maximum number of event streams to return
+     * @return a list of at most pageSize event streams. Never returns null.
+     */
+    public List<EventStream> findPageFromPosition(final long position, final long pageSize) {
+        return findPage(SQL_FIND_PAGE_FROM_POSITION, position, pageSize);
+    }
+
+    /**
+     * Returns a bounded page of event streams ending at the given position, ordered by position
+     * descending. The underlying statement is closed before returning.
+     *
+     * @param position the position to read back from (inclusive)
+     * @param pageSize the maximum number of event streams to return
+     * @return a list of at most pageSize event streams. Never returns null.
+     */
+    public List<EventStream> findPageUpToPosition(final long position, final long pageSize) {
+        return findPage(SQL_FIND_PAGE_UP_TO_POSITION, position, pageSize);
+    }
+
+    /**
+     * Checks whether an event stream exists at exactly the given position.
+     *
+     * @param position the position to check
+     * @return true if an event stream has that position
+     */
+    public boolean existsAtPosition(final long position) {
+        try (final PreparedStatementWrapper psquery = eventStreamJdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, SQL_EXISTS_AT_POSITION)) {
+            psquery.setLong(1, position);
+            return psquery.executeQuery().next();
+        } catch (final SQLException e) {
+            throw new JdbcRepositoryException(READING_STREAM_EXCEPTION, e);
+        }
+    }
+
+    private List<EventStream> findPage(final String sql, final long position, final long pageSize) {
+        try {
+            final PreparedStatementWrapper preparedStatementWrapper = eventStreamJdbcRepositoryHelper
+                    .preparedStatementWrapperOf(dataSource, sql);
+            preparedStatementWrapper.setLong(1, position);
+            preparedStatementWrapper.setLong(2, pageSize);
+
+            try (final Stream<EventStream> eventStreams = eventStreamJdbcRepositoryHelper.streamOf(preparedStatementWrapper, entityFromFunction())) {
+                return eventStreams.collect(toList());
+            }
+        } catch (SQLException e) {
+            throw new JdbcRepositoryException(READING_STREAM_EXCEPTION, e);
+        }
+    }
+
     private boolean isExistingStream(final UUID streamId) {
         try (final PreparedStatementWrapper psquery = eventStreamJdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, SQL_FIND_EVENT_STREAM)) {
             psquery.setObject(1, streamId);
@@ -154,6 +217,64 @@ public class EventStreamJdbcRepository {
         }
     }
 
+    /**
+     * Returns the head position of the given stream, i.e. the position of its latest event, as
+     * recorded on the event stream record.
+     *
+     * @param streamId the id of the stream
+     * @return the head position, or empty if there is no event stream record for the stream
+     */
+    public Optional<Long> findHeadPosition(final UUID streamId) {
+        try (final PreparedStatementWrapper psquery = eventStreamJdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, SQL_FIND_HEAD_POSITION_BY_STREAM)) {
+            psquery.setObject(1, streamId);
+            final ResultSet resultSet = psquery.executeQuery();
+            if (resultSet.next()) {
+                return Optional.of(resultSet.getLong(1));
+            }
+            return Optional.empty();
+        } catch (final SQLException e) {
+            throw new JdbcRepositoryException(format(EVENT_STREAM_EXCEPTION_MESSAGE, streamId), e);
+        }
+    }
+
+    /**
+     * Moves the head position of the given stream, provided it is still at the expected position.
+     * The conditional update serialises concurrent appends to the same stream: only one of them
+     * can move the head on from a given position.
+     *
+     * @param streamId         the id of the stream
+     * @param expectedPosition the position the head is expected to be at
+     * @param newPosition      the position to move the head to
+     * @return true if the head was moved, false if it was not at the expected position or the
+     * stream has no event stream record
+     */
+    public boolean advanceHeadPosition(final UUID streamId, final long expectedPosition, final long newPosition) {
+        try (final PreparedStatementWrapper ps = eventStreamJdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, SQL_ADVANCE_HEAD_POSITION)) {
+            ps.setLong(1, newPosition);
+            ps.setObject(2, streamId);
+            ps.setLong(3, expectedPosition);
+
+            return ps.executeUpdate() == 1;
+        } catch (final SQLException e) {
+            throw new JdbcRepositoryException(format("Exception while moving head of stream %s from position %d to %d", streamId, expectedPosition, newPosition), e);
+        }
+    }
+
+    /**
+     * Resets the head position of the given stream to zero, for use when its events are cleared.
+     *
+     * @param streamId the id of the stream
+     */
+    public void resetHeadPosition(final UUID streamId) {
+        try (final PreparedStatementWrapper ps = eventStreamJdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, SQL_RESET_HEAD_POSITION)) {
+            ps.setObject(1, streamId);
+
+            ps.executeUpdate();
+        } catch (final SQLException e) {
+            throw new JdbcRepositoryException(format("Exception while resetting head of stream %s", streamId), e);
+        }
+    }
+
     protected Function<ResultSet, EventStream> entityFromFunction() {
         return resultSet -> {
             try {
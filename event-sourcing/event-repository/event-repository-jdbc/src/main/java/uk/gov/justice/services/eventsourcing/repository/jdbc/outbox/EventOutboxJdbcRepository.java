@@ -0,0 +1,169 @@
+package uk.gov.justice.services.eventsourcing.repository.jdbc.outbox;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+import static uk.gov.justice.services.common.converter.ZonedDateTimes.fromSqlTimestamp;
+import static uk.gov.justice.services.common.converter.ZonedDateTimes.toSqlTimestamp;
+
+import uk.gov.justice.services.jdbc.persistence.JdbcDataSourceProvider;
+import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryException;
+import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryHelper;
+import uk.gov.justice.services.jdbc.persistence.PreparedStatementWrapper;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.sql.DataSource;
+
+/**
+ * JDBC based repository for the event outbox. Events are inserted within the transaction that
+ * stores them in the event log and removed once they have been published.
+ */
+@ApplicationScoped
+public class EventOutboxJdbcRepository {
+
+    private static final String SQL_INSERT = "INSERT INTO event_outbox (event_id, stream_id, sequence_id, name, envelope, date_created) VALUES(?, ?, ?, ?, ?, ?)";
+    private static final String SQL_FIND_PENDING = "SELECT * FROM event_outbox ORDER BY id ASC LIMIT ? FOR UPDATE";
+    private static final String SQL_FIND_PENDING_OF_UNCLAIMED_STREAMS = "SELECT * FROM event_outbox WHERE stream_id IN (" +
+            "SELECT stream_id FROM (SELECT stream_id, MIN(id) AS first_id FROM event_outbox GROUP BY stream_id ORDER BY first_id LIMIT ?) AS candidate " +
+            "WHERE pg_try_advisory_xact_lock(hashtext(stream_id::text))) " +
+            "ORDER BY id ASC LIMIT ? FOR UPDATE";
+    private static final String SQL_DELETE = "DELETE FROM event_outbox WHERE event_id=?";
+
+    private static final String POSTGRESQL = "PostgreSQL";
+    private static final String READING_OUTBOX_EXCEPTION = "Exception while reading the event outbox";
+
+    private static final String COL_EVENT_ID = "event_id";
+    private static final String COL_STREAM_ID = "stream_id";
+    private static final String COL_SEQUENCE_ID = "sequence_id";
+    private static final String COL_NAME = "name";
+    private static final String COL_ENVELOPE = "envelope";
+    private static final String COL_DATE_CREATED = "date_created";
+
+    @Inject
+    JdbcRepositoryHelper jdbcRepositoryHelper;
+
+    @Inject
+    JdbcDataSourceProvider jdbcDataSourceProvider;
+
+    DataSource dataSource;
+
+    private volatile Boolean streamClaimsSupported;
+
+    @PostConstruct
+    private void initialiseDataSource() {
+        dataSource = jdbcDataSourceProvider.getDataSource();
+    }
+
+    /**
+     * Insert the given event into the outbox.
+     *
+     * @param outboxEvent the event to insert
+     */
+    public void insert(final OutboxEvent outboxEvent) {
+        try (final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, SQL_INSERT)) {
+            ps.setObject(1, outboxEvent.getEventId());
+            ps.setObject(2, outboxEvent.getStreamId());
+            ps.setLong(3, outboxEvent.getSequenceId());
+            ps.setString(4, outboxEvent.getName());
+            ps.setString(5, outboxEvent.getEnvelope());
+            ps.setTimestamp(6, toSqlTimestamp(outboxEvent.getCreatedAt()));
+
+            ps.executeUpdate();
+        } catch (final SQLException e) {
+            throw new JdbcRepositoryException(format("Exception while adding sequence %s of stream %s to the outbox",
+                    outboxEvent.getSequenceId(), outboxEvent.getStreamId()), e);
+        }
+    }
+
+    /**
+     * Claims the oldest events waiting to be published, in the order they were added to the
+     * outbox. Events are claimed a whole stream at a time: the transaction takes an advisory lock
+     * on each stream it returns events of, held until the transaction ends, and streams already
+     * claimed by another transaction are left out. A relay on another node therefore never sends
+     * a later event of a stream while an earlier one is still being sent or waiting to be retried,
+     * so each stream is published in order even with relays running on several nodes.
+     *
+     * Stream claims need PostgreSQL; on other databases the oldest events are row locked without
+     * skipping locked rows, so relays on several nodes keep stream order by taking turns.
+     *
+     * @param limit the maximum number of events to return
+     * @return the pending events. Never returns null.
+     */
+    public List<OutboxEvent> findPending(final int limit) {
+        try {
+            final PreparedStatementWrapper ps;
+            if (streamClaimsSupported()) {
+                ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, SQL_FIND_PENDING_OF_UNCLAIMED_STREAMS);
+                ps.setLong(1, (long) limit);
+                ps.setLong(2, (long) limit);
+            } else {
+                ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, SQL_FIND_PENDING);
+                ps.setLong(1, (long) limit);
+            }
+
+            try (final Stream<OutboxEvent> outboxEvents = jdbcRepositoryHelper.streamOf(ps, entityFromFunction())) {
+                return outboxEvents.collect(toList());
+            }
+        } catch (final SQLException e) {
+            throw new JdbcRepositoryException(READING_OUTBOX_EXCEPTION, e);
+        }
+    }
+
+    /**
+     * Removes the given published events from the outbox in a single batch.
+     *
+     * @param eventIds the ids of the events to remove
+     */
+    public void delete(final List<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+
+        try (final PreparedStatementWrapper ps = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, SQL_DELETE)) {
+            for (final UUID eventId : eventIds) {
+                ps.setObject(1, eventId);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (final SQLException e) {
+            throw new JdbcRepositoryException(format("Exception while removing %d events from the outbox", eventIds.size()), e);
+        }
+    }
+
+    private boolean streamClaimsSupported() {
+        Boolean supported = streamClaimsSupported;
+        if (supported == null) {
+            try (final Connection connection = dataSource.getConnection()) {
+                supported = POSTGRESQL.equals(connection.getMetaData().getDatabaseProductName());
+            } catch (final SQLException e) {
+                throw new JdbcRepositoryException(READING_OUTBOX_EXCEPTION, e);
+            }
+            streamClaimsSupported = supported;
+        }
+        return supported;
+    }
+
+    private Function<ResultSet, OutboxEvent> entityFromFunction() {
+        return resultSet -> {
+            try {
+                return new OutboxEvent((UUID) resultSet.getObject(COL_EVENT_ID),
+                        (UUID) resultSet.getObject(COL_STREAM_ID),
+                        resultSet.getLong(COL_SEQUENCE_ID),
+                        resultSet.getString(COL_NAME),
+                        resultSet.getString(COL_ENVELOPE),
+                        fromSqlTimestamp(resultSet.getTimestamp(COL_DATE_CREATED)));
+            } catch (final SQLException e) {
+                throw new JdbcRepositoryException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package uk.gov.justice.services.eventsourcing.repository.jdbc.outbox;
+
+import uk.gov.justice.services.common.converter.ZonedDateTimes;
+
+import java.time.ZonedDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Entity class to represent an event waiting in the outbox to be published.
+ */
+public class OutboxEvent {
+
+    private final UUID eventId;
+    private final UUID streamId;
+    private final Long sequenceId;
+    private final String name;
+    private final String envelope;
+    private final ZonedDateTime createdAt;
+
+    public OutboxEvent(final UUID eventId,
+                       final UUID streamId,
+                       final Long sequenceId,
+                       final String name,
+                       final String envelope,
+                       final ZonedDateTime createdAt) {
+        this.eventId = eventId;
+        this.streamId = streamId;
+        this.sequenceId = sequenceId;
+        this.name = name;
+        this.envelope = envelope;
+        this.createdAt = createdAt;
+    }
+
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    public UUID getStreamId() {
+        return streamId;
+    }
+
+    public Long getSequenceId() {
+        return sequenceId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEnvelope() {
+        return envelope;
+    }
+
+    public ZonedDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final OutboxEvent that = (OutboxEvent) o;
+        return Objects.equals(eventId, that.eventId) &&
+                Objects.equals(streamId, that.streamId) &&
+                Objects.equals(sequenceId, that.sequenceId) &&
+                Objects.equals(name, that.name) &&
+                Objects.equals(envelope, that.envelope) &&
+                Objects.equals(createdAt, that.createdAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(eventId, streamId, sequenceId, name, envelope, createdAt);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OutboxEvent [eventId=%s, streamId=%s, sequenceId=%s, name=%s, createdAt=%s]",
+                eventId, streamId, sequenceId, name, ZonedDateTimes.toString(createdAt));
+    }
+}
@@ -1,7 +1,10 @@
 package uk.gov.justice.services.eventsourcing.repository.jdbc;
 
+import static java.util.Arrays.asList;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.justice.services.common.converter.ZonedDateTimes.toSqlTimestamp;
@@ -66,4 +69,21 @@ public class AnsiSQLEventInsertionStrategyTest {
     public void shouldReturnTheDefaultSqlInsertStatement() throws Exception {
         assertThat(strategy.insertStatement(), is(SQL_INSERT_EVENT));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldAddEachEventToBatchAndExecuteOnce() throws Exception {
+        final Event event2 = mock(Event.class);
+        final ZonedDateTime createdAt = new UtcClock().now();
+        when(event.getSequenceId()).thenReturn(1L);
+        when(event.getCreatedAt()).thenReturn(createdAt);
+        when(event2.getSequenceId()).thenReturn(2L);
+        when(event2.getCreatedAt()).thenReturn(createdAt);
+
+        strategy.insertBatch(preparedStatement, asList(event, event2));
+
+        verify(preparedStatement).setLong(3, 1L);
+        verify(preparedStatement).setLong(3, 2L);
+        verify(preparedStatement, times(2)).addBatch();
+        verify(preparedStatement).executeBatch();
+    }
+}
@@ -1,6 +1,7 @@
 package uk.gov.justice.services.eventsourcing.repository.jdbc;
 
 import static java.time.ZonedDateTime.now;
+import static java.util.Arrays.asList;
 import static java.util.UUID.randomUUID;
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -9,8 +10,12 @@ import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -22,6 +27,7 @@ import uk.gov.justice.services.eventsourcing.repository.jdbc.eventstream.EventSt
 import uk.gov.justice.services.eventsourcing.repository.jdbc.eventstream.EventStreamJdbcRepository;
 import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.InvalidPositionException;
 import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.InvalidStreamIdException;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.OptimisticLockingRetryException;
 import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.StoreEventRequestFailedException;
 import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryException;
 import uk.gov.justice.services.messaging.JsonEnvelope;
@@ -34,6 +40,7 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Stream;
 
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -79,6 +86,11 @@ public class DefaultEventRepositoryTest {
 
     private final static ZonedDateTime TIMESTAMP = new UtcClock().now();
 
+    @Before
+    public void setup() {
+        when(eventStreamJdbcRepository.advanceHeadPosition(any(UUID.class), anyLong(), anyLong())).thenReturn(true);
+    }
+
     @Test
     public void shouldGetAllEvents() throws Exception {
         when(eventJdbcRepository.findAll()).thenReturn(Stream.of(event));
@@ -91,6 +103,17 @@ public class DefaultEventRepositoryTest {
         verify(logger).trace("Retrieving all events");
     }
 
+    @Test
+    public void shouldReadAllEventsFromEventNumber() throws Exception {
+        when(eventJdbcRepository.findAllFromEventNumber(42L, 100)).thenReturn(Stream.of(event));
+        when(eventConverter.envelopeOf(event)).thenReturn(envelope);
+
+        final Stream<JsonEnvelope> streamOfEnvelopes = defaultEventRepository.readAllFrom(42L, 100);
+
+        assertThat(streamOfEnvelopes.findFirst().get(), equalTo(envelope));
+        verify(logger).trace("Retrieving all events from event number {} in batches of {}", 42L, 100);
+    }
+
     @Test
     public void shouldGetByStreamId() throws Exception {
         when(eventJdbcRepository.findByStreamIdOrderByPositionAsc(STREAM_ID)).thenReturn(Stream.of(event));
@@ -121,6 +144,42 @@ public class DefaultEventRepositoryTest {
     }
 
 
+    @Test
+    public void shouldGetPageOfEventsFromPosition() throws Exception {
+        final long pageSize = 10L;
+        when(eventJdbcRepository.findPageByStreamIdFromPosition(STREAM_ID, POSITION, pageSize)).thenReturn(asList(event));
+        when(eventConverter.envelopeOf(event)).thenReturn(envelope);
+
+        final List<JsonEnvelope> envelopes = defaultEventRepository.getEventsPageFromPosition(STREAM_ID, POSITION, pageSize);
+
+        assertThat(envelopes, hasSize(1));
+        assertThat(envelopes.get(0), equalTo(envelope));
+    }
+
+    @Test
+    public void shouldGetPageOfEventsUpToPosition() throws Exception {
+        final long pageSize = 10L;
+        when(eventJdbcRepository.findPageByStreamIdUpToPosition(STREAM_ID, POSITION, pageSize)).thenReturn(asList(event));
+        when(eventConverter.envelopeOf(event)).thenReturn(envelope);
+
+        final List<JsonEnvelope> envelopes = defaultEventRepository.getEventsPageUpToPosition(STREAM_ID, POSITION, pageSize);
+
+        assertThat(envelopes, hasSize(1));
+        assertThat(envelopes.get(0), equalTo(envelope));
+    }
+
+    @Test(expected = InvalidStreamIdException.class)
+    public void shouldThrowExceptionOnNullStreamIdWhenGettingPageOfEvents() throws Exception {
+        defaultEventRepository.getEventsPageFromPosition(null, POSITION, 10L);
+    }
+
+    @Test
+    public void shouldCheckWhetherEventExists() throws Exception {
+        when(eventJdbcRepository.eventExists(STREAM_ID, POSITION)).thenReturn(true);
+
+        assertThat(defaultEventRepository.eventExists(STREAM_ID, POSITION), is(true));
+    }
+
     @Test(expected = InvalidStreamIdException.class)
     public void shouldThrowExceptionOnNullStreamIdWhenGettingStreamByStreamIdAndSequence() throws Exception {
         defaultEventRepository.getEventsByStreamIdFromPosition(null, POSITION);
@@ -248,13 +307,43 @@ public class DefaultEventRepositoryTest {
 
         defaultEventRepository.storeEvent(envelope);
 
+        verify(eventStreamJdbcRepository).advanceHeadPosition(STREAM_ID, POSITION - 1, POSITION);
         verify(eventJdbcRepository).insert(event);
         verify(logger).trace("Storing event {} into stream {} at position {}", name, STREAM_ID, POSITION);
     }
 
+    @Test
+    public void shouldThrowOptimisticLockingExceptionWithoutStoringIfHeadHasMoved() throws Exception {
+        final Event event = new Event(null, STREAM_ID, POSITION, "name123", null, null, now(), "source");
+        when(eventConverter.eventOf(envelope)).thenReturn(event);
+        when(eventStreamJdbcRepository.advanceHeadPosition(STREAM_ID, POSITION - 1, POSITION)).thenReturn(false);
+        when(eventStreamJdbcRepository.findHeadPosition(STREAM_ID)).thenReturn(Optional.of(POSITION));
+
+        try {
+            defaultEventRepository.storeEvent(envelope);
+            fail();
+        } catch (final OptimisticLockingRetryException expected) {
+            verify(eventJdbcRepository, never()).insert(event);
+        }
+    }
+
+    @Test
+    public void shouldStoreEventOfStreamWithoutEventStreamRecord() throws Exception {
+        final Event event = new Event(null, STREAM_ID, POSITION, "name123", null, null, now(), "source");
+        when(eventConverter.eventOf(envelope)).thenReturn(event);
+        when(eventStreamJdbcRepository.advanceHeadPosition(STREAM_ID, POSITION - 1, POSITION)).thenReturn(false);
+        when(eventStreamJdbcRepository.findHeadPosition(STREAM_ID)).thenReturn(Optional.empty());
+
+        defaultEventRepository.storeEvent(envelope);
+
+        verify(eventJdbcRepository).insert(event);
+    }
+
     @Test(expected = StoreEventRequestFailedException.class)
     public void shouldThrowExceptionOnDuplicatePosition() throws Exception {
         when(eventConverter.eventOf(envelope)).thenReturn(event);
+        when(event.getStreamId()).thenReturn(STREAM_ID);
+        when(event.getSequenceId()).thenReturn(POSITION);
         when(envelope.metadata()).thenReturn(metadata);
         when(metadata.streamId()).thenReturn(Optional.of(STREAM_ID));
         when(metadata.position()).thenReturn(Optional.of(POSITION));
@@ -265,7 +354,41 @@ public class DefaultEventRepositoryTest {
     }
 
     @Test
-    public void shouldReturnCurrentEventPosition() {
+    public void shouldStoreEventEnvelopesAsSingleBatch() throws Exception {
+        final JsonEnvelope envelope2 = mock(JsonEnvelope.class);
+        final Event event1 = new Event(null, STREAM_ID, POSITION, "name1", null, null, now(), "source");
+        final Event event2 = new Event(null, STREAM_ID, POSITION + 1, "name2", null, null, now(), "source");
+        when(eventConverter.eventOf(envelope)).thenReturn(event1);
+        when(eventConverter.eventOf(envelope2)).thenReturn(event2);
+
+        defaultEventRepository.storeEvents(asList(envelope, envelope2));
+
+        verify(eventStreamJdbcRepository).advanceHeadPosition(STREAM_ID, POSITION - 1, POSITION + 1);
+        verify(eventJdbcRepository).insertAll(asList(event1, event2));
+        verify(logger).trace("Storing {} events into stream {} from position {}", 2, STREAM_ID, POSITION);
+    }
+
+    @Test(expected = StoreEventRequestFailedException.class)
+    public void shouldThrowExceptionOnDuplicatePositionWhenStoringBatch() throws Exception {
+        when(eventConverter.eventOf(envelope)).thenReturn(event);
+        when(event.getStreamId()).thenReturn(STREAM_ID);
+        when(event.getSequenceId()).thenReturn(POSITION);
+        doThrow(InvalidPositionException.class).when(eventJdbcRepository).insertAll(asList(event));
+
+        defaultEventRepository.storeEvents(asList(envelope));
+    }
+
+    @Test
+    public void shouldReturnCurrentEventPositionFromEventStreamHead() {
+        when(eventStreamJdbcRepository.findHeadPosition(STREAM_ID)).thenReturn(Optional.of(POSITION));
+
+        assertThat(defaultEventRepository.getStreamSize(STREAM_ID), equalTo(POSITION));
+        verify(eventJdbcRepository, never()).getStreamSize(STREAM_ID);
+    }
+
+    @Test
+    public void shouldReturnCurrentEventPositionFromEventLogIfNoEventStreamRecord() {
+        when(eventStreamJdbcRepository.findHeadPosition(STREAM_ID)).thenReturn(Optional.empty());
         when(eventJdbcRepository.getStreamSize(STREAM_ID)).thenReturn(POSITION);
 
         assertThat(defaultEventRepository.getStreamSize(STREAM_ID), equalTo(POSITION));
@@ -276,6 +399,7 @@ public class DefaultEventRepositoryTest {
         defaultEventRepository.clearEventsForStream(STREAM_ID);
 
         verify(eventJdbcRepository).clear(STREAM_ID);
+        verify(eventStreamJdbcRepository).resetHeadPosition(STREAM_ID);
     }
 
     @Test
@@ -325,6 +449,34 @@ public class DefaultEventRepositoryTest {
         verify(eventStreamJdbcRepository).findEventStreamWithPositionFrom(position);
     }
 
+    @Test
+    public void shouldGetPagesOfEventStreamsAroundPosition() {
+        final long position = 3L;
+        final long pageSize = 2L;
+        final UUID streamId = randomUUID();
+        final ZonedDateTime createdAt = now();
+        final EventStream eventStream1 = new EventStream(streamId, position, true, createdAt);
+
+        when(eventStreamJdbcRepository.findPageFromPosition(position, pageSize)).thenReturn(asList(eventStream1));
+        when(eventStreamJdbcRepository.findPageUpToPosition(position, pageSize)).thenReturn(asList(eventStream1));
+
+        final List<EventStreamMetadata> fromPosition = defaultEventRepository.getEventStreamsPageFromPosition(position, pageSize);
+        final List<EventStreamMetadata> upToPosition = defaultEventRepository.getEventStreamsPageUpToPosition(position, pageSize);
+
+        assertThat(fromPosition, hasSize(1));
+        assertThat(fromPosition.get(0).getStreamId(), equalTo(streamId));
+        assertThat(fromPosition.get(0).getPosition(), equalTo(position));
+        assertThat(upToPosition, hasSize(1));
+        assertThat(upToPosition.get(0).getCreatedAt(), equalTo(createdAt));
+    }
+
+    @Test
+    public void shouldCheckWhetherEventStreamExists() {
+        when(eventStreamJdbcRepository.existsAtPosition(3L)).thenReturn(true);
+
+        assertThat(defaultEventRepository.eventStreamExists(3L), is(true));
+    }
+
     @Test
     public void shouldGetAllEventStreams() {
         long position = 3l;
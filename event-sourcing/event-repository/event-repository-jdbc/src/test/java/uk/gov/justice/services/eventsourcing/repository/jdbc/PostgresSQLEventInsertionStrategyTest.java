@@ -1,7 +1,10 @@
 package uk.gov.justice.services.eventsourcing.repository.jdbc;
 
+import static java.util.Arrays.asList;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.justice.services.common.converter.ZonedDateTimes.toSqlTimestamp;
@@ -98,6 +101,46 @@ public class PostgresSQLEventInsertionStrategyTest {
         verify(preparedStatement).executeUpdate();
     }
 
+    @Test
+    public void shouldAddEachEventToBatchAndExecuteOnceIfAllRowsAreInserted() throws Exception {
+        final Event event2 = mock(Event.class);
+        when(event.getStreamId()).thenReturn(STREAM_ID);
+        when(event.getSequenceId()).thenReturn(SEQUENCE_ID);
+        when(event.getCreatedAt()).thenReturn(createdAt);
+        when(event2.getStreamId()).thenReturn(STREAM_ID);
+        when(event2.getSequenceId()).thenReturn(SEQUENCE_ID + 1);
+        when(event2.getCreatedAt()).thenReturn(createdAt);
+        when(preparedStatement.executeBatch()).thenReturn(new int[]{INSERTED, INSERTED});
+
+        strategy.insertBatch(preparedStatement, asList(event, event2));
+
+        verify(preparedStatement).setLong(3, SEQUENCE_ID);
+        verify(preparedStatement).setLong(3, SEQUENCE_ID + 1);
+        verify(preparedStatement, times(2)).addBatch();
+        verify(preparedStatement).executeBatch();
+    }
+
+    @Test
+    public void shouldReportEveryConflictingSequenceOfBatch() throws Exception {
+        final Event event2 = mock(Event.class);
+        final Event event3 = mock(Event.class);
+        when(event.getStreamId()).thenReturn(STREAM_ID);
+        when(event.getSequenceId()).thenReturn(SEQUENCE_ID);
+        when(event.getCreatedAt()).thenReturn(createdAt);
+        when(event2.getStreamId()).thenReturn(STREAM_ID);
+        when(event2.getSequenceId()).thenReturn(SEQUENCE_ID + 1);
+        when(event2.getCreatedAt()).thenReturn(createdAt);
+        when(event3.getStreamId()).thenReturn(STREAM_ID);
+        when(event3.getSequenceId()).thenReturn(SEQUENCE_ID + 2);
+        when(event3.getCreatedAt()).thenReturn(createdAt);
+        when(preparedStatement.executeBatch()).thenReturn(new int[]{CONFLICT_OCCURRED, INSERTED, CONFLICT_OCCURRED});
+
+        expectedException.expect(OptimisticLockingRetryException.class);
+        expectedException.expectMessage("Locking Exception while storing sequences [1, 3] of stream " + STREAM_ID);
+
+        strategy.insertBatch(preparedStatement, asList(event, event2, event3));
+    }
+
     @Test
     public void shouldReturnTheDefaultSqlInsertStatementWithPostgresDoNothingSuffix() throws Exception {
         assertThat(strategy.insertStatement(), is(SQL_INSERT_EVENT + " ON CONFLICT DO NOTHING"));
@@ -2,7 +2,9 @@ package uk.gov.justice.services.eventsourcing.repository.jdbc.event;
 
 import static javax.json.Json.createObjectBuilder;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static uk.gov.justice.services.messaging.JsonEnvelope.envelopeFrom;
 import static uk.gov.justice.services.messaging.JsonEnvelope.metadataBuilder;
@@ -13,6 +15,7 @@ import uk.gov.justice.services.common.util.UtcClock;
 import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.InvalidStreamIdException;
 import uk.gov.justice.services.messaging.DefaultJsonObjectEnvelopeConverter;
 import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.spi.LazyJsonEnvelope;
 import uk.gov.justice.services.test.utils.common.helper.StoppedClock;
 
 import java.util.UUID;
@@ -89,5 +92,33 @@ public class EventConverterTest {
         JSONAssert.assertEquals(PAYLOAD_JSON, actualPayload, false);
     }
 
+    @Test
+    public void shouldCreateEnvelopeParsingPayloadOnlyWhenAccessed() throws Exception {
+        final JsonEnvelope actualEnvelope = eventConverter.envelopeOf(new Event(ID, STREAM_ID, SEQUENCE_ID, NAME, METADATA_JSON, "{\"field\":", new UtcClock().now(), SOURCE));
+
+        assertThat(actualEnvelope, instanceOf(LazyJsonEnvelope.class));
+        assertThat(actualEnvelope.metadata().name(), equalTo(NAME));
+    }
+
+    @Test
+    public void shouldCreateEventLogFromTextOfEnvelopeReadFromEventLog() throws Exception {
+        final String metadataJson = metadataBuilder()
+                .withId(ID)
+                .withName(NAME)
+                .withStreamId(STREAM_ID)
+                .withVersion(SEQUENCE_ID)
+                .createdAt(clock.now())
+                .build()
+                .asJsonObject()
+                .toString();
+
+        final Event event = eventConverter.eventOf(eventConverter.envelopeOf(
+                new Event(ID, STREAM_ID, SEQUENCE_ID, NAME, metadataJson, PAYLOAD_JSON, clock.now(), SOURCE)));
 
+        assertThat(event.getId(), equalTo(ID));
+        assertThat(event.getStreamId(), equalTo(STREAM_ID));
+        assertThat(event.getSequenceId(), equalTo(SEQUENCE_ID));
+        assertThat(event.getMetadata(), sameInstance(metadataJson));
+        assertThat(event.getPayload(), sameInstance(PAYLOAD_JSON));
+    }
 }
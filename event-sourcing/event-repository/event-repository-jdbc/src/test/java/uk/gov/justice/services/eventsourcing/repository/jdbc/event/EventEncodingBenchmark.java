@@ -0,0 +1,109 @@
+package uk.gov.justice.services.eventsourcing.repository.jdbc.event;
+
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static javax.json.Json.createArrayBuilder;
+import static javax.json.Json.createObjectBuilder;
+import static uk.gov.justice.services.messaging.JsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonEnvelope.metadataBuilder;
+import static uk.gov.justice.services.messaging.spi.LazyJsonEnvelope.encodedEnvelopeFrom;
+
+import uk.gov.justice.services.common.converter.StringToJsonObjectConverter;
+import uk.gov.justice.services.common.converter.jackson.ObjectMapperProducer;
+import uk.gov.justice.services.common.util.UtcClock;
+import uk.gov.justice.services.messaging.DefaultJsonObjectEnvelopeConverter;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares writing an appended event as the text of its event log row and of its JMS message from
+ * the parsed envelope, as DefaultJsonObjectEnvelopeConverter.asJsonString writes an envelope that
+ * was not encoded, against writing it from an envelope encoded once. Runs with the GC profiler:
+ * gc.alloc.rate.norm is the number of bytes allocated per appended event.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=uk.gov.justice.services.eventsourcing.repository.jdbc.event.EventEncodingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EventEncodingBenchmark {
+
+    private ObjectMapper objectMapper;
+    private DefaultJsonObjectEnvelopeConverter jsonObjectEnvelopeConverter;
+    private EventConverter eventConverter;
+    private JsonEnvelope event;
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EventEncodingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapperProducer().objectMapper();
+        jsonObjectEnvelopeConverter = new DefaultJsonObjectEnvelopeConverter();
+
+        eventConverter = new EventConverter();
+        eventConverter.jsonObjectEnvelopeConverter = jsonObjectEnvelopeConverter;
+        eventConverter.stringToJsonObjectConverter = new StringToJsonObjectConverter();
+
+        event = envelopeFrom(
+                metadataBuilder()
+                        .withId(randomUUID())
+                        .withName("benchmark.order-line-added")
+                        .withCausation(randomUUID(), randomUUID())
+                        .withUserId(randomUUID().toString())
+                        .withStreamId(randomUUID())
+                        .withVersion(42L)
+                        .createdAt(new UtcClock().now()),
+                createObjectBuilder()
+                        .add("orderId", randomUUID().toString())
+                        .add("line", 7)
+                        .add("productCode", "PRODUCT-7")
+                        .add("description", "An order line added while benchmarking event encoding")
+                        .add("quantity", 3)
+                        .add("unitPrice", 1999)
+                        .add("delivery", createObjectBuilder()
+                                .add("street", "1 Benchmark Street")
+                                .add("postcode", "BM1 1AA"))
+                        .add("tags", createArrayBuilder().add("benchmark").add("encoding").add("line-7")));
+    }
+
+    @Benchmark
+    public void storeAndPublishParsedEvent(final Blackhole blackhole) throws JsonProcessingException {
+        blackhole.consume(eventConverter.eventOf(event));
+        blackhole.consume(objectMapper.writeValueAsString(jsonObjectEnvelopeConverter.fromEnvelope(event)));
+    }
+
+    @Benchmark
+    public void storeAndPublishEncodedEvent(final Blackhole blackhole) {
+        final JsonEnvelope encodedEvent = encodedEnvelopeFrom(event);
+
+        blackhole.consume(eventConverter.eventOf(encodedEvent));
+        blackhole.consume(jsonObjectEnvelopeConverter.asJsonString(encodedEvent));
+    }
+}
@@ -1,5 +1,6 @@
 package uk.gov.justice.services.eventsourcing.repository.jdbc.event;
 
+import static java.util.Arrays.asList;
 import static java.util.UUID.randomUUID;
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -20,6 +21,8 @@ import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryHelper;
 import uk.gov.justice.services.test.utils.core.messaging.Poller;
 import uk.gov.justice.services.test.utils.persistence.TestDataSourceFactory;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.ZonedDateTime;
 import java.util.List;
@@ -133,6 +136,58 @@ public class EventJdbcRepositoryIT {
         assertThat(eventList.get(1).getSequenceId(), is(7L));
     }
 
+    @Test
+    public void shouldReturnBoundedPageOfEventsFromPositionOrderBySequenceIdAsc() throws InvalidPositionException {
+        jdbcRepository.insert(eventOf(3, randomUUID()));
+        jdbcRepository.insertAll(asList(
+                eventOf(1, STREAM_ID),
+                eventOf(2, STREAM_ID),
+                eventOf(3, STREAM_ID),
+                eventOf(4, STREAM_ID),
+                eventOf(5, STREAM_ID)));
+
+        final List<Event> eventList = jdbcRepository.findPageByStreamIdFromPosition(STREAM_ID, 2L, 3L);
+
+        assertThat(eventList, hasSize(3));
+        assertThat(eventList.get(0).getSequenceId(), is(2L));
+        assertThat(eventList.get(1).getSequenceId(), is(3L));
+        assertThat(eventList.get(2).getSequenceId(), is(4L));
+    }
+
+    @Test
+    public void shouldReturnBoundedPageOfEventsUpToPositionOrderBySequenceIdDesc() throws InvalidPositionException {
+        jdbcRepository.insert(eventOf(2, randomUUID()));
+        jdbcRepository.insertAll(asList(
+                eventOf(1, STREAM_ID),
+                eventOf(2, STREAM_ID),
+                eventOf(3, STREAM_ID),
+                eventOf(4, STREAM_ID)));
+
+        final List<Event> eventList = jdbcRepository.findPageByStreamIdUpToPosition(STREAM_ID, 3L, 2L);
+
+        assertThat(eventList, hasSize(2));
+        assertThat(eventList.get(0).getSequenceId(), is(3L));
+        assertThat(eventList.get(1).getSequenceId(), is(2L));
+
+        final List<Event> headPage = jdbcRepository.findPageByStreamIdUpToPosition(STREAM_ID, Long.MAX_VALUE, 2L);
+
+        assertThat(headPage, hasSize(2));
+        assertThat(headPage.get(0).getSequenceId(), is(4L));
+        assertThat(headPage.get(1).getSequenceId(), is(3L));
+    }
+
+    @Test
+    public void shouldCheckWhetherEventExistsFromPosition() throws InvalidPositionException {
+        jdbcRepository.insert(eventOf(5, randomUUID()));
+        jdbcRepository.insert(eventOf(1, STREAM_ID));
+        jdbcRepository.insert(eventOf(2, STREAM_ID));
+
+        assertTrue(jdbcRepository.eventExists(STREAM_ID, 1L));
+        assertTrue(jdbcRepository.eventExists(STREAM_ID, 2L));
+        assertFalse(jdbcRepository.eventExists(STREAM_ID, 3L));
+        assertFalse(jdbcRepository.eventExists(randomUUID(), 1L));
+    }
+
     @Test
     public void shouldReturnAllEventsOrderedBySequenceId() throws InvalidPositionException {
         jdbcRepository.insert(eventOf(1, randomUUID()));
@@ -148,6 +203,56 @@ public class EventJdbcRepositoryIT {
         assertThat(eventList.get(2).getSequenceId(), is(4L));
     }
 
+    @Test
+    public void shouldReadAllEventsInAppendOrderAcrossBatches() throws InvalidPositionException {
+        final UUID otherStreamId = randomUUID();
+        jdbcRepository.insert(eventOf(1, STREAM_ID));
+        jdbcRepository.insert(eventOf(1, otherStreamId));
+        jdbcRepository.insert(eventOf(2, STREAM_ID));
+        jdbcRepository.insertAll(asList(eventOf(2, otherStreamId), eventOf(3, otherStreamId)));
+
+        final List<Event> eventList = jdbcRepository.findAllFromEventNumber(0L, 2L).collect(toList());
+
+        assertThat(eventList, hasSize(5));
+        assertThat(eventList.get(0).getStreamId(), is(STREAM_ID));
+        assertThat(eventList.get(1).getStreamId(), is(otherStreamId));
+        assertThat(eventList.get(2).getStreamId(), is(STREAM_ID));
+        assertThat(eventList.get(2).getSequenceId(), is(2L));
+        assertThat(eventList.get(3).getSequenceId(), is(2L));
+        assertThat(eventList.get(4).getSequenceId(), is(3L));
+    }
+
+    @Test
+    public void shouldReadAllEventsFromEventNumber() throws Exception {
+        jdbcRepository.insert(eventOf(1, STREAM_ID));
+        jdbcRepository.insert(eventOf(2, STREAM_ID));
+        jdbcRepository.insert(eventOf(3, STREAM_ID));
+
+        final List<Event> eventList = jdbcRepository.findAllFromEventNumber(latestEventNumber(), 10L).collect(toList());
+
+        assertThat(eventList, hasSize(1));
+        assertThat(eventList.get(0).getSequenceId(), is(3L));
+    }
+
+    @Test(timeout = 10000L)
+    public void shouldReadPastGapInEventNumbersLeftByEndedTransaction() throws Exception {
+        jdbcRepository.insert(eventOf(1, STREAM_ID));
+        final long eventNumber = latestEventNumber();
+        skipEventNumber();
+        jdbcRepository.insert(eventOf(2, STREAM_ID));
+
+        final List<Event> eventList = jdbcRepository.findAllFromEventNumber(eventNumber, 10L).collect(toList());
+
+        assertThat(eventList, hasSize(2));
+        assertThat(eventList.get(0).getSequenceId(), is(1L));
+        assertThat(eventList.get(1).getSequenceId(), is(2L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotReadAllEventsWithoutPositiveBatchSize() {
+        jdbcRepository.findAllFromEventNumber(0L, 0L);
+    }
+
     @Test
     public void shouldReturnStreamOfStreamIds() throws Exception {
 
@@ -169,6 +274,27 @@ public class EventJdbcRepositoryIT {
         assertThat(streamIdList, hasItem(streamId3));
     }
 
+    @Test
+    public void shouldStoreEventsUsingBatchInsert() throws InvalidPositionException {
+        jdbcRepository.insertAll(asList(
+                eventOf(SEQUENCE_ID, STREAM_ID),
+                eventOf(SEQUENCE_ID + 1, STREAM_ID),
+                eventOf(SEQUENCE_ID + 2, STREAM_ID)));
+
+        final List<Event> eventList = jdbcRepository.findByStreamIdOrderByPositionAsc(STREAM_ID).collect(toList());
+
+        assertThat(eventList, hasSize(3));
+        assertThat(eventList.get(0).getSequenceId(), is(SEQUENCE_ID));
+        assertThat(eventList.get(2).getSequenceId(), is(SEQUENCE_ID + 2));
+        assertThat(jdbcRepository.getStreamSize(STREAM_ID), equalTo(7L));
+    }
+
+    @Test(expected = JdbcRepositoryException.class)
+    public void shouldThrowExceptionOnDuplicateSequenceIdInBatchInsert() throws InvalidPositionException {
+        jdbcRepository.insert(eventOf(SEQUENCE_ID + 1, STREAM_ID));
+        jdbcRepository.insertAll(asList(eventOf(SEQUENCE_ID, STREAM_ID), eventOf(SEQUENCE_ID + 1, STREAM_ID)));
+    }
+
     @Test(expected = JdbcRepositoryException.class)
     public void shouldThrowExceptionOnDuplicateId() throws InvalidPositionException {
         final UUID id = randomUUID();
@@ -206,6 +332,21 @@ public class EventJdbcRepositoryIT {
         assertThat(deletedStreamLatestSequenceId, equalTo(0L));
     }
 
+    private long latestEventNumber() throws SQLException {
+        try (final Connection connection = jdbcRepository.dataSource.getConnection();
+             final ResultSet resultSet = connection.prepareStatement("SELECT MAX(event_number) FROM event_log").executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private void skipEventNumber() throws SQLException {
+        try (final Connection connection = jdbcRepository.dataSource.getConnection();
+             final ResultSet resultSet = connection.prepareStatement("SELECT nextval('event_log_seq')").executeQuery()) {
+            resultSet.next();
+        }
+    }
+
     private Event eventOf(final UUID id, final String name, final UUID streamId, final long sequenceId, final String payloadJSON, final String metadataJSON,
                           final ZonedDateTime timestamp, final String source) {
         return new Event(id, streamId, sequenceId, name, metadataJSON, payloadJSON, timestamp, source);
@@ -0,0 +1,50 @@
+package uk.gov.justice.services.eventsourcing.repository.jdbc.event;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class EventNumberHorizonTest {
+
+    private final EventNumberHorizon eventNumberHorizon = new EventNumberHorizon();
+
+    @Test
+    public void shouldBeFinalUpToHighestEventNumberWhenNoTransactionIsInProgress() {
+        eventNumberHorizon.observe(100L, 100L, 7L);
+
+        assertThat(eventNumberHorizon.isFinal(7L), is(true));
+        assertThat(eventNumberHorizon.isFinal(8L), is(false));
+    }
+
+    @Test
+    public void shouldNotBeFinalWhileTransactionsOlderThanTheReadAreInProgress() {
+        eventNumberHorizon.observe(95L, 100L, 7L);
+        eventNumberHorizon.observe(99L, 102L, 9L);
+
+        assertThat(eventNumberHorizon.isFinal(6L), is(false));
+    }
+
+    @Test
+    public void shouldBeFinalUpToEarlierReadOnceItsTransactionsHaveEnded() {
+        eventNumberHorizon.observe(95L, 100L, 7L);
+        eventNumberHorizon.observe(101L, 103L, 9L);
+
+        assertThat(eventNumberHorizon.isFinal(7L), is(true));
+        assertThat(eventNumberHorizon.isFinal(8L), is(false));
+    }
+
+    @Test
+    public void shouldWaitForLaterReadAfterEarlierOneHasBecomeFinal() {
+        eventNumberHorizon.observe(95L, 100L, 7L);
+        eventNumberHorizon.observe(101L, 103L, 9L);
+        eventNumberHorizon.observe(103L, 104L, 9L);
+
+        assertThat(eventNumberHorizon.isFinal(9L), is(true));
+    }
+
+    @Test
+    public void shouldNotBeFinalBeforeAnythingIsObserved() {
+        assertThat(eventNumberHorizon.isFinal(1L), is(false));
+    }
+}
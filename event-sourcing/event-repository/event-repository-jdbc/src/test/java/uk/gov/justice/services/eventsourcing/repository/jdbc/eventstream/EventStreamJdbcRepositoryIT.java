@@ -17,6 +17,7 @@ import uk.gov.justice.services.test.utils.core.messaging.Poller;
 import uk.gov.justice.services.test.utils.persistence.TestDataSourceFactory;
 
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Stream;
@@ -131,4 +132,86 @@ public class EventStreamJdbcRepositoryIT {
         assertTrue(eventStream.isPresent());
         assertFalse(eventStream.get().isActive());
     }
+
+    @Test
+    public void shouldReturnBoundedPageOfStreamsFromPositionOrderByPositionAsc() {
+        final UUID streamId1 = randomUUID();
+        final UUID streamId2 = randomUUID();
+        final UUID streamId3 = randomUUID();
+        jdbcRepository.insert(streamId1);
+        jdbcRepository.insert(streamId2);
+        jdbcRepository.insert(streamId3);
+
+        final long firstPosition = jdbcRepository.getPosition(streamId1);
+
+        final List<EventStream> eventStreams = jdbcRepository.findPageFromPosition(firstPosition + 1, 1L);
+
+        assertThat(eventStreams.size(), is(1));
+        assertThat(eventStreams.get(0).getStreamId(), is(streamId2));
+    }
+
+    @Test
+    public void shouldReturnBoundedPageOfStreamsUpToPositionOrderByPositionDesc() {
+        final UUID streamId1 = randomUUID();
+        final UUID streamId2 = randomUUID();
+        final UUID streamId3 = randomUUID();
+        jdbcRepository.insert(streamId1);
+        jdbcRepository.insert(streamId2);
+        jdbcRepository.insert(streamId3);
+
+        final List<EventStream> headPage = jdbcRepository.findPageUpToPosition(Long.MAX_VALUE, 2L);
+
+        assertThat(headPage.size(), is(2));
+        assertThat(headPage.get(0).getStreamId(), is(streamId3));
+        assertThat(headPage.get(1).getStreamId(), is(streamId2));
+
+        final List<EventStream> previousPage = jdbcRepository.findPageUpToPosition(jdbcRepository.getPosition(streamId2), 2L);
+
+        assertThat(previousPage.size(), is(2));
+        assertThat(previousPage.get(0).getStreamId(), is(streamId2));
+        assertThat(previousPage.get(1).getStreamId(), is(streamId1));
+    }
+
+    @Test
+    public void shouldCheckWhetherStreamExistsAtPosition() {
+        final UUID streamId = randomUUID();
+        jdbcRepository.insert(streamId);
+
+        final long position = jdbcRepository.getPosition(streamId);
+
+        assertTrue(jdbcRepository.existsAtPosition(position));
+        assertFalse(jdbcRepository.existsAtPosition(position + 1));
+    }
+
+    @Test
+    public void shouldAdvanceHeadPositionOnlyFromExpectedPosition() {
+        final UUID streamId = randomUUID();
+        jdbcRepository.insert(streamId);
+
+        assertThat(jdbcRepository.findHeadPosition(streamId), is(Optional.of(0L)));
+
+        assertTrue(jdbcRepository.advanceHeadPosition(streamId, 0L, 3L));
+        assertFalse(jdbcRepository.advanceHeadPosition(streamId, 0L, 1L));
+
+        assertThat(jdbcRepository.findHeadPosition(streamId), is(Optional.of(3L)));
+    }
+
+    @Test
+    public void shouldNotAdvanceHeadPositionOfUnknownStream() {
+        final UUID streamId = randomUUID();
+
+        assertFalse(jdbcRepository.advanceHeadPosition(streamId, 0L, 1L));
+        assertThat(jdbcRepository.findHeadPosition(streamId), is(Optional.empty()));
+    }
+
+    @Test
+    public void shouldResetHeadPosition() {
+        final UUID streamId = randomUUID();
+        jdbcRepository.insert(streamId);
+        jdbcRepository.advanceHeadPosition(streamId, 0L, 5L);
+
+        jdbcRepository.resetHeadPosition(streamId);
+
+        assertThat(jdbcRepository.findHeadPosition(streamId), is(Optional.of(0L)));
+    }
 }
@@ -0,0 +1,122 @@
+package uk.gov.justice.services.eventsourcing.repository.jdbc.outbox;
+
+import static java.util.Arrays.asList;
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.junit.Assert.assertThat;
+
+import uk.gov.justice.services.common.util.UtcClock;
+import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryException;
+import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryHelper;
+import uk.gov.justice.services.test.utils.core.messaging.Poller;
+import uk.gov.justice.services.test.utils.persistence.TestDataSourceFactory;
+
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EventOutboxJdbcRepositoryIT {
+
+    private static final String LIQUIBASE_EVENT_STORE_DB_CHANGELOG_XML = "liquibase/event-store-db-changelog.xml";
+    private static final ZonedDateTime TIMESTAMP = new UtcClock().now();
+
+    private final EventOutboxJdbcRepository jdbcRepository = new EventOutboxJdbcRepository();
+
+    @Before
+    public void initialize() {
+        try {
+            jdbcRepository.dataSource = new TestDataSourceFactory(LIQUIBASE_EVENT_STORE_DB_CHANGELOG_XML).createDataSource();
+            jdbcRepository.jdbcRepositoryHelper = new JdbcRepositoryHelper();
+
+            final Poller poller = new Poller();
+
+            poller.pollUntilFound(() -> {
+                try {
+                    jdbcRepository.dataSource.getConnection().prepareStatement("SELECT COUNT (*) FROM event_outbox;").execute();
+                    return Optional.of("Success");
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                    return Optional.empty();
+                }
+            });
+        } catch (final Exception e) {
+            e.printStackTrace();
+            Assert.fail("EventOutboxJdbcRepository construction failed");
+        }
+    }
+
+    @After
+    public void after() throws SQLException {
+        jdbcRepository.dataSource.getConnection().close();
+    }
+
+    @Test
+    public void shouldReturnPendingEventsInTheOrderTheyWereAdded() throws Exception {
+        final UUID streamId = randomUUID();
+        final OutboxEvent event1 = outboxEventOf(streamId, 1L);
+        final OutboxEvent event2 = outboxEventOf(randomUUID(), 1L);
+        final OutboxEvent event3 = outboxEventOf(streamId, 2L);
+
+        jdbcRepository.insert(event1);
+        jdbcRepository.insert(event2);
+        jdbcRepository.insert(event3);
+
+        final List<OutboxEvent> pendingEvents = jdbcRepository.findPending(10);
+
+        assertThat(pendingEvents, hasSize(3));
+        assertThat(pendingEvents.get(0), is(event1));
+        assertThat(pendingEvents.get(1), is(event2));
+        assertThat(pendingEvents.get(2), is(event3));
+    }
+
+    @Test
+    public void shouldLimitNumberOfPendingEventsReturned() throws Exception {
+        final UUID streamId = randomUUID();
+        jdbcRepository.insert(outboxEventOf(streamId, 1L));
+        jdbcRepository.insert(outboxEventOf(streamId, 2L));
+        jdbcRepository.insert(outboxEventOf(streamId, 3L));
+
+        final List<OutboxEvent> pendingEvents = jdbcRepository.findPending(2);
+
+        assertThat(pendingEvents, hasSize(2));
+        assertThat(pendingEvents.get(1).getSequenceId(), is(2L));
+    }
+
+    @Test
+    public void shouldDeletePublishedEvents() throws Exception {
+        final UUID streamId = randomUUID();
+        final OutboxEvent event1 = outboxEventOf(streamId, 1L);
+        final OutboxEvent event2 = outboxEventOf(streamId, 2L);
+        final OutboxEvent event3 = outboxEventOf(streamId, 3L);
+
+        jdbcRepository.insert(event1);
+        jdbcRepository.insert(event2);
+        jdbcRepository.insert(event3);
+
+        jdbcRepository.delete(asList(event1.getEventId(), event2.getEventId()));
+
+        final List<OutboxEvent> pendingEvents = jdbcRepository.findPending(10);
+        assertThat(pendingEvents, hasSize(1));
+        assertThat(pendingEvents.get(0), is(event3));
+    }
+
+    @Test(expected = JdbcRepositoryException.class)
+    public void shouldThrowExceptionOnDuplicateEventId() throws Exception {
+        final OutboxEvent event = outboxEventOf(randomUUID(), 1L);
+
+        jdbcRepository.insert(event);
+        jdbcRepository.insert(event);
+    }
+
+    private OutboxEvent outboxEventOf(final UUID streamId, final long sequenceId) {
+        return new OutboxEvent(randomUUID(), streamId, sequenceId, "example.event", "{\"_metadata\":{}}", TIMESTAMP);
+    }
+}
@@ -60,6 +60,7 @@ import uk.gov.justice.services.eventsourcing.source.core.EventSourceProducer;
 import uk.gov.justice.services.eventsourcing.source.core.EventStreamManager;
 import uk.gov.justice.services.eventsourcing.source.core.PublishingEventAppender;
 import uk.gov.justice.services.eventsourcing.source.core.SystemEventService;
+import uk.gov.justice.services.jdbc.persistence.JdbcConnectionMetrics;
 import uk.gov.justice.services.jdbc.persistence.JdbcDataSourceProvider;
 import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryHelper;
 import uk.gov.justice.services.messaging.DefaultJsonObjectEnvelopeConverter;
@@ -176,6 +177,7 @@ public class EventsPageIT {
             PositionValueFactory.class,
             BadRequestExceptionMapper.class,
             JdbcRepositoryHelper.class,
+            JdbcConnectionMetrics.class,
             UtcClock.class,
             JdbcDataSourceProvider.class,
             DefaultJsonValidationLoggerHelper.class,
@@ -6,11 +6,10 @@ import static java.util.stream.Collectors.toList;
 import static uk.gov.justice.services.eventsourcing.source.api.service.core.Direction.BACKWARD;
 import static uk.gov.justice.services.eventsourcing.source.api.service.core.Direction.FORWARD;
 
-import uk.gov.justice.services.eventsourcing.source.core.EventSource;
-import uk.gov.justice.services.eventsourcing.source.core.EventStream;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.EventRepository;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.EventStreamMetadata;
 
 import java.util.List;
-import java.util.stream.Stream;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -18,48 +17,44 @@ import javax.inject.Inject;
 @ApplicationScoped
 public class EventStreamService {
 
+    private static final long FIRST_POSITION = 1L;
+    private static final long HEAD_POSITION = Long.MAX_VALUE;
+
     @Inject
-    private EventSource eventSource;
+    EventRepository eventRepository;
 
     public List<EventStreamEntry> eventStreams(final Position position,
                                                final Direction direction,
                                                final long pageSize) {
         if (position.isHead()) {
-            final Stream<EventStream> eventStreamsFromFirst = eventSource.getStreamsFrom(1);
-            final long fromPosition = eventStreamsFromFirst.count() - pageSize + 1;
-            final Stream<EventStreamEntry> eventStreamEntryStream = eventSource.getStreamsFrom(fromPosition)
-                    .map(this::convertToEventStreamEntry);
-            final List<EventStreamEntry> eventStreamEntryList = eventStreamEntryStream.limit(pageSize).collect(toList());
-            return reverse(eventStreamEntryList);
+            return eventStreamEntries(eventRepository.getEventStreamsPageUpToPosition(HEAD_POSITION, pageSize));
         }
 
         if (position.isFirst()) {
-            final Stream<EventStream> eventStreams = eventSource.getStreamsFrom(1);
-            return reverse(eventStreams.map(this::convertToEventStreamEntry).limit(pageSize).collect(toList()));
+            return reverse(eventStreamEntries(eventRepository.getEventStreamsPageFromPosition(FIRST_POSITION, pageSize)));
         }
 
         if (FORWARD.equals(direction)) {
-            final Stream<EventStream> eventStreams = eventSource.getStreamsFrom(position.getPosition());
-            return reverse(eventStreams.map(this::convertToEventStreamEntry).limit(pageSize).collect(toList()));
+            return reverse(eventStreamEntries(eventRepository.getEventStreamsPageFromPosition(position.getPosition(), pageSize)));
         }
 
         if (BACKWARD.equals(direction)) {
-            final long sequenceNumber = position.getPosition() - pageSize + 1;
-            final Stream<EventStream> eventStreams = eventSource.getStreamsFrom(sequenceNumber);
-            return reverse(eventStreams.map(this::convertToEventStreamEntry).limit(pageSize).collect(toList()));
+            return eventStreamEntries(eventRepository.getEventStreamsPageUpToPosition(position.getPosition(), pageSize));
         }
         return emptyList();
     }
 
-
-    private EventStreamEntry convertToEventStreamEntry(final EventStream eventStream) {
-        return new EventStreamEntry(eventStream.getId().toString(), eventStream.getPosition());
-    }
-
     public boolean eventStreamExists(final long position) {
-        final Stream<EventStream> eventStreamsBySequence = eventSource.getStreamsFrom(1);
+        return eventRepository.eventStreamExists(position);
+    }
 
-        return eventStreamsBySequence.anyMatch(t -> t.getPosition() == position);
+    private List<EventStreamEntry> eventStreamEntries(final List<EventStreamMetadata> eventStreams) {
+        return eventStreams.stream()
+                .map(this::convertToEventStreamEntry)
+                .collect(toList());
+    }
 
+    private EventStreamEntry convertToEventStreamEntry(final EventStreamMetadata eventStream) {
+        return new EventStreamEntry(eventStream.getStreamId().toString(), eventStream.getPosition());
     }
 }
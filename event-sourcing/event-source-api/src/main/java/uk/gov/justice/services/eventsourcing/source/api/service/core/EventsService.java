@@ -7,15 +7,13 @@ import static uk.gov.justice.services.eventsourcing.source.api.service.core.Dire
 import static uk.gov.justice.services.eventsourcing.source.api.service.core.Direction.FORWARD;
 
 import uk.gov.justice.services.common.converter.ZonedDateTimes;
-import uk.gov.justice.services.eventsourcing.source.core.EventSource;
-import uk.gov.justice.services.eventsourcing.source.core.EventStream;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.EventRepository;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.UUID;
 import java.util.function.Function;
-import java.util.stream.Stream;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -23,52 +21,41 @@ import javax.inject.Inject;
 @ApplicationScoped
 public class EventsService {
 
+    private static final long FIRST_POSITION = 1L;
+    private static final long HEAD_POSITION = Long.MAX_VALUE;
+
     @Inject
-    private EventSource eventSource;
+    EventRepository eventRepository;
 
     public List<EventEntry> events(final UUID streamId,
                                    final Position position,
                                    final Direction direction,
                                    final long pageSize) {
 
-        final EventStream eventStream = eventSource.getStreamById(streamId);
-
         if (position.isHead()) {
-            final long versionHead = eventStream.size() - pageSize + 1;
-            final Stream<JsonEnvelope> events = eventStream.readFrom(versionHead).limit(pageSize);
-            return reverse(eventEntries(events));
+            return eventEntries(eventRepository.getEventsPageUpToPosition(streamId, HEAD_POSITION, pageSize));
         }
 
         if (position.isFirst()) {
-            final int versionFirst = 1;
-            final Stream<JsonEnvelope> events = eventStream.readFrom(versionFirst).limit(pageSize);
-            return reverse(eventEntries(events));
+            return reverse(eventEntries(eventRepository.getEventsPageFromPosition(streamId, FIRST_POSITION, pageSize)));
         }
 
         if (FORWARD.equals(direction)) {
-            final long version = position.getPosition();
-            final Stream<JsonEnvelope> events = eventStream.readFrom(version).limit(pageSize);
-
-            return reverse(eventEntries(events));
+            return reverse(eventEntries(eventRepository.getEventsPageFromPosition(streamId, position.getPosition(), pageSize)));
         }
 
         if (BACKWARD.equals(direction)) {
-            final long version = position.getPosition() - pageSize + 1;
-            final Stream<JsonEnvelope> events = eventStream.readFrom(version).limit(pageSize);
-            return reverse(eventEntries(events));
+            return eventEntries(eventRepository.getEventsPageUpToPosition(streamId, position.getPosition(), pageSize));
         }
         return emptyList();
     }
 
-    public boolean eventExists(final UUID streamId, final long version) {
-        final EventStream eventStream = eventSource.getStreamById(streamId);
-        final Stream<JsonEnvelope> event = eventStream.readFrom(version);
-
-        return event.findAny().isPresent();
+    public boolean eventExists(final UUID streamId, final long position) {
+        return eventRepository.eventExists(streamId, position);
     }
 
-    private List<EventEntry> eventEntries(final Stream<JsonEnvelope> events) {
-        return events
+    private List<EventEntry> eventEntries(final List<JsonEnvelope> events) {
+        return events.stream()
                 .map(toEventEntry())
                 .collect(toList());
     }
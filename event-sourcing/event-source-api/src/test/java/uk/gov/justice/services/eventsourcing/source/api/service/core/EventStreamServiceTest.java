@@ -1,9 +1,13 @@
 package uk.gov.justice.services.eventsourcing.source.api.service.core;
 
+import static java.time.ZonedDateTime.now;
+import static java.util.Arrays.asList;
 import static java.util.UUID.randomUUID;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.justice.services.eventsourcing.source.api.service.core.Direction.BACKWARD;
 import static uk.gov.justice.services.eventsourcing.source.api.service.core.Direction.FORWARD;
@@ -11,14 +15,12 @@ import static uk.gov.justice.services.eventsourcing.source.api.service.core.Posi
 import static uk.gov.justice.services.eventsourcing.source.api.service.core.Position.head;
 import static uk.gov.justice.services.eventsourcing.source.api.service.core.Position.position;
 
-import uk.gov.justice.services.eventsourcing.source.core.EnvelopeEventStream;
-import uk.gov.justice.services.eventsourcing.source.core.EventSource;
-import uk.gov.justice.services.eventsourcing.source.core.EventStream;
-import uk.gov.justice.services.eventsourcing.source.core.EventStreamManager;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.DefaultEventStreamMetadata;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.EventRepository;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.EventStreamMetadata;
 
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Stream;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -30,10 +32,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 public class EventStreamServiceTest {
 
     @Mock
-    private EventStreamManager eventStreamManager;
-
-    @Mock
-    private EventSource eventSource;
+    private EventRepository eventRepository;
 
     @InjectMocks
     private EventStreamService service;
@@ -43,31 +42,13 @@ public class EventStreamServiceTest {
 
         final long pageSize = 2L;
 
-        final UUID streamId1 = randomUUID();
-        final UUID streamId2 = randomUUID();
         final UUID streamId3 = randomUUID();
         final UUID streamId4 = randomUUID();
 
-        final EventStream eventStream1 = buildEventStreamOf(streamId1, 1L);
-        final EventStream eventStream2 = buildEventStreamOf(streamId2, 2L);
-        final EventStream eventStream3 = buildEventStreamOf(streamId3, 3L);
-        final EventStream eventStream4 = buildEventStreamOf(streamId4, 4L);
+        final EventStreamMetadata eventStream3 = buildEventStreamOf(streamId3, 3L);
+        final EventStreamMetadata eventStream4 = buildEventStreamOf(streamId4, 4L);
 
-        final Stream.Builder<EventStream> eventStreamBuilder = Stream.builder();
-
-        eventStreamBuilder.add(eventStream1);
-        eventStreamBuilder.add(eventStream2);
-        eventStreamBuilder.add(eventStream3);
-        eventStreamBuilder.add(eventStream4);
-
-        final Stream.Builder<EventStream> eventStreamBuilderFrom3 = Stream.builder();
-        eventStreamBuilderFrom3.add(eventStream3);
-        eventStreamBuilderFrom3.add(eventStream4);
-
-        when(eventSource.getStreamsFrom(1)).thenReturn(eventStreamBuilder.build());
-        when(eventSource.getStreamsFrom(3)).thenReturn(eventStreamBuilderFrom3.build());
-        when(eventStreamManager.getStreamPosition(streamId3)).thenReturn(3L);
-        when(eventStreamManager.getStreamPosition(streamId4)).thenReturn(4L);
+        when(eventRepository.getEventStreamsPageUpToPosition(Long.MAX_VALUE, pageSize)).thenReturn(asList(eventStream4, eventStream3));
 
         final List<EventStreamEntry> entries = service.eventStreams(head(), BACKWARD, pageSize);
 
@@ -86,24 +67,13 @@ public class EventStreamServiceTest {
     public void shouldReturnFirstEvents() throws Exception {
         final long pageSize = 2L;
 
-        final Stream.Builder<EventStream> eventStreamBuilder = Stream.builder();
-
         final UUID streamId1 = randomUUID();
         final UUID streamId2 = randomUUID();
 
-        final EventStream eventStream1 = buildEventStreamOf(streamId1, 1L);
-        final EventStream eventStream2 = buildEventStreamOf(streamId2, 2L);
+        final EventStreamMetadata eventStream1 = buildEventStreamOf(streamId1, 1L);
+        final EventStreamMetadata eventStream2 = buildEventStreamOf(streamId2, 2L);
 
-        eventStreamBuilder.add(eventStream1);
-        eventStreamBuilder.add(eventStream2);
-
-        final Stream.Builder<EventStream> eventStreamBuilderFrom1 = Stream.builder();
-        eventStreamBuilderFrom1.add(eventStream1);
-        eventStreamBuilderFrom1.add(eventStream2);
-
-        when(eventSource.getStreamsFrom(1)).thenReturn(eventStreamBuilder.build());
-        when(eventStreamManager.getStreamPosition(streamId1)).thenReturn(1L);
-        when(eventStreamManager.getStreamPosition(streamId2)).thenReturn(2L);
+        when(eventRepository.getEventStreamsPageFromPosition(1L, pageSize)).thenReturn(asList(eventStream1, eventStream2));
 
         final List<EventStreamEntry> eventStreamEntries = service.eventStreams(first(), FORWARD, pageSize);
 
@@ -126,19 +96,12 @@ public class EventStreamServiceTest {
         final UUID streamId2 = randomUUID();
         final UUID streamId3 = randomUUID();
 
-        final Stream.Builder<EventStream> eventStreamBuilder = Stream.builder();
-
-        final EventStream eventStream2 = buildEventStreamOf(streamId2, 2L);
-        final EventStream eventStream3 = buildEventStreamOf(streamId3, 3L);
-
-        eventStreamBuilder.add(eventStream2);
-        eventStreamBuilder.add(eventStream3);
+        final EventStreamMetadata eventStream2 = buildEventStreamOf(streamId2, 2L);
+        final EventStreamMetadata eventStream3 = buildEventStreamOf(streamId3, 3L);
 
         final long position = 3L;
 
-        when(eventSource.getStreamsFrom(2L)).thenReturn(eventStreamBuilder.build());
-        when(eventStreamManager.getStreamPosition(streamId3)).thenReturn(3L);
-        when(eventStreamManager.getStreamPosition(streamId2)).thenReturn(2L);
+        when(eventRepository.getEventStreamsPageUpToPosition(position, pageSize)).thenReturn(asList(eventStream3, eventStream2));
 
         final List<EventStreamEntry> eventEntries = service.eventStreams(position(position), BACKWARD, pageSize);
 
@@ -156,25 +119,17 @@ public class EventStreamServiceTest {
     @Test
     public void shouldReturnNextEvents() throws Exception {
 
-
         final long pageSize = 2L;
 
         final UUID streamId5 = randomUUID();
         final UUID streamId4 = randomUUID();
 
-        final Stream.Builder<EventStream> eventStreamBuilder = Stream.builder();
-
-        final EventStream eventStream5 = buildEventStreamOf(streamId5, 5L);
-        final EventStream eventStream4 = buildEventStreamOf(streamId4, 4L);
-
-        eventStreamBuilder.add(eventStream4);
-        eventStreamBuilder.add(eventStream5);
+        final EventStreamMetadata eventStream5 = buildEventStreamOf(streamId5, 5L);
+        final EventStreamMetadata eventStream4 = buildEventStreamOf(streamId4, 4L);
 
-        final long position = 3L;
+        final long position = 4L;
 
-        when(eventSource.getStreamsFrom(position)).thenReturn(eventStreamBuilder.build());
-        when(eventStreamManager.getStreamPosition(streamId5)).thenReturn(5L);
-        when(eventStreamManager.getStreamPosition(streamId4)).thenReturn(4L);
+        when(eventRepository.getEventStreamsPageFromPosition(position, pageSize)).thenReturn(asList(eventStream4, eventStream5));
 
         final List<EventStreamEntry> eventEntries = service.eventStreams(position(position), FORWARD, pageSize);
 
@@ -190,33 +145,19 @@ public class EventStreamServiceTest {
     }
 
     @Test
-    public void shouldReturnRecordExists() throws Exception {
-        final UUID streamId1 = randomUUID();
-        final UUID streamId2 = randomUUID();
-        final UUID streamId3 = randomUUID();
-        final UUID streamId4 = randomUUID();
-
-        final Stream.Builder<EventStream> eventStreamBuilder = Stream.builder();
-
-        final EventStream eventStream1 = buildEventStreamOf(streamId1, 1L);
-        final EventStream eventStream2 = buildEventStreamOf(streamId2, 2L);
-        final EventStream eventStream3 = buildEventStreamOf(streamId3, 3L);
-        final EventStream eventStream4 = buildEventStreamOf(streamId4, 4L);
-
-
-        eventStreamBuilder.add(eventStream1);
-        eventStreamBuilder.add(eventStream2);
-        eventStreamBuilder.add(eventStream3);
-        eventStreamBuilder.add(eventStream4);
-
+    public void shouldReturnEmptyListForEmptyPosition() throws Exception {
+        assertThat(service.eventStreams(Position.empty(), null, 1L), is(empty()));
+    }
 
-        when(eventSource.getStreamsFrom(1)).thenReturn(eventStreamBuilder.build());
+    @Test
+    public void shouldReturnRecordExists() throws Exception {
+        when(eventRepository.eventStreamExists(1L)).thenReturn(true);
 
-      //  assertThat(service.eventStreamExists(1), is(true));
+        assertThat(service.eventStreamExists(1L), is(true));
+        verify(eventRepository).eventStreamExists(1L);
     }
 
-    private EnvelopeEventStream buildEventStreamOf(final UUID streamId, final long sequenceNumber) {
-        return new EnvelopeEventStream(streamId, sequenceNumber, eventStreamManager);
+    private EventStreamMetadata buildEventStreamOf(final UUID streamId, final long sequenceNumber) {
+        return new DefaultEventStreamMetadata(streamId, sequenceNumber, true, now());
     }
-
-}
\ No newline at end of file
+}
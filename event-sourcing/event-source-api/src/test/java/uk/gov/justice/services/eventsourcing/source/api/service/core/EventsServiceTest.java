@@ -1,6 +1,7 @@
 package uk.gov.justice.services.eventsourcing.source.api.service.core;
 
 import static java.time.ZonedDateTime.now;
+import static java.util.Arrays.asList;
 import static java.util.UUID.randomUUID;
 import static javax.json.Json.createObjectBuilder;
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -9,7 +10,6 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.justice.services.eventsourcing.source.api.service.core.Direction.BACKWARD;
@@ -21,14 +21,12 @@ import static uk.gov.justice.services.test.utils.core.messaging.JsonEnvelopeBuil
 import static uk.gov.justice.services.test.utils.core.messaging.MetadataBuilderFactory.metadataOf;
 
 import uk.gov.justice.services.common.converter.ZonedDateTimes;
-import uk.gov.justice.services.eventsourcing.source.core.EventSource;
-import uk.gov.justice.services.eventsourcing.source.core.EventStream;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.EventRepository;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Stream;
 
 import javax.json.JsonObject;
 
@@ -43,7 +41,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 public class EventsServiceTest {
 
     @Mock
-    private EventSource eventSource;
+    private EventRepository eventRepository;
 
     @InjectMocks
     private EventsService service;
@@ -64,11 +62,7 @@ public class EventsServiceTest {
         final JsonEnvelope event1 = envelope().withPayloadOf("value1","field1").with(metadataOf(firstEventId,"Test Name1").withVersion(1L).withStreamId(streamId).createdAt(event1CreatedAt)).build();
         final JsonEnvelope event2 =  envelope().withPayloadOf("value2","field2").with(metadataOf(secondEventId,"Test Name2").withVersion(2L).withStreamId(streamId).createdAt(event2CreatedAt)).build();
 
-        final EventStream eventStream  = mock(EventStream.class);
-
-        when(eventSource.getStreamById(streamId)).thenReturn(eventStream);
-        when(eventStream.getPosition()).thenReturn(2L);
-        when(eventStream.readFrom(eventStream.size() - 1)).thenReturn(Stream.of(event1,event2));
+        when(eventRepository.getEventsPageUpToPosition(streamId, Long.MAX_VALUE, pageSize)).thenReturn(asList(event2, event1));
 
         final List<EventEntry> entries = service.events(streamId, head(), BACKWARD, pageSize);
 
@@ -112,11 +106,7 @@ public class EventsServiceTest {
         final JsonEnvelope event1 = envelope().withPayloadOf("value1","field1").with(metadataOf(streamId,"Test Name1").withVersion(1L).withStreamId(streamId).createdAt(event1CreatedAt)).build();
         final JsonEnvelope event2 =  envelope().withPayloadOf("value2","field2").with(metadataOf(streamId,"Test Name2").withVersion(2L).withStreamId(streamId).createdAt(event2CreatedAt)).build();
 
-        final EventStream eventStream  = mock(EventStream.class);
-
-        when(eventSource.getStreamById(streamId)).thenReturn(eventStream);
-        when(eventStream.size()).thenReturn(2L);
-        when(eventStream.readFrom(first().getPosition())).thenReturn(Stream.of(event1,event2));
+        when(eventRepository.getEventsPageFromPosition(streamId, 1L, pageSize)).thenReturn(asList(event1, event2));
 
         final List<EventEntry> eventEntries = service.events(streamId, first(), FORWARD, pageSize);
 
@@ -153,7 +143,6 @@ public class EventsServiceTest {
         final UUID secondEventId = randomUUID();
         final ZonedDateTime event2CreatedAt = now();
         final ZonedDateTime event3CreatedAt = now();
-        final ZonedDateTime event4CreatedAt = now();
         final long pageSize = 2L;
 
         final JsonObject payload3 = createObjectBuilder().add("field3", "value3").build();
@@ -161,13 +150,8 @@ public class EventsServiceTest {
 
         final JsonEnvelope event2 =  envelope().withPayloadOf("value2","field2").with(metadataOf(secondEventId,"Test Name2").withVersion(2L).withStreamId(streamId).createdAt(event2CreatedAt)).build();
         final JsonEnvelope event3 = envelope().withPayloadOf("value3","field3").with(metadataOf(firstEventId,"Test Name3").withVersion(3L).withStreamId(streamId).createdAt(event3CreatedAt)).build();
-        final JsonEnvelope event4 =  envelope().withPayloadOf("value4","field4").with(metadataOf(secondEventId,"Test Name4").withVersion(4L).withStreamId(streamId).createdAt(event4CreatedAt)).build();
 
-        final EventStream eventStream  = mock(EventStream.class);
-
-        when(eventSource.getStreamById(streamId)).thenReturn(eventStream);
-
-        when(eventStream.readFrom(2L)).thenReturn(Stream.of(event2, event3, event4));
+        when(eventRepository.getEventsPageUpToPosition(streamId, 3L, pageSize)).thenReturn(asList(event3, event2));
 
         final List<EventEntry> eventEntries = service.events(streamId, position(3L), BACKWARD, pageSize);
 
@@ -223,12 +207,9 @@ public class EventsServiceTest {
         final JsonEnvelope event4 =  envelope().withPayloadOf("value4","field4").with(metadataOf(secondEventId,"Test Name4").withVersion(4L).withStreamId(streamId).createdAt(event4CreatedAt)).build();
         final JsonEnvelope event3 = envelope().withPayloadOf("value3","field3").with(metadataOf(firstEventId,"Test Name3").withVersion(3L).withStreamId(streamId).createdAt(event3CreatedAt)).build();
 
-        final EventStream eventStream  = mock(EventStream.class);
-
         final long positionId = 3L;
 
-        when(eventSource.getStreamById(streamId)).thenReturn(eventStream);
-        when(eventStream.readFrom(positionId)).thenReturn(Stream.of(event3 , event4));
+        when(eventRepository.getEventsPageFromPosition(streamId, positionId, pageSize)).thenReturn(asList(event3, event4));
 
         final List<EventEntry> eventEntries = service.events(streamId, position(positionId), FORWARD, pageSize);
 
@@ -263,15 +244,9 @@ public class EventsServiceTest {
         final UUID streamId = randomUUID();
         final long position = 1L;
 
-        final ZonedDateTime createdAt = now();
-        final JsonEnvelope event =  envelope().withPayloadOf("value1","field1").with(metadataOf(streamId,"Test Name1").withVersion(position).withStreamId(streamId).createdAt(createdAt)).build();
-        final EventStream eventStream = mock(EventStream.class);
-
-        when(eventSource.getStreamById(streamId)).thenReturn(eventStream);
-        when(eventStream.readFrom(1L)).thenReturn(Stream.of(event));
+        when(eventRepository.eventExists(streamId, position)).thenReturn(true);
 
         assertTrue(service.eventExists(streamId , position));
-        verify(eventSource).getStreamById(streamId);
-        verify(eventStream).readFrom(position);
+        verify(eventRepository).eventExists(streamId, position);
     }
 }
\ No newline at end of file
@@ -2,10 +2,14 @@ package uk.gov.justice.services.eventsourcing.source.core;
 
 import static uk.gov.justice.services.messaging.JsonEnvelope.envelopeFrom;
 import static uk.gov.justice.services.messaging.JsonEnvelope.metadataFrom;
+import static uk.gov.justice.services.messaging.spi.LazyJsonEnvelope.encodedEnvelopeFrom;
 
 import uk.gov.justice.services.eventsourcing.source.core.exception.EventStreamException;
 import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.Metadata;
+import uk.gov.justice.services.messaging.spi.LazyJsonEnvelope;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface EventAppender {
@@ -19,7 +23,37 @@ public interface EventAppender {
      */
     void append(final JsonEnvelope event, final UUID streamId, final long version) throws EventStreamException;
 
+    /**
+     * Stores the events in the event store, assigning consecutive versions starting from the
+     * given version.
+     *
+     * @param events       - the events to be appended, in stream order
+     * @param streamId     - id of the stream the events will be part of
+     * @param firstVersion - version id of the first event in the stream
+     */
+    default void append(final List<JsonEnvelope> events, final UUID streamId, final long firstVersion) throws EventStreamException {
+        long version = firstVersion;
+        for (final JsonEnvelope event : events) {
+            append(event, streamId, version++);
+        }
+    }
+
+    /**
+     * Creates the event to store and publish with the given streamId and version. Its metadata
+     * and payload are written as JSON text once, and both the event log and the published message
+     * reuse that text.
+     *
+     * @param event    - the event being appended
+     * @param streamId - id of the stream the event will be part of
+     * @param version  - version id of the event in the stream
+     * @return the event with its streamId and version
+     */
     default JsonEnvelope eventFrom(final JsonEnvelope event, final UUID streamId, final long version) {
-        return envelopeFrom(metadataFrom(event.metadata()).withStreamId(streamId).withVersion(version), event.payloadAsJsonObject());
+        final Metadata metadata = metadataFrom(event.metadata()).withStreamId(streamId).withVersion(version).build();
+
+        if (event instanceof LazyJsonEnvelope) {
+            return ((LazyJsonEnvelope) event).withMetadata(metadata);
+        }
+        return encodedEnvelopeFrom(envelopeFrom(metadata, event.payloadAsJsonObject()));
     }
 }
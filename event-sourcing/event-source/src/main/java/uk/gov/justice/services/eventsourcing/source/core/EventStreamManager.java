@@ -2,6 +2,8 @@ package uk.gov.justice.services.eventsourcing.source.core;
 
 
 import static java.lang.String.format;
+import static javax.transaction.Status.STATUS_ACTIVE;
+import static javax.transaction.Status.STATUS_COMMITTED;
 import static java.util.UUID.randomUUID;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Stream.concat;
@@ -14,14 +16,21 @@ import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.Optimisti
 import uk.gov.justice.services.eventsourcing.source.core.exception.EventStreamException;
 import uk.gov.justice.services.eventsourcing.source.core.exception.VersionMismatchException;
 import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.spi.LazyJsonEnvelope;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
+import javax.annotation.Resource;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.Transactional;
 
 import org.slf4j.Logger;
@@ -32,6 +41,12 @@ import org.slf4j.Logger;
 @ApplicationScoped
 public class EventStreamManager {
 
+    private static final int MAX_CACHED_STREAM_HEADS = 10000;
+    private static final String TRANSACTION_HEAD_POSITIONS = TransactionHeadPositions.class.getName();
+
+    @Resource(lookup = "java:comp/TransactionSynchronizationRegistry")
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
     @Inject
     EventRepository eventRepository;
 
@@ -51,6 +66,8 @@ public class EventStreamManager {
     @Inject
     Enveloper enveloper;
 
+    StreamHeadPositionCache headPositionCache = new StreamHeadPositionCache(MAX_CACHED_STREAM_HEADS);
+
     /**
      * Get the stream of events.
      *
@@ -99,7 +116,7 @@ public class EventStreamManager {
     @Transactional(dontRollbackOn = OptimisticLockingRetryException.class)
     public long appendNonConsecutively(final UUID streamId, final Stream<JsonEnvelope> events) throws EventStreamException {
         final List<JsonEnvelope> envelopeList = events.collect(toList());
-        long currentVersion = eventRepository.getStreamSize(streamId);
+        long currentVersion = headPositionOf(streamId);
 
         validateEvents(streamId, envelopeList);
 
@@ -108,7 +125,7 @@ public class EventStreamManager {
             long retryCount = 0L;
             while (!appendedSuccessfully) {
                 try {
-                    eventAppender.append(event, streamId, ++currentVersion);
+                    appendToStream(event, streamId, ++currentVersion);
                     appendedSuccessfully = true;
                 } catch (OptimisticLockingRetryException e) {
                     retryCount++;
@@ -168,10 +185,12 @@ public class EventStreamManager {
     }
 
     /**
-     * Clears the stream, deleting all associated events from the event_log, it does not update the
-     * event_stream.
+     * Clears the stream, deleting all associated events from the event_log and resetting the head
+     * position recorded on its event_stream row to 0, so that the next event appended to the
+     * stream is at position 1. The head position cached for the stream on this node is dropped.
      */
     public void clear(final UUID id) {
+        invalidateHeadPosition(id);
         eventRepository.clearEventsForStream(id);
     }
 
@@ -196,16 +215,89 @@ public class EventStreamManager {
     private long append(final UUID id, final Stream<JsonEnvelope> events, final Optional<Long> positionFrom) throws EventStreamException {
         final List<JsonEnvelope> envelopeList = events.collect(toList());
 
-        long currentPosition = eventRepository.getStreamSize(id);
-        if (positionFrom.isPresent()) {
+        long currentPosition = headPositionOf(id);
+        if (positionFrom.isPresent() && positionFrom.get() != currentPosition) {
+            invalidateHeadPosition(id);
+            currentPosition = eventRepository.getStreamSize(id);
             validateVersion(id, positionFrom.get(), currentPosition);
         }
         validateEvents(id, envelopeList);
 
-        for (final JsonEnvelope event : envelopeList) {
-            eventAppender.append(event, id, ++currentPosition);
+        if (!envelopeList.isEmpty()) {
+            appendToStream(envelopeList, id, currentPosition + 1);
+        }
+        return currentPosition + envelopeList.size();
+    }
+
+    /**
+     * Returns the head position of the stream, from the appends of the current transaction or the
+     * cache of heads committed by this node if present, otherwise from the event stream record.
+     */
+    private long headPositionOf(final UUID id) {
+        return currentTransactionHeadPositions()
+                .flatMap(transactionHeadPositions -> transactionHeadPositions.headPositionOf(id))
+                .orElseGet(() -> headPositionCache.headPositionOf(id)
+                        .orElseGet(() -> eventRepository.getStreamSize(id)));
+    }
+
+    private void appendToStream(final JsonEnvelope event, final UUID id, final long position) throws EventStreamException {
+        try {
+            eventAppender.append(event, id, position);
+        } catch (final EventStreamException | RuntimeException e) {
+            invalidateHeadPosition(id);
+            throw e;
+        }
+        appendedHeadPosition(id, position);
+    }
+
+    private void appendToStream(final List<JsonEnvelope> events, final UUID id, final long firstPosition) throws EventStreamException {
+        try {
+            eventAppender.append(events, id, firstPosition);
+        } catch (final EventStreamException | RuntimeException e) {
+            invalidateHeadPosition(id);
+            throw e;
+        }
+        appendedHeadPosition(id, firstPosition + events.size() - 1);
+    }
+
+    /**
+     * Records the new head position of the stream, caching it once the current transaction has
+     * committed, or at once outside a transaction, so a rolled back append is never cached.
+     */
+    private void appendedHeadPosition(final UUID id, final long headPosition) {
+        if (transactionActive()) {
+            transactionHeadPositions().put(id, headPosition);
+        } else {
+            headPositionCache.put(id, headPosition);
         }
-        return currentPosition;
+    }
+
+    private void invalidateHeadPosition(final UUID id) {
+        headPositionCache.invalidate(id);
+        currentTransactionHeadPositions().ifPresent(transactionHeadPositions -> transactionHeadPositions.invalidate(id));
+    }
+
+    private boolean transactionActive() {
+        return transactionSynchronizationRegistry != null
+                && transactionSynchronizationRegistry.getTransactionKey() != null
+                && transactionSynchronizationRegistry.getTransactionStatus() == STATUS_ACTIVE;
+    }
+
+    private Optional<TransactionHeadPositions> currentTransactionHeadPositions() {
+        if (!transactionActive()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable((TransactionHeadPositions) transactionSynchronizationRegistry.getResource(TRANSACTION_HEAD_POSITIONS));
+    }
+
+    private TransactionHeadPositions transactionHeadPositions() {
+        TransactionHeadPositions transactionHeadPositions = (TransactionHeadPositions) transactionSynchronizationRegistry.getResource(TRANSACTION_HEAD_POSITIONS);
+        if (transactionHeadPositions == null) {
+            transactionHeadPositions = new TransactionHeadPositions();
+            transactionSynchronizationRegistry.putResource(TRANSACTION_HEAD_POSITIONS, transactionHeadPositions);
+            transactionSynchronizationRegistry.registerInterposedSynchronization(transactionHeadPositions);
+        }
+        return transactionHeadPositions;
     }
 
     private void validateEvents(final UUID id, final List<JsonEnvelope> envelopeList) throws EventStreamException {
@@ -226,12 +318,50 @@ public class EventStreamManager {
 
     /**
      * Clears the version (and other metadata) from the events so they can be appended as fresh
-     * events.
+     * events. The payload of an event read from the event log keeps its original text.
      *
      * @param event - the event to have its metadata cleared
      * @return the event with cleared metadata
      */
     private JsonEnvelope stripMetadataFrom(final JsonEnvelope event) {
-        return enveloper.withMetadataFrom(event, event.metadata().name()).apply(event.payload());
+        final Function<Object, JsonEnvelope> withStrippedMetadata = enveloper.withMetadataFrom(event, event.metadata().name());
+
+        if (event instanceof LazyJsonEnvelope) {
+            return ((LazyJsonEnvelope) event).withMetadata(withStrippedMetadata.apply(null).metadata());
+        }
+        return withStrippedMetadata.apply(event.payload());
+    }
+
+    /**
+     * The head positions of the streams appended to in one transaction, cached when the
+     * transaction commits.
+     */
+    private class TransactionHeadPositions implements Synchronization {
+
+        private final Map<UUID, Long> headPositions = new HashMap<>();
+
+        Optional<Long> headPositionOf(final UUID streamId) {
+            return Optional.ofNullable(headPositions.get(streamId));
+        }
+
+        void put(final UUID streamId, final long headPosition) {
+            headPositions.put(streamId, headPosition);
+        }
+
+        void invalidate(final UUID streamId) {
+            headPositions.remove(streamId);
+        }
+
+        @Override
+        public void beforeCompletion() {
+            // nothing to do until the transaction has committed
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            if (status == STATUS_COMMITTED) {
+                headPositions.forEach(headPositionCache::put);
+            }
+        }
     }
 }
@@ -2,6 +2,7 @@ package uk.gov.justice.services.eventsourcing.source.core;
 
 
 import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
 import static uk.gov.justice.services.eventsourcing.source.core.EventSourceConstants.INITIAL_EVENT_VERSION;
 
 import uk.gov.justice.services.eventsourcing.publisher.jms.EventPublisher;
@@ -10,7 +11,9 @@ import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.StoreEven
 import uk.gov.justice.services.eventsourcing.source.core.exception.EventStreamException;
 import uk.gov.justice.services.messaging.JsonEnvelope;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import javax.annotation.Priority;
 import javax.enterprise.context.ApplicationScoped;
@@ -48,4 +51,32 @@ public class PublishingEventAppender implements EventAppender {
             throw new EventStreamException(format("Failed to append event to the event store %s", event.metadata().id()), e);
         }
     }
+
+    /**
+     * Stores the events in the event store as a single batch and then publishes them, assigning
+     * consecutive versions starting from the given version.
+     *
+     * @param events       - the events to be appended, in stream order
+     * @param streamId     - id of the stream the events will be part of
+     * @param firstVersion - version id of the first event in the stream
+     */
+    @Override
+    public void append(final List<JsonEnvelope> events, final UUID streamId, final long firstVersion) throws EventStreamException {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (firstVersion == INITIAL_EVENT_VERSION) {
+                eventRepository.createEventStream(streamId);
+            }
+            final List<JsonEnvelope> eventsWithStreamIdAndVersion = IntStream.range(0, events.size())
+                    .mapToObj(index -> eventFrom(events.get(index), streamId, firstVersion + index))
+                    .collect(toList());
+            eventRepository.storeEvents(eventsWithStreamIdAndVersion);
+            eventsWithStreamIdAndVersion.forEach(eventPublisher::publish);
+        } catch (StoreEventRequestFailedException e) {
+            throw new EventStreamException(format("Failed to append events to the event store for stream %s", streamId), e);
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package uk.gov.justice.services.eventsourcing.source.core;
+
+import uk.gov.justice.services.jdbc.persistence.BoundedLruCache;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Bounded, least recently used cache of the head position of event streams appended to by this
+ * node, filled only once the appending transaction has committed.
+ *
+ * A cached position is only a hint: it may be behind if another node has appended to the stream.
+ * The conditional update of the head position, or the event log constraint for streams without an
+ * event stream record, detects the difference on append, and the entry must then be invalidated.
+ */
+class StreamHeadPositionCache {
+
+    private final BoundedLruCache<UUID, Long> headPositions;
+
+    StreamHeadPositionCache(final int maxStreams) {
+        this.headPositions = new BoundedLruCache<>(maxStreams);
+    }
+
+    Optional<Long> headPositionOf(final UUID streamId) {
+        return headPositions.get(streamId);
+    }
+
+    void put(final UUID streamId, final long headPosition) {
+        headPositions.put(streamId, headPosition);
+    }
+
+    void invalidate(final UUID streamId) {
+        headPositions.remove(streamId);
+    }
+
+    int size() {
+        return headPositions.size();
+    }
+}
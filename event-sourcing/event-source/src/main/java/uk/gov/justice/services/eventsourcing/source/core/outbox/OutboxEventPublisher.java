@@ -0,0 +1,68 @@
+package uk.gov.justice.services.eventsourcing.source.core.outbox;
+
+import uk.gov.justice.services.common.util.UtcClock;
+import uk.gov.justice.services.eventsourcing.publisher.jms.EventPublisher;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.InvalidStreamIdException;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.outbox.EventOutboxJdbcRepository;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.outbox.OutboxEvent;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
+import uk.gov.justice.services.messaging.Metadata;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Initialized;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Alternative;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+
+/**
+ * An {@link EventPublisher} that adds events to the event outbox instead of sending them to JMS
+ * directly. As events are published from within the event store transaction, an event only
+ * becomes visible to the {@link OutboxRelay} once the transaction that stored it has committed.
+ *
+ * To be enabled as an alternative in the beans.xml of the deploying application, in place of the
+ * default JMS publisher.
+ */
+@ApplicationScoped
+@Alternative
+public class OutboxEventPublisher implements EventPublisher {
+
+    @Inject
+    EventOutboxJdbcRepository eventOutboxJdbcRepository;
+
+    @Inject
+    JsonObjectEnvelopeConverter jsonObjectEnvelopeConverter;
+
+    @Inject
+    OutboxRelay outboxRelay;
+
+    @Inject
+    UtcClock clock;
+
+    @Inject
+    Logger logger;
+
+    @Override
+    public void publish(final JsonEnvelope envelope) {
+        final Metadata metadata = envelope.metadata();
+        logger.trace("Adding event {} to the outbox", metadata.name());
+
+        eventOutboxJdbcRepository.insert(new OutboxEvent(
+                metadata.id(),
+                metadata.streamId().orElseThrow(() -> new InvalidStreamIdException("StreamId missing in envelope.")),
+                metadata.version().orElseThrow(() -> new IllegalArgumentException("Version missing in envelope.")),
+                metadata.name(),
+                jsonObjectEnvelopeConverter.asJsonString(envelope),
+                metadata.createdAt().orElseGet(clock::now)));
+    }
+
+    /**
+     * Starts relaying the outbox once the application has started. Only called when this
+     * publisher is the enabled alternative.
+     */
+    void startRelay(@Observes @Initialized(ApplicationScoped.class) final Object event) {
+        outboxRelay.start();
+    }
+}
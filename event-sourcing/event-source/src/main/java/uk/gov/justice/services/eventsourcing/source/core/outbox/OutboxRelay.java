@@ -0,0 +1,204 @@
+package uk.gov.justice.services.eventsourcing.source.core.outbox;
+
+import static java.lang.Math.floorMod;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+import uk.gov.justice.services.common.configuration.GlobalValue;
+import uk.gov.justice.services.common.util.UtcClock;
+import uk.gov.justice.services.eventsourcing.publisher.jms.JmsEventPublisher;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.outbox.EventOutboxJdbcRepository;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.outbox.OutboxEvent;
+import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.stream.LongStream;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+
+/**
+ * Background relay that sends the events in the event outbox to JMS.
+ *
+ * The outbox is polled in batches, in the order events were added. The events of a batch are
+ * grouped by stream and each stream is handed to one worker of a fixed pool, chosen by the hash
+ * of the stream id, so events of the same stream are always sent in stream position order. If an
+ * event cannot be sent, the remaining events of its stream are left in the outbox and retried on
+ * the next poll. Events are removed from the outbox after they have been sent, so delivery is at
+ * least once.
+ *
+ * Each batch runs in its own transaction, which claims whole streams until it ends, so the relays
+ * of several nodes can poll the same outbox without sending the same events, and no relay sends a
+ * later event of a stream while another still holds, or has failed to send, an earlier one.
+ */
+@ApplicationScoped
+public class OutboxRelay {
+
+    @Resource
+    ManagedScheduledExecutorService scheduledExecutorService;
+
+    @Resource
+    ManagedThreadFactory managedThreadFactory;
+
+    @Inject
+    EventOutboxJdbcRepository eventOutboxJdbcRepository;
+
+    @Inject
+    OutboxRelayTransaction outboxRelayTransaction;
+
+    @Inject
+    JmsEventPublisher jmsEventPublisher;
+
+    @Inject
+    JsonObjectEnvelopeConverter jsonObjectEnvelopeConverter;
+
+    @Inject
+    OutboxRelayMetrics outboxRelayMetrics;
+
+    @Inject
+    UtcClock clock;
+
+    @Inject
+    Logger logger;
+
+    @Inject
+    @GlobalValue(key = "event.outbox.relay.enabled", defaultValue = "true")
+    String relayEnabled;
+
+    @Inject
+    @GlobalValue(key = "event.outbox.relay.workers", defaultValue = "4")
+    long workerCount;
+
+    @Inject
+    @GlobalValue(key = "event.outbox.relay.batch.size", defaultValue = "500")
+    long batchSize;
+
+    @Inject
+    @GlobalValue(key = "event.outbox.relay.poll.interval.millis", defaultValue = "200")
+    long pollIntervalMillis;
+
+    private List<ExecutorService> workers = new ArrayList<>();
+    private ScheduledFuture<?> pollingTask;
+
+    /**
+     * Starts polling the outbox, unless disabled by configuration or already started.
+     */
+    public synchronized void start() {
+        if (pollingTask != null || !Boolean.parseBoolean(relayEnabled)) {
+            return;
+        }
+
+        logger.info("Starting event outbox relay with {} workers", workerCount);
+        workers = LongStream.range(0, workerCount)
+                .mapToObj(index -> newSingleThreadExecutor(managedThreadFactory))
+                .collect(toList());
+        pollingTask = scheduledExecutorService.scheduleWithFixedDelay(this::relayPending, pollIntervalMillis, pollIntervalMillis, MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (pollingTask != null) {
+            logger.info("Stopping event outbox relay");
+            pollingTask.cancel(false);
+            pollingTask = null;
+        }
+        workers.forEach(ExecutorService::shutdown);
+        workers = new ArrayList<>();
+    }
+
+    /**
+     * Claims one batch of pending events from the outbox, sends them and removes the events that
+     * were sent, in a transaction of its own.
+     *
+     * @return the number of events sent
+     */
+    public int relayBatch() {
+        return outboxRelayTransaction.run(this::relayClaimedBatch);
+    }
+
+    private int relayClaimedBatch() {
+        final List<OutboxEvent> pendingEvents = eventOutboxJdbcRepository.findPending((int) batchSize);
+        outboxRelayMetrics.recordBatch(pendingEvents.size());
+
+        if (pendingEvents.isEmpty()) {
+            return 0;
+        }
+
+        final Map<UUID, List<OutboxEvent>> eventsByStream = pendingEvents.stream()
+                .collect(groupingBy(OutboxEvent::getStreamId, LinkedHashMap::new, toList()));
+
+        final List<Future<List<UUID>>> sendResults = eventsByStream.entrySet().stream()
+                .map(stream -> workerFor(stream.getKey()).submit(() -> sendInOrder(stream.getValue())))
+                .collect(toList());
+
+        final List<UUID> sentEventIds = new ArrayList<>();
+        for (final Future<List<UUID>> sendResult : sendResults) {
+            sentEventIds.addAll(sentEventIdsOf(sendResult));
+        }
+
+        eventOutboxJdbcRepository.delete(sentEventIds);
+        return sentEventIds.size();
+    }
+
+    private void relayPending() {
+        try {
+            int sent;
+            do {
+                sent = relayBatch();
+            } while (sent == batchSize);
+        } catch (final RuntimeException e) {
+            logger.error("Failed to relay events from the event outbox", e);
+        }
+    }
+
+    private List<UUID> sendInOrder(final List<OutboxEvent> streamEvents) {
+        final List<UUID> sentEventIds = new ArrayList<>();
+
+        for (final OutboxEvent outboxEvent : streamEvents) {
+            try {
+                jmsEventPublisher.publish(jsonObjectEnvelopeConverter.asEnvelope(outboxEvent.getEnvelope()));
+            } catch (final RuntimeException e) {
+                outboxRelayMetrics.recordFailure();
+                logger.warn("Failed to publish sequence {} of stream {}, will retry on next poll", outboxEvent.getSequenceId(), outboxEvent.getStreamId(), e);
+                break;
+            }
+
+            sentEventIds.add(outboxEvent.getEventId());
+            outboxRelayMetrics.recordPublished(Duration.between(outboxEvent.getCreatedAt(), clock.now()).toMillis());
+        }
+
+        return sentEventIds;
+    }
+
+    private List<UUID> sentEventIdsOf(final Future<List<UUID>> sendResult) {
+        try {
+            return sendResult.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OutboxRelayException("Interrupted while waiting for outbox events to be sent", e);
+        } catch (final ExecutionException e) {
+            throw new OutboxRelayException("Failed to send outbox events", e.getCause());
+        }
+    }
+
+    private ExecutorService workerFor(final UUID streamId) {
+        return workers.get(floorMod(streamId.hashCode(), workers.size()));
+    }
+}
@@ -0,0 +1,13 @@
+package uk.gov.justice.services.eventsourcing.source.core.outbox;
+
+/**
+ * Exception thrown when the {@link OutboxRelay} fails to relay a batch of events.
+ */
+public class OutboxRelayException extends RuntimeException {
+
+    private static final long serialVersionUID = -3296021478517309472L;
+
+    public OutboxRelayException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
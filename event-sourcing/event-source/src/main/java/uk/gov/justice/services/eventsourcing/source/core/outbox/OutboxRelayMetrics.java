@@ -0,0 +1,62 @@
+package uk.gov.justice.services.eventsourcing.source.core.outbox;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * Counters describing the progress of the {@link OutboxRelay}.
+ */
+@ApplicationScoped
+public class OutboxRelayMetrics {
+
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong publishLagMillis = new AtomicLong();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+
+    public void recordPublished(final long lagMillis) {
+        publishedCount.incrementAndGet();
+        publishLagMillis.set(lagMillis);
+    }
+
+    public void recordFailure() {
+        failedCount.incrementAndGet();
+    }
+
+    public void recordBatch(final int batchSize) {
+        lastBatchSize.set(batchSize);
+        if (batchSize == 0) {
+            publishLagMillis.set(0L);
+        }
+    }
+
+    /**
+     * @return the number of events sent to JMS since startup
+     */
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+
+    /**
+     * @return the number of failed attempts to send an event since startup
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * @return the time in milliseconds between creation and publishing of the most recently
+     * published event, or 0 if the outbox was empty on the last poll
+     */
+    public long getPublishLagMillis() {
+        return publishLagMillis.get();
+    }
+
+    /**
+     * @return the number of events read from the outbox on the last poll
+     */
+    public long getLastBatchSize() {
+        return lastBatchSize.get();
+    }
+}
@@ -0,0 +1,27 @@
+package uk.gov.justice.services.eventsourcing.source.core.outbox;
+
+import static javax.transaction.Transactional.TxType.REQUIRES_NEW;
+
+import java.util.function.IntSupplier;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.transaction.Transactional;
+
+/**
+ * Runs one batch of the {@link OutboxRelay} in a transaction of its own, so the outbox events it
+ * claims stay locked against other relays until the batch has been sent and removed.
+ */
+@ApplicationScoped
+public class OutboxRelayTransaction {
+
+    /**
+     * Runs the batch in a new transaction, which is rolled back if the batch throws.
+     *
+     * @param batch the batch to run
+     * @return the number of events the batch sent
+     */
+    @Transactional(REQUIRES_NEW)
+    public int run(final IntSupplier batch) {
+        return batch.getAsInt();
+    }
+}
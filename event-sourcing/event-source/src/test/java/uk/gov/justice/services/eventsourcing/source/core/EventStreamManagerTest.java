@@ -1,15 +1,23 @@
 package uk.gov.justice.services.eventsourcing.source.core;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static java.util.Optional.empty;
 import static java.util.UUID.randomUUID;
 import static javax.json.Json.createObjectBuilder;
+import static javax.transaction.Status.STATUS_ACTIVE;
+import static javax.transaction.Status.STATUS_COMMITTED;
+import static javax.transaction.Status.STATUS_ROLLEDBACK;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Matchers.eq;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -17,6 +25,7 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static uk.gov.justice.services.messaging.JsonEnvelope.envelopeFrom;
 import static uk.gov.justice.services.messaging.spi.DefaultJsonMetadata.metadataBuilder;
+import static uk.gov.justice.services.messaging.spi.LazyJsonEnvelope.lazyEnvelopeFrom;
 import static uk.gov.justice.services.test.utils.core.messaging.JsonEnvelopeBuilder.envelope;
 import static uk.gov.justice.services.test.utils.core.messaging.MetadataBuilderFactory.metadataWithDefaults;
 import static uk.gov.justice.services.test.utils.core.messaging.MetadataBuilderFactory.metadataWithRandomUUIDAndName;
@@ -27,12 +36,16 @@ import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.Optimisti
 import uk.gov.justice.services.eventsourcing.source.core.exception.EventStreamException;
 import uk.gov.justice.services.eventsourcing.source.core.exception.VersionMismatchException;
 import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.spi.LazyJsonEnvelope;
 import uk.gov.justice.services.test.utils.core.enveloper.EnveloperFactory;
 
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Stream;
 
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -64,6 +77,8 @@ public class EventStreamManagerTest {
     private Stream<JsonEnvelope> eventStream;
     @Mock
     private SystemEventService systemEventService;
+    @Mock
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
 
     private Enveloper enveloper = EnveloperFactory.createEnveloper();
 
@@ -71,10 +86,7 @@ public class EventStreamManagerTest {
     private EventStreamManager eventStreamManager;
 
     @Captor
-    private ArgumentCaptor<JsonEnvelope> eventCaptor;
-
-    @Captor
-    private ArgumentCaptor<Long> versionCaptor;
+    private ArgumentCaptor<List<JsonEnvelope>> eventListCaptor;
 
     @Before
     public void setup() {
@@ -89,7 +101,7 @@ public class EventStreamManagerTest {
 
         eventStreamManager.append(STREAM_ID, Stream.of(event));
 
-        verify(eventAppender).append(event, STREAM_ID, INITIAL_VERSION + 1);
+        verify(eventAppender).append(singletonList(event), STREAM_ID, INITIAL_VERSION + 1);
 
     }
 
@@ -106,7 +118,32 @@ public class EventStreamManagerTest {
         final JsonEnvelope event = envelope().with(metadataWithRandomUUIDAndName()).build();
         eventStreamManager.appendAfter(STREAM_ID, Stream.of(event), CURRENT_VERSION);
 
-        verify(eventAppender).append(event, STREAM_ID, expectedVersion);
+        verify(eventAppender).append(singletonList(event), STREAM_ID, expectedVersion);
+    }
+
+    @Test
+    public void shouldAppendAllEventsToStreamAsSingleBatch() throws Exception {
+        when(eventRepository.getStreamSize(STREAM_ID)).thenReturn(CURRENT_VERSION);
+
+        final JsonEnvelope event1 = envelope().with(metadataWithRandomUUIDAndName()).build();
+        final JsonEnvelope event2 = envelope().with(metadataWithRandomUUIDAndName()).build();
+        final JsonEnvelope event3 = envelope().with(metadataWithRandomUUIDAndName()).build();
+
+        final long returnedVersion = eventStreamManager.append(STREAM_ID, Stream.of(event1, event2, event3));
+
+        assertThat(returnedVersion, is(CURRENT_VERSION + 3));
+        verify(eventAppender).append(asList(event1, event2, event3), STREAM_ID, CURRENT_VERSION + 1);
+        verifyNoMoreInteractions(eventAppender);
+    }
+
+    @Test
+    public void shouldNotCallAppenderWhenAppendingEmptyStream() throws Exception {
+        when(eventRepository.getStreamSize(STREAM_ID)).thenReturn(CURRENT_VERSION);
+
+        final long returnedVersion = eventStreamManager.append(STREAM_ID, Stream.empty());
+
+        assertThat(returnedVersion, is(CURRENT_VERSION));
+        verifyNoMoreInteractions(eventAppender);
     }
 
     @Test
@@ -312,6 +349,101 @@ public class EventStreamManagerTest {
         verify(logger).warn("Failed to append to stream {} due to concurrency issues, returning to handler.", STREAM_ID);
     }
 
+    @Test
+    public void shouldUseCachedHeadPositionForSubsequentAppends() throws Exception {
+        when(eventRepository.getStreamSize(STREAM_ID)).thenReturn(CURRENT_VERSION);
+
+        final JsonEnvelope event1 = envelope().with(metadataWithRandomUUIDAndName()).build();
+        final JsonEnvelope event2 = envelope().with(metadataWithRandomUUIDAndName()).build();
+        final JsonEnvelope event3 = envelope().with(metadataWithRandomUUIDAndName()).build();
+
+        eventStreamManager.append(STREAM_ID, Stream.of(event1, event2));
+        final long returnedVersion = eventStreamManager.append(STREAM_ID, Stream.of(event3));
+
+        assertThat(returnedVersion, is(CURRENT_VERSION + 3));
+        verify(eventAppender).append(singletonList(event3), STREAM_ID, CURRENT_VERSION + 3);
+        verify(eventRepository, times(1)).getStreamSize(STREAM_ID);
+    }
+
+    @Test
+    public void shouldInvalidateCachedHeadPositionOnOptimisticLockFailure() throws Exception {
+        when(eventRepository.getStreamSize(STREAM_ID)).thenReturn(CURRENT_VERSION).thenReturn(CURRENT_VERSION + 2);
+
+        final JsonEnvelope event1 = envelope().with(metadataWithRandomUUIDAndName()).build();
+        final JsonEnvelope event2 = envelope().with(metadataWithRandomUUIDAndName()).build();
+        final JsonEnvelope event3 = envelope().with(metadataWithRandomUUIDAndName()).build();
+
+        eventStreamManager.append(STREAM_ID, Stream.of(event1));
+        doThrow(OptimisticLockingRetryException.class).when(eventAppender).append(singletonList(event2), STREAM_ID, CURRENT_VERSION + 2);
+
+        try {
+            eventStreamManager.append(STREAM_ID, Stream.of(event2));
+            fail();
+        } catch (final OptimisticLockingRetryException expected) {
+            assertThat(eventStreamManager.headPositionCache.headPositionOf(STREAM_ID), is(empty()));
+        }
+
+        eventStreamManager.append(STREAM_ID, Stream.of(event3));
+
+        verify(eventAppender).append(singletonList(event3), STREAM_ID, CURRENT_VERSION + 3);
+    }
+
+    @Test
+    public void shouldRevalidateStaleCachedHeadPositionAgainstRepositoryWhenAppendingAfterVersion() throws Exception {
+        eventStreamManager.headPositionCache.put(STREAM_ID, CURRENT_VERSION);
+        when(eventRepository.getStreamSize(STREAM_ID)).thenReturn(CURRENT_VERSION + 1);
+
+        final JsonEnvelope event = envelope().with(metadataWithRandomUUIDAndName()).build();
+        eventStreamManager.appendAfter(STREAM_ID, Stream.of(event), CURRENT_VERSION + 1);
+
+        verify(eventAppender).append(singletonList(event), STREAM_ID, CURRENT_VERSION + 2);
+    }
+
+    @Test
+    public void shouldCacheHeadPositionOnlyOnceTransactionCommits() throws Exception {
+        givenActiveTransaction();
+        when(eventRepository.getStreamSize(STREAM_ID)).thenReturn(CURRENT_VERSION);
+
+        final JsonEnvelope event = envelope().with(metadataWithRandomUUIDAndName()).build();
+        eventStreamManager.append(STREAM_ID, Stream.of(event));
+
+        assertThat(eventStreamManager.headPositionCache.headPositionOf(STREAM_ID), is(empty()));
+
+        transactionSynchronization().afterCompletion(STATUS_COMMITTED);
+
+        assertThat(eventStreamManager.headPositionCache.headPositionOf(STREAM_ID).get(), is(CURRENT_VERSION + 1));
+    }
+
+    @Test
+    public void shouldNotCacheHeadPositionIfTransactionRollsBack() throws Exception {
+        givenActiveTransaction();
+        when(eventRepository.getStreamSize(STREAM_ID)).thenReturn(CURRENT_VERSION);
+
+        final JsonEnvelope event = envelope().with(metadataWithRandomUUIDAndName()).build();
+        eventStreamManager.append(STREAM_ID, Stream.of(event));
+        transactionSynchronization().afterCompletion(STATUS_ROLLEDBACK);
+
+        assertThat(eventStreamManager.headPositionCache.headPositionOf(STREAM_ID), is(empty()));
+    }
+
+    @Test
+    public void shouldGetSizeFromRepositoryRatherThanCachedHeadPosition() throws Exception {
+        eventStreamManager.headPositionCache.put(STREAM_ID, CURRENT_VERSION + 1);
+        when(eventRepository.getStreamSize(STREAM_ID)).thenReturn(CURRENT_VERSION);
+
+        assertThat(eventStreamManager.getSize(STREAM_ID), is(CURRENT_VERSION));
+    }
+
+    @Test
+    public void shouldInvalidateCachedHeadPositionWhenClearingStream() throws Exception {
+        eventStreamManager.headPositionCache.put(STREAM_ID, CURRENT_VERSION);
+
+        eventStreamManager.clear(STREAM_ID);
+
+        assertThat(eventStreamManager.headPositionCache.headPositionOf(STREAM_ID), is(empty()));
+        verify(eventRepository).clearEventsForStream(STREAM_ID);
+    }
+
     @Test
     public void shouldCloneStreamWithBlankVersions() throws EventStreamException {
         final JsonEnvelope event = buildEnvelope("test.events.event1");
@@ -325,10 +457,10 @@ public class EventStreamManagerTest {
         assertThat(clonedId, is(notNullValue()));
         assertThat(clonedId, is(not(STREAM_ID)));
 
-        verify(eventAppender, times(2)).append(eventCaptor.capture(), eq(clonedId), versionCaptor.capture());
-        final List<JsonEnvelope> clonedEvents = eventCaptor.getAllValues();
+        verify(eventAppender).append(eventListCaptor.capture(), eq(clonedId), eq(1L));
+        final List<JsonEnvelope> clonedEvents = eventListCaptor.getValue();
 
-        assertThat(versionCaptor.getAllValues(), hasItems(1L, 2L));
+        assertThat(clonedEvents.size(), is(2));
         assertThat(clonedEvents, hasItems(systemEvent));
         final JsonEnvelope clonedEvent = clonedEvents.get(0);
         assertThat(clonedEvent.metadata().name(), is("test.events.event1"));
@@ -351,12 +483,32 @@ public class EventStreamManagerTest {
         assertThat(clonedId, is(notNullValue()));
         assertThat(clonedId, is(not(STREAM_ID)));
 
-        verify(eventAppender, times(3)).append(eventCaptor.capture(), eq(clonedId), versionCaptor.capture());
-        assertThat(versionCaptor.getAllValues(), hasItems(1L, 2L, 3L));
+        verify(eventAppender).append(eventListCaptor.capture(), eq(clonedId), eq(1L));
+        assertThat(eventListCaptor.getValue().size(), is(3));
 
         verify(eventRepository).markEventStreamActive(clonedId, false);
     }
 
+    @Test
+    public void shouldCloneEventsReadFromTheEventLogKeepingTheTextOfTheirPayloads() throws EventStreamException {
+        final String payloadJson = "{\"field\":\"value\"}";
+        final JsonEnvelope event = lazyEnvelopeFrom(
+                metadataBuilder().withId(randomUUID()).withStreamId(STREAM_ID).withVersion(1L).withName("test.events.event1").build().asJsonObject().toString(),
+                payloadJson);
+        when(eventRepository.getEventsByStreamId(STREAM_ID)).thenReturn(Stream.of(event));
+        when(systemEventService.clonedEventFor(STREAM_ID)).thenReturn(buildEnvelope("system.events.cloned"));
+
+        final UUID clonedId = eventStreamManager.cloneAsAncestor(STREAM_ID);
+
+        verify(eventAppender).append(eventListCaptor.capture(), eq(clonedId), eq(1L));
+        final JsonEnvelope clonedEvent = eventListCaptor.getValue().get(0);
+
+        assertThat(clonedEvent, instanceOf(LazyJsonEnvelope.class));
+        assertThat(((LazyJsonEnvelope) clonedEvent).payloadJson(), sameInstance(payloadJson));
+        assertThat(clonedEvent.metadata().name(), is("test.events.event1"));
+        assertThat(clonedEvent.metadata().version(), is(empty()));
+    }
+
     @Test
     public void shouldClearEventStream() throws EventStreamException {
         eventStreamManager.clear(STREAM_ID);
@@ -371,4 +523,15 @@ public class EventStreamManagerTest {
                 metadataBuilder().withId(randomUUID()).withStreamId(STREAM_ID).withName(eventName),
                 createObjectBuilder().add("field", "value").build());
     }
+
+    private void givenActiveTransaction() {
+        when(transactionSynchronizationRegistry.getTransactionKey()).thenReturn(new Object());
+        when(transactionSynchronizationRegistry.getTransactionStatus()).thenReturn(STATUS_ACTIVE);
+    }
+
+    private Synchronization transactionSynchronization() {
+        final ArgumentCaptor<Synchronization> synchronizationCaptor = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionSynchronizationRegistry).registerInterposedSynchronization(synchronizationCaptor.capture());
+        return synchronizationCaptor.getValue();
+    }
 }
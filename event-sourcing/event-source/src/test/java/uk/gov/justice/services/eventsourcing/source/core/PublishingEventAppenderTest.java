@@ -1,11 +1,15 @@
 package uk.gov.justice.services.eventsourcing.source.core;
 
 import static co.unruly.matchers.OptionalMatchers.contains;
+import static java.util.Arrays.asList;
 import static java.util.UUID.randomUUID;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static uk.gov.justice.services.test.utils.core.messaging.JsonEnvelopeBuilder.envelope;
@@ -17,12 +21,15 @@ import uk.gov.justice.services.eventsourcing.repository.jdbc.DefaultEventReposit
 import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.StoreEventRequestFailedException;
 import uk.gov.justice.services.eventsourcing.source.core.exception.EventStreamException;
 import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.spi.LazyJsonEnvelope;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -87,6 +94,27 @@ public class PublishingEventAppenderTest {
         assertThat(publishedEnvelope.payloadAsJsonObject().getString("someOtherPayloadField"), is("payloadValue456"));
     }
 
+    @Test
+    public void shouldStoreAndPublishTheSameEncodedEvent() throws Exception {
+        eventAppender.append(
+                envelope()
+                        .with(metadataOf(randomUUID(), "name789"))
+                        .withPayloadOf("payloadValue789", "somePayloadField")
+                        .build(),
+                randomUUID(),
+                2L);
+
+        final ArgumentCaptor<JsonEnvelope> storedCaptor = ArgumentCaptor.forClass(JsonEnvelope.class);
+        final ArgumentCaptor<JsonEnvelope> publishedCaptor = ArgumentCaptor.forClass(JsonEnvelope.class);
+
+        verify(eventRepository).storeEvent(storedCaptor.capture());
+        verify(eventPublisher).publish(publishedCaptor.capture());
+
+        assertThat(storedCaptor.getValue(), instanceOf(LazyJsonEnvelope.class));
+        assertThat(publishedCaptor.getValue(), sameInstance(storedCaptor.getValue()));
+        assertThat(((LazyJsonEnvelope) storedCaptor.getValue()).payloadJson(), is("{\"somePayloadField\":\"payloadValue789\"}"));
+    }
+
     @Test(expected = EventStreamException.class)
     public void shouldThrowExceptionWhenStoreEventRequestFails() throws Exception {
         doThrow(StoreEventRequestFailedException.class).when(eventRepository).storeEvent(any());
@@ -132,4 +160,52 @@ public class PublishingEventAppenderTest {
         verify(eventRepository,times(0)).
                 createEventStream(streamId);
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldStoreEventsInRepoAsSingleBatchWithConsecutiveVersions() throws Exception {
+        final UUID streamId = randomUUID();
+        final JsonEnvelope event1 = envelope().with(metadataOf(randomUUID(), "name1")).build();
+        final JsonEnvelope event2 = envelope().with(metadataOf(randomUUID(), "name2")).build();
+
+        eventAppender.append(asList(event1, event2), streamId, 4L);
+
+        final ArgumentCaptor<List> envelopesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(eventRepository).storeEvents(envelopesCaptor.capture());
+
+        final List<JsonEnvelope> storedEnvelopes = envelopesCaptor.getValue();
+        assertThat(storedEnvelopes.size(), is(2));
+        assertThat(storedEnvelopes.get(0).metadata().streamId(), contains(streamId));
+        assertThat(storedEnvelopes.get(0).metadata().version(), contains(4L));
+        assertThat(storedEnvelopes.get(0).metadata().name(), is("name1"));
+        assertThat(storedEnvelopes.get(1).metadata().streamId(), contains(streamId));
+        assertThat(storedEnvelopes.get(1).metadata().version(), contains(5L));
+        assertThat(storedEnvelopes.get(1).metadata().name(), is("name2"));
+        verify(eventRepository, times(0)).createEventStream(streamId);
+    }
+
+    @Test
+    public void shouldPublishEventsAfterStoringBatch() throws Exception {
+        final UUID streamId = randomUUID();
+        final JsonEnvelope event1 = envelope().with(metadataOf(randomUUID(), "name1")).build();
+        final JsonEnvelope event2 = envelope().with(metadataOf(randomUUID(), "name2")).build();
+
+        eventAppender.append(asList(event1, event2), streamId, 1L);
+
+        final ArgumentCaptor<JsonEnvelope> envelopeCaptor = ArgumentCaptor.forClass(JsonEnvelope.class);
+        final InOrder inOrder = inOrder(eventRepository, eventPublisher);
+        inOrder.verify(eventRepository).createEventStream(streamId);
+        inOrder.verify(eventRepository).storeEvents(any());
+        inOrder.verify(eventPublisher, times(2)).publish(envelopeCaptor.capture());
+
+        final List<JsonEnvelope> publishedEnvelopes = envelopeCaptor.getAllValues();
+        assertThat(publishedEnvelopes.get(0).metadata().version(), contains(1L));
+        assertThat(publishedEnvelopes.get(1).metadata().version(), contains(2L));
+    }
+
+    @Test(expected = EventStreamException.class)
+    public void shouldThrowExceptionWhenStoreEventsRequestFails() throws Exception {
+        doThrow(StoreEventRequestFailedException.class).when(eventRepository).storeEvents(any());
+        eventAppender.append(asList(envelope().with(metadataWithDefaults()).build()), randomUUID(), 1L);
+    }
 }
@@ -0,0 +1,53 @@
+package uk.gov.justice.services.eventsourcing.source.core;
+
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.Test;
+
+public class StreamHeadPositionCacheTest {
+
+    @Test
+    public void shouldReturnCachedHeadPosition() throws Exception {
+        final StreamHeadPositionCache cache = new StreamHeadPositionCache(10);
+        final UUID streamId = randomUUID();
+
+        cache.put(streamId, 5L);
+
+        assertThat(cache.headPositionOf(streamId), is(Optional.of(5L)));
+        assertThat(cache.headPositionOf(randomUUID()), is(Optional.empty()));
+    }
+
+    @Test
+    public void shouldInvalidateHeadPosition() throws Exception {
+        final StreamHeadPositionCache cache = new StreamHeadPositionCache(10);
+        final UUID streamId = randomUUID();
+        cache.put(streamId, 5L);
+
+        cache.invalidate(streamId);
+
+        assertThat(cache.headPositionOf(streamId), is(Optional.empty()));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedStreamWhenFull() throws Exception {
+        final StreamHeadPositionCache cache = new StreamHeadPositionCache(2);
+        final UUID streamId1 = randomUUID();
+        final UUID streamId2 = randomUUID();
+        final UUID streamId3 = randomUUID();
+
+        cache.put(streamId1, 1L);
+        cache.put(streamId2, 2L);
+        cache.headPositionOf(streamId1);
+        cache.put(streamId3, 3L);
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.headPositionOf(streamId1), is(Optional.of(1L)));
+        assertThat(cache.headPositionOf(streamId2), is(Optional.empty()));
+        assertThat(cache.headPositionOf(streamId3), is(Optional.of(3L)));
+    }
+}
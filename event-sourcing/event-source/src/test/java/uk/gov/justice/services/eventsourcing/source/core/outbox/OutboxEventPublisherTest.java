@@ -0,0 +1,86 @@
+package uk.gov.justice.services.eventsourcing.source.core.outbox;
+
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.justice.services.test.utils.core.messaging.JsonEnvelopeBuilder.envelope;
+import static uk.gov.justice.services.test.utils.core.messaging.MetadataBuilderFactory.metadataOf;
+
+import uk.gov.justice.services.common.util.UtcClock;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.exception.InvalidStreamIdException;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.outbox.EventOutboxJdbcRepository;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.outbox.OutboxEvent;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.slf4j.Logger;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OutboxEventPublisherTest {
+
+    @Mock
+    private EventOutboxJdbcRepository eventOutboxJdbcRepository;
+
+    @Mock
+    private JsonObjectEnvelopeConverter jsonObjectEnvelopeConverter;
+
+    @Mock
+    private OutboxRelay outboxRelay;
+
+    @Mock
+    private UtcClock clock;
+
+    @Mock
+    private Logger logger;
+
+    @InjectMocks
+    private OutboxEventPublisher outboxEventPublisher;
+
+    @Test
+    public void shouldAddEventToOutbox() throws Exception {
+        final UUID eventId = randomUUID();
+        final UUID streamId = randomUUID();
+        final ZonedDateTime createdAt = new UtcClock().now();
+        final JsonEnvelope event = envelope()
+                .with(metadataOf(eventId, "example.event-name").withStreamId(streamId).withVersion(3L).createdAt(createdAt))
+                .build();
+
+        when(jsonObjectEnvelopeConverter.asJsonString(event)).thenReturn("envelope json");
+
+        outboxEventPublisher.publish(event);
+
+        final ArgumentCaptor<OutboxEvent> outboxEventCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(eventOutboxJdbcRepository).insert(outboxEventCaptor.capture());
+
+        final OutboxEvent outboxEvent = outboxEventCaptor.getValue();
+        assertThat(outboxEvent.getEventId(), is(eventId));
+        assertThat(outboxEvent.getStreamId(), is(streamId));
+        assertThat(outboxEvent.getSequenceId(), is(3L));
+        assertThat(outboxEvent.getName(), is("example.event-name"));
+        assertThat(outboxEvent.getEnvelope(), is("envelope json"));
+        assertThat(outboxEvent.getCreatedAt(), is(event.metadata().createdAt().get()));
+    }
+
+    @Test(expected = InvalidStreamIdException.class)
+    public void shouldThrowExceptionIfStreamIdIsMissing() throws Exception {
+        outboxEventPublisher.publish(envelope().with(metadataOf(randomUUID(), "example.event-name").withVersion(1L)).build());
+    }
+
+    @Test
+    public void shouldStartRelayOnApplicationStartup() throws Exception {
+        outboxEventPublisher.startRelay(new Object());
+
+        verify(outboxRelay).start();
+    }
+}
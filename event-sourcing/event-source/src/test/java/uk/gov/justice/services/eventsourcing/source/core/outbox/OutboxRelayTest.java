@@ -0,0 +1,345 @@
+package uk.gov.justice.services.eventsourcing.source.core.outbox;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.synchronizedList;
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import uk.gov.justice.services.common.util.UtcClock;
+import uk.gov.justice.services.eventsourcing.publisher.jms.JmsEventPublisher;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.outbox.EventOutboxJdbcRepository;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.outbox.OutboxEvent;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.JsonObjectEnvelopeConverter;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.slf4j.Logger;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OutboxRelayTest {
+
+    private static final ZonedDateTime NOW = new UtcClock().now();
+
+    @Mock
+    private ManagedScheduledExecutorService scheduledExecutorService;
+
+    @Mock
+    private ManagedThreadFactory managedThreadFactory;
+
+    @Mock
+    private EventOutboxJdbcRepository eventOutboxJdbcRepository;
+
+    @Mock
+    private OutboxRelayTransaction outboxRelayTransaction;
+
+    @Mock
+    private JmsEventPublisher jmsEventPublisher;
+
+    @Mock
+    private JsonObjectEnvelopeConverter jsonObjectEnvelopeConverter;
+
+    @Mock
+    private UtcClock clock;
+
+    @Mock
+    private Logger logger;
+
+    private OutboxRelayMetrics outboxRelayMetrics = new OutboxRelayMetrics();
+
+    @InjectMocks
+    private OutboxRelay outboxRelay;
+
+    @Before
+    public void setup() {
+        outboxRelay.outboxRelayMetrics = outboxRelayMetrics;
+        outboxRelay.relayEnabled = "true";
+        outboxRelay.workerCount = 2L;
+        outboxRelay.batchSize = 10L;
+        outboxRelay.pollIntervalMillis = 100L;
+
+        when(managedThreadFactory.newThread(any(Runnable.class))).thenAnswer(invocation -> new Thread((Runnable) invocation.getArguments()[0]));
+        when(clock.now()).thenReturn(NOW);
+        when(outboxRelayTransaction.run(any(IntSupplier.class))).thenAnswer(invocation -> ((IntSupplier) invocation.getArguments()[0]).getAsInt());
+    }
+
+    @After
+    public void tearDown() {
+        outboxRelay.stop();
+    }
+
+    @Test
+    public void shouldSchedulePollingOfOutboxOnStart() throws Exception {
+        outboxRelay.start();
+
+        verify(scheduledExecutorService).scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    public void shouldNotSchedulePollingIfRelayIsDisabled() throws Exception {
+        outboxRelay.relayEnabled = "false";
+
+        outboxRelay.start();
+
+        verify(scheduledExecutorService, never()).scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    public void shouldPublishPendingEventsOfEachStreamInOrderAndRemoveThemFromOutbox() throws Exception {
+        final UUID streamId1 = randomUUID();
+        final UUID streamId2 = randomUUID();
+        final OutboxEvent event1 = outboxEventOf(streamId1, 1L, NOW.minusSeconds(2));
+        final OutboxEvent event2 = outboxEventOf(streamId2, 1L, NOW.minusSeconds(1));
+        final OutboxEvent event3 = outboxEventOf(streamId1, 2L, NOW.minusSeconds(1));
+        final JsonEnvelope envelope1 = envelopeFor(event1);
+        final JsonEnvelope envelope2 = envelopeFor(event2);
+        final JsonEnvelope envelope3 = envelopeFor(event3);
+
+        when(eventOutboxJdbcRepository.findPending(10)).thenReturn(asList(event1, event2, event3));
+
+        outboxRelay.start();
+        final int sent = outboxRelay.relayBatch();
+
+        assertThat(sent, is(3));
+
+        final InOrder streamOrder = inOrder(jmsEventPublisher);
+        streamOrder.verify(jmsEventPublisher).publish(envelope1);
+        streamOrder.verify(jmsEventPublisher).publish(envelope3);
+        verify(jmsEventPublisher).publish(envelope2);
+        verify(eventOutboxJdbcRepository).delete(asList(event1.getEventId(), event3.getEventId(), event2.getEventId()));
+
+        assertThat(outboxRelayMetrics.getPublishedCount(), is(3L));
+        assertThat(outboxRelayMetrics.getLastBatchSize(), is(3L));
+    }
+
+    @Test
+    public void shouldLeaveRemainingEventsOfStreamInOutboxIfPublishingFails() throws Exception {
+        final UUID streamId = randomUUID();
+        final OutboxEvent event1 = outboxEventOf(streamId, 1L, NOW);
+        final OutboxEvent event2 = outboxEventOf(streamId, 2L, NOW);
+        final OutboxEvent event3 = outboxEventOf(streamId, 3L, NOW);
+        envelopeFor(event1);
+        final JsonEnvelope envelope2 = envelopeFor(event2);
+        final JsonEnvelope envelope3 = envelopeFor(event3);
+
+        when(eventOutboxJdbcRepository.findPending(10)).thenReturn(asList(event1, event2, event3));
+        doThrow(new RuntimeException("broker unavailable")).when(jmsEventPublisher).publish(envelope2);
+
+        outboxRelay.start();
+        final int sent = outboxRelay.relayBatch();
+
+        assertThat(sent, is(1));
+        verify(jmsEventPublisher, never()).publish(envelope3);
+        verify(eventOutboxJdbcRepository).delete(asList(event1.getEventId()));
+        assertThat(outboxRelayMetrics.getFailedCount(), is(1L));
+    }
+
+    @Test
+    public void shouldReportPublishLagOfLastPublishedEvent() throws Exception {
+        final OutboxEvent event = outboxEventOf(randomUUID(), 1L, NOW.minusNanos(MILLISECONDS.toNanos(1500)));
+        envelopeFor(event);
+
+        when(eventOutboxJdbcRepository.findPending(10)).thenReturn(asList(event));
+
+        outboxRelay.start();
+        outboxRelay.relayBatch();
+
+        assertThat(outboxRelayMetrics.getPublishLagMillis(), is(1500L));
+    }
+
+    @Test
+    public void shouldDoNothingIfOutboxIsEmpty() throws Exception {
+        when(eventOutboxJdbcRepository.findPending(10)).thenReturn(emptyList());
+
+        outboxRelay.start();
+        final int sent = outboxRelay.relayBatch();
+
+        assertThat(sent, is(0));
+        verify(eventOutboxJdbcRepository, never()).delete(any());
+        assertThat(outboxRelayMetrics.getPublishLagMillis(), is(0L));
+    }
+
+    @Test
+    public void shouldClaimSendAndRemoveEventsInTheBatchTransaction() throws Exception {
+        when(outboxRelayTransaction.run(any(IntSupplier.class))).thenReturn(0);
+
+        outboxRelay.start();
+        outboxRelay.relayBatch();
+
+        verify(outboxRelayTransaction).run(any(IntSupplier.class));
+        verify(eventOutboxJdbcRepository, never()).findPending(anyInt());
+        verify(eventOutboxJdbcRepository, never()).delete(any());
+    }
+
+    @Test
+    public void shouldKeepStreamOrderAcrossRelaysWhenOneRelayFailsMidStream() throws Exception {
+        final UUID streamId = randomUUID();
+        final OutboxEvent event1 = outboxEventOf(streamId, 1L, NOW);
+        final OutboxEvent event2 = outboxEventOf(streamId, 2L, NOW);
+        final OutboxEvent event3 = outboxEventOf(streamId, 3L, NOW);
+        final OutboxEvent otherStreamEvent = outboxEventOf(randomUUID(), 1L, NOW);
+        final JsonEnvelope envelope1 = envelopeFor(event1);
+        final JsonEnvelope envelope2 = envelopeFor(event2);
+        final JsonEnvelope envelope3 = envelopeFor(event3);
+        final JsonEnvelope otherStreamEnvelope = envelopeFor(otherStreamEvent);
+
+        final StreamClaimingOutbox outbox = new StreamClaimingOutbox(asList(event1, event2, event3, otherStreamEvent));
+        final OutboxRelay relayA = outboxRelay;
+        final OutboxRelay relayB = new OutboxRelay();
+        relayOn(relayA, outbox);
+        relayOn(relayB, outbox);
+        relayA.batchSize = 3L;
+
+        final List<JsonEnvelope> published = synchronizedList(new ArrayList<>());
+        final List<Integer> sentByRelayBWhileRelayAFails = new ArrayList<>();
+        doAnswer(invocation -> {
+            final JsonEnvelope envelope = (JsonEnvelope) invocation.getArguments()[0];
+            published.add(envelope);
+            if (envelope == envelope2 && sentByRelayBWhileRelayAFails.isEmpty()) {
+                sentByRelayBWhileRelayAFails.add(relayB.relayBatch());
+                throw new RuntimeException("broker unavailable");
+            }
+            return null;
+        }).when(jmsEventPublisher).publish(any(JsonEnvelope.class));
+
+        relayA.start();
+        relayB.start();
+        try {
+            final int sentByRelayA = relayA.relayBatch();
+            final int sentByRelayB = relayB.relayBatch();
+
+            assertThat(sentByRelayA, is(1));
+            assertThat(sentByRelayBWhileRelayAFails, contains(1));
+            assertThat(sentByRelayB, is(2));
+            assertThat(published, contains(envelope1, envelope2, otherStreamEnvelope, envelope2, envelope3));
+            assertThat(outbox.pending().isEmpty(), is(true));
+        } finally {
+            relayB.stop();
+        }
+    }
+
+    private OutboxEvent outboxEventOf(final UUID streamId, final long sequenceId, final ZonedDateTime createdAt) {
+        return new OutboxEvent(randomUUID(), streamId, sequenceId, "example.event", "envelope-" + streamId + "-" + sequenceId, createdAt);
+    }
+
+    private JsonEnvelope envelopeFor(final OutboxEvent outboxEvent) {
+        final JsonEnvelope envelope = mock(JsonEnvelope.class);
+        when(jsonObjectEnvelopeConverter.asEnvelope(outboxEvent.getEnvelope())).thenReturn(envelope);
+        return envelope;
+    }
+
+    private void relayOn(final OutboxRelay relay, final StreamClaimingOutbox outbox) {
+        relay.scheduledExecutorService = scheduledExecutorService;
+        relay.managedThreadFactory = managedThreadFactory;
+        relay.eventOutboxJdbcRepository = outbox.repositoryFor(relay);
+        relay.outboxRelayTransaction = outbox.transactionFor(relay);
+        relay.jmsEventPublisher = jmsEventPublisher;
+        relay.jsonObjectEnvelopeConverter = jsonObjectEnvelopeConverter;
+        relay.outboxRelayMetrics = new OutboxRelayMetrics();
+        relay.clock = clock;
+        relay.logger = logger;
+        relay.relayEnabled = "true";
+        relay.workerCount = 2L;
+        relay.batchSize = 10L;
+        relay.pollIntervalMillis = 100L;
+    }
+
+    /**
+     * An outbox shared by several relays that claims events a stream at a time until the
+     * claiming transaction ends, as the outbox repository does on PostgreSQL.
+     */
+    private static class StreamClaimingOutbox {
+
+        private final List<OutboxEvent> events;
+        private final Map<UUID, Object> streamClaims = new HashMap<>();
+
+        StreamClaimingOutbox(final List<OutboxEvent> events) {
+            this.events = new ArrayList<>(events);
+        }
+
+        synchronized List<OutboxEvent> pending() {
+            return new ArrayList<>(events);
+        }
+
+        EventOutboxJdbcRepository repositoryFor(final Object relay) {
+            return new EventOutboxJdbcRepository() {
+
+                @Override
+                public List<OutboxEvent> findPending(final int limit) {
+                    return claim(relay, limit);
+                }
+
+                @Override
+                public void delete(final List<UUID> eventIds) {
+                    remove(eventIds);
+                }
+            };
+        }
+
+        OutboxRelayTransaction transactionFor(final Object relay) {
+            return new OutboxRelayTransaction() {
+
+                @Override
+                public int run(final IntSupplier batch) {
+                    try {
+                        return batch.getAsInt();
+                    } finally {
+                        release(relay);
+                    }
+                }
+            };
+        }
+
+        private synchronized List<OutboxEvent> claim(final Object relay, final int limit) {
+            final List<OutboxEvent> claimed = new ArrayList<>();
+            for (final OutboxEvent event : events) {
+                if (claimed.size() == limit) {
+                    break;
+                }
+                if (streamClaims.computeIfAbsent(event.getStreamId(), streamId -> relay) == relay) {
+                    claimed.add(event);
+                }
+            }
+            return claimed;
+        }
+
+        private synchronized void remove(final List<UUID> eventIds) {
+            events.removeIf(event -> eventIds.contains(event.getEventId()));
+        }
+
+        private synchronized void release(final Object relay) {
+            streamClaims.values().removeIf(owner -> owner == relay);
+        }
+    }
+}
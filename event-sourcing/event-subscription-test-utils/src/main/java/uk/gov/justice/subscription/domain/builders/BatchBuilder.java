@@ -0,0 +1,30 @@
+package uk.gov.justice.subscription.domain.builders;
+
+import uk.gov.justice.subscription.domain.Batch;
+
+public final class BatchBuilder {
+
+    private int maxMessages;
+    private long maxWaitMillis;
+
+    private BatchBuilder() {
+    }
+
+    public static BatchBuilder batch() {
+        return new BatchBuilder();
+    }
+
+    public BatchBuilder withMaxMessages(final int maxMessages) {
+        this.maxMessages = maxMessages;
+        return this;
+    }
+
+    public BatchBuilder withMaxWaitMillis(final long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+        return this;
+    }
+
+    public Batch build() {
+        return new Batch(maxMessages, maxWaitMillis);
+    }
+}
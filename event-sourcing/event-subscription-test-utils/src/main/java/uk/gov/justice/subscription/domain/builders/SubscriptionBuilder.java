@@ -1,5 +1,6 @@
 package uk.gov.justice.subscription.domain.builders;
 
+import uk.gov.justice.subscription.domain.Batch;
 import uk.gov.justice.subscription.domain.Event;
 import uk.gov.justice.subscription.domain.Eventsource;
 import uk.gov.justice.subscription.domain.Subscription;
@@ -12,6 +13,7 @@ public final class SubscriptionBuilder {
     private String name;
     private final List<Event> events = new ArrayList<>();
     private Eventsource eventsource;
+    private Batch batch;
 
     private SubscriptionBuilder() {
     }
@@ -40,7 +42,12 @@ public final class SubscriptionBuilder {
         return this;
     }
 
+    public SubscriptionBuilder withBatch(final Batch batch) {
+        this.batch = batch;
+        return this;
+    }
+
     public Subscription build() {
-        return new Subscription(name, events, eventsource);
+        return new Subscription(name, events, eventsource, batch);
     }
 }
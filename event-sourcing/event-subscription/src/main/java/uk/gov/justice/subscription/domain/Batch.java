@@ -0,0 +1,20 @@
+package uk.gov.justice.subscription.domain;
+
+public class Batch {
+
+    private final int maxMessages;
+    private final long maxWaitMillis;
+
+    public Batch(final int maxMessages, final long maxWaitMillis) {
+        this.maxMessages = maxMessages;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public int getMaxMessages() {
+        return maxMessages;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+}
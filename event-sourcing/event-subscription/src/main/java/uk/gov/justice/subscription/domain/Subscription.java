@@ -1,17 +1,20 @@
 package uk.gov.justice.subscription.domain;
 
 import java.util.List;
+import java.util.Optional;
 
 public class Subscription {
 
     private final String name;
     private final List<Event> events;
     private final Eventsource eventsource;
+    private final Batch batch;
 
-    public Subscription(final String name, final List<Event> events, final Eventsource eventsource) {
+    public Subscription(final String name, final List<Event> events, final Eventsource eventsource, final Batch batch) {
         this.name = name;
         this.events = events;
         this.eventsource = eventsource;
+        this.batch = batch;
     }
 
     public String getName() {
@@ -25,4 +28,12 @@ public class Subscription {
     public Eventsource getEventsource() {
         return eventsource;
     }
+
+    /**
+     * @return the batch settings of the subscription, if its messages are to be processed in
+     * batches
+     */
+    public Optional<Batch> getBatch() {
+        return Optional.ofNullable(batch);
+    }
 }
@@ -7,6 +7,7 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.fail;
 
 import uk.gov.justice.subscription.SubscriptionDescriptorException;
+import uk.gov.justice.subscription.domain.Batch;
 import uk.gov.justice.subscription.domain.Event;
 import uk.gov.justice.subscription.domain.Eventsource;
 import uk.gov.justice.subscription.domain.Location;
@@ -19,6 +20,7 @@ import uk.gov.justice.subscription.file.read.YamlFileToJsonObjectConverter;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 
 import org.everit.json.schema.ValidationException;
 import org.junit.Before;
@@ -77,10 +79,12 @@ public class SubscriptionDescriptorParserTest {
                 if (subscription.getName().equalsIgnoreCase("subscription1")) {
                     assertExampleEvents(subscription);
                     assertExampleEventSource(subscription.getEventsource());
+                    assertThat(subscription.getBatch().isPresent(), is(false));
                 }
                 if (subscription.getName().equalsIgnoreCase("subscription2")) {
                     assertPeopleEvents(subscription);
                     assertPeopleEventSource(subscription.getEventsource());
+                    assertPeopleBatch(subscription.getBatch());
                 }
             }
     }
@@ -101,6 +105,12 @@ public class SubscriptionDescriptorParserTest {
         assertThat(location.getRestUri(), is("http://localhost:8080/people/event-source-api/rest"));
     }
 
+    private void assertPeopleBatch(final Optional<Batch> batch) {
+        assertThat(batch.isPresent(), is(true));
+        assertThat(batch.get().getMaxMessages(), is(100));
+        assertThat(batch.get().getMaxWaitMillis(), is(50L));
+    }
+
     private void assertSubscriptionDescriptor(SubscriptionDescriptor subscriptionDescriptor) {
         assertThat(subscriptionDescriptor.getService(), is("examplecontext"));
         assertThat(subscriptionDescriptor.getServiceComponent(), is("EVENT_LISTENER"));
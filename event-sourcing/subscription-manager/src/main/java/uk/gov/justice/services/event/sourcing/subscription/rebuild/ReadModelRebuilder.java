@@ -0,0 +1,217 @@
+package uk.gov.justice.services.event.sourcing.subscription.rebuild;
+
+import static java.lang.Math.floorMod;
+import static java.lang.String.format;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+
+import uk.gov.justice.services.common.configuration.GlobalValue;
+import uk.gov.justice.services.core.interceptor.InterceptorChainProcessor;
+import uk.gov.justice.services.event.buffer.core.repository.rebuildcheckpoint.RebuildCheckpoint;
+import uk.gov.justice.services.event.buffer.core.repository.rebuildcheckpoint.RebuildCheckpointJdbcRepository;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.EventRepository;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.EventStreamMetadata;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+
+/**
+ * Rebuilds a read model by replaying every active event stream through the interceptor chain of
+ * the component that builds it.
+ *
+ * The streams are split into partitions by the hash of the stream id, and each partition is
+ * replayed by a worker of its own, so a stream is always replayed by the same worker and its
+ * events are passed to the component in stream position order. Each worker reads the streams in
+ * the order of their position in the event store and replays each stream in its own transaction,
+ * which also saves the position of that stream as the checkpoint of the partition. A rebuild that
+ * stops part way is resumed from these checkpoints when it is started again with the same name and
+ * number of partitions; the checkpoints are removed once the rebuild completes.
+ *
+ * Each worker holds one connection to the event store for reading its streams and uses another
+ * for each stream it replays, so the number of partitions should leave room in the connection
+ * pools for the rest of the application.
+ */
+@ApplicationScoped
+public class ReadModelRebuilder {
+
+    @Resource
+    ManagedScheduledExecutorService scheduledExecutorService;
+
+    @Resource
+    ManagedThreadFactory managedThreadFactory;
+
+    @Inject
+    EventRepository eventRepository;
+
+    @Inject
+    StreamReplayer streamReplayer;
+
+    @Inject
+    RebuildCheckpointJdbcRepository rebuildCheckpointJdbcRepository;
+
+    @Inject
+    Logger logger;
+
+    @Inject
+    @GlobalValue(key = "read.model.rebuild.partitions", defaultValue = "4")
+    long partitionCount;
+
+    @Inject
+    @GlobalValue(key = "read.model.rebuild.progress.interval.millis", defaultValue = "10000")
+    long progressIntervalMillis;
+
+    private final Map<String, RebuildProgress> runningRebuilds = new ConcurrentHashMap<>();
+
+    /**
+     * Replays every active event stream through the given interceptor chain, returning once all
+     * partitions have been replayed. Progress is logged periodically and can be read with {@link
+     * #progressOf(String)} while the rebuild runs.
+     *
+     * @param rebuildName               the name the checkpoints of the rebuild are saved under
+     * @param interceptorChainProcessor the interceptor chain of the component being rebuilt
+     * @return the progress of the completed rebuild
+     * @throws RebuildException if a rebuild of the same name is already running, or a stream could
+     *                          not be replayed
+     */
+    public RebuildProgress rebuild(final String rebuildName, final InterceptorChainProcessor interceptorChainProcessor) {
+        final int partitions = (int) partitionCount;
+        final long[] checkpoints = checkpointsOf(rebuildName, partitions);
+        final RebuildProgress progress = new RebuildProgress(rebuildName, countPendingStreams(checkpoints));
+
+        if (runningRebuilds.putIfAbsent(rebuildName, progress) != null) {
+            throw new RebuildException(format("Rebuild %s is already running", rebuildName));
+        }
+
+        logger.info("Rebuilding {} with {} partitions, {} streams to replay", rebuildName, partitions, progress.getTotalStreams());
+        final ExecutorService workers = newFixedThreadPool(partitions, managedThreadFactory);
+        final ScheduledFuture<?> progressReport = scheduledExecutorService.scheduleWithFixedDelay(() -> logProgress(progress),
+                progressIntervalMillis, progressIntervalMillis, MILLISECONDS);
+
+        try {
+            final List<Future<?>> partitionResults = IntStream.range(0, partitions)
+                    .mapToObj(partition -> workers.submit(() -> replayPartition(partition, partitions, checkpoints[partition], interceptorChainProcessor, progress)))
+                    .collect(toList());
+
+            awaitPartitions(partitionResults, progress);
+        } finally {
+            progressReport.cancel(false);
+            workers.shutdownNow();
+            runningRebuilds.remove(rebuildName);
+        }
+
+        rebuildCheckpointJdbcRepository.deleteByRebuildName(rebuildName);
+        logProgress(progress);
+        return progress;
+    }
+
+    /**
+     * @param rebuildName the name of the rebuild
+     * @return the progress of the rebuild if it is running
+     */
+    public Optional<RebuildProgress> progressOf(final String rebuildName) {
+        return Optional.ofNullable(runningRebuilds.get(rebuildName));
+    }
+
+    private void replayPartition(final int partition,
+                                 final int partitions,
+                                 final long checkpoint,
+                                 final InterceptorChainProcessor interceptorChainProcessor,
+                                 final RebuildProgress progress) {
+        try (final Stream<EventStreamMetadata> streams = eventRepository.getEventStreamsFromPosition(checkpoint + 1)) {
+            final Iterator<EventStreamMetadata> partitionStreams = streams
+                    .filter(stream -> stream.isActive() && partitionOf(stream.getStreamId(), partitions) == partition)
+                    .iterator();
+
+            while (partitionStreams.hasNext() && !progress.isCancelled()) {
+                final EventStreamMetadata stream = partitionStreams.next();
+                final RebuildCheckpoint streamCheckpoint = new RebuildCheckpoint(progress.getRebuildName(), partition, partitions, stream.getPosition());
+
+                progress.recordStreamReplayed(streamReplayer.replay(stream.getStreamId(), streamCheckpoint, interceptorChainProcessor));
+            }
+        }
+    }
+
+    private void awaitPartitions(final List<Future<?>> partitionResults, final RebuildProgress progress) {
+        RebuildException failure = null;
+
+        for (final Future<?> partitionResult : partitionResults) {
+            try {
+                partitionResult.get();
+            } catch (final InterruptedException e) {
+                progress.cancel();
+                Thread.currentThread().interrupt();
+                throw new RebuildException(format("Interrupted while rebuilding %s", progress.getRebuildName()), e);
+            } catch (final ExecutionException e) {
+                progress.cancel();
+                if (failure == null) {
+                    failure = new RebuildException(format("Failed to rebuild %s", progress.getRebuildName()), e.getCause());
+                }
+            }
+        }
+
+        if (failure != null) {
+            logger.error("Rebuild {} stopped after replaying {} streams, it will resume from its checkpoints when started again",
+                    progress.getRebuildName(), progress.getReplayedStreams());
+            throw failure;
+        }
+    }
+
+    private long[] checkpointsOf(final String rebuildName, final int partitions) {
+        final long[] checkpoints = new long[partitions];
+        final List<RebuildCheckpoint> savedCheckpoints = rebuildCheckpointJdbcRepository.findByRebuildName(rebuildName);
+
+        if (savedCheckpoints.stream().anyMatch(checkpoint -> checkpoint.getPartitionCount() != partitions)) {
+            logger.warn("Checkpoints of rebuild {} were saved with a different number of partitions, replaying all streams", rebuildName);
+            rebuildCheckpointJdbcRepository.deleteByRebuildName(rebuildName);
+        } else if (!savedCheckpoints.isEmpty()) {
+            logger.info("Resuming rebuild {} from its checkpoints", rebuildName);
+            savedCheckpoints.forEach(checkpoint -> checkpoints[checkpoint.getPartitionNumber()] = checkpoint.getStreamPosition());
+        }
+
+        return checkpoints;
+    }
+
+    private long countPendingStreams(final long[] checkpoints) {
+        final long lowestCheckpoint = Arrays.stream(checkpoints).min().orElse(0L);
+
+        try (final Stream<EventStreamMetadata> streams = eventRepository.getEventStreamsFromPosition(lowestCheckpoint + 1)) {
+            return streams
+                    .filter(stream -> stream.isActive() && stream.getPosition() > checkpoints[partitionOf(stream.getStreamId(), checkpoints.length)])
+                    .count();
+        }
+    }
+
+    private void logProgress(final RebuildProgress progress) {
+        logger.info("Rebuild {}: {} of {} streams replayed, {} remaining, {} events at {} events/sec",
+                progress.getRebuildName(),
+                progress.getReplayedStreams(),
+                progress.getTotalStreams(),
+                progress.getStreamsRemaining(),
+                progress.getReplayedEvents(),
+                format("%.1f", progress.getEventsPerSecond()));
+    }
+
+    private int partitionOf(final UUID streamId, final int partitions) {
+        return floorMod(streamId.hashCode(), partitions);
+    }
+}
@@ -0,0 +1,17 @@
+package uk.gov.justice.services.event.sourcing.subscription.rebuild;
+
+/**
+ * Exception thrown when the {@link ReadModelRebuilder} fails to rebuild a read model.
+ */
+public class RebuildException extends RuntimeException {
+
+    private static final long serialVersionUID = 4861254718345390257L;
+
+    public RebuildException(final String message) {
+        super(message);
+    }
+
+    public RebuildException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,76 @@
+package uk.gov.justice.services.event.sourcing.subscription.rebuild;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing the progress of one rebuild by the {@link ReadModelRebuilder}.
+ */
+public class RebuildProgress {
+
+    private final String rebuildName;
+    private final long totalStreams;
+    private final long startedAtNanos = System.nanoTime();
+    private final AtomicLong replayedStreams = new AtomicLong();
+    private final AtomicLong replayedEvents = new AtomicLong();
+    private volatile boolean cancelled;
+
+    RebuildProgress(final String rebuildName, final long totalStreams) {
+        this.rebuildName = rebuildName;
+        this.totalStreams = totalStreams;
+    }
+
+    void recordStreamReplayed(final long events) {
+        replayedEvents.addAndGet(events);
+        replayedStreams.incrementAndGet();
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    public String getRebuildName() {
+        return rebuildName;
+    }
+
+    /**
+     * @return the number of streams the rebuild had to replay when it started
+     */
+    public long getTotalStreams() {
+        return totalStreams;
+    }
+
+    /**
+     * @return the number of streams replayed so far
+     */
+    public long getReplayedStreams() {
+        return replayedStreams.get();
+    }
+
+    /**
+     * @return the number of streams still to be replayed
+     */
+    public long getStreamsRemaining() {
+        return Math.max(totalStreams - replayedStreams.get(), 0L);
+    }
+
+    /**
+     * @return the number of events replayed so far
+     */
+    public long getReplayedEvents() {
+        return replayedEvents.get();
+    }
+
+    /**
+     * @return the average number of events replayed per second since the rebuild started
+     */
+    public double getEventsPerSecond() {
+        final long elapsedNanos = System.nanoTime() - startedAtNanos;
+        return elapsedNanos > 0 ? replayedEvents.get() * (double) SECONDS.toNanos(1) / elapsedNanos : 0.0;
+    }
+}
@@ -0,0 +1,57 @@
+package uk.gov.justice.services.event.sourcing.subscription.rebuild;
+
+import static javax.transaction.Transactional.TxType.REQUIRES_NEW;
+import static uk.gov.justice.services.core.interceptor.InterceptorContext.interceptorContextWithInput;
+
+import uk.gov.justice.services.core.interceptor.InterceptorChainProcessor;
+import uk.gov.justice.services.event.buffer.core.repository.rebuildcheckpoint.RebuildCheckpoint;
+import uk.gov.justice.services.event.buffer.core.repository.rebuildcheckpoint.RebuildCheckpointJdbcRepository;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.EventRepository;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+
+/**
+ * Replays the events of a single stream for the {@link ReadModelRebuilder}.
+ */
+@ApplicationScoped
+public class StreamReplayer {
+
+    @Inject
+    EventRepository eventRepository;
+
+    @Inject
+    RebuildCheckpointJdbcRepository rebuildCheckpointJdbcRepository;
+
+    /**
+     * Passes the events of the stream, in position order, through the given interceptor chain and
+     * then saves the checkpoint of the partition, all in a transaction of its own. A stream is
+     * either replayed and recorded by the checkpoint, or not at all.
+     *
+     * @param streamId                  the id of the stream to replay
+     * @param checkpoint                the checkpoint of the partition once the stream is replayed
+     * @param interceptorChainProcessor the interceptor chain of the component being rebuilt
+     * @return the number of events replayed
+     */
+    @Transactional(REQUIRES_NEW)
+    public long replay(final UUID streamId, final RebuildCheckpoint checkpoint, final InterceptorChainProcessor interceptorChainProcessor) {
+        long replayedEvents = 0;
+
+        try (final Stream<JsonEnvelope> events = eventRepository.getEventsByStreamId(streamId)) {
+            final Iterator<JsonEnvelope> iterator = events.iterator();
+            while (iterator.hasNext()) {
+                interceptorChainProcessor.process(interceptorContextWithInput(iterator.next()));
+                replayedEvents++;
+            }
+        }
+
+        rebuildCheckpointJdbcRepository.save(checkpoint);
+        return replayedEvents;
+    }
+}
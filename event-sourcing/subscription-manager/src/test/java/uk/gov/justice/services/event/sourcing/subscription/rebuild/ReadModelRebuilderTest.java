@@ -0,0 +1,184 @@
+package uk.gov.justice.services.event.sourcing.subscription.rebuild;
+
+import static java.lang.Math.floorMod;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import uk.gov.justice.services.core.interceptor.InterceptorChainProcessor;
+import uk.gov.justice.services.event.buffer.core.repository.rebuildcheckpoint.RebuildCheckpoint;
+import uk.gov.justice.services.event.buffer.core.repository.rebuildcheckpoint.RebuildCheckpointJdbcRepository;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.DefaultEventStreamMetadata;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.EventRepository;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.EventStreamMetadata;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.slf4j.Logger;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReadModelRebuilderTest {
+
+    private static final String REBUILD_NAME = "example-event-listener";
+    private static final int PARTITIONS = 2;
+
+    @Mock
+    private ManagedScheduledExecutorService scheduledExecutorService;
+
+    @Mock
+    private ManagedThreadFactory managedThreadFactory;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private StreamReplayer streamReplayer;
+
+    @Mock
+    private RebuildCheckpointJdbcRepository rebuildCheckpointJdbcRepository;
+
+    @Mock
+    private InterceptorChainProcessor interceptorChainProcessor;
+
+    @Mock
+    private ScheduledFuture<?> progressReport;
+
+    @Mock
+    private Logger logger;
+
+    @InjectMocks
+    private ReadModelRebuilder readModelRebuilder;
+
+    @Before
+    public void setup() {
+        readModelRebuilder.partitionCount = PARTITIONS;
+        readModelRebuilder.progressIntervalMillis = 1000L;
+
+        when(managedThreadFactory.newThread(any(Runnable.class))).thenAnswer(invocation -> new Thread((Runnable) invocation.getArguments()[0]));
+        doReturn(progressReport).when(scheduledExecutorService).scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), any());
+        when(rebuildCheckpointJdbcRepository.findByRebuildName(REBUILD_NAME)).thenReturn(emptyList());
+        when(streamReplayer.replay(any(UUID.class), any(RebuildCheckpoint.class), eq(interceptorChainProcessor))).thenReturn(3L);
+    }
+
+    @Test
+    public void shouldReplayActiveStreamsOfEachPartitionInPositionOrder() {
+        final EventStreamMetadata stream1 = streamOf(inPartition(0), 1L, true);
+        final EventStreamMetadata stream2 = streamOf(inPartition(1), 2L, true);
+        final EventStreamMetadata stream3 = streamOf(inPartition(0), 3L, false);
+        final EventStreamMetadata stream4 = streamOf(inPartition(0), 4L, true);
+        givenStreamsFrom(1L, stream1, stream2, stream3, stream4);
+
+        final RebuildProgress progress = readModelRebuilder.rebuild(REBUILD_NAME, interceptorChainProcessor);
+
+        final InOrder partition0 = inOrder(streamReplayer);
+        partition0.verify(streamReplayer).replay(stream1.getStreamId(), checkpointOf(0, 1L), interceptorChainProcessor);
+        partition0.verify(streamReplayer).replay(stream4.getStreamId(), checkpointOf(0, 4L), interceptorChainProcessor);
+        verify(streamReplayer).replay(stream2.getStreamId(), checkpointOf(1, 2L), interceptorChainProcessor);
+        verify(streamReplayer, never()).replay(eq(stream3.getStreamId()), any(RebuildCheckpoint.class), any(InterceptorChainProcessor.class));
+
+        assertThat(progress.getTotalStreams(), is(3L));
+        assertThat(progress.getReplayedStreams(), is(3L));
+        assertThat(progress.getStreamsRemaining(), is(0L));
+        assertThat(progress.getReplayedEvents(), is(9L));
+        assertThat(readModelRebuilder.progressOf(REBUILD_NAME).isPresent(), is(false));
+
+        verify(rebuildCheckpointJdbcRepository).deleteByRebuildName(REBUILD_NAME);
+        verify(progressReport).cancel(false);
+    }
+
+    @Test
+    public void shouldResumeEachPartitionFromItsCheckpoint() {
+        final EventStreamMetadata stream1 = streamOf(inPartition(1), 1L, true);
+        final EventStreamMetadata stream2 = streamOf(inPartition(0), 2L, true);
+        final EventStreamMetadata stream3 = streamOf(inPartition(1), 3L, true);
+        final EventStreamMetadata stream4 = streamOf(inPartition(0), 4L, true);
+        when(rebuildCheckpointJdbcRepository.findByRebuildName(REBUILD_NAME)).thenReturn(asList(checkpointOf(0, 2L), checkpointOf(1, 1L)));
+        givenStreamsFrom(2L, stream2, stream3, stream4);
+        givenStreamsFrom(3L, stream3, stream4);
+
+        final RebuildProgress progress = readModelRebuilder.rebuild(REBUILD_NAME, interceptorChainProcessor);
+
+        verify(streamReplayer).replay(stream3.getStreamId(), checkpointOf(1, 3L), interceptorChainProcessor);
+        verify(streamReplayer).replay(stream4.getStreamId(), checkpointOf(0, 4L), interceptorChainProcessor);
+        verify(streamReplayer, never()).replay(eq(stream1.getStreamId()), any(RebuildCheckpoint.class), any(InterceptorChainProcessor.class));
+        verify(streamReplayer, never()).replay(eq(stream2.getStreamId()), any(RebuildCheckpoint.class), any(InterceptorChainProcessor.class));
+        assertThat(progress.getTotalStreams(), is(2L));
+    }
+
+    @Test
+    public void shouldReplayAllStreamsIfCheckpointsWereSavedWithDifferentNumberOfPartitions() {
+        final EventStreamMetadata stream1 = streamOf(inPartition(0), 1L, true);
+        when(rebuildCheckpointJdbcRepository.findByRebuildName(REBUILD_NAME)).thenReturn(singletonList(new RebuildCheckpoint(REBUILD_NAME, 0, 3, 1L)));
+        givenStreamsFrom(1L, stream1);
+
+        readModelRebuilder.rebuild(REBUILD_NAME, interceptorChainProcessor);
+
+        verify(streamReplayer).replay(stream1.getStreamId(), checkpointOf(0, 1L), interceptorChainProcessor);
+    }
+
+    @Test
+    public void shouldKeepCheckpointsIfStreamCannotBeReplayed() {
+        final EventStreamMetadata stream1 = streamOf(inPartition(0), 1L, true);
+        final EventStreamMetadata stream2 = streamOf(inPartition(0), 2L, true);
+        givenStreamsFrom(1L, stream1, stream2);
+        final Throwable cause = new RuntimeException("Ooops");
+        when(streamReplayer.replay(stream1.getStreamId(), checkpointOf(0, 1L), interceptorChainProcessor)).thenThrow(cause);
+
+        try {
+            readModelRebuilder.rebuild(REBUILD_NAME, interceptorChainProcessor);
+            fail("Expected RebuildException");
+        } catch (final RebuildException e) {
+            assertThat(e.getCause(), is(cause));
+        }
+
+        verify(streamReplayer, never()).replay(eq(stream2.getStreamId()), any(RebuildCheckpoint.class), any(InterceptorChainProcessor.class));
+        verify(rebuildCheckpointJdbcRepository, never()).deleteByRebuildName(REBUILD_NAME);
+        assertThat(readModelRebuilder.progressOf(REBUILD_NAME).isPresent(), is(false));
+    }
+
+    private void givenStreamsFrom(final long position, final EventStreamMetadata... streams) {
+        final List<EventStreamMetadata> streamList = asList(streams);
+        when(eventRepository.getEventStreamsFromPosition(position)).thenAnswer(invocation -> streamList.stream());
+    }
+
+    private RebuildCheckpoint checkpointOf(final int partition, final long position) {
+        return new RebuildCheckpoint(REBUILD_NAME, partition, PARTITIONS, position);
+    }
+
+    private EventStreamMetadata streamOf(final UUID streamId, final long position, final boolean active) {
+        return new DefaultEventStreamMetadata(streamId, position, active, ZonedDateTime.now());
+    }
+
+    private UUID inPartition(final int partition) {
+        UUID streamId = randomUUID();
+        while (floorMod(streamId.hashCode(), PARTITIONS) != partition) {
+            streamId = randomUUID();
+        }
+        return streamId;
+    }
+}
@@ -0,0 +1,85 @@
+package uk.gov.justice.services.event.sourcing.subscription.rebuild;
+
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import uk.gov.justice.services.core.interceptor.InterceptorChainProcessor;
+import uk.gov.justice.services.core.interceptor.InterceptorContext;
+import uk.gov.justice.services.event.buffer.core.repository.rebuildcheckpoint.RebuildCheckpoint;
+import uk.gov.justice.services.event.buffer.core.repository.rebuildcheckpoint.RebuildCheckpointJdbcRepository;
+import uk.gov.justice.services.eventsourcing.repository.jdbc.EventRepository;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StreamReplayerTest {
+
+    private static final UUID STREAM_ID = randomUUID();
+    private static final RebuildCheckpoint CHECKPOINT = new RebuildCheckpoint("example-event-listener", 1, 4, 12L);
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private RebuildCheckpointJdbcRepository rebuildCheckpointJdbcRepository;
+
+    @Mock
+    private InterceptorChainProcessor interceptorChainProcessor;
+
+    @InjectMocks
+    private StreamReplayer streamReplayer;
+
+    @Test
+    public void shouldPassEventsOfStreamThroughInterceptorChainInOrderThenSaveCheckpoint() {
+        final JsonEnvelope event1 = mock(JsonEnvelope.class);
+        final JsonEnvelope event2 = mock(JsonEnvelope.class);
+        when(eventRepository.getEventsByStreamId(STREAM_ID)).thenReturn(Stream.of(event1, event2));
+
+        final long replayedEvents = streamReplayer.replay(STREAM_ID, CHECKPOINT, interceptorChainProcessor);
+
+        assertThat(replayedEvents, is(2L));
+
+        final ArgumentCaptor<InterceptorContext> contextCaptor = ArgumentCaptor.forClass(InterceptorContext.class);
+        final InOrder inOrder = inOrder(interceptorChainProcessor, rebuildCheckpointJdbcRepository);
+        inOrder.verify(interceptorChainProcessor, times(2)).process(contextCaptor.capture());
+        inOrder.verify(rebuildCheckpointJdbcRepository).save(CHECKPOINT);
+
+        final List<InterceptorContext> contexts = contextCaptor.getAllValues();
+        assertThat(contexts.get(0).inputEnvelope(), is(event1));
+        assertThat(contexts.get(1).inputEnvelope(), is(event2));
+    }
+
+    @Test
+    public void shouldNotSaveCheckpointIfEventCannotBeReplayed() {
+        final JsonEnvelope event = mock(JsonEnvelope.class);
+        when(eventRepository.getEventsByStreamId(STREAM_ID)).thenReturn(Stream.of(event));
+        when(interceptorChainProcessor.process(any(InterceptorContext.class))).thenThrow(new IllegalStateException("Ooops"));
+
+        try {
+            streamReplayer.replay(STREAM_ID, CHECKPOINT, interceptorChainProcessor);
+            fail("Expected IllegalStateException");
+        } catch (final IllegalStateException expected) {
+            verify(rebuildCheckpointJdbcRepository, never()).save(CHECKPOINT);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package uk.gov.justice.services.eventsourcing.jdbc.snapshot;
 
+import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryHelper;
+
 import javax.sql.DataSource;
 
 
@@ -8,6 +10,7 @@ public class StandaloneSnapshotJdbcRepositoryFactory {
     public static SnapshotJdbcRepository getSnapshotJdbcRepository(final DataSource dataSource) {
         final SnapshotJdbcRepository snapshotJdbcRepository = new SnapshotJdbcRepository();
         snapshotJdbcRepository.dataSource = dataSource;
+        snapshotJdbcRepository.jdbcRepositoryHelper = new JdbcRepositoryHelper();
         return snapshotJdbcRepository;
     }
 }
@@ -0,0 +1,124 @@
+package uk.gov.justice.services.adapter.messaging;
+
+import static java.util.Comparator.comparingLong;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+import uk.gov.justice.services.core.interceptor.InterceptorContext;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.jms.Message;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Processes the messages of an event listener in batches, so that the view store writes and
+ * stream status updates of many events share one transaction.
+ *
+ * Each message is converted by the {@link JmsProcessor} as usual, then waits in a batch with the
+ * messages delivered concurrently to the other instances of the same listener, until the batch
+ * holds the maximum number of messages, no other delivery has started that is still to join it,
+ * or its first message has waited for the maximum time. The delivery that closes the batch groups
+ * its messages by stream, orders each group by version and passes them all to their consumers in
+ * a single new transaction, while the other deliveries wait for the outcome. A batch can therefore
+ * hold no more messages than there are concurrent deliveries, which is bounded by the size of the
+ * listener's MDB pool, and a message only waits for deliveries that are already under way, never
+ * for the full maximum time when traffic is light.
+ *
+ * If the batch fails, each stream of the batch is processed again in a transaction of its own.
+ * The deliveries of the streams that then succeed return normally and are acknowledged, and those
+ * of a stream that fails again throw, so only their messages are redelivered.
+ */
+@ApplicationScoped
+public class BatchJmsProcessor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchJmsProcessor.class);
+
+    @Inject
+    JmsProcessor jmsProcessor;
+
+    @Inject
+    BatchTransaction batchTransaction;
+
+    private final ConcurrentMap<String, MessageBatcher> batchers = new ConcurrentHashMap<>();
+
+    /**
+     * Process a message as part of a batch, returning once the batch has been processed.
+     *
+     * @param consumer      the consumer of the message's interceptor context
+     * @param message       the message to process
+     * @param batchName     the name of the batch, unique to the listener
+     * @param maxMessages   the maximum number of messages in a batch
+     * @param maxWaitMillis the longest a message waits for deliveries under way to join its batch
+     */
+    public void process(final Consumer<InterceptorContext> consumer,
+                        final Message message,
+                        final String batchName,
+                        final int maxMessages,
+                        final long maxWaitMillis) {
+
+        final MessageBatcher batcher = batchers.computeIfAbsent(batchName, name -> new MessageBatcher(maxMessages, maxWaitMillis));
+
+        final MessageBatcher.Arrival arrival = batcher.arrive();
+        try {
+            jmsProcessor.process(interceptorContext -> {
+                final BatchedMessage batchedMessage = new BatchedMessage(interceptorContext, consumer);
+                arrival.join(batchedMessage).ifPresent(batch -> processBatch(batchName, batch));
+                batchedMessage.awaitResult();
+            }, message);
+        } finally {
+            arrival.leave();
+        }
+    }
+
+    private void processBatch(final String batchName, final List<BatchedMessage> batch) {
+        final Collection<List<BatchedMessage>> streamGroups = groupByStream(batch);
+
+        LOGGER.debug("Processing batch {} of {} messages from {} streams", batchName, batch.size(), streamGroups.size());
+
+        try {
+            batchTransaction.run(() -> streamGroups.forEach(this::dispatch));
+            batch.forEach(BatchedMessage::processed);
+        } catch (final RuntimeException e) {
+            if (streamGroups.size() == 1) {
+                batch.forEach(batchedMessage -> batchedMessage.failed(e));
+            } else {
+                LOGGER.warn("Batch {} failed, processing each of its {} streams in a transaction of its own", batchName, streamGroups.size(), e);
+                streamGroups.forEach(this::processStreamGroup);
+            }
+        } finally {
+            batch.stream()
+                    .filter(BatchedMessage::isIncomplete)
+                    .forEach(batchedMessage -> batchedMessage.failed(new IllegalStateException("Batch " + batchName + " was not processed")));
+        }
+    }
+
+    private void processStreamGroup(final List<BatchedMessage> streamGroup) {
+        try {
+            batchTransaction.run(() -> dispatch(streamGroup));
+            streamGroup.forEach(BatchedMessage::processed);
+        } catch (final RuntimeException e) {
+            streamGroup.forEach(batchedMessage -> batchedMessage.failed(e));
+        }
+    }
+
+    private void dispatch(final List<BatchedMessage> streamGroup) {
+        streamGroup.forEach(BatchedMessage::dispatch);
+    }
+
+    private Collection<List<BatchedMessage>> groupByStream(final List<BatchedMessage> batch) {
+        return batch.stream()
+                .sorted(comparingLong(BatchedMessage::version))
+                .collect(groupingBy(BatchedMessage::streamId, LinkedHashMap::new, toList()))
+                .values();
+    }
+}
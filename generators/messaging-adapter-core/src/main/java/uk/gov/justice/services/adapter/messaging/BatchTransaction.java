@@ -0,0 +1,24 @@
+package uk.gov.justice.services.adapter.messaging;
+
+import static javax.transaction.Transactional.TxType.REQUIRES_NEW;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.transaction.Transactional;
+
+/**
+ * Runs a batch of messages in a transaction of its own, independent of the transaction of the
+ * message driven bean that happens to process the batch.
+ */
+@ApplicationScoped
+public class BatchTransaction {
+
+    /**
+     * Runs the work in a new transaction, which is rolled back if the work throws.
+     *
+     * @param batchWork the work to run
+     */
+    @Transactional(REQUIRES_NEW)
+    public void run(final Runnable batchWork) {
+        batchWork.run();
+    }
+}
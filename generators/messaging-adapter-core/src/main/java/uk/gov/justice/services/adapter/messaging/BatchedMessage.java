@@ -0,0 +1,67 @@
+package uk.gov.justice.services.adapter.messaging;
+
+import uk.gov.justice.services.core.interceptor.InterceptorContext;
+import uk.gov.justice.services.messaging.Metadata;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * A message waiting in a batch, together with the consumer it was delivered for and the outcome
+ * its delivery waits on.
+ */
+class BatchedMessage {
+
+    private final InterceptorContext interceptorContext;
+    private final Consumer<InterceptorContext> consumer;
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+    BatchedMessage(final InterceptorContext interceptorContext, final Consumer<InterceptorContext> consumer) {
+        this.interceptorContext = interceptorContext;
+        this.consumer = consumer;
+    }
+
+    UUID streamId() {
+        final Metadata metadata = interceptorContext.inputEnvelope().metadata();
+        return metadata.streamId().orElseGet(metadata::id);
+    }
+
+    long version() {
+        return interceptorContext.inputEnvelope().metadata().version().orElse(0L);
+    }
+
+    void dispatch() {
+        consumer.accept(interceptorContext);
+    }
+
+    void processed() {
+        result.complete(null);
+    }
+
+    void failed(final Throwable cause) {
+        result.completeExceptionally(cause);
+    }
+
+    boolean isIncomplete() {
+        return !result.isDone();
+    }
+
+    /**
+     * Waits until the batch containing this message has been processed.
+     *
+     * @throws RuntimeException the failure of the stream this message belongs to, if it could not
+     *                          be processed
+     */
+    void awaitResult() {
+        try {
+            result.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package uk.gov.justice.services.adapter.messaging;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Collects messages delivered concurrently into batches. A delivery announces itself with {@link
+ * #arrive()} as soon as it starts, and joins the open batch once its message is ready. A batch is
+ * closed when it holds the maximum number of messages, when no other delivery has arrived that is
+ * still to join it, or when the first message in it has waited for the maximum time, and the
+ * delivery that closes it is handed the batch to process. A lone delivery therefore never waits.
+ */
+class MessageBatcher {
+
+    private final Object lock = new Object();
+    private final int maxMessages;
+    private final long maxWaitNanos;
+
+    private List<BatchedMessage> pending = new ArrayList<>();
+    private long deadline;
+    private int arriving;
+
+    MessageBatcher(final int maxMessages, final long maxWaitMillis) {
+        this.maxMessages = maxMessages;
+        this.maxWaitNanos = MILLISECONDS.toNanos(maxWaitMillis);
+    }
+
+    /**
+     * Records that a delivery has started, so that open batches wait for it to join.
+     *
+     * @return the arrival, which must be either joined or left
+     */
+    Arrival arrive() {
+        synchronized (lock) {
+            arriving++;
+        }
+        return new Arrival();
+    }
+
+    private Optional<List<BatchedMessage>> join(final BatchedMessage message) {
+        synchronized (lock) {
+            arriving--;
+
+            final List<BatchedMessage> batch = pending;
+
+            if (batch.isEmpty()) {
+                deadline = nanoTime() + maxWaitNanos;
+            }
+            batch.add(message);
+
+            if (batch.size() < maxMessages) {
+                awaitClosed(batch);
+            }
+
+            if (pending == batch) {
+                pending = new ArrayList<>();
+                lock.notifyAll();
+                return Optional.of(batch);
+            }
+
+            return Optional.empty();
+        }
+    }
+
+    private void leave() {
+        synchronized (lock) {
+            arriving--;
+            lock.notifyAll();
+        }
+    }
+
+    private void awaitClosed(final List<BatchedMessage> batch) {
+        try {
+            long remaining = deadline - nanoTime();
+            while (pending == batch && arriving > 0 && remaining > 0) {
+                NANOSECONDS.timedWait(lock, remaining);
+                remaining = deadline - nanoTime();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A delivery that has started but not yet joined a batch.
+     */
+    class Arrival {
+
+        private boolean done;
+
+        /**
+         * Adds the message to the open batch and waits until the batch is closed.
+         *
+         * @param message the message to add
+         * @return the batch, if it was closed by this delivery and is to be processed by it,
+         * otherwise empty as another delivery processes the batch
+         */
+        Optional<List<BatchedMessage>> join(final BatchedMessage message) {
+            done = true;
+            return MessageBatcher.this.join(message);
+        }
+
+        /**
+         * Withdraws the delivery if it never joined a batch, so that open batches stop waiting for
+         * it.
+         */
+        void leave() {
+            if (!done) {
+                done = true;
+                MessageBatcher.this.leave();
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package uk.gov.justice.services.adapter.messaging;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.synchronizedList;
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static uk.gov.justice.services.core.interceptor.InterceptorContext.interceptorContextWithInput;
+import static uk.gov.justice.services.test.utils.core.messaging.JsonEnvelopeBuilder.envelope;
+import static uk.gov.justice.services.test.utils.core.messaging.MetadataBuilderFactory.metadataWithRandomUUID;
+
+import uk.gov.justice.services.core.interceptor.InterceptorContext;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import javax.jms.Message;
+import javax.jms.TextMessage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BatchJmsProcessorTest {
+
+    private static final String BATCH_NAME = "ExampleEventListenerJmsListener";
+    private static final long MAX_WAIT_MILLIS = 10000L;
+
+    @Mock
+    private JmsProcessor jmsProcessor;
+
+    @Mock
+    private BatchTransaction batchTransaction;
+
+    @InjectMocks
+    private BatchJmsProcessor batchJmsProcessor;
+
+    private final Map<Message, JsonEnvelope> envelopes = new HashMap<>();
+    private final List<JsonEnvelope> dispatched = synchronizedList(new ArrayList<>());
+    private final ExecutorService deliveries = newFixedThreadPool(3);
+    private CountDownLatch deliveriesStarted = new CountDownLatch(0);
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        doAnswer(invocation -> {
+            final Consumer<InterceptorContext> consumer = (Consumer<InterceptorContext>) invocation.getArguments()[0];
+            deliveriesStarted.countDown();
+            deliveriesStarted.await(10, SECONDS);
+            final JsonEnvelope envelope = envelopes.get((Message) invocation.getArguments()[1]);
+            if (envelope == null) {
+                throw new IllegalStateException("Cannot read message");
+            }
+            consumer.accept(interceptorContextWithInput(envelope));
+            return null;
+        }).when(jmsProcessor).process(any(Consumer.class), any(Message.class));
+
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(batchTransaction).run(any(Runnable.class));
+    }
+
+    @After
+    public void shutdown() {
+        deliveries.shutdownNow();
+    }
+
+    @Test
+    public void shouldProcessSingleMessageOnceBatchIsFull() {
+        final Message message = messageOf(randomUUID(), 1L);
+
+        batchJmsProcessor.process(interceptorContext -> dispatched.add(interceptorContext.inputEnvelope()), message, BATCH_NAME, 1, MAX_WAIT_MILLIS);
+
+        assertThat(dispatched, is(asList(envelopes.get(message))));
+        verify(batchTransaction).run(any(Runnable.class));
+    }
+
+    @Test
+    public void shouldProcessSingleMessageOnceMaxWaitHasPassed() {
+        final Message message = messageOf(randomUUID(), 1L);
+
+        batchJmsProcessor.process(interceptorContext -> dispatched.add(interceptorContext.inputEnvelope()), message, BATCH_NAME, 10, 10L);
+
+        assertThat(dispatched, is(asList(envelopes.get(message))));
+    }
+
+    @Test(timeout = 5000L)
+    public void shouldProcessSingleMessageWithoutWaitingWhenNoOtherDeliveryIsUnderWay() {
+        final Message message = messageOf(randomUUID(), 1L);
+
+        batchJmsProcessor.process(interceptorContext -> dispatched.add(interceptorContext.inputEnvelope()), message, BATCH_NAME, 10, MAX_WAIT_MILLIS);
+
+        assertThat(dispatched, is(asList(envelopes.get(message))));
+    }
+
+    @Test(timeout = 5000L)
+    public void shouldStopWaitingForDeliveryThatFailsBeforeJoiningBatch() throws Exception {
+        final Message message = messageOf(randomUUID(), 1L);
+        final Message unreadable = mock(TextMessage.class);
+
+        final List<Future<?>> results = deliver(interceptorContext -> dispatched.add(interceptorContext.inputEnvelope()), message, unreadable);
+
+        results.get(0).get(10, SECONDS);
+        try {
+            results.get(1).get(10, SECONDS);
+            fail("Expected delivery of unreadable message to fail");
+        } catch (final ExecutionException expected) {
+            // the message has no envelope, so it never joins the batch
+        }
+        assertThat(dispatched, is(asList(envelopes.get(message))));
+    }
+
+    @Test
+    public void shouldProcessConcurrentMessagesInOneTransactionGroupedByStreamInVersionOrder() throws Exception {
+        final UUID streamA = randomUUID();
+        final UUID streamB = randomUUID();
+        final Message a2 = messageOf(streamA, 2L);
+        final Message b1 = messageOf(streamB, 1L);
+        final Message a1 = messageOf(streamA, 1L);
+
+        final List<Future<?>> results = deliver(interceptorContext -> dispatched.add(interceptorContext.inputEnvelope()), a2, b1, a1);
+
+        for (final Future<?> result : results) {
+            result.get(10, SECONDS);
+        }
+
+        verify(batchTransaction).run(any(Runnable.class));
+        assertThat(dispatched.size(), is(3));
+        final int a1Index = dispatched.indexOf(envelopes.get(a1));
+        final int a2Index = dispatched.indexOf(envelopes.get(a2));
+        assertThat(a2Index, is(a1Index + 1));
+    }
+
+    @Test
+    public void shouldRedeliverOnlyMessagesOfStreamThatFailsWhenBatchFails() throws Exception {
+        final UUID failingStream = randomUUID();
+        final UUID streamB = randomUUID();
+        final UUID streamC = randomUUID();
+        final Message failing = messageOf(failingStream, 1L);
+        final Message b1 = messageOf(streamB, 1L);
+        final Message c1 = messageOf(streamC, 1L);
+        final IllegalStateException failure = new IllegalStateException("Ooops");
+
+        final List<Future<?>> results = deliver(interceptorContext -> {
+            if (interceptorContext.inputEnvelope() == envelopes.get(failing)) {
+                throw failure;
+            }
+            dispatched.add(interceptorContext.inputEnvelope());
+        }, failing, b1, c1);
+
+        try {
+            results.get(0).get(10, SECONDS);
+            fail("Expected delivery of failing message to fail");
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+            assertThat(e.getCause().getMessage(), is("Ooops"));
+        }
+        results.get(1).get(10, SECONDS);
+        results.get(2).get(10, SECONDS);
+
+        verify(batchTransaction, times(4)).run(any(Runnable.class));
+    }
+
+    private List<Future<?>> deliver(final Consumer<InterceptorContext> consumer, final Message... messages) {
+        deliveriesStarted = new CountDownLatch(messages.length);
+        final List<Future<?>> results = new ArrayList<>();
+        for (final Message message : messages) {
+            results.add(deliveries.submit(() -> batchJmsProcessor.process(consumer, message, BATCH_NAME, messages.length, MAX_WAIT_MILLIS)));
+        }
+        return results;
+    }
+
+    private Message messageOf(final UUID streamId, final long version) {
+        final Message message = mock(TextMessage.class);
+        envelopes.put(message, envelope()
+                .with(metadataWithRandomUUID("example.event-happened")
+                        .withStreamId(streamId)
+                        .withVersion(version))
+                .build());
+        return message;
+    }
+}
@@ -7,11 +7,13 @@ import static javax.lang.model.element.Modifier.FINAL;
 import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
 import static javax.lang.model.element.Modifier.STATIC;
+import static uk.gov.justice.services.core.annotation.Component.EVENT_LISTENER;
 import static uk.gov.justice.subscription.jms.core.ClassNameFactory.EVENT_VALIDATION_INTERCEPTOR;
 import static uk.gov.justice.subscription.jms.core.ClassNameFactory.JMS_LISTENER;
 import static uk.gov.justice.subscription.jms.core.JmsEndPointGeneratorUtil.shouldGenerateEventFilter;
 import static uk.gov.justice.subscription.jms.core.JmsEndPointGeneratorUtil.shouldListenToAllMessages;
 
+import uk.gov.justice.services.adapter.messaging.BatchJmsProcessor;
 import uk.gov.justice.services.adapter.messaging.JmsLoggerMetadataInterceptor;
 import uk.gov.justice.services.adapter.messaging.JmsProcessor;
 import uk.gov.justice.services.adapter.messaging.JsonSchemaValidationInterceptor;
@@ -19,11 +21,13 @@ import uk.gov.justice.services.core.annotation.Adapter;
 import uk.gov.justice.services.core.interceptor.InterceptorChainProcessor;
 import uk.gov.justice.services.generators.commons.config.CommonGeneratorProperties;
 import uk.gov.justice.services.messaging.logging.LoggerUtils;
+import uk.gov.justice.subscription.domain.Batch;
 import uk.gov.justice.subscription.domain.Event;
 import uk.gov.justice.subscription.domain.Subscription;
 import uk.gov.justice.subscription.domain.SubscriptionDescriptor;
 
 import java.util.List;
+import java.util.Optional;
 
 import javax.ejb.ActivationConfigProperty;
 import javax.ejb.MessageDriven;
@@ -56,6 +60,7 @@ public class MessageListenerCodeGenerator {
     private static final String ACTIVATION_CONFIG_PARAMETER = "activationConfig";
     private static final String INTERCEPTOR_CHAIN_PROCESS = "interceptorChainProcessor";
     private static final String JMS_PROCESSOR_FIELD = "jmsProcessor";
+    private static final String BATCH_JMS_PROCESSOR_FIELD = "batchJmsProcessor";
     private static final String LOGGER_FIELD = "LOGGER";
 
     private static final String DESTINATION_TYPE = "destinationType";
@@ -70,7 +75,9 @@ public class MessageListenerCodeGenerator {
     private final ComponentDestinationType componentDestinationType = new ComponentDestinationType();
 
     /**
-     * Create an implementation of the {@link MessageListener}.
+     * Create an implementation of the {@link MessageListener}. If the subscription has batch
+     * settings, the listener passes its messages to the {@link BatchJmsProcessor} to be processed
+     * in batches.
      *
      * @param subscriptionDescriptor    the subscription descriptor
      * @param subscription              the subscription
@@ -82,7 +89,28 @@ public class MessageListenerCodeGenerator {
                       final Subscription subscription,
                       final CommonGeneratorProperties commonGeneratorProperties,
                       final ClassNameFactory classNameFactory) {
-        return classSpecFrom(subscriptionDescriptor, subscription, commonGeneratorProperties, classNameFactory)
+        final Optional<Batch> batch = subscription.getBatch();
+        final TypeSpec.Builder typeSpecBuilder = classSpecFrom(subscriptionDescriptor, subscription, commonGeneratorProperties, classNameFactory);
+
+        if (batch.isPresent()) {
+            final String serviceComponent = subscriptionDescriptor.getServiceComponent().toUpperCase();
+
+            if (!serviceComponent.contains(EVENT_LISTENER)) {
+                throw new IllegalStateException(format("Batch processing of messages is unsupported for framework component type %s", serviceComponent));
+            }
+
+            return typeSpecBuilder
+                    .addField(FieldSpec.builder(ClassName.get(BatchJmsProcessor.class), BATCH_JMS_PROCESSOR_FIELD)
+                            .addAnnotation(Inject.class)
+                            .build())
+                    .addMethod(generateBatchOnMessageMethod(classNameFactory.classNameFor(JMS_LISTENER), batch.get()))
+                    .build();
+        }
+
+        return typeSpecBuilder
+                .addField(FieldSpec.builder(ClassName.get(JmsProcessor.class), JMS_PROCESSOR_FIELD)
+                        .addAnnotation(Inject.class)
+                        .build())
                 .addMethod(generateOnMessageMethod())
                 .build();
     }
@@ -118,9 +146,6 @@ public class MessageListenerCodeGenerator {
                     .addField(FieldSpec.builder(ClassName.get(InterceptorChainProcessor.class), INTERCEPTOR_CHAIN_PROCESS)
                             .addAnnotation(Inject.class)
                             .build())
-                    .addField(FieldSpec.builder(ClassName.get(JmsProcessor.class), JMS_PROCESSOR_FIELD)
-                            .addAnnotation(Inject.class)
-                            .build())
                     .addAnnotation(AnnotationSpec.builder(Adapter.class)
                             .addMember(DEFAULT_ANNOTATION_PARAMETER, "$S", serviceComponent)
                             .build())
@@ -193,6 +218,36 @@ public class MessageListenerCodeGenerator {
                 .build();
     }
 
+    /**
+     * Generate the onMessage method that passes a JMS message to be processed in a batch.
+     *
+     * @param className the name of the generated listener, which names its batch
+     * @param batch     the batch settings of the subscription
+     * @return the {@link MethodSpec} that represents the onMessage method
+     */
+    private MethodSpec generateBatchOnMessageMethod(final ClassName className, final Batch batch) {
+
+        final String messageFieldName = "message";
+
+        return MethodSpec.methodBuilder("onMessage")
+                .addModifiers(PUBLIC)
+                .addAnnotation(Override.class)
+                .addParameter(ParameterSpec
+                        .builder(Message.class, messageFieldName)
+                        .build())
+                .addCode(CodeBlock.builder()
+                        .addStatement("$T.trace(LOGGER, () -> \"Received JMS message\")", LoggerUtils.class)
+                        .addStatement("$L.process($L::process, $L, $S, $L, $LL)",
+                                BATCH_JMS_PROCESSOR_FIELD,
+                                INTERCEPTOR_CHAIN_PROCESS,
+                                messageFieldName,
+                                className.toString(),
+                                batch.getMaxMessages(),
+                                batch.getMaxWaitMillis())
+                        .build())
+                .build();
+    }
+
     /**
      * Generate the @MessageDriven annotation
      *
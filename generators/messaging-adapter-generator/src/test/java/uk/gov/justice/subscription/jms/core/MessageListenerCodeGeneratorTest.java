@@ -2,6 +2,8 @@ package uk.gov.justice.subscription.jms.core;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static uk.gov.justice.subscription.domain.builders.BatchBuilder.batch;
 import static uk.gov.justice.subscription.domain.builders.EventBuilder.event;
 import static uk.gov.justice.subscription.domain.builders.EventsourceBuilder.eventsource;
 import static uk.gov.justice.subscription.domain.builders.LocationBuilder.location;
@@ -252,4 +254,106 @@ public class MessageListenerCodeGeneratorTest  {
                 "  }\n" +
                 "}\n"));
     }
+
+    @Test
+    public void shouldGenerateBatchMDBForEventListenerWithBatchSettings() throws Exception {
+        final String basePackageName = "uk.gov.moj.base.package.name";
+        final String serviceName = "my-context";
+        final String componentName = "EVENT_LISTENER";
+        final String jmsUri = "jms:topic:my-context.handler.command";
+
+        final Subscription subscription = batchSubscriptionFor(jmsUri);
+        final SubscriptionDescriptor subscriptionDescriptor = subscriptionDescriptor()
+                .withSpecVersion("1.0.0")
+                .withService(serviceName)
+                .withServiceComponent(componentName)
+                .withSubscription(subscription)
+                .build();
+
+        final ClassNameFactory classNameFactory =
+                new ClassNameFactory(basePackageName, serviceName, componentName, jmsUri);
+
+        GeneratorProperties generatorProperties = new GeneratorPropertiesFactory().withServiceComponentOf(componentName);
+
+        final TypeSpec typeSpec = messageListenerCodeGenerator.generate(subscriptionDescriptor, subscription, (CommonGeneratorProperties) generatorProperties, classNameFactory);
+
+        assertThat(typeSpec.toString(), is("@uk.gov.justice.services.core.annotation.Adapter(\"EVENT_LISTENER\")\n" +
+                "@javax.ejb.MessageDriven(\n" +
+                "    activationConfig = {\n" +
+                "        @javax.ejb.ActivationConfigProperty(propertyName = \"destinationType\", propertyValue = \"javax.jms.Topic\"),\n" +
+                "        @javax.ejb.ActivationConfigProperty(propertyName = \"destinationLookup\", propertyValue = \"my-context.handler.command\"),\n" +
+                "        @javax.ejb.ActivationConfigProperty(propertyName = \"shareSubscriptions\", propertyValue = \"true\"),\n" +
+                "        @javax.ejb.ActivationConfigProperty(propertyName = \"subscriptionDurability\", propertyValue = \"Durable\"),\n" +
+                "        @javax.ejb.ActivationConfigProperty(propertyName = \"clientId\", propertyValue = \"my-context.event.listener\"),\n" +
+                "        @javax.ejb.ActivationConfigProperty(propertyName = \"subscriptionName\", propertyValue = \"my-context.event.listener.my-context.handler.command\")\n" +
+                "    }\n" +
+                ")\n" +
+                "@javax.interceptor.Interceptors({\n" +
+                "    uk.gov.justice.services.adapter.messaging.JmsLoggerMetadataInterceptor.class,\n" +
+                "    uk.gov.moj.base.package.name.MyContextEventListenerMyContextHandlerCommandEventValidationInterceptor.class\n" +
+                "})\n" +
+                "public class MyContextEventListenerMyContextHandlerCommandJmsListener implements javax.jms.MessageListener {\n" +
+                "  private static final org.slf4j.Logger LOGGER = org.slf4j.LoggerFactory.getLogger(uk.gov.moj.base.package.name.MyContextEventListenerMyContextHandlerCommandJmsListener.class);\n" +
+                "\n" +
+                "  @javax.inject.Inject\n" +
+                "  uk.gov.justice.services.core.interceptor.InterceptorChainProcessor interceptorChainProcessor;\n" +
+                "\n" +
+                "  @javax.inject.Inject\n" +
+                "  uk.gov.justice.services.adapter.messaging.BatchJmsProcessor batchJmsProcessor;\n" +
+                "\n" +
+                "  @java.lang.Override\n" +
+                "  public void onMessage(javax.jms.Message message) {\n" +
+                "    uk.gov.justice.services.messaging.logging.LoggerUtils.trace(LOGGER, () -> \"Received JMS message\");\n" +
+                "    batchJmsProcessor.process(interceptorChainProcessor::process, message, \"uk.gov.moj.base.package.name.MyContextEventListenerMyContextHandlerCommandJmsListener\", 100, 50L);\n" +
+                "  }\n" +
+                "}\n"));
+    }
+
+    @Test
+    public void shouldNotGenerateBatchMDBForComponentOtherThanEventListener() throws Exception {
+        final String serviceName = "my-context";
+        final String componentName = "EVENT_PROCESSOR";
+        final String jmsUri = "jms:topic:my-context.handler.command";
+
+        final Subscription subscription = batchSubscriptionFor(jmsUri);
+        final SubscriptionDescriptor subscriptionDescriptor = subscriptionDescriptor()
+                .withSpecVersion("1.0.0")
+                .withService(serviceName)
+                .withServiceComponent(componentName)
+                .withSubscription(subscription)
+                .build();
+
+        final ClassNameFactory classNameFactory =
+                new ClassNameFactory("uk.gov.moj.base.package.name", serviceName, componentName, jmsUri);
+
+        GeneratorProperties generatorProperties = new GeneratorPropertiesFactory().withServiceComponentOf(componentName);
+
+        try {
+            messageListenerCodeGenerator.generate(subscriptionDescriptor, subscription, (CommonGeneratorProperties) generatorProperties, classNameFactory);
+            fail();
+        } catch (final IllegalStateException e) {
+            assertThat(e.getMessage(), is("Batch processing of messages is unsupported for framework component type EVENT_PROCESSOR"));
+        }
+    }
+
+    private Subscription batchSubscriptionFor(final String jmsUri) {
+        return subscription()
+                .withName("subscription")
+                .withEvent(event()
+                        .withName("my-context.events.something-happened")
+                        .withSchemaUri("http://justice.gov.uk/json/schemas/domains/example/my-context.events.something-happened.json")
+                        .build())
+                .withEventsource(eventsource()
+                        .withName("eventsource")
+                        .withLocation(location()
+                                .withJmsUri(jmsUri)
+                                .withRestUri("http://localhost:8080/example/event-source-api/rest")
+                                .build())
+                        .build())
+                .withBatch(batch()
+                        .withMaxMessages(100)
+                        .withMaxWaitMillis(50L)
+                        .build())
+                .build();
+    }
 }
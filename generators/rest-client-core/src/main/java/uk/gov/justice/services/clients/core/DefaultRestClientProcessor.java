@@ -274,29 +274,37 @@ public class DefaultRestClientProcessor implements RestClientProcessor {
     }
 
     private void checkForAcceptedResponse(final Response response, final JsonEnvelope envelope, final String httpMethod) {
-        final int status = response.getStatus();
-
-        if (status != ACCEPTED.getStatusCode()) {
-            throw new RuntimeException(format("%s request %s failed; expected 202 response but got %s with reason \"%s\"",
-                    httpMethod,
-                    envelope.metadata().id().toString(), status,
-                    response.getStatusInfo().getReasonPhrase()));
+        try {
+            final int status = response.getStatus();
+
+            if (status != ACCEPTED.getStatusCode()) {
+                throw new RuntimeException(format("%s request %s failed; expected 202 response but got %s with reason \"%s\"",
+                        httpMethod,
+                        envelope.metadata().id().toString(), status,
+                        response.getStatusInfo().getReasonPhrase()));
+            }
+        } finally {
+            response.close();
         }
     }
 
     private JsonEnvelope processedResponse(final JsonEnvelope envelope, final Response response) {
-        final Response.Status status = fromStatusCode(response.getStatus());
-        switch (status) {
-            case OK:
-                final JsonObject responseAsJsonObject = stringToJsonObjectConverter.convert(response.readEntity(String.class));
-                return jsonObjectEnvelopeConverter.asEnvelope(addMetadataIfMissing(responseAsJsonObject, envelope.metadata(), response.getHeaderString(CPPID)));
-            case NOT_FOUND:
-                return enveloper.withMetadataFrom(envelope, envelope.metadata().name()).apply(null);
-            case FORBIDDEN:
-                throw new AccessControlViolationException(response.readEntity(String.class));
-            default:
-                throw new RuntimeException(format("Request %s failed; expected 200 but got %s with reason \"%s\"",
-                        envelope.metadata().id().toString(), response.getStatus(), response.getStatusInfo().getReasonPhrase()));
+        try {
+            final Response.Status status = fromStatusCode(response.getStatus());
+            switch (status) {
+                case OK:
+                    final JsonObject responseAsJsonObject = stringToJsonObjectConverter.convert(response.readEntity(String.class));
+                    return jsonObjectEnvelopeConverter.asEnvelope(addMetadataIfMissing(responseAsJsonObject, envelope.metadata(), response.getHeaderString(CPPID)));
+                case NOT_FOUND:
+                    return enveloper.withMetadataFrom(envelope, envelope.metadata().name()).apply(null);
+                case FORBIDDEN:
+                    throw new AccessControlViolationException(response.readEntity(String.class));
+                default:
+                    throw new RuntimeException(format("Request %s failed; expected 200 but got %s with reason \"%s\"",
+                            envelope.metadata().id().toString(), response.getStatus(), response.getStatusInfo().getReasonPhrase()));
+            }
+        } finally {
+            response.close();
         }
     }
 
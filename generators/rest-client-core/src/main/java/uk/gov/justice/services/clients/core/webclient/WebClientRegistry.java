@@ -0,0 +1,175 @@
+package uk.gov.justice.services.clients.core.webclient;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import uk.gov.justice.services.common.configuration.GlobalValue;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToIntFunction;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.ws.rs.client.Client;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of shared JAX-RS clients, one per remote base URI.
+ *
+ * Each client is backed by its own pooled, keep-alive Apache HttpClient connection manager, so
+ * connections to a remote service are reused across requests instead of a new client being built
+ * for every call. Timeouts and connection limits default to the global values below and can be
+ * overridden per service with a system property of the form {@code
+ * rest.client.<web-context>.<setting>}, e.g. {@code rest.client.people-query-api.read.timeout.millis}.
+ */
+@ApplicationScoped
+public class WebClientRegistry {
+
+    static final String SERVICE_SETTING_PATTERN = "rest.client.%s.%s";
+    static final String CONNECT_TIMEOUT = "connect.timeout.millis";
+    static final String READ_TIMEOUT = "read.timeout.millis";
+    static final String CONNECTION_REQUEST_TIMEOUT = "connection.request.timeout.millis";
+    static final String MAX_CONNECTIONS_PER_ROUTE = "max.connections.per.route";
+    static final String MAX_CONNECTIONS_TOTAL = "max.connections.total";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebClientRegistry.class);
+
+    private static final int WEB_CONTEXT_POSITION = 3;
+
+    @Inject
+    @GlobalValue(key = "rest.client.connect.timeout.millis", defaultValue = "5000")
+    long connectTimeoutMillis;
+
+    @Inject
+    @GlobalValue(key = "rest.client.read.timeout.millis", defaultValue = "60000")
+    long readTimeoutMillis;
+
+    @Inject
+    @GlobalValue(key = "rest.client.connection.request.timeout.millis", defaultValue = "5000")
+    long connectionRequestTimeoutMillis;
+
+    @Inject
+    @GlobalValue(key = "rest.client.max.connections.per.route", defaultValue = "20")
+    long maxConnectionsPerRoute;
+
+    @Inject
+    @GlobalValue(key = "rest.client.max.connections.total", defaultValue = "50")
+    long maxConnectionsTotal;
+
+    @Inject
+    @GlobalValue(key = "rest.client.idle.connection.timeout.millis", defaultValue = "30000")
+    long idleConnectionTimeoutMillis;
+
+    private final ConcurrentMap<String, PooledWebClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the shared client for the given base URI, creating it on first use.
+     *
+     * @param baseUri the resolved base URI of the remote service
+     * @return the shared client; callers must not close it
+     */
+    public Client clientFor(final String baseUri) {
+        return clients.computeIfAbsent(baseUri, this::createClient).client;
+    }
+
+    /**
+     * @param baseUri the resolved base URI of the remote service
+     * @return connection pool statistics for the service, if a client has been created for it
+     */
+    public Optional<PoolStats> poolStatsFor(final String baseUri) {
+        return Optional.ofNullable(clients.get(baseUri))
+                .map(pooledWebClient -> pooledWebClient.connectionManager.getTotalStats());
+    }
+
+    public int getLeasedConnections() {
+        return sumOf(PoolStats::getLeased);
+    }
+
+    public int getIdleConnections() {
+        return sumOf(PoolStats::getAvailable);
+    }
+
+    public int getPendingConnections() {
+        return sumOf(PoolStats::getPending);
+    }
+
+    @PreDestroy
+    void close() {
+        clients.values().forEach(PooledWebClient::close);
+        clients.clear();
+    }
+
+    private int sumOf(final ToIntFunction<PoolStats> statistic) {
+        return clients.values().stream()
+                .map(pooledWebClient -> pooledWebClient.connectionManager.getTotalStats())
+                .mapToInt(statistic)
+                .sum();
+    }
+
+    private PooledWebClient createClient(final String baseUri) {
+        final String service = serviceOf(baseUri);
+
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(setting(service, MAX_CONNECTIONS_TOTAL, maxConnectionsTotal));
+        connectionManager.setDefaultMaxPerRoute(setting(service, MAX_CONNECTIONS_PER_ROUTE, maxConnectionsPerRoute));
+
+        final RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(setting(service, CONNECT_TIMEOUT, connectTimeoutMillis))
+                .setSocketTimeout(setting(service, READ_TIMEOUT, readTimeoutMillis))
+                .setConnectionRequestTimeout(setting(service, CONNECTION_REQUEST_TIMEOUT, connectionRequestTimeoutMillis))
+                .build();
+
+        final CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleConnectionTimeoutMillis, MILLISECONDS)
+                .build();
+
+        LOGGER.info("Creating pooled REST client for {}", baseUri);
+
+        final Client client = new ResteasyClientBuilder()
+                .httpEngine(new ApacheHttpClient4Engine(httpClient, true))
+                .build();
+
+        return new PooledWebClient(client, connectionManager);
+    }
+
+    private int setting(final String service, final String name, final long defaultValue) {
+        final String override = System.getProperty(format(SERVICE_SETTING_PATTERN, service, name));
+        return (int) (override == null ? defaultValue : Long.parseLong(override));
+    }
+
+    private String serviceOf(final String baseUri) {
+        final String[] uriParts = baseUri.split("/");
+        return uriParts.length > WEB_CONTEXT_POSITION ? uriParts[WEB_CONTEXT_POSITION] : baseUri;
+    }
+
+    private static class PooledWebClient {
+
+        private final Client client;
+        private final PoolingHttpClientConnectionManager connectionManager;
+
+        private PooledWebClient(final Client client, final PoolingHttpClientConnectionManager connectionManager) {
+            this.client = client;
+            this.connectionManager = connectionManager;
+        }
+
+        private void close() {
+            client.close();
+            connectionManager.shutdown();
+        }
+    }
+}
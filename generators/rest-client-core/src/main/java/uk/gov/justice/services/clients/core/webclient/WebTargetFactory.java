@@ -8,8 +8,6 @@ import uk.gov.justice.services.messaging.JsonEnvelope;
 
 import javax.inject.Inject;
 import javax.json.JsonObject;
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.WebTarget;
 
 public class WebTargetFactory {
@@ -17,12 +15,15 @@ public class WebTargetFactory {
     @Inject
     public BaseUriFactory baseUriFactory;
 
+    @Inject
+    WebClientRegistry webClientRegistry;
+
     public WebTarget createWebTarget(final EndpointDefinition definition, final JsonEnvelope envelope) {
         final JsonObject payload = envelope.payloadAsJsonObject();
-        final Client client = ClientBuilder.newClient();
+        final String baseUri = baseUriFactory.createBaseUri(definition);
 
-        WebTarget target = client
-                .target(baseUriFactory.createBaseUri(definition))
+        WebTarget target = webClientRegistry.clientFor(baseUri)
+                .target(baseUri)
                 .path(definition.getPath());
 
         for (String pathParam : definition.getPathParams()) {
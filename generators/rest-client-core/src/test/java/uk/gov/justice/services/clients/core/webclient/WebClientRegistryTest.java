@@ -0,0 +1,102 @@
+package uk.gov.justice.services.clients.core.webclient;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import uk.gov.justice.services.common.configuration.GlobalValue;
+
+import java.lang.reflect.Field;
+import java.util.Optional;
+
+import javax.inject.Inject;
+import javax.ws.rs.client.Client;
+
+import org.apache.http.pool.PoolStats;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WebClientRegistryTest {
+
+    private static final String BASE_URI = "http://localhost:8080/people-query-api/query/api/rest/people";
+    private static final String OTHER_BASE_URI = "http://localhost:8080/structure-query-api/query/api/rest/structure";
+
+    private WebClientRegistry webClientRegistry;
+
+    @Before
+    public void setup() {
+        webClientRegistry = new WebClientRegistry();
+        webClientRegistry.connectTimeoutMillis = 1000L;
+        webClientRegistry.readTimeoutMillis = 1000L;
+        webClientRegistry.connectionRequestTimeoutMillis = 1000L;
+        webClientRegistry.maxConnectionsPerRoute = 5L;
+        webClientRegistry.maxConnectionsTotal = 10L;
+        webClientRegistry.idleConnectionTimeoutMillis = 1000L;
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty("rest.client.people-query-api.max.connections.total");
+        webClientRegistry.close();
+    }
+
+    @Test
+    public void shouldHaveGlobalSettingsInjected() {
+        int globalSettings = 0;
+
+        for (final Field field : WebClientRegistry.class.getDeclaredFields()) {
+            if (field.isAnnotationPresent(GlobalValue.class)) {
+                assertThat(field.getName() + " is injected", field.isAnnotationPresent(Inject.class), is(true));
+                globalSettings++;
+            }
+        }
+
+        assertThat(globalSettings, is(6));
+    }
+
+    @Test
+    public void shouldReuseClientForSameBaseUri() {
+        final Client client = webClientRegistry.clientFor(BASE_URI);
+
+        assertThat(webClientRegistry.clientFor(BASE_URI), is(sameInstance(client)));
+    }
+
+    @Test
+    public void shouldCreateSeparateClientPerBaseUri() {
+        final Client client = webClientRegistry.clientFor(BASE_URI);
+
+        assertThat(webClientRegistry.clientFor(OTHER_BASE_URI), is(not(sameInstance(client))));
+    }
+
+    @Test
+    public void shouldExposePoolStatsUsingGlobalSettings() {
+        webClientRegistry.clientFor(BASE_URI);
+
+        final Optional<PoolStats> poolStats = webClientRegistry.poolStatsFor(BASE_URI);
+
+        assertThat(poolStats.isPresent(), is(true));
+        assertThat(poolStats.get().getMax(), is(10));
+        assertThat(poolStats.get().getLeased(), is(0));
+        assertThat(webClientRegistry.getLeasedConnections(), is(0));
+        assertThat(webClientRegistry.getIdleConnections(), is(0));
+        assertThat(webClientRegistry.getPendingConnections(), is(0));
+    }
+
+    @Test
+    public void shouldApplyPerServiceOverride() {
+        System.setProperty("rest.client.people-query-api.max.connections.total", "3");
+
+        webClientRegistry.clientFor(BASE_URI);
+        webClientRegistry.clientFor(OTHER_BASE_URI);
+
+        assertThat(webClientRegistry.poolStatsFor(BASE_URI).get().getMax(), is(3));
+        assertThat(webClientRegistry.poolStatsFor(OTHER_BASE_URI).get().getMax(), is(10));
+    }
+
+    @Test
+    public void shouldReturnEmptyPoolStatsForUnknownBaseUri() {
+        assertThat(webClientRegistry.poolStatsFor(BASE_URI).isPresent(), is(false));
+    }
+}
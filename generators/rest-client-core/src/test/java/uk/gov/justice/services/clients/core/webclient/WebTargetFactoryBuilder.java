@@ -26,7 +26,19 @@ public class WebTargetFactoryBuilder {
         webTargetFactory.baseUriFactory.mockServerPortProvider = new MockServerPortProvider();
         webTargetFactory.baseUriFactory.mockServerPortProvider.contextMatcher = new ContextMatcher();
         webTargetFactory.baseUriFactory.mockServerPortProvider.contextMatcher.contextNameProvider = jndiBasedServiceContextNameProviderWith(appName);
+        webTargetFactory.webClientRegistry = aWebClientRegistry();
 
         return webTargetFactory;
     }
+
+    private WebClientRegistry aWebClientRegistry() {
+        final WebClientRegistry webClientRegistry = new WebClientRegistry();
+        webClientRegistry.connectTimeoutMillis = 5000L;
+        webClientRegistry.readTimeoutMillis = 60000L;
+        webClientRegistry.connectionRequestTimeoutMillis = 5000L;
+        webClientRegistry.maxConnectionsPerRoute = 20L;
+        webClientRegistry.maxConnectionsTotal = 50L;
+        webClientRegistry.idleConnectionTimeoutMillis = 30000L;
+        return webClientRegistry;
+    }
 }
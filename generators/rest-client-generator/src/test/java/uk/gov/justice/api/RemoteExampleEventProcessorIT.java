@@ -38,6 +38,7 @@ import uk.gov.justice.services.clients.core.DefaultRestClientProcessor;
 import uk.gov.justice.services.clients.core.webclient.BaseUriFactory;
 import uk.gov.justice.services.clients.core.webclient.ContextMatcher;
 import uk.gov.justice.services.clients.core.webclient.MockServerPortProvider;
+import uk.gov.justice.services.clients.core.webclient.WebClientRegistry;
 import uk.gov.justice.services.clients.core.webclient.WebTargetFactory;
 import uk.gov.justice.services.common.configuration.GlobalValueProducer;
 import uk.gov.justice.services.common.configuration.JndiBasedServiceContextNameProvider;
@@ -182,6 +183,7 @@ public class RemoteExampleEventProcessorIT {
             StringToJsonObjectConverter.class,
             SystemUserUtil.class,
             WebTargetFactory.class,
+            WebClientRegistry.class,
             UtcClock.class,
             SenderProducer.class,
             FileBasedJsonSchemaValidator.class,
@@ -26,6 +26,7 @@ import uk.gov.justice.services.clients.core.DefaultRestClientProcessor;
 import uk.gov.justice.services.clients.core.webclient.BaseUriFactory;
 import uk.gov.justice.services.clients.core.webclient.ContextMatcher;
 import uk.gov.justice.services.clients.core.webclient.MockServerPortProvider;
+import uk.gov.justice.services.clients.core.webclient.WebClientRegistry;
 import uk.gov.justice.services.clients.core.webclient.WebTargetFactory;
 import uk.gov.justice.services.common.configuration.GlobalValueProducer;
 import uk.gov.justice.services.common.configuration.JndiBasedServiceContextNameProvider;
@@ -168,6 +169,7 @@ public class RemoteExampleQueryApiIT {
             TestSystemUserProvider.class,
             RemoteComponentAbc2ExampleQueryController.class,
             WebTargetFactory.class,
+            WebClientRegistry.class,
             UtcClock.class,
 
             EmptySystemUserProvider.class,
@@ -68,6 +68,7 @@ import uk.gov.justice.services.core.sender.SenderProducer;
 import uk.gov.justice.services.event.buffer.api.AbstractEventFilter;
 import uk.gov.justice.services.event.buffer.api.AllowAllEventFilter;
 import uk.gov.justice.services.event.buffer.core.service.ConsecutiveEventBufferService;
+import uk.gov.justice.services.jdbc.persistence.JdbcConnectionMetrics;
 import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryHelper;
 import uk.gov.justice.services.jdbc.persistence.ViewStoreJdbcDataSourceProvider;
 import uk.gov.justice.services.messaging.DefaultJsonObjectEnvelopeConverter;
@@ -178,6 +179,7 @@ public class EventBufferAndFilterChainIT {
             JsonSchemaLoader.class,
             DefaultTraceLogger.class,
             JdbcRepositoryHelper.class,
+            JdbcConnectionMetrics.class,
             ViewStoreJdbcDataSourceProvider.class,
             StreamBufferOpenEjbAwareJdbcRepository.class,
             StreamStatusOpenEjbAwareJdbcRepository.class,
@@ -68,6 +68,7 @@ import uk.gov.justice.services.event.buffer.core.repository.streambuffer.StreamB
 import uk.gov.justice.services.event.buffer.core.repository.streamstatus.StreamStatus;
 import uk.gov.justice.services.event.buffer.core.repository.streamstatus.StreamStatusJdbcRepository;
 import uk.gov.justice.services.event.buffer.core.service.ConsecutiveEventBufferService;
+import uk.gov.justice.services.jdbc.persistence.JdbcConnectionMetrics;
 import uk.gov.justice.services.jdbc.persistence.JdbcRepositoryHelper;
 import uk.gov.justice.services.jdbc.persistence.ViewStoreJdbcDataSourceProvider;
 import uk.gov.justice.services.messaging.DefaultJsonObjectEnvelopeConverter;
@@ -191,6 +192,7 @@ public class EventBufferIT {
             JsonSchemaLoader.class,
             DefaultTraceLogger.class,
             JdbcRepositoryHelper.class,
+            JdbcConnectionMetrics.class,
             ViewStoreJdbcDataSourceProvider.class,
             StreamBufferJdbcRepository.class,
             StreamStatusJdbcRepository.class,
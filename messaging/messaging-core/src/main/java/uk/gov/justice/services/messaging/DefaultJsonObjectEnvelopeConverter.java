@@ -7,6 +7,8 @@ import static uk.gov.justice.services.messaging.JsonEnvelope.METADATA;
 import static uk.gov.justice.services.messaging.JsonEnvelope.envelopeFrom;
 import static uk.gov.justice.services.messaging.JsonEnvelope.metadataFrom;
 
+import uk.gov.justice.services.messaging.spi.LazyJsonEnvelope;
+
 import java.io.StringReader;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -71,8 +73,16 @@ public class DefaultJsonObjectEnvelopeConverter implements JsonObjectEnvelopeCon
         return builder.build();
     }
 
+    /**
+     * The object mapper leaves out null fields, so the text of an envelope read from the event log
+     * is only written out as it is when it has no null values.
+     */
     @Override
     public String asJsonString(final JsonEnvelope envelope) {
+        if (envelope instanceof LazyJsonEnvelope && !((LazyJsonEnvelope) envelope).hasNullValues()) {
+            return ((LazyJsonEnvelope) envelope).asJsonString();
+        }
+
         try {
             return objectMapper.writeValueAsString(fromEnvelope(envelope));
         } catch (JsonProcessingException e) {
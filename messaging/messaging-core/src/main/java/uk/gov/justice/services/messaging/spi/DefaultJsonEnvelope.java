@@ -49,22 +49,22 @@ public class DefaultJsonEnvelope implements JsonEnvelope {
 
     @Override
     public JsonObject payloadAsJsonObject() {
-        return (JsonObject) payload;
+        return (JsonObject) payload();
     }
 
     @Override
     public JsonArray payloadAsJsonArray() {
-        return (JsonArray) payload;
+        return (JsonArray) payload();
     }
 
     @Override
     public JsonNumber payloadAsJsonNumber() {
-        return (JsonNumber) payload;
+        return (JsonNumber) payload();
     }
 
     @Override
     public JsonString payloadAsJsonString() {
-        return (JsonString) payload;
+        return (JsonString) payload();
     }
 
     @Override
@@ -76,6 +76,7 @@ public class DefaultJsonEnvelope implements JsonEnvelope {
     @Override
     public String toString() {
         final JsonObjectBuilder builder = Json.createObjectBuilder();
+        final Metadata metadata = metadata();
 
         if (metadata != null) {
             builder.add("id", String.valueOf(metadata.id()))
@@ -107,7 +108,7 @@ public class DefaultJsonEnvelope implements JsonEnvelope {
     @Override
     public String toObfuscatedDebugString() {
         return writeJsonObject(createObjectBuilder((JsonObject) obfuscated(payloadAsJsonObject()))
-                .add(METADATA, metadata.asJsonObject())
+                .add(METADATA, metadata().asJsonObject())
                 .build());
     }
 
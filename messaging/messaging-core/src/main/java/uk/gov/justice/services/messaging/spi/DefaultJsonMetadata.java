@@ -1,5 +1,6 @@
 package uk.gov.justice.services.messaging.spi;
 
+import static java.util.Collections.unmodifiableList;
 import static uk.gov.justice.services.messaging.JsonObjects.getJsonString;
 import static uk.gov.justice.services.messaging.JsonObjects.getLong;
 import static uk.gov.justice.services.messaging.JsonObjects.getString;
@@ -25,13 +26,37 @@ import javax.json.JsonString;
 
 /**
  * Implementation of metadata that uses a JsonObject internally to store the metadata.
+ *
+ * The fields of the metadata are decoded once, when it is built, and the accessors return the
+ * decoded values. The JsonObject is kept to write the metadata out, with any extension fields.
  */
 public class DefaultJsonMetadata extends JsonMetadata {
 
     private final JsonObject metadata;
 
-    private DefaultJsonMetadata(final JsonObject metadata) {
+    private final UUID id;
+    private final String name;
+    private final Optional<String> clientCorrelationId;
+    private final List<UUID> causation;
+    private final Optional<String> userId;
+    private final Optional<String> sessionId;
+    private final Optional<UUID> streamId;
+    private final Optional<Long> version;
+    private final Optional<ZonedDateTime> createdAt;
+    private final Optional<String> source;
+
+    private DefaultJsonMetadata(final JsonObject metadata, final UUID id, final String name) {
         this.metadata = metadata;
+        this.id = id;
+        this.name = name;
+        this.clientCorrelationId = getString(metadata, CLIENT_CORRELATION_PATH);
+        this.causation = unmodifiableList(getUUIDs(metadata, CAUSATION));
+        this.userId = getString(metadata, USER_ID_PATH);
+        this.sessionId = getString(metadata, SESSION_ID_PATH);
+        this.streamId = getUUID(metadata, STREAM_ID_PATH);
+        this.version = getLong(metadata, VERSION_PATH);
+        this.createdAt = getString(metadata, CREATED_AT).map(ZonedDateTimes::fromString);
+        this.source = getString(metadata, SOURCE);
     }
 
     /**
@@ -69,7 +94,7 @@ public class DefaultJsonMetadata extends JsonMetadata {
 
         JsonString id = getJsonString(jsonObject, ID)
                 .orElseThrow(() -> new IllegalArgumentException("Missing id field"));
-        UUID.fromString(id.getString());
+        final UUID uuid = UUID.fromString(id.getString());
 
         JsonString name = getJsonString(jsonObject, NAME)
                 .orElseThrow(() -> new IllegalArgumentException("Missing name field"));
@@ -77,54 +102,52 @@ public class DefaultJsonMetadata extends JsonMetadata {
             throw new IllegalArgumentException("Name field cannot be empty");
         }
 
-        return new DefaultJsonMetadata(jsonObject);
+        return new DefaultJsonMetadata(jsonObject, uuid, name.getString());
     }
 
     @Override
     public UUID id() {
-        return getUUID(metadata, ID)
-                .orElseThrow(() -> new IllegalStateException("Missing id field"));
+        return id;
     }
 
     @Override
     public String name() {
-        return getString(metadata, NAME)
-                .orElseThrow(() -> new IllegalStateException("Missing name field"));
+        return name;
     }
 
     @Override
     public Optional<String> clientCorrelationId() {
-        return getString(metadata, CLIENT_CORRELATION_PATH);
+        return clientCorrelationId;
     }
 
     @Override
     public List<UUID> causation() {
-        return getUUIDs(metadata, CAUSATION);
+        return causation;
     }
 
     @Override
     public Optional<String> userId() {
-        return getString(metadata, USER_ID_PATH);
+        return userId;
     }
 
     @Override
     public Optional<String> sessionId() {
-        return getString(metadata, SESSION_ID_PATH);
+        return sessionId;
     }
 
     @Override
     public Optional<UUID> streamId() {
-        return getUUID(metadata, STREAM_ID_PATH);
+        return streamId;
     }
 
     @Override
     public Optional<Long> version() {
-        return getLong(metadata, VERSION_PATH);
+        return version;
     }
 
     @Override
     public Optional<Long> position() {
-        return getLong(metadata, VERSION_PATH);
+        return version;
     }
 
     @Override
@@ -134,13 +157,12 @@ public class DefaultJsonMetadata extends JsonMetadata {
 
     @Override
     public Optional<ZonedDateTime> createdAt() {
-        Optional<String> zonedDateTime = getString(metadata, CREATED_AT);
-        return zonedDateTime.map(ZonedDateTimes::fromString);
+        return createdAt;
     }
 
     @Override
     public Optional<String> source() {
-        return getString(metadata, SOURCE);
+        return source;
     }
 
     @Override
@@ -0,0 +1,199 @@
+package uk.gov.justice.services.messaging.spi;
+
+import static java.lang.String.format;
+import static java.util.Collections.emptyMap;
+import static javax.json.Json.createReaderFactory;
+
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.Metadata;
+
+import java.io.StringReader;
+
+import javax.json.JsonReader;
+import javax.json.JsonReaderFactory;
+import javax.json.JsonValue;
+
+/**
+ * Envelope over the JSON text of its metadata and payload, as stored in the event log, which
+ * parses the metadata and the payload separately on first access.
+ *
+ * Reading only the metadata of an event does not parse its payload, and code that copies an event
+ * can use {@link #payloadJson()} and {@link #metadataJson()} to write the original text again
+ * without serializing the parsed values. An event being appended is encoded once by {@link
+ * #encodedEnvelopeFrom(JsonEnvelope)}, so that storing and publishing it use the same text.
+ */
+public class LazyJsonEnvelope extends DefaultJsonEnvelope {
+
+    private static final JsonReaderFactory READER_FACTORY = createReaderFactory(emptyMap());
+
+    private final String metadataJson;
+    private final String payloadJson;
+
+    private volatile Metadata metadata;
+    private volatile JsonValue payload;
+    private volatile String envelopeJson;
+    private volatile Boolean nullValues;
+
+    private LazyJsonEnvelope(final String metadataJson, final Metadata metadata, final String payloadJson, final JsonValue payload) {
+        super(null, null);
+        this.metadataJson = metadataJson;
+        this.metadata = metadata;
+        this.payloadJson = payloadJson;
+        this.payload = payload;
+    }
+
+    /**
+     * Creates an envelope over the JSON text of its metadata and payload.
+     *
+     * @param metadataJson the metadata as a JSON object
+     * @param payloadJson  the payload as a JSON object or array
+     * @return the envelope
+     */
+    public static LazyJsonEnvelope lazyEnvelopeFrom(final String metadataJson, final String payloadJson) {
+        return new LazyJsonEnvelope(metadataJson, null, payloadJson, null);
+    }
+
+    /**
+     * Creates an envelope with the metadata and payload of the given envelope, writing each of
+     * them as JSON text once.
+     *
+     * @param envelope the envelope to encode
+     * @return the envelope with the text of its metadata and payload
+     */
+    public static LazyJsonEnvelope encodedEnvelopeFrom(final JsonEnvelope envelope) {
+        if (envelope instanceof LazyJsonEnvelope) {
+            return (LazyJsonEnvelope) envelope;
+        }
+
+        final Metadata metadata = envelope.metadata();
+        final JsonValue payload = envelope.payload();
+        return new LazyJsonEnvelope(metadata.asJsonObject().toString(), metadata, payload.toString(), payload);
+    }
+
+    @Override
+    public Metadata metadata() {
+        Metadata parsedMetadata = metadata;
+        if (parsedMetadata == null) {
+            try (final JsonReader reader = READER_FACTORY.createReader(new StringReader(metadataJson))) {
+                parsedMetadata = DefaultJsonMetadata.metadataBuilderFrom(reader.readObject()).build();
+            }
+            metadata = parsedMetadata;
+        }
+        return parsedMetadata;
+    }
+
+    @Override
+    public JsonValue payload() {
+        JsonValue parsedPayload = payload;
+        if (parsedPayload == null) {
+            try (final JsonReader reader = READER_FACTORY.createReader(new StringReader(payloadJson))) {
+                parsedPayload = reader.read();
+            }
+            payload = parsedPayload;
+        }
+        return parsedPayload;
+    }
+
+    /**
+     * @return the JSON text of the metadata
+     */
+    public String metadataJson() {
+        return metadataJson;
+    }
+
+    /**
+     * @return the original JSON text of the payload
+     */
+    public String payloadJson() {
+        return payloadJson;
+    }
+
+    /**
+     * Copies this envelope with different metadata, keeping the original text of the payload.
+     *
+     * @param metadata the metadata of the copy
+     * @return an envelope with the given metadata and the payload of this envelope
+     */
+    public LazyJsonEnvelope withMetadata(final Metadata metadata) {
+        return new LazyJsonEnvelope(metadata.asJsonObject().toString(), metadata, payloadJson, payload);
+    }
+
+    /**
+     * Checks the JSON text of the metadata and payload for null values, ignoring "null" inside
+     * strings. The text is checked once per envelope.
+     *
+     * @return true if the metadata or the payload contains a JSON null value
+     */
+    public boolean hasNullValues() {
+        Boolean hasNullValues = nullValues;
+        if (hasNullValues == null) {
+            hasNullValues = containsNullValue(metadataJson) || containsNullValue(payloadJson);
+            nullValues = hasNullValues;
+        }
+        return hasNullValues;
+    }
+
+    /**
+     * Writes this envelope as a single JSON object, with the metadata under {@link
+     * JsonEnvelope#METADATA} followed by the fields of the payload, splicing the JSON text of the
+     * metadata and payload together rather than serializing their parsed values. The text is
+     * written once per envelope.
+     *
+     * @return the envelope as JSON text
+     * @throws IllegalArgumentException if the payload is not a JSON object
+     */
+    public String asJsonString() {
+        String json = envelopeJson;
+        if (json == null) {
+            json = spliceJson();
+            envelopeJson = json;
+        }
+        return json;
+    }
+
+    private String spliceJson() {
+        final int payloadStart = skipWhitespace(payloadJson, 0);
+        if (payloadStart == payloadJson.length() || payloadJson.charAt(payloadStart) != '{') {
+            throw new IllegalArgumentException(format("Payload type %s not supported.", payload().getValueType()));
+        }
+
+        final StringBuilder json = new StringBuilder(metadataJson.length() + payloadJson.length() + METADATA.length() + 4)
+                .append("{\"").append(METADATA).append("\":").append(metadataJson);
+
+        final int fieldsStart = skipWhitespace(payloadJson, payloadStart + 1);
+        if (fieldsStart < payloadJson.length() && payloadJson.charAt(fieldsStart) != '}') {
+            json.append(',');
+        }
+        return json.append(payloadJson, fieldsStart, payloadJson.length()).toString();
+    }
+
+    /**
+     * Outside of strings, valid JSON text can only contain an 'n' as the start of a null literal.
+     */
+    private static boolean containsNullValue(final String json) {
+        boolean inString = false;
+        for (int index = 0; index < json.length(); index++) {
+            final char c = json.charAt(index);
+            if (inString) {
+                if (c == '\\') {
+                    index++;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == 'n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int skipWhitespace(final String json, final int from) {
+        int index = from;
+        while (index < json.length() && Character.isWhitespace(json.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+}
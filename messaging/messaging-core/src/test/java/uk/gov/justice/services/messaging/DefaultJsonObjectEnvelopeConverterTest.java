@@ -15,8 +15,10 @@ import static org.skyscreamer.jsonassert.JSONAssert.assertEquals;
 import static uk.gov.justice.services.messaging.JsonEnvelope.envelopeFrom;
 import static uk.gov.justice.services.messaging.JsonEnvelope.metadataBuilder;
 import static uk.gov.justice.services.messaging.JsonEnvelope.metadataFrom;
+import static uk.gov.justice.services.messaging.spi.LazyJsonEnvelope.lazyEnvelopeFrom;
 
 import uk.gov.justice.services.common.converter.jackson.ObjectMapperProducer;
+import uk.gov.justice.services.messaging.spi.LazyJsonEnvelope;
 
 import java.io.IOException;
 import java.io.StringReader;
@@ -120,6 +122,42 @@ public class DefaultJsonObjectEnvelopeConverterTest {
         assertEquals(jsonFromFile("envelope-with-field-not-present"), jsonObjectEnvelopeConverter.asJsonString(envelope), true);
     }
 
+    @Test
+    public void shouldReturnJsonStringFromTextOfLazyEnvelope() throws Exception {
+        final JsonObject input = jsonObjectFromFile("envelope");
+
+        final JsonEnvelope envelope = lazyEnvelopeFrom(
+                input.getJsonObject(METADATA).toString(),
+                jsonObjectEnvelopeConverter.extractPayloadFromEnvelope(input).toString());
+
+        jsonObjectEnvelopeConverter.objectMapper = mock(ObjectMapper.class);
+
+        assertEquals(jsonFromFile("envelope"), jsonObjectEnvelopeConverter.asJsonString(envelope), true);
+    }
+
+    @Test
+    public void shouldReturnJsonStringFromTextOfLazyEnvelopeWithTheTextNullInStrings() throws Exception {
+        final JsonObject input = jsonObjectFromFile("envelope");
+        final String payloadJson = "{\"description\":\"nullable\",\"status\":\"null\"}";
+
+        final JsonEnvelope envelope = lazyEnvelopeFrom(input.getJsonObject(METADATA).toString(), payloadJson);
+
+        jsonObjectEnvelopeConverter.objectMapper = mock(ObjectMapper.class);
+
+        assertThat(jsonObjectEnvelopeConverter.asJsonString(envelope), is(((LazyJsonEnvelope) envelope).asJsonString()));
+    }
+
+    @Test
+    public void shouldRemoveNullsInJsonStringFromLazyEnvelope() throws Exception {
+        final JsonObject input = jsonObjectFromFile("envelope-with-null");
+
+        final JsonEnvelope envelope = lazyEnvelopeFrom(
+                input.getJsonObject(METADATA).toString(),
+                jsonObjectEnvelopeConverter.extractPayloadFromEnvelope(input).toString());
+
+        assertEquals(jsonFromFile("envelope-with-field-not-present"), jsonObjectEnvelopeConverter.asJsonString(envelope), true);
+    }
+
     @Test
     public void shouldReturnJsonObjectFromEnvelopeWithObjectPayload() throws IOException {
         final JsonObject expectedEnvelope = jsonObjectFromFile("envelope");
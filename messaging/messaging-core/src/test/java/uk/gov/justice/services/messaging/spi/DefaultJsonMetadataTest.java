@@ -4,6 +4,7 @@ import static javax.json.Json.createObjectBuilder;
 import static javax.json.JsonValue.NULL;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static uk.gov.justice.services.messaging.JsonEnvelope.METADATA;
 import static uk.gov.justice.services.messaging.JsonMetadata.CAUSATION;
@@ -21,10 +22,12 @@ import static uk.gov.justice.services.messaging.JsonMetadata.VERSION;
 import static uk.gov.justice.services.messaging.spi.DefaultJsonMetadata.metadataBuilderFrom;
 
 import uk.gov.justice.services.common.converter.StringToJsonObjectConverter;
+import uk.gov.justice.services.common.converter.ZonedDateTimes;
 import uk.gov.justice.services.messaging.Metadata;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.time.ZonedDateTime;
 import java.util.UUID;
 
 import javax.json.Json;
@@ -147,6 +150,28 @@ public class DefaultJsonMetadataTest {
         assertThat(metadata.position().get(), equalTo(STREAM_VERSION));
     }
 
+    @Test
+    public void shouldReturnCreatedAt() throws Exception {
+        final ZonedDateTime createdAt = ZonedDateTimes.fromString("2017-01-02T03:04:05.678Z");
+
+        final Metadata metadata = metadataBuilderFrom(jsonObject).createdAt(createdAt).build();
+
+        assertThat(metadata.createdAt().isPresent(), is(true));
+        assertThat(metadata.createdAt().get().toInstant(), equalTo(createdAt.toInstant()));
+    }
+
+    @Test
+    public void shouldDecodeFieldsOnce() throws Exception {
+        assertThat(metadata.streamId(), sameInstance(metadata.streamId()));
+        assertThat(metadata.causation(), sameInstance(metadata.causation()));
+        assertThat(metadata.createdAt(), sameInstance(metadata.createdAt()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotAllowCausationToBeModified() throws Exception {
+        metadata.causation().add(UUID.randomUUID());
+    }
+
     @Test
     public void shouldReturnJsonObject() throws Exception {
         assertThat(metadata.asJsonObject(), equalTo(jsonObject));
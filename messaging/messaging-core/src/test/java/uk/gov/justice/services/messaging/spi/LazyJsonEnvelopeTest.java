@@ -0,0 +1,141 @@
+package uk.gov.justice.services.messaging.spi;
+
+import static java.util.UUID.randomUUID;
+import static javax.json.Json.createObjectBuilder;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.skyscreamer.jsonassert.JSONAssert.assertEquals;
+import static uk.gov.justice.services.messaging.JsonEnvelope.envelopeFrom;
+import static uk.gov.justice.services.messaging.JsonEnvelope.metadataBuilder;
+import static uk.gov.justice.services.messaging.spi.LazyJsonEnvelope.encodedEnvelopeFrom;
+import static uk.gov.justice.services.messaging.spi.LazyJsonEnvelope.lazyEnvelopeFrom;
+
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.Metadata;
+
+import java.util.UUID;
+
+import javax.json.JsonValue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link LazyJsonEnvelope} class.
+ */
+public class LazyJsonEnvelopeTest {
+
+    private static final UUID ID = randomUUID();
+    private static final String NAME = "test.event.did-something";
+    private static final String METADATA_JSON = "{\"id\":\"" + ID + "\",\"name\":\"" + NAME + "\"}";
+    private static final String PAYLOAD_JSON = "{\"field\":\"value\",\"count\":2}";
+    private static final String UNPARSEABLE_JSON = "{\"field\":";
+
+    @Test
+    public void shouldReadMetadataWithoutParsingPayload() {
+        final LazyJsonEnvelope envelope = lazyEnvelopeFrom(METADATA_JSON, UNPARSEABLE_JSON);
+
+        assertThat(envelope.metadata().id(), is(ID));
+        assertThat(envelope.metadata().name(), is(NAME));
+    }
+
+    @Test
+    public void shouldReadPayloadWithoutParsingMetadata() {
+        final LazyJsonEnvelope envelope = lazyEnvelopeFrom(UNPARSEABLE_JSON, PAYLOAD_JSON);
+
+        assertThat(envelope.payloadAsJsonObject().getString("field"), is("value"));
+        assertThat(envelope.payloadAsJsonObject().getInt("count"), is(2));
+    }
+
+    @Test
+    public void shouldParseMetadataAndPayloadOnce() {
+        final LazyJsonEnvelope envelope = lazyEnvelopeFrom(METADATA_JSON, PAYLOAD_JSON);
+
+        final Metadata metadata = envelope.metadata();
+        final JsonValue payload = envelope.payload();
+
+        assertThat(envelope.metadata(), sameInstance(metadata));
+        assertThat(envelope.payload(), sameInstance(payload));
+    }
+
+    @Test
+    public void shouldReturnOriginalText() {
+        final LazyJsonEnvelope envelope = lazyEnvelopeFrom(METADATA_JSON, PAYLOAD_JSON);
+
+        assertThat(envelope.metadataJson(), sameInstance(METADATA_JSON));
+        assertThat(envelope.payloadJson(), sameInstance(PAYLOAD_JSON));
+    }
+
+    @Test
+    public void shouldKeepPayloadTextWhenMetadataReplaced() throws Exception {
+        final Metadata metadata = metadataBuilder().withId(randomUUID()).withName("test.event.copied").build();
+
+        final LazyJsonEnvelope envelope = lazyEnvelopeFrom(METADATA_JSON, UNPARSEABLE_JSON).withMetadata(metadata);
+
+        assertThat(envelope.metadata(), sameInstance(metadata));
+        assertThat(envelope.payloadJson(), sameInstance(UNPARSEABLE_JSON));
+        assertEquals(metadata.asJsonObject().toString(), envelope.metadataJson(), true);
+    }
+
+    @Test
+    public void shouldWriteEnvelopeAsJsonString() throws Exception {
+        final LazyJsonEnvelope envelope = lazyEnvelopeFrom(METADATA_JSON, PAYLOAD_JSON);
+
+        assertEquals("{\"_metadata\":" + METADATA_JSON + ",\"field\":\"value\",\"count\":2}", envelope.asJsonString(), true);
+    }
+
+    @Test
+    public void shouldWriteEnvelopeWithEmptyPayloadAsJsonString() throws Exception {
+        final LazyJsonEnvelope envelope = lazyEnvelopeFrom(METADATA_JSON, " { } ");
+
+        assertEquals("{\"_metadata\":" + METADATA_JSON + "}", envelope.asJsonString(), true);
+    }
+
+    @Test
+    public void shouldDetectNullValuesButNotTheTextNullInStrings() {
+        assertThat(lazyEnvelopeFrom(METADATA_JSON, PAYLOAD_JSON).hasNullValues(), is(false));
+        assertThat(lazyEnvelopeFrom(METADATA_JSON, "{\"field\":\"nullable \\\"null\\\"\",\"null\":1}").hasNullValues(), is(false));
+        assertThat(lazyEnvelopeFrom(METADATA_JSON, "{\"field\": null}").hasNullValues(), is(true));
+        assertThat(lazyEnvelopeFrom("{\"id\":\"" + ID + "\",\"name\":null}", PAYLOAD_JSON).hasNullValues(), is(true));
+    }
+
+    @Test
+    public void shouldWriteEnvelopeAsJsonStringOnce() {
+        final LazyJsonEnvelope envelope = lazyEnvelopeFrom(METADATA_JSON, PAYLOAD_JSON);
+
+        assertThat(envelope.asJsonString(), sameInstance(envelope.asJsonString()));
+    }
+
+    @Test
+    public void shouldEncodeMetadataAndPayloadOfEnvelope() throws Exception {
+        final JsonEnvelope envelope = envelopeFrom(
+                metadataBuilder().withId(ID).withName(NAME),
+                createObjectBuilder().add("field", "value").add("count", 2));
+
+        final LazyJsonEnvelope encodedEnvelope = encodedEnvelopeFrom(envelope);
+
+        assertThat(encodedEnvelope.metadata(), sameInstance(envelope.metadata()));
+        assertThat(encodedEnvelope.payload(), sameInstance(envelope.payload()));
+        assertEquals(METADATA_JSON, encodedEnvelope.metadataJson(), true);
+        assertEquals(PAYLOAD_JSON, encodedEnvelope.payloadJson(), true);
+    }
+
+    @Test
+    public void shouldNotEncodeEnvelopeTwice() {
+        final LazyJsonEnvelope envelope = lazyEnvelopeFrom(METADATA_JSON, PAYLOAD_JSON);
+
+        assertThat(encodedEnvelopeFrom(envelope), sameInstance(envelope));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotWriteEnvelopeWithArrayPayloadAsJsonString() {
+        lazyEnvelopeFrom(METADATA_JSON, "[1,2]").asJsonString();
+    }
+
+    @Test
+    public void shouldWriteMetadataInToString() throws Exception {
+        final LazyJsonEnvelope envelope = lazyEnvelopeFrom(METADATA_JSON, UNPARSEABLE_JSON);
+
+        assertEquals("{\"id\":\"" + ID + "\",\"name\":\"" + NAME + "\",\"causation\":[]}", envelope.toString(), true);
+    }
+}
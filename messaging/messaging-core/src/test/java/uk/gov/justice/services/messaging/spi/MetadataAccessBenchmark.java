@@ -0,0 +1,121 @@
+package uk.gov.justice.services.messaging.spi;
+
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static uk.gov.justice.services.messaging.JsonMetadata.CAUSATION;
+import static uk.gov.justice.services.messaging.JsonMetadata.CLIENT_CORRELATION_PATH;
+import static uk.gov.justice.services.messaging.JsonMetadata.CREATED_AT;
+import static uk.gov.justice.services.messaging.JsonMetadata.ID;
+import static uk.gov.justice.services.messaging.JsonMetadata.NAME;
+import static uk.gov.justice.services.messaging.JsonMetadata.SESSION_ID_PATH;
+import static uk.gov.justice.services.messaging.JsonMetadata.SOURCE;
+import static uk.gov.justice.services.messaging.JsonMetadata.STREAM_ID_PATH;
+import static uk.gov.justice.services.messaging.JsonMetadata.USER_ID_PATH;
+import static uk.gov.justice.services.messaging.JsonMetadata.VERSION_PATH;
+import static uk.gov.justice.services.messaging.JsonObjects.getLong;
+import static uk.gov.justice.services.messaging.JsonObjects.getString;
+import static uk.gov.justice.services.messaging.JsonObjects.getUUID;
+import static uk.gov.justice.services.messaging.JsonObjects.getUUIDs;
+import static uk.gov.justice.services.messaging.spi.DefaultJsonMetadata.metadataBuilder;
+import static uk.gov.justice.services.messaging.spi.DefaultJsonMetadata.metadataBuilderFrom;
+
+import uk.gov.justice.services.common.converter.ZonedDateTimes;
+import uk.gov.justice.services.common.util.UtcClock;
+import uk.gov.justice.services.messaging.Metadata;
+
+import javax.json.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures reading every field of a {@link DefaultJsonMetadata}, against reading the same fields
+ * from its JsonObject as the accessors did before the fields were decoded once, and building the
+ * metadata from a JsonObject. Runs with the GC profiler: gc.alloc.rate.norm is the number of bytes
+ * allocated per operation.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=uk.gov.justice.services.messaging.spi.MetadataAccessBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MetadataAccessBenchmark {
+
+    private JsonObject jsonObject;
+    private Metadata metadata;
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MetadataAccessBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setup() {
+        metadata = metadataBuilder()
+                .withId(randomUUID())
+                .withName("benchmark.order-line-added")
+                .withClientCorrelationId(randomUUID().toString())
+                .withCausation(randomUUID(), randomUUID())
+                .withUserId(randomUUID().toString())
+                .withSessionId(randomUUID().toString())
+                .withStreamId(randomUUID())
+                .withVersion(42L)
+                .withSource("benchmark")
+                .createdAt(new UtcClock().now())
+                .build();
+        jsonObject = metadata.asJsonObject();
+    }
+
+    @Benchmark
+    public void readFieldsFromMetadata(final Blackhole blackhole) {
+        blackhole.consume(metadata.id());
+        blackhole.consume(metadata.name());
+        blackhole.consume(metadata.clientCorrelationId());
+        blackhole.consume(metadata.causation());
+        blackhole.consume(metadata.userId());
+        blackhole.consume(metadata.sessionId());
+        blackhole.consume(metadata.streamId());
+        blackhole.consume(metadata.version());
+        blackhole.consume(metadata.createdAt());
+        blackhole.consume(metadata.source());
+    }
+
+    @Benchmark
+    public void readFieldsFromJsonObject(final Blackhole blackhole) {
+        blackhole.consume(getUUID(jsonObject, ID));
+        blackhole.consume(getString(jsonObject, NAME));
+        blackhole.consume(getString(jsonObject, CLIENT_CORRELATION_PATH));
+        blackhole.consume(getUUIDs(jsonObject, CAUSATION));
+        blackhole.consume(getString(jsonObject, USER_ID_PATH));
+        blackhole.consume(getString(jsonObject, SESSION_ID_PATH));
+        blackhole.consume(getUUID(jsonObject, STREAM_ID_PATH));
+        blackhole.consume(getLong(jsonObject, VERSION_PATH));
+        blackhole.consume(getString(jsonObject, CREATED_AT).map(ZonedDateTimes::fromString));
+        blackhole.consume(getString(jsonObject, SOURCE));
+    }
+
+    @Benchmark
+    public Metadata buildMetadataFromJsonObject() {
+        return metadataBuilderFrom(jsonObject).build();
+    }
+}
@@ -0,0 +1,201 @@
+package uk.gov.justice.services.messaging.jms;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static javax.jms.Session.AUTO_ACKNOWLEDGE;
+import static javax.jms.Session.SESSION_TRANSACTED;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded pool of transacted JMS sessions sharing a single connection. The sessions are
+ * committed by their borrowers, so they must only be used outside a JTA transaction. Within a JTA
+ * transaction, {@link #createEnlistedSession()} opens a session on the same connection instead.
+ *
+ * At most {@code maxSessions} sessions are lent out at any one time; callers wait up to
+ * {@code borrowTimeoutMillis} for one to be returned. When the connection is reported broken,
+ * either by its exception listener or by a caller via {@link #evictConnectionOf(PooledSession)},
+ * it is closed and a new connection is created on the next borrow. Idle sessions belonging to
+ * an evicted connection are discarded rather than reused.
+ */
+class JmsSessionPool implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JmsSessionPool.class);
+
+    private final ConnectionFactory connectionFactory;
+    private final int maxProducersPerSession;
+    private final long borrowTimeoutMillis;
+    private final BlockingQueue<PooledSession> idleSessions;
+    private final Semaphore permits;
+
+    private Connection connection;
+    private boolean closed;
+
+    JmsSessionPool(final ConnectionFactory connectionFactory,
+                   final int maxSessions,
+                   final int maxProducersPerSession,
+                   final long borrowTimeoutMillis) {
+        this.connectionFactory = connectionFactory;
+        this.maxProducersPerSession = maxProducersPerSession;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleSessions = new ArrayBlockingQueue<>(maxSessions);
+        this.permits = new Semaphore(maxSessions, true);
+    }
+
+    /**
+     * Borrows a session from the pool, creating one if no healthy idle session is available. The
+     * session must be handed back with either {@link #release(PooledSession)} or {@link
+     * #invalidate(PooledSession)}.
+     *
+     * @return a transacted session
+     * @throws JMSException if no session becomes available in time or one cannot be created
+     */
+    PooledSession borrow() throws JMSException {
+        acquirePermit();
+
+        try {
+            final Connection currentConnection = currentConnection();
+
+            PooledSession pooledSession;
+            while ((pooledSession = idleSessions.poll()) != null) {
+                if (pooledSession.belongsTo(currentConnection)) {
+                    return pooledSession;
+                }
+                pooledSession.close();
+            }
+
+            return new PooledSession(currentConnection, currentConnection.createSession(true, SESSION_TRANSACTED), maxProducersPerSession);
+        } catch (final JMSException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a session on the shared connection within the current JTA transaction, which the
+     * container enlists in that transaction. The session is not lent from the pool and does not
+     * count towards its bound; it must be closed, never released, once the transaction completes.
+     *
+     * @return a session enlisted in the current transaction
+     * @throws JMSException if the session cannot be created
+     */
+    PooledSession createEnlistedSession() throws JMSException {
+        final Connection currentConnection = currentConnection();
+        return new PooledSession(currentConnection, currentConnection.createSession(false, AUTO_ACKNOWLEDGE), maxProducersPerSession);
+    }
+
+    /**
+     * Returns a healthy session to the pool for reuse.
+     *
+     * @param pooledSession the session to return
+     */
+    void release(final PooledSession pooledSession) {
+        try {
+            if (!isCurrent(pooledSession) || !idleSessions.offer(pooledSession)) {
+                pooledSession.close();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes a session that failed and frees its slot in the pool.
+     *
+     * @param pooledSession the session to discard
+     */
+    void invalidate(final PooledSession pooledSession) {
+        try {
+            pooledSession.close();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes the connection the given session was created on, if it is still the current one, so
+     * that the next borrow opens a fresh connection.
+     *
+     * @param pooledSession a session created on the suspect connection
+     */
+    void evictConnectionOf(final PooledSession pooledSession) {
+        evict(pooledSession.getConnection());
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+
+        PooledSession pooledSession;
+        while ((pooledSession = idleSessions.poll()) != null) {
+            pooledSession.close();
+        }
+
+        if (connection != null) {
+            closeQuietly(connection);
+            connection = null;
+        }
+    }
+
+    private void acquirePermit() throws JMSException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, MILLISECONDS)) {
+                throw new JMSException(format("Timed out after %d ms waiting for a pooled JMS session", borrowTimeoutMillis));
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JMSException("Interrupted while waiting for a pooled JMS session");
+        }
+    }
+
+    private synchronized Connection currentConnection() throws JMSException {
+        if (closed) {
+            throw new JMSException("JMS session pool has been closed");
+        }
+
+        if (connection == null) {
+            final Connection newConnection = connectionFactory.createConnection();
+            registerExceptionListener(newConnection);
+            connection = newConnection;
+        }
+
+        return connection;
+    }
+
+    private synchronized boolean isCurrent(final PooledSession pooledSession) {
+        return !closed && pooledSession.belongsTo(connection);
+    }
+
+    private synchronized void evict(final Connection brokenConnection) {
+        if (connection != null && connection == brokenConnection) {
+            LOGGER.warn("Evicting broken JMS connection from session pool");
+            connection = null;
+            closeQuietly(brokenConnection);
+        }
+    }
+
+    private void registerExceptionListener(final Connection newConnection) {
+        try {
+            newConnection.setExceptionListener(exception -> evict(newConnection));
+        } catch (final JMSException | IllegalStateException e) {
+            LOGGER.debug("Connection exception listener not supported, relying on send failures to evict connections");
+        }
+    }
+
+    private void closeQuietly(final Connection connectionToClose) {
+        try {
+            connectionToClose.close();
+        } catch (final JMSException e) {
+            LOGGER.warn("Failed to close pooled JMS connection", e);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package uk.gov.justice.services.messaging.jms;
+
+import static java.lang.String.format;
+import static java.util.Collections.singletonList;
+import static javax.transaction.Status.STATUS_ACTIVE;
+
+import uk.gov.justice.services.common.configuration.GlobalValue;
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.jms.exception.JmsEnvelopeSenderException;
+import uk.gov.justice.services.messaging.logging.TraceLogger;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Alternative;
+import javax.inject.Inject;
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.naming.Context;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An envelope sender that reuses JMS sessions and message producers instead of opening a new
+ * connection, session and producer for every message.
+ *
+ * Outside a JTA transaction, sessions are taken from a bounded {@link JmsSessionPool} sharing one
+ * connection, and each session caches a bounded number of producers by destination. These
+ * sessions are transacted, so {@link #sendAll(List, Destination)} sends all of its envelopes in a
+ * single commit. A session that fails to send is discarded, and its connection evicted from the
+ * pool only if the connection itself has failed.
+ *
+ * Inside a JTA transaction, the envelopes are sent on a session the container enlists in that
+ * transaction, so they are delivered only if it commits. Such a session is opened on the pooled
+ * connection, never committed here, reused for the rest of the transaction and closed when the
+ * transaction completes; it is never returned to the pool, and the connection stays open for later
+ * transactions. Destinations looked up by JNDI name are cached in both cases.
+ *
+ * The size of the pool, the producers cached per session and how long to wait for a pooled
+ * session are set by the global values jms.sender.pool.max.sessions,
+ * jms.sender.pool.max.producers.per.session and jms.sender.pool.borrow.timeout.millis.
+ *
+ * Enable by selecting this alternative in beans.xml in place of {@link DefaultJmsEnvelopeSender}.
+ */
+@ApplicationScoped
+@Alternative
+public class PooledJmsEnvelopeSender implements JmsEnvelopeSender {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PooledJmsEnvelopeSender.class);
+
+    private static final String TRANSACTION_SESSION = TransactionSession.class.getName();
+
+    @Resource(mappedName = "java:comp/DefaultJMSConnectionFactory")
+    ConnectionFactory connectionFactory;
+
+    @Resource(lookup = "java:comp/TransactionSynchronizationRegistry")
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Inject
+    EnvelopeConverter envelopeConverter;
+
+    @Inject
+    TraceLogger traceLogger;
+
+    @Inject
+    @GlobalValue(key = "jms.sender.pool.max.sessions", defaultValue = "10")
+    long maxSessions;
+
+    @Inject
+    @GlobalValue(key = "jms.sender.pool.max.producers.per.session", defaultValue = "20")
+    long maxProducersPerSession;
+
+    @Inject
+    @GlobalValue(key = "jms.sender.pool.borrow.timeout.millis", defaultValue = "30000")
+    long borrowTimeoutMillis;
+
+    Context namingContext = new InitialContext();
+
+    JmsSessionPool sessionPool;
+
+    private final ConcurrentMap<String, Destination> destinations = new ConcurrentHashMap<>();
+
+    public PooledJmsEnvelopeSender() throws NamingException {
+    }
+
+    @PostConstruct
+    void initialiseSessionPool() {
+        sessionPool = new JmsSessionPool(connectionFactory, (int) maxSessions, (int) maxProducersPerSession, borrowTimeoutMillis);
+    }
+
+    @PreDestroy
+    void closeSessionPool() {
+        sessionPool.close();
+    }
+
+    /**
+     * Sends envelope to the destination via JMS.
+     *
+     * @param envelope    envelope to be sent.
+     * @param destination JMS destination for the envelope.
+     */
+    @Override
+    public void send(final JsonEnvelope envelope, final Destination destination) {
+        sendAll(singletonList(envelope), destination);
+    }
+
+    /**
+     * Sends envelope to the destination via JMS.
+     *
+     * @param envelope        envelope to be sent.
+     * @param destinationName JNDI name of the JMS destination.
+     */
+    @Override
+    public void send(final JsonEnvelope envelope, final String destinationName) {
+        sendAll(singletonList(envelope), destinationName);
+    }
+
+    /**
+     * Sends all envelopes to the destination via JMS, in the current JTA transaction if there is
+     * one, otherwise in a single transacted session. Either all envelopes are sent or, on failure,
+     * none are.
+     *
+     * @param envelopes   envelopes to be sent, in order.
+     * @param destination JMS destination for the envelopes.
+     */
+    public void sendAll(final List<JsonEnvelope> envelopes, final Destination destination) {
+        if (envelopes.isEmpty()) {
+            return;
+        }
+
+        traceLogger.trace(LOGGER, () -> format("Sending %d JMS messages: %s to %s", envelopes.size(), envelopes, destination));
+
+        if (transactionActive()) {
+            sendInTransaction(envelopes, destination);
+        } else {
+            sendInPooledSession(envelopes, destination);
+        }
+
+        traceLogger.trace(LOGGER, () -> format("Sent %d JMS messages: %s to %s", envelopes.size(), envelopes, destination));
+    }
+
+    /**
+     * Sends all envelopes to the destination via JMS in a single transacted session.
+     *
+     * @param envelopes       envelopes to be sent, in order.
+     * @param destinationName JNDI name of the JMS destination.
+     */
+    public void sendAll(final List<JsonEnvelope> envelopes, final String destinationName) {
+        final Destination destination = destinationOf(destinationName);
+
+        try {
+            sendAll(envelopes, destination);
+        } catch (final JmsEnvelopeSenderException e) {
+            destinations.remove(destinationName, destination);
+            throw e;
+        }
+    }
+
+    private Destination destinationOf(final String destinationName) {
+        final Destination cachedDestination = destinations.get(destinationName);
+        if (cachedDestination != null) {
+            return cachedDestination;
+        }
+
+        try {
+            final Destination destination = (Destination) namingContext.lookup(destinationName);
+            destinations.putIfAbsent(destinationName, destination);
+            return destination;
+        } catch (final NamingException e) {
+            throw new JmsEnvelopeSenderException(format("Exception while looking up JMS destination name %s", destinationName), e);
+        }
+    }
+
+    private void sendInPooledSession(final List<JsonEnvelope> envelopes, final Destination destination) {
+        final PooledSession pooledSession = borrowSession();
+
+        try {
+            final Session session = pooledSession.getSession();
+            final MessageProducer producer = pooledSession.producerFor(destination);
+
+            for (final JsonEnvelope envelope : envelopes) {
+                producer.send(envelopeConverter.toMessage(envelope, session));
+            }
+            session.commit();
+
+        } catch (final JMSException e) {
+            if (pooledSession.connectionFailed()) {
+                sessionPool.evictConnectionOf(pooledSession);
+            }
+            sessionPool.invalidate(pooledSession);
+            throw new JmsEnvelopeSenderException(format("Exception while sending envelope with name %s", envelopes.get(0).metadata().name()), e);
+        } catch (final RuntimeException e) {
+            rollbackQuietly(pooledSession);
+            sessionPool.invalidate(pooledSession);
+            throw e;
+        }
+
+        sessionPool.release(pooledSession);
+    }
+
+    private void sendInTransaction(final List<JsonEnvelope> envelopes, final Destination destination) {
+        final PooledSession transactionSession = transactionSession();
+
+        try {
+            final Session session = transactionSession.getSession();
+            final MessageProducer producer = transactionSession.producerFor(destination);
+
+            for (final JsonEnvelope envelope : envelopes) {
+                producer.send(envelopeConverter.toMessage(envelope, session));
+            }
+        } catch (final JMSException e) {
+            if (transactionSession.connectionFailed()) {
+                sessionPool.evictConnectionOf(transactionSession);
+            }
+            throw new JmsEnvelopeSenderException(format("Exception while sending envelope with name %s", envelopes.get(0).metadata().name()), e);
+        }
+    }
+
+    private boolean transactionActive() {
+        return transactionSynchronizationRegistry != null
+                && transactionSynchronizationRegistry.getTransactionKey() != null
+                && transactionSynchronizationRegistry.getTransactionStatus() == STATUS_ACTIVE;
+    }
+
+    /**
+     * Returns the session enlisted in the current transaction, opening it on the pooled connection
+     * on first use. The container enlists sessions created within a JTA transaction, ignoring the
+     * arguments given to createSession.
+     */
+    private PooledSession transactionSession() {
+        final TransactionSession current = (TransactionSession) transactionSynchronizationRegistry.getResource(TRANSACTION_SESSION);
+        if (current != null) {
+            return current.pooledSession;
+        }
+
+        final PooledSession pooledSession;
+        try {
+            pooledSession = sessionPool.createEnlistedSession();
+        } catch (final JMSException e) {
+            throw new JmsEnvelopeSenderException("Exception while opening a JMS session in the current transaction", e);
+        }
+
+        final TransactionSession transactionSession = new TransactionSession(pooledSession);
+        transactionSynchronizationRegistry.putResource(TRANSACTION_SESSION, transactionSession);
+        transactionSynchronizationRegistry.registerInterposedSynchronization(transactionSession);
+        return pooledSession;
+    }
+
+    private PooledSession borrowSession() {
+        try {
+            return sessionPool.borrow();
+        } catch (final JMSException e) {
+            throw new JmsEnvelopeSenderException("Exception while obtaining a pooled JMS session", e);
+        }
+    }
+
+    private void rollbackQuietly(final PooledSession pooledSession) {
+        try {
+            pooledSession.getSession().rollback();
+        } catch (final JMSException e) {
+            LOGGER.warn("Failed to roll back pooled JMS session", e);
+        }
+    }
+
+    /**
+     * The session enlisted in one JTA transaction, closed once the transaction has completed. Its
+     * connection belongs to the session pool and stays open.
+     */
+    private class TransactionSession implements Synchronization {
+
+        private final PooledSession pooledSession;
+
+        TransactionSession(final PooledSession pooledSession) {
+            this.pooledSession = pooledSession;
+        }
+
+        @Override
+        public void beforeCompletion() {
+            // the transaction manager commits or rolls back the enlisted session
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            pooledSession.close();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package uk.gov.justice.services.messaging.jms;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.jms.Connection;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A JMS session held by the {@link JmsSessionPool}, together with a bounded cache of the message
+ * producers created on it. The least recently used producer is closed once the cache is full.
+ */
+class PooledSession {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PooledSession.class);
+
+    private final Connection connection;
+    private final Session session;
+    private final Map<Destination, MessageProducer> producers;
+
+    PooledSession(final Connection connection, final Session session, final int maxProducers) {
+        this.connection = connection;
+        this.session = session;
+        this.producers = new LinkedHashMap<Destination, MessageProducer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Destination, MessageProducer> eldest) {
+                if (size() > maxProducers) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    Session getSession() {
+        return session;
+    }
+
+    /**
+     * Returns the cached producer for the given destination, creating it if necessary.
+     *
+     * @param destination the destination to send to
+     * @return a producer for the destination
+     * @throws JMSException if the producer cannot be created
+     */
+    MessageProducer producerFor(final Destination destination) throws JMSException {
+        MessageProducer producer = producers.get(destination);
+        if (producer == null) {
+            producer = session.createProducer(destination);
+            producers.put(destination, producer);
+        }
+        return producer;
+    }
+
+    boolean belongsTo(final Connection connection) {
+        return this.connection == connection;
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Checks whether the connection of this session is still usable, so that a failure to send on
+     * the session alone does not evict a healthy connection.
+     *
+     * @return true if the connection has failed or been closed
+     */
+    boolean connectionFailed() {
+        try {
+            connection.getMetaData();
+            return false;
+        } catch (final JMSException | RuntimeException e) {
+            return true;
+        }
+    }
+
+    void close() {
+        producers.values().forEach(this::closeQuietly);
+        producers.clear();
+        try {
+            session.close();
+        } catch (final JMSException e) {
+            LOGGER.warn("Failed to close pooled JMS session", e);
+        }
+    }
+
+    private void closeQuietly(final MessageProducer producer) {
+        try {
+            producer.close();
+        } catch (final JMSException e) {
+            LOGGER.warn("Failed to close pooled JMS message producer", e);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package uk.gov.justice.services.messaging.jms;
+
+import static javax.jms.Session.AUTO_ACKNOWLEDGE;
+import static javax.jms.Session.SESSION_TRANSACTED;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JmsSessionPoolTest {
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Connection otherConnection;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Session otherSession;
+
+    private JmsSessionPool sessionPool;
+
+    @Before
+    public void setup() throws Exception {
+        when(connectionFactory.createConnection()).thenReturn(connection, otherConnection);
+        when(connection.createSession(true, SESSION_TRANSACTED)).thenReturn(session);
+        when(otherConnection.createSession(true, SESSION_TRANSACTED)).thenReturn(otherSession);
+
+        sessionPool = new JmsSessionPool(connectionFactory, 1, 2, 10L);
+    }
+
+    @Test
+    public void shouldReuseReleasedSession() throws Exception {
+        final PooledSession first = sessionPool.borrow();
+        sessionPool.release(first);
+
+        final PooledSession second = sessionPool.borrow();
+
+        assertThat(second, is(sameInstance(first)));
+        verify(connectionFactory, times(1)).createConnection();
+        verify(connection, times(1)).createSession(true, SESSION_TRANSACTED);
+    }
+
+    @Test(expected = JMSException.class)
+    public void shouldTimeOutWhenAllSessionsAreBorrowed() throws Exception {
+        sessionPool.borrow();
+
+        sessionPool.borrow();
+    }
+
+    @Test
+    public void shouldCreateEnlistedSessionOnSharedConnectionWithoutTakingASlot() throws Exception {
+        final Session enlistedSession = mock(Session.class);
+        when(connection.createSession(false, AUTO_ACKNOWLEDGE)).thenReturn(enlistedSession);
+
+        final PooledSession borrowed = sessionPool.borrow();
+        final PooledSession enlisted = sessionPool.createEnlistedSession();
+
+        assertThat(enlisted.getSession(), is(enlistedSession));
+        assertThat(enlisted.getConnection(), is(sameInstance(borrowed.getConnection())));
+        verify(connectionFactory, times(1)).createConnection();
+    }
+
+    @Test
+    public void shouldFreeSlotWhenSessionIsInvalidated() throws Exception {
+        final PooledSession first = sessionPool.borrow();
+        sessionPool.invalidate(first);
+
+        final PooledSession second = sessionPool.borrow();
+
+        assertThat(second, is(not(sameInstance(first))));
+        verify(session).close();
+    }
+
+    @Test
+    public void shouldOpenNewConnectionAfterEviction() throws Exception {
+        final PooledSession first = sessionPool.borrow();
+        sessionPool.evictConnectionOf(first);
+        sessionPool.release(first);
+
+        final PooledSession second = sessionPool.borrow();
+
+        assertThat(second.getSession(), is(otherSession));
+        verify(connection).close();
+        verify(session).close();
+    }
+
+    @Test
+    public void shouldEvictConnectionReportedBrokenByExceptionListener() throws Exception {
+        final PooledSession first = sessionPool.borrow();
+        sessionPool.release(first);
+
+        final ArgumentCaptor<ExceptionListener> listenerCaptor = ArgumentCaptor.forClass(ExceptionListener.class);
+        verify(connection).setExceptionListener(listenerCaptor.capture());
+        listenerCaptor.getValue().onException(new JMSException("connection lost"));
+
+        final PooledSession second = sessionPool.borrow();
+
+        assertThat(second.getSession(), is(otherSession));
+        verify(connection).close();
+        verify(session).close();
+    }
+
+    @Test
+    public void shouldCacheProducersPerDestinationUpToLimit() throws Exception {
+        final Destination destination1 = mock(Destination.class);
+        final Destination destination2 = mock(Destination.class);
+        final Destination destination3 = mock(Destination.class);
+        final MessageProducer producer1 = mock(MessageProducer.class);
+        final MessageProducer producer2 = mock(MessageProducer.class);
+        final MessageProducer producer3 = mock(MessageProducer.class);
+        when(session.createProducer(destination1)).thenReturn(producer1);
+        when(session.createProducer(destination2)).thenReturn(producer2);
+        when(session.createProducer(destination3)).thenReturn(producer3);
+
+        final PooledSession pooledSession = sessionPool.borrow();
+
+        assertThat(pooledSession.producerFor(destination1), is(producer1));
+        assertThat(pooledSession.producerFor(destination2), is(producer2));
+        assertThat(pooledSession.producerFor(destination1), is(producer1));
+        assertThat(pooledSession.producerFor(destination3), is(producer3));
+
+        verify(session, times(1)).createProducer(destination1);
+        verify(producer2).close();
+    }
+
+    @Test
+    public void shouldCloseIdleSessionsAndConnectionOnClose() throws Exception {
+        sessionPool.release(sessionPool.borrow());
+
+        sessionPool.close();
+
+        verify(session).close();
+        verify(connection).close();
+    }
+}
@@ -0,0 +1,273 @@
+package uk.gov.justice.services.messaging.jms;
+
+import static java.util.Arrays.asList;
+import static javax.jms.Session.AUTO_ACKNOWLEDGE;
+import static javax.jms.Session.SESSION_TRANSACTED;
+import static javax.transaction.Status.STATUS_ACTIVE;
+import static javax.transaction.Status.STATUS_COMMITTED;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import uk.gov.justice.services.messaging.JsonEnvelope;
+import uk.gov.justice.services.messaging.Metadata;
+import uk.gov.justice.services.messaging.jms.exception.JmsEnvelopeSenderException;
+import uk.gov.justice.services.messaging.logging.TraceLogger;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import javax.naming.Context;
+import javax.naming.NamingException;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PooledJmsEnvelopeSenderTest {
+
+    private static final String NAME = "test.event.something-done";
+    private static final String DESTINATION_NAME = "some.queue.name";
+
+    @Mock
+    private DefaultEnvelopeConverter envelopeConverter;
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Destination destination;
+
+    @Mock
+    private MessageProducer messageProducer;
+
+    @Mock
+    private TextMessage textMessage1;
+
+    @Mock
+    private TextMessage textMessage2;
+
+    @Mock
+    private JsonEnvelope envelope1;
+
+    @Mock
+    private JsonEnvelope envelope2;
+
+    @Mock
+    private Metadata metadata;
+
+    @Mock
+    private Context namingContext;
+
+    @Mock
+    private TraceLogger traceLogger;
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @InjectMocks
+    private PooledJmsEnvelopeSender jmsEnvelopeSender;
+
+    @Before
+    public void setup() throws Exception {
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(true, SESSION_TRANSACTED)).thenReturn(session);
+        when(session.createProducer(destination)).thenReturn(messageProducer);
+        when(envelopeConverter.toMessage(envelope1, session)).thenReturn(textMessage1);
+        when(envelopeConverter.toMessage(envelope2, session)).thenReturn(textMessage2);
+        when(envelope1.metadata()).thenReturn(metadata);
+        when(metadata.name()).thenReturn(NAME);
+        when(namingContext.lookup(DESTINATION_NAME)).thenReturn(destination);
+
+        jmsEnvelopeSender.maxSessions = 10;
+        jmsEnvelopeSender.maxProducersPerSession = 20;
+        jmsEnvelopeSender.borrowTimeoutMillis = 1000L;
+        jmsEnvelopeSender.initialiseSessionPool();
+    }
+
+    @After
+    public void tearDown() {
+        jmsEnvelopeSender.closeSessionPool();
+    }
+
+    @Test
+    public void shouldReuseConnectionSessionAndProducerAcrossSends() throws Exception {
+        jmsEnvelopeSender.send(envelope1, destination);
+        jmsEnvelopeSender.send(envelope2, destination);
+
+        verify(messageProducer).send(textMessage1);
+        verify(messageProducer).send(textMessage2);
+        verify(session, times(2)).commit();
+        verify(connectionFactory, times(1)).createConnection();
+        verify(connection, times(1)).createSession(true, SESSION_TRANSACTED);
+        verify(session, times(1)).createProducer(destination);
+        verify(messageProducer, never()).close();
+        verify(session, never()).close();
+        verify(connection, never()).close();
+    }
+
+    @Test
+    public void shouldSendAllEnvelopesInOneTransaction() throws Exception {
+        jmsEnvelopeSender.sendAll(asList(envelope1, envelope2), destination);
+
+        verify(messageProducer).send(textMessage1);
+        verify(messageProducer).send(textMessage2);
+        verify(session, times(1)).commit();
+    }
+
+    @Test
+    public void shouldLookUpNamedDestinationOnlyOnce() throws Exception {
+        jmsEnvelopeSender.send(envelope1, DESTINATION_NAME);
+        jmsEnvelopeSender.sendAll(asList(envelope1, envelope2), DESTINATION_NAME);
+
+        verify(namingContext, times(1)).lookup(DESTINATION_NAME);
+        verify(messageProducer, times(2)).send(textMessage1);
+        verify(messageProducer).send(textMessage2);
+    }
+
+    @Test(expected = JmsEnvelopeSenderException.class)
+    public void shouldThrowExceptionOnNamingException() throws Exception {
+        final String destinationName = "unknown.queue.name";
+        when(namingContext.lookup(destinationName)).thenThrow(new NamingException());
+
+        jmsEnvelopeSender.send(envelope1, destinationName);
+    }
+
+    @Test
+    public void shouldDiscardSessionButKeepHealthyConnectionOnJmsException() throws Exception {
+        doThrow(JMSException.class).when(messageProducer).send(textMessage1);
+
+        try {
+            jmsEnvelopeSender.send(envelope1, destination);
+        } catch (final JmsEnvelopeSenderException expected) {
+            verify(session).close();
+            verify(connection, never()).close();
+            return;
+        }
+
+        throw new AssertionError("Expected JmsEnvelopeSenderException");
+    }
+
+    @Test
+    public void shouldEvictFailedConnectionOnJmsException() throws Exception {
+        doThrow(JMSException.class).when(messageProducer).send(textMessage1);
+        when(connection.getMetaData()).thenThrow(new JMSException("connection failed"));
+
+        try {
+            jmsEnvelopeSender.send(envelope1, destination);
+        } catch (final JmsEnvelopeSenderException expected) {
+            verify(session).close();
+            verify(connection).close();
+            return;
+        }
+
+        throw new AssertionError("Expected JmsEnvelopeSenderException");
+    }
+
+    @Test
+    public void shouldSendOnEnlistedSessionWithoutCommittingInsideTransaction() throws Exception {
+        final Session enlistedSession = mock(Session.class);
+        givenActiveTransaction();
+        when(connection.createSession(false, AUTO_ACKNOWLEDGE)).thenReturn(enlistedSession);
+        when(enlistedSession.createProducer(destination)).thenReturn(messageProducer);
+        when(envelopeConverter.toMessage(envelope1, enlistedSession)).thenReturn(textMessage1);
+        when(envelopeConverter.toMessage(envelope2, enlistedSession)).thenReturn(textMessage2);
+
+        jmsEnvelopeSender.sendAll(asList(envelope1, envelope2), destination);
+
+        verify(messageProducer).send(textMessage1);
+        verify(messageProducer).send(textMessage2);
+        verify(enlistedSession, never()).commit();
+        verify(connection, never()).createSession(true, SESSION_TRANSACTED);
+        verify(enlistedSession, never()).close();
+
+        transactionSynchronization().afterCompletion(STATUS_COMMITTED);
+
+        verify(enlistedSession).close();
+        verify(connection, never()).close();
+    }
+
+    @Test
+    public void shouldOpenTransactionSessionsOnPooledConnection() throws Exception {
+        final Session enlistedSession = mock(Session.class);
+        when(connection.createSession(false, AUTO_ACKNOWLEDGE)).thenReturn(enlistedSession);
+        when(enlistedSession.createProducer(destination)).thenReturn(messageProducer);
+        when(envelopeConverter.toMessage(envelope1, enlistedSession)).thenReturn(textMessage1);
+
+        jmsEnvelopeSender.send(envelope1, destination);
+
+        givenActiveTransaction();
+        jmsEnvelopeSender.send(envelope1, destination);
+        transactionSynchronization().afterCompletion(STATUS_COMMITTED);
+
+        verify(connectionFactory, times(1)).createConnection();
+        verify(connection, never()).close();
+    }
+
+    @Test
+    public void shouldEvictFailedConnectionOnJmsExceptionInsideTransaction() throws Exception {
+        final Session enlistedSession = mock(Session.class);
+        givenActiveTransaction();
+        when(connection.createSession(false, AUTO_ACKNOWLEDGE)).thenReturn(enlistedSession);
+        when(enlistedSession.createProducer(destination)).thenReturn(messageProducer);
+        when(envelopeConverter.toMessage(envelope1, enlistedSession)).thenReturn(textMessage1);
+        doThrow(JMSException.class).when(messageProducer).send(textMessage1);
+        when(connection.getMetaData()).thenThrow(new JMSException("connection failed"));
+
+        try {
+            jmsEnvelopeSender.send(envelope1, destination);
+        } catch (final JmsEnvelopeSenderException expected) {
+            verify(connection).close();
+            return;
+        }
+
+        throw new AssertionError("Expected JmsEnvelopeSenderException");
+    }
+
+    @Test
+    public void shouldForgetCachedDestinationWhenSendFails() throws Exception {
+        doThrow(JMSException.class).doNothing().when(messageProducer).send(any(TextMessage.class));
+
+        try {
+            jmsEnvelopeSender.send(envelope1, DESTINATION_NAME);
+        } catch (final JmsEnvelopeSenderException expected) {
+            // expected
+        }
+        jmsEnvelopeSender.send(envelope1, DESTINATION_NAME);
+
+        verify(namingContext, times(2)).lookup(DESTINATION_NAME);
+    }
+
+    private void givenActiveTransaction() {
+        when(transactionSynchronizationRegistry.getTransactionKey()).thenReturn(new Object());
+        when(transactionSynchronizationRegistry.getTransactionStatus()).thenReturn(STATUS_ACTIVE);
+    }
+
+    private Synchronization transactionSynchronization() {
+        final ArgumentCaptor<Synchronization> synchronizationCaptor = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionSynchronizationRegistry).registerInterposedSynchronization(synchronizationCaptor.capture());
+        return synchronizationCaptor.getValue();
+    }
+}
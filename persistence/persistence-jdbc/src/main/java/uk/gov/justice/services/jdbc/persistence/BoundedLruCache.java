@@ -0,0 +1,48 @@
+package uk.gov.justice.services.jdbc.persistence;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Thread safe map holding at most a fixed number of entries, evicting the least recently used
+ * entry when a new one is added to a full cache. Used for node-local hints of values held in the
+ * database, which must be read from the database again once evicted.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class BoundedLruCache<K, V> {
+
+    private final Map<K, V> entries;
+
+    /**
+     * @param maxEntries the maximum number of entries held
+     */
+    public BoundedLruCache(final int maxEntries) {
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized Optional<V> get(final K key) {
+        return Optional.ofNullable(entries.get(key));
+    }
+
+    public synchronized void put(final K key, final V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized void remove(final K key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,73 @@
+package uk.gov.justice.services.jdbc.persistence;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * Counters describing how repositories using the {@link JdbcRepositoryHelper} reuse connections
+ * and prepared statements within JTA transactions.
+ */
+@ApplicationScoped
+public class JdbcConnectionMetrics {
+
+    private final AtomicLong transactionCount = new AtomicLong();
+    private final AtomicLong connectionAcquisitions = new AtomicLong();
+    private final AtomicLong statementExecutions = new AtomicLong();
+    private final AtomicLong statementPreparations = new AtomicLong();
+    private final AtomicLong lastTransactionConnectionAcquisitions = new AtomicLong();
+
+    public void recordTransaction(final int connectionsAcquired, final int statementsExecuted, final int statementsPrepared) {
+        transactionCount.incrementAndGet();
+        connectionAcquisitions.addAndGet(connectionsAcquired);
+        statementExecutions.addAndGet(statementsExecuted);
+        statementPreparations.addAndGet(statementsPrepared);
+        lastTransactionConnectionAcquisitions.set(connectionsAcquired);
+    }
+
+    /**
+     * @return the number of transactions in which repositories used a connection since startup
+     */
+    public long getTransactionCount() {
+        return transactionCount.get();
+    }
+
+    /**
+     * @return the number of connections acquired from data sources within transactions since
+     * startup
+     */
+    public long getConnectionAcquisitions() {
+        return connectionAcquisitions.get();
+    }
+
+    /**
+     * @return the number of connections acquired by the most recently completed transaction
+     */
+    public long getLastTransactionConnectionAcquisitions() {
+        return lastTransactionConnectionAcquisitions.get();
+    }
+
+    /**
+     * @return the average number of connections acquired per transaction, or 0 if no transaction
+     * has completed
+     */
+    public double getConnectionAcquisitionsPerTransaction() {
+        final long transactions = transactionCount.get();
+        return transactions == 0 ? 0 : (double) connectionAcquisitions.get() / transactions;
+    }
+
+    /**
+     * @return the number of statements run by repositories within transactions since startup
+     */
+    public long getStatementExecutions() {
+        return statementExecutions.get();
+    }
+
+    /**
+     * @return the number of statements prepared within transactions since startup; the
+     * difference to {@link #getStatementExecutions()} is the number of statements reused
+     */
+    public long getStatementPreparations() {
+        return statementPreparations.get();
+    }
+}
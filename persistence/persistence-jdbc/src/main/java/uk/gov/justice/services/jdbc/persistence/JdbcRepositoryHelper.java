@@ -11,16 +11,35 @@ import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import javax.annotation.Resource;
+import javax.inject.Inject;
 import javax.sql.DataSource;
+import javax.transaction.Status;
+import javax.transaction.TransactionSynchronizationRegistry;
 
 /**
- * Provides methods for returning result sets as streams
+ * Provides methods for creating prepared statements and returning result sets as streams.
+ *
+ * Within an active JTA transaction all statements for a data source run on one connection, held
+ * until the transaction completes, and prepared statements are reused by SQL text. Outside a
+ * transaction each statement gets its own connection, closed with the statement. Streams returned
+ * within a transaction must therefore be consumed before it completes.
  */
 public class JdbcRepositoryHelper {
 
     private static final int FETCH_SIZE = 50;
+    private static final String TRANSACTION_SCOPED_CONNECTIONS = TransactionScopedConnections.class.getName();
+
+    @Resource(lookup = "java:comp/TransactionSynchronizationRegistry")
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Inject
+    JdbcConnectionMetrics jdbcConnectionMetrics;
 
     public PreparedStatementWrapper preparedStatementWrapperOf(final DataSource dataSource, final String query) throws SQLException {
+        if (transactionActive()) {
+            return valueOf(transactionScopedConnections().connectionFor(dataSource), query);
+        }
         return valueOf(dataSource.getConnection(), query);
     }
 
@@ -67,6 +86,22 @@ public class JdbcRepositoryHelper {
         });
     }
 
+    private boolean transactionActive() {
+        return transactionSynchronizationRegistry != null
+                && transactionSynchronizationRegistry.getTransactionKey() != null
+                && transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_ACTIVE;
+    }
+
+    private TransactionScopedConnections transactionScopedConnections() {
+        TransactionScopedConnections connections = (TransactionScopedConnections) transactionSynchronizationRegistry.getResource(TRANSACTION_SCOPED_CONNECTIONS);
+        if (connections == null) {
+            connections = new TransactionScopedConnections(jdbcConnectionMetrics);
+            transactionSynchronizationRegistry.putResource(TRANSACTION_SCOPED_CONNECTIONS, connections);
+            transactionSynchronizationRegistry.registerInterposedSynchronization(connections);
+        }
+        return connections;
+    }
+
     public JdbcRepositoryException handled(final Exception ex, final PreparedStatementWrapper psWrapper) {
         psWrapper.close();
         return new JdbcRepositoryException(ex);
@@ -23,6 +23,16 @@ public class PreparedStatementWrapper implements AutoCloseable {
         return preparedStatementWrapper;
     }
 
+    /**
+     * Creates a wrapper around a statement of a connection that is reused for the whole of a
+     * transaction. Closing the wrapper returns the statement to the connection rather than closing
+     * the statement and connection.
+     */
+    static PreparedStatementWrapper valueOf(final TransactionalConnection connection, final String queryTemplate) throws SQLException {
+        final PreparedStatement preparedStatement = connection.borrowStatement(queryTemplate);
+        return new PreparedStatementWrapper(preparedStatement, () -> connection.returnStatement(queryTemplate, preparedStatement));
+    }
+
     public void setObject(final int parameterIndex, final Object obj) throws SQLException {
         try {
             this.preparedStatement.setObject(parameterIndex, obj);
@@ -55,6 +65,14 @@ public class PreparedStatementWrapper implements AutoCloseable {
         }
     }
 
+    public void setBytes(final int parameterIndex, final byte[] bytes) throws SQLException {
+        try {
+            this.preparedStatement.setBytes(parameterIndex, bytes);
+        } catch (SQLException e) {
+            handle(e, this);
+        }
+    }
+
     public void setBoolean(final int parameterIndex, final boolean bool) throws SQLException {
         try {
             this.preparedStatement.setBoolean(parameterIndex, bool);
@@ -84,12 +102,35 @@ public class PreparedStatementWrapper implements AutoCloseable {
         return result;
     }
 
+    public void addBatch() throws SQLException {
+        try {
+            preparedStatement.addBatch();
+        } catch (SQLException e) {
+            handle(e, this);
+        }
+    }
+
+    public int[] executeBatch() throws SQLException {
+        int[] result = new int[0];
+        try {
+            result = preparedStatement.executeBatch();
+        } catch (SQLException e) {
+            handle(e, this);
+        }
+        return result;
+    }
+
     private PreparedStatementWrapper(final Connection connection, final PreparedStatement preparedStatement) {
         this.closeables.add(preparedStatement);
         this.closeables.add(connection);
         this.preparedStatement = preparedStatement;
     }
 
+    private PreparedStatementWrapper(final PreparedStatement preparedStatement, final AutoCloseable release) {
+        this.closeables.add(release);
+        this.preparedStatement = preparedStatement;
+    }
+
     private static void handle(final SQLException sqlEx, final AutoCloseable closeable) throws SQLException {
         try {
             closeable.close();
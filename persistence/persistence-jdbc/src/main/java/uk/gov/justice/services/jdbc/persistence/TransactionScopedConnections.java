@@ -0,0 +1,65 @@
+package uk.gov.justice.services.jdbc.persistence;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+import javax.transaction.Synchronization;
+
+/**
+ * The connections acquired during one JTA transaction, one per data source. Registered as an
+ * interposed synchronization of the transaction so that the connections are closed once it has
+ * completed.
+ */
+class TransactionScopedConnections implements Synchronization {
+
+    private final Map<DataSource, TransactionalConnection> connections = new HashMap<>();
+    private final JdbcConnectionMetrics jdbcConnectionMetrics;
+
+    TransactionScopedConnections(final JdbcConnectionMetrics jdbcConnectionMetrics) {
+        this.jdbcConnectionMetrics = jdbcConnectionMetrics;
+    }
+
+    TransactionalConnection connectionFor(final DataSource dataSource) throws SQLException {
+        TransactionalConnection connection = connections.get(dataSource);
+        if (connection == null) {
+            connection = new TransactionalConnection(dataSource.getConnection());
+            connections.put(dataSource, connection);
+        }
+        return connection;
+    }
+
+    @Override
+    public void beforeCompletion() {
+        // connections stay open until the transaction has completed
+    }
+
+    @Override
+    public void afterCompletion(final int status) {
+        int statementsBorrowed = 0;
+        int statementsPrepared = 0;
+        SQLException closeFailure = null;
+
+        for (final TransactionalConnection connection : connections.values()) {
+            statementsBorrowed += connection.statementsBorrowed();
+            statementsPrepared += connection.statementsPrepared();
+            try {
+                connection.close();
+            } catch (final SQLException e) {
+                if (closeFailure == null) {
+                    closeFailure = e;
+                } else {
+                    closeFailure.addSuppressed(e);
+                }
+            }
+        }
+
+        jdbcConnectionMetrics.recordTransaction(connections.size(), statementsBorrowed, statementsPrepared);
+        connections.clear();
+
+        if (closeFailure != null) {
+            throw new JdbcRepositoryException(closeFailure);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package uk.gov.justice.services.jdbc.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A connection held open for the whole of a JTA transaction, with a cache of its prepared
+ * statements keyed by SQL text.
+ *
+ * A statement is taken out of the cache while it is in use, so a query that is still being
+ * streamed is never re-executed by another repository call with the same SQL; such a call prepares
+ * a second statement instead. Instances are confined to the thread of their transaction.
+ */
+class TransactionalConnection {
+
+    private final Connection connection;
+    private final Map<String, PreparedStatement> idleStatements = new HashMap<>();
+
+    private boolean closed;
+    private int statementsBorrowed;
+    private int statementsPrepared;
+
+    TransactionalConnection(final Connection connection) {
+        this.connection = connection;
+    }
+
+    PreparedStatement borrowStatement(final String sql) throws SQLException {
+        statementsBorrowed++;
+        final PreparedStatement idleStatement = idleStatements.remove(sql);
+        if (idleStatement != null) {
+            return idleStatement;
+        }
+
+        statementsPrepared++;
+        return connection.prepareStatement(sql);
+    }
+
+    void returnStatement(final String sql, final PreparedStatement preparedStatement) throws SQLException {
+        if (closed || idleStatements.containsKey(sql)) {
+            preparedStatement.close();
+            return;
+        }
+
+        try {
+            preparedStatement.clearParameters();
+            preparedStatement.clearBatch();
+        } catch (final SQLException e) {
+            preparedStatement.close();
+            throw e;
+        }
+        idleStatements.put(sql, preparedStatement);
+    }
+
+    /**
+     * Closes the cached statements and the connection. Statements still in use are closed with
+     * the connection.
+     */
+    void close() throws SQLException {
+        closed = true;
+        try {
+            for (final PreparedStatement idleStatement : idleStatements.values()) {
+                idleStatement.close();
+            }
+        } finally {
+            idleStatements.clear();
+            connection.close();
+        }
+    }
+
+    int statementsBorrowed() {
+        return statementsBorrowed;
+    }
+
+    int statementsPrepared() {
+        return statementsPrepared;
+    }
+}
@@ -0,0 +1,47 @@
+package uk.gov.justice.services.jdbc.persistence;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+public class BoundedLruCacheTest {
+
+    @Test
+    public void shouldReturnCachedValue() throws Exception {
+        final BoundedLruCache<String, Long> cache = new BoundedLruCache<>(10);
+
+        cache.put("key", 5L);
+
+        assertThat(cache.get("key"), is(Optional.of(5L)));
+        assertThat(cache.get("other"), is(Optional.empty()));
+    }
+
+    @Test
+    public void shouldRemoveValue() throws Exception {
+        final BoundedLruCache<String, Long> cache = new BoundedLruCache<>(10);
+        cache.put("key", 5L);
+
+        cache.remove("key");
+
+        assertThat(cache.get("key"), is(Optional.empty()));
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntryWhenFull() throws Exception {
+        final BoundedLruCache<String, Long> cache = new BoundedLruCache<>(2);
+
+        cache.put("key1", 1L);
+        cache.put("key2", 2L);
+        cache.get("key1");
+        cache.put("key3", 3L);
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.get("key1"), is(Optional.of(1L)));
+        assertThat(cache.get("key2"), is(Optional.empty()));
+        assertThat(cache.get("key3"), is(Optional.of(3L)));
+    }
+}
@@ -0,0 +1,169 @@
+package uk.gov.justice.services.jdbc.persistence;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JdbcRepositoryHelperTest {
+
+    private static final String QUERY = "SELECT * FROM some_table WHERE id=?";
+    private static final String OTHER_QUERY = "UPDATE some_table SET value=? WHERE id=?";
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private PreparedStatement otherPreparedStatement;
+
+    private final Map<Object, Object> transactionResources = new HashMap<>();
+
+    private JdbcRepositoryHelper jdbcRepositoryHelper;
+
+    @Before
+    public void setup() throws Exception {
+        jdbcRepositoryHelper = new JdbcRepositoryHelper();
+        jdbcRepositoryHelper.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+        jdbcRepositoryHelper.jdbcConnectionMetrics = new JdbcConnectionMetrics();
+
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(QUERY)).thenReturn(preparedStatement, otherPreparedStatement);
+        when(connection.prepareStatement(OTHER_QUERY)).thenReturn(otherPreparedStatement);
+    }
+
+    @Test
+    public void shouldUseNewConnectionForEachStatementOutsideTransaction() throws Exception {
+        when(transactionSynchronizationRegistry.getTransactionKey()).thenReturn(null);
+
+        jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, QUERY).close();
+        jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, OTHER_QUERY).close();
+
+        verify(dataSource, times(2)).getConnection();
+        verify(preparedStatement).close();
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    public void shouldUseNewConnectionForEachStatementIfNoTransactionRegistryAvailable() throws Exception {
+        jdbcRepositoryHelper.transactionSynchronizationRegistry = null;
+
+        jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, QUERY).close();
+        jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, OTHER_QUERY).close();
+
+        verify(dataSource, times(2)).getConnection();
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    public void shouldReuseConnectionAndStatementsWithinTransaction() throws Exception {
+        givenActiveTransaction();
+
+        jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, QUERY).close();
+        jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, OTHER_QUERY).close();
+        jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, QUERY).close();
+
+        verify(dataSource).getConnection();
+        verify(connection).prepareStatement(QUERY);
+        verify(connection).prepareStatement(OTHER_QUERY);
+        verify(preparedStatement, times(2)).clearParameters();
+        verify(preparedStatement, never()).close();
+        verify(connection, never()).close();
+    }
+
+    @Test
+    public void shouldPrepareSecondStatementIfSameQueryIsStillInUse() throws Exception {
+        givenActiveTransaction();
+        final ResultSet resultSet = mock(ResultSet.class);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        final PreparedStatementWrapper streamingStatement = jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, QUERY);
+        streamingStatement.executeQuery();
+        jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, QUERY).close();
+        streamingStatement.close();
+
+        verify(connection, times(2)).prepareStatement(QUERY);
+        verify(resultSet).close();
+        verify(preparedStatement).close();
+        verify(otherPreparedStatement, never()).close();
+    }
+
+    @Test
+    public void shouldCloseStatementsAndConnectionAndRecordMetricsWhenTransactionCompletes() throws Exception {
+        givenActiveTransaction();
+
+        jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, QUERY).close();
+        jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, QUERY).close();
+        jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, OTHER_QUERY).close();
+
+        registeredSynchronization().afterCompletion(Status.STATUS_COMMITTED);
+
+        verify(preparedStatement).close();
+        verify(otherPreparedStatement).close();
+        verify(connection).close();
+
+        final JdbcConnectionMetrics metrics = jdbcRepositoryHelper.jdbcConnectionMetrics;
+        assertThat(metrics.getTransactionCount(), is(1L));
+        assertThat(metrics.getConnectionAcquisitions(), is(1L));
+        assertThat(metrics.getLastTransactionConnectionAcquisitions(), is(1L));
+        assertThat(metrics.getStatementExecutions(), is(3L));
+        assertThat(metrics.getStatementPreparations(), is(2L));
+    }
+
+    @Test
+    public void shouldNotReuseConnectionOnceTransactionIsMarkedForRollback() throws Exception {
+        when(transactionSynchronizationRegistry.getTransactionKey()).thenReturn(new Object());
+        when(transactionSynchronizationRegistry.getTransactionStatus()).thenReturn(Status.STATUS_MARKED_ROLLBACK);
+
+        jdbcRepositoryHelper.preparedStatementWrapperOf(dataSource, QUERY).close();
+
+        verify(connection).close();
+        verify(transactionSynchronizationRegistry, never()).registerInterposedSynchronization(any(Synchronization.class));
+    }
+
+    private void givenActiveTransaction() {
+        when(transactionSynchronizationRegistry.getTransactionKey()).thenReturn(new Object());
+        when(transactionSynchronizationRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+        when(transactionSynchronizationRegistry.getResource(any())).thenAnswer(invocation -> transactionResources.get(invocation.getArguments()[0]));
+        doAnswer(invocation -> transactionResources.put(invocation.getArguments()[0], invocation.getArguments()[1]))
+                .when(transactionSynchronizationRegistry).putResource(any(), any());
+    }
+
+    private Synchronization registeredSynchronization() {
+        final ArgumentCaptor<Synchronization> synchronizationCaptor = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionSynchronizationRegistry).registerInterposedSynchronization(synchronizationCaptor.capture());
+        return synchronizationCaptor.getValue();
+    }
+}
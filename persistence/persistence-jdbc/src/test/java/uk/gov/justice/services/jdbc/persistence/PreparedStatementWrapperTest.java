@@ -129,6 +129,18 @@ public class PreparedStatementWrapperTest {
         verify(preparedStatement).setBoolean(parameterIndex, bool);
     }
 
+    @Test
+    public void shouldDelegateSetBytesMethodCall() throws SQLException {
+        final String query = "dummy";
+        when(connection.prepareStatement(query)).thenReturn(preparedStatement);
+        final PreparedStatementWrapper ps = PreparedStatementWrapper.valueOf(connection, query);
+        final int parameterIndex = 4;
+        final byte[] bytes = "aaa".getBytes();
+        ps.setBytes(parameterIndex, bytes);
+
+        verify(preparedStatement).setBytes(parameterIndex, bytes);
+    }
+
     @Test
     public void shouldDelegateSetTimestampMethodCall() throws SQLException {
         final String query = "dummy";
@@ -152,6 +164,44 @@ public class PreparedStatementWrapperTest {
         assertThat(ps.executeUpdate(), is(4));
     }
 
+    @Test
+    public void shouldDelegateAddBatchMethodCall() throws SQLException {
+        final String query = "dummy";
+        when(connection.prepareStatement(query)).thenReturn(preparedStatement);
+        final PreparedStatementWrapper ps = PreparedStatementWrapper.valueOf(connection, query);
+        ps.addBatch();
+
+        verify(preparedStatement).addBatch();
+    }
+
+    @Test
+    public void shouldDelegateExecuteBatchMethodCall() throws SQLException {
+        final String query = "someQuery4";
+        final int[] updateCounts = {1, 0, 1};
+        when(connection.prepareStatement(query)).thenReturn(preparedStatement);
+        when(preparedStatement.executeBatch()).thenReturn(updateCounts);
+
+        final PreparedStatementWrapper ps = PreparedStatementWrapper.valueOf(connection, query);
+        assertThat(ps.executeBatch(), is(updateCounts));
+    }
+
+    @Test
+    public void shouldCloseStatementAndConnectionOnExceptionOnExecuteBatch() throws SQLException {
+        final String query = "dummy";
+        when(connection.prepareStatement(query)).thenReturn(preparedStatement);
+        when(preparedStatement.executeBatch()).thenThrow(new SQLException());
+        final PreparedStatementWrapper ps = PreparedStatementWrapper.valueOf(connection, query);
+        try {
+            ps.executeBatch();
+        } catch (Exception e) {
+
+        }
+
+        final InOrder inOrder = inOrder(preparedStatement, connection);
+        inOrder.verify(preparedStatement).close();
+        inOrder.verify(connection).close();
+    }
+
     @Test
     public void shouldCloseStatementAndConnectionOnExceptionOnSetObject() throws SQLException {
         final String query = "dummy";